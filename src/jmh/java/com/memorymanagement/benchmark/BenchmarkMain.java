@@ -0,0 +1,46 @@
+package com.memorymanagement.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * 基准测试入口
+ * 接受JMH的全部命令行参数，并总是启用GC分析器，结果中的gc.alloc.rate.norm即每次操作分配的字节数。
+ * 没有指定要运行的基准测试时运行本包中的全部基准测试。
+ * 与JMH自带的入口一样，-h、-l、-lp、-lprof和-lrf只输出帮助或列表，不运行基准测试
+ *
+ * 例如只测可变分区在10万个分区下的分配/释放吞吐量：
+ * java -jar target/OperatingSystem-1.0-SNAPSHOT-jar-with-dependencies.jar allocateRelease -p manager=dynamic -p partitionCount=100000
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkMain.class.getPackage().getName() + ".*");
+        }
+        Runner runner = new Runner(options.build());
+
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+        } else if (commandLine.shouldList()) {
+            runner.list();
+        } else if (commandLine.shouldListWithParams()) {
+            runner.listWithParams(commandLine);
+        } else if (commandLine.shouldListProfilers()) {
+            commandLine.listProfilers();
+        } else if (commandLine.shouldListResultFormats()) {
+            commandLine.listResultFormats();
+        } else {
+            runner.run();
+        }
+    }
+}
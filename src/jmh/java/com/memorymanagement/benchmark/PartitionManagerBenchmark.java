@@ -0,0 +1,145 @@
+package com.memorymanagement.benchmark;
+
+import com.memorymanagement.model.Partition;
+import com.memorymanagement.service.DynamicPartitionManager;
+import com.memorymanagement.service.FixedPartitionManager;
+import com.memorymanagement.service.MemoryManager;
+import com.memorymanagement.service.PlacementPolicy;
+import com.memorymanagement.trace.TraceEvent;
+import com.memorymanagement.trace.TraceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 固定分区和可变分区管理器的基准测试
+ * 在稳定状态下测量分配/释放的吞吐量和getMemoryStatus()的开销，配合GC分析器报告每次操作分配的字节数
+ *
+ * 参数：
+ * - manager：fixed（固定分区，首次适应）或dynamic（可变分区，首次适应）
+ * - partitionCount：固定分区的分区数；可变分区的存活作业数为其一半，空洞与作业交错时分区总数与之相当
+ * - sizeDistribution：申请大小的分布（见TraceGenerator.SizeDistribution），范围为256~8K
+ * - fragmentation：heavy为随机选择被替换的作业，空洞散布在整个内存中；
+ *   light为按先进先出顺序替换作业，空闲空间集中在少数几段
+ *
+ * 两种管理器的总内存相同，都等于按同一分布生成的partitionCount个大小之和，存活作业约占一半
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartitionManagerBenchmark {
+    private static final long OS_SIZE = 4 * 1024;
+    private static final long MIN_SIZE = 256;
+    private static final long MAX_SIZE = 8 * 1024;
+    // 预先生成的申请大小和被替换作业的数量（2的幂，按位与取下标）
+    private static final int OPERATION_COUNT = 1 << 16;
+
+    @Param({"fixed", "dynamic"})
+    public String manager;
+
+    @Param({"1000", "100000"})
+    public int partitionCount;
+
+    @Param({"UNIFORM", "EXPONENTIAL", "LOG_UNIFORM"})
+    public String sizeDistribution;
+
+    @Param({"light", "heavy"})
+    public String fragmentation;
+
+    private MemoryManager memoryManager;
+    private String[] jobNames;          // 每个作业槽位的作业名称
+    private boolean[] live;             // 作业槽位当前是否已分配
+    private long[] sizes;               // 每次操作的申请大小
+    private int[] victims;              // 每次操作替换的作业槽位
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TraceGenerator.SizeDistribution distribution = TraceGenerator.SizeDistribution.valueOf(sizeDistribution);
+        long[] layout = generateSizes(partitionCount, distribution, 1);
+        long totalMemory = OS_SIZE;
+        for (long size : layout) {
+            totalMemory += size;
+        }
+        memoryManager = "fixed".equals(manager)
+                ? new FixedPartitionManager(totalMemory, OS_SIZE, layout, PlacementPolicy.FIRST_FIT)
+                : new DynamicPartitionManager(totalMemory, OS_SIZE, PlacementPolicy.FIRST_FIT);
+
+        int slots = Math.max(1, partitionCount / 2);
+        jobNames = new String[slots];
+        live = new boolean[slots];
+        long[] initialSizes = generateSizes(slots, distribution, 2);
+        for (int i = 0; i < slots; i++) {
+            jobNames[i] = "J" + i;
+            live[i] = memoryManager.allocateMemory(jobNames[i], initialSizes[i]);
+        }
+
+        sizes = generateSizes(OPERATION_COUNT, distribution, 3);
+        victims = new int[OPERATION_COUNT];
+        Random random = new Random(4);
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            victims[i] = "heavy".equals(fragmentation) ? random.nextInt(slots) : i % slots;
+        }
+        // 先按替换顺序运行一轮，使空闲分区的分布进入稳定状态
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            allocateRelease();
+        }
+    }
+
+    /**
+     * 使用轨迹生成器的大小分布生成count个申请大小
+     */
+    private static long[] generateSizes(int count, TraceGenerator.SizeDistribution distribution, long seed) {
+        TraceGenerator generator = new TraceGenerator(seed);
+        generator.setAllocationCount(count);
+        generator.setSizeRange(MIN_SIZE, MAX_SIZE);
+        generator.setSizeDistribution(distribution);
+        long[] result = new long[count];
+        int index = 0;
+        for (TraceEvent event : generator) {
+            if (event.getType() == TraceEvent.Type.ALLOC) {
+                result[index++] = event.getSize();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 释放一个存活的作业，再以新的申请大小为同一槽位分配，一次操作包含一次释放和一次分配
+     * @return 分配是否成功
+     */
+    @Benchmark
+    public boolean allocateRelease() {
+        int index = cursor++ & (OPERATION_COUNT - 1);
+        int slot = victims[index];
+        if (live[slot]) {
+            memoryManager.releaseMemory(jobNames[slot]);
+        }
+        live[slot] = memoryManager.allocateMemory(jobNames[slot], sizes[index]);
+        return live[slot];
+    }
+
+    /**
+     * 获取全部分区，即GUI每次全量刷新的开销
+     */
+    @Benchmark
+    public List<Partition> getMemoryStatus() {
+        return memoryManager.getMemoryStatus();
+    }
+}
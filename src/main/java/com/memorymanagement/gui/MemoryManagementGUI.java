@@ -15,12 +15,12 @@ import java.util.List;
  * 功能：
  * 1. 支持固定分区和可变分区两种管理方式的切换
  * 2. 提供内存分配和释放的操作界面
- * 3. 实时显示内存使用状态
+ * 3. 实时显示内存使用状态，支持分区变化通知的内存管理器只刷新发生变化的表格行
  * 4. 提供操作日志记录
  * 
  * 界面组件：
  * - 顶部：控制面板（分区类型选择、作业信息输入、操作按钮）
- * - 中部：内存状态表格（显示分区信息）
+ * - 中部：内存状态表格（显示分区信息）和内存统计信息
  * - 底部：日志区域（显示操作记录）
  */
 public class MemoryManagementGUI extends JFrame {
@@ -38,6 +38,12 @@ public class MemoryManagementGUI extends JFrame {
     private JTextField sizeField;
     // 分区类型选择下拉框
     private JComboBox<String> partitionTypeCombo;
+    // 显示内存统计信息的标签
+    private JLabel statisticsLabel;
+    // 分区变化监听器，只替换表格中发生变化的地址范围对应的行
+    private final PartitionListener tableUpdater = this::updateMemoryRows;
+    // 当前内存管理器是否支持分区变化通知
+    private boolean incrementalUpdate;
 
     /**
      * 构造函数
@@ -60,7 +66,11 @@ public class MemoryManagementGUI extends JFrame {
         // 创建内存表格
         createMemoryTable();
         JScrollPane tableScrollPane = new JScrollPane(memoryTable);
-        mainPanel.add(tableScrollPane, BorderLayout.CENTER);
+        statisticsLabel = new JLabel();
+        JPanel centerPanel = new JPanel(new BorderLayout(5, 5));
+        centerPanel.add(tableScrollPane, BorderLayout.CENTER);
+        centerPanel.add(statisticsLabel, BorderLayout.SOUTH);
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
 
         // 创建日志区域
         createLogArea();
@@ -71,8 +81,7 @@ public class MemoryManagementGUI extends JFrame {
         add(mainPanel);
 
         // 初始化为固定分区
-        memoryManager = new FixedPartitionManager();
-        updateMemoryTable();
+        setMemoryManager(new FixedPartitionManager());
     }
 
     /**
@@ -85,14 +94,42 @@ public class MemoryManagementGUI extends JFrame {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
         
         // 分区类型选择
-        partitionTypeCombo = new JComboBox<>(new String[]{"固定分区", "可变分区"});
+        partitionTypeCombo = new JComboBox<>(new String[]{
+                "固定分区", "可变分区", "可变分区(最佳适应)", "可变分区(最坏适应)", "可变分区(循环首次适应)", "伙伴系统",
+                "固定分区(最佳适应)", "TLSF", "分页", "NUMA(本地优先)"});
         partitionTypeCombo.addActionListener(e -> {
-            if (partitionTypeCombo.getSelectedIndex() == 0) {
-                memoryManager = new FixedPartitionManager();
-            } else {
-                memoryManager = new DynamicPartitionManager();
+            switch (partitionTypeCombo.getSelectedIndex()) {
+                case 0:
+                    setMemoryManager(new FixedPartitionManager());
+                    break;
+                case 2:
+                    setMemoryManager(new DynamicPartitionManager(PlacementPolicy.BEST_FIT));
+                    break;
+                case 3:
+                    setMemoryManager(new DynamicPartitionManager(PlacementPolicy.WORST_FIT));
+                    break;
+                case 4:
+                    setMemoryManager(new DynamicPartitionManager(PlacementPolicy.NEXT_FIT));
+                    break;
+                case 5:
+                    setMemoryManager(new BuddyMemoryManager());
+                    break;
+                case 6:
+                    setMemoryManager(new FixedPartitionManager(PlacementPolicy.BEST_FIT));
+                    break;
+                case 7:
+                    setMemoryManager(new TlsfMemoryManager());
+                    break;
+                case 8:
+                    setMemoryManager(new PagedMemoryManager());
+                    break;
+                case 9:
+                    setMemoryManager(new NumaMemoryManager());
+                    break;
+                default:
+                    setMemoryManager(new DynamicPartitionManager());
+                    break;
             }
-            updateMemoryTable();
         });
         panel.add(new JLabel("分区类型:"));
         panel.add(partitionTypeCombo);
@@ -134,6 +171,25 @@ public class MemoryManagementGUI extends JFrame {
         };
         memoryTable = new JTable(tableModel);
         memoryTable.getTableHeader().setReorderingAllowed(false);
+        for (int i = 0; i < memoryTable.getColumnCount(); i++) {
+            memoryTable.getColumnModel().getColumn(i).setPreferredWidth(150);
+        }
+        memoryTable.setRowHeight(25);
+    }
+
+    /**
+     * 切换内存管理器
+     * 从旧的内存管理器上注销监听器，在新的内存管理器上注册监听器并显示全部分区
+     *
+     * @param manager 新的内存管理器
+     */
+    private void setMemoryManager(MemoryManager manager) {
+        if (memoryManager != null) {
+            memoryManager.removePartitionListener(tableUpdater);
+        }
+        memoryManager = manager;
+        incrementalUpdate = manager.addPartitionListener(tableUpdater);
+        updateMemoryTable();
     }
 
     /**
@@ -164,16 +220,18 @@ public class MemoryManagementGUI extends JFrame {
                 return;
             }
 
-            int size = (int)(Double.parseDouble(sizeStr) * 1024); // 转换为字节
+            long size = (long)(Double.parseDouble(sizeStr) * 1024); // 转换为字节
             boolean success = memoryManager.allocateMemory(jobName, size);
             
             if (success) {
                 log("成功：为作业 " + jobName + " 分配 " + sizeStr + "K 内存");
+            } else if (memoryManager.getAllocatedPartition(jobName) != null) {
+                log("失败：作业 " + jobName + " 已经分配了内存");
             } else {
                 log("失败：无法为作业 " + jobName + " 分配 " + sizeStr + "K 内存");
             }
             
-            updateMemoryTable();
+            refreshAfterOperation();
         } catch (NumberFormatException e) {
             log("错误：请输入有效的内存大小");
         }
@@ -197,7 +255,19 @@ public class MemoryManagementGUI extends JFrame {
             log("失败：未找到作业 " + jobName + " 的内存");
         }
         
-        updateMemoryTable();
+        refreshAfterOperation();
+    }
+
+    /**
+     * 分配或释放操作后刷新界面
+     * 支持分区变化通知时表格行已由监听器更新，只需刷新统计信息
+     */
+    private void refreshAfterOperation() {
+        if (incrementalUpdate) {
+            updateStatistics();
+        } else {
+            updateMemoryTable();
+        }
     }
 
     /**
@@ -211,25 +281,74 @@ public class MemoryManagementGUI extends JFrame {
         // 获取内存状态并更新表格
         List<Partition> partitions = memoryManager.getMemoryStatus();
         for (Partition partition : partitions) {
-            Object[] rowData = new Object[4];
-            rowData[0] = partition.getStartAddress();
-            rowData[1] = partition.getSize();
-            rowData[2] = partition.getStatus();
-            
-            if (partition instanceof AllocatedPartition) {
-                rowData[3] = ((AllocatedPartition) partition).getJobName();
+            tableModel.addRow(toRowData(partition));
+        }
+        updateStatistics();
+    }
+
+    /**
+     * 替换表格中地址范围[from, to)对应的行
+     * 表格行按起始地址排序，二分查找定位范围后删除旧行，再插入该范围内的新分区
+     *
+     * @param from 起始地址（包含）
+     * @param to 结束地址（不包含）
+     */
+    private void updateMemoryRows(long from, long to) {
+        int first = findRow(from);
+        int last = findRow(to);
+        for (int row = last - 1; row >= first; row--) {
+            tableModel.removeRow(row);
+        }
+        int row = first;
+        for (Partition partition : memoryManager.getPartitions(from, to)) {
+            tableModel.insertRow(row++, toRowData(partition));
+        }
+    }
+
+    /**
+     * 查找第一个起始地址不小于address的表格行
+     * @return 行号，所有行的起始地址都小于address时返回行数
+     */
+    private int findRow(long address) {
+        int low = 0;
+        int high = tableModel.getRowCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if ((Long) tableModel.getValueAt(mid, 0) < address) {
+                low = mid + 1;
             } else {
-                rowData[3] = "-";
+                high = mid;
             }
-            
-            tableModel.addRow(rowData);
         }
+        return low;
+    }
+
+    /**
+     * 把分区转换为表格行
+     */
+    private Object[] toRowData(Partition partition) {
+        Object[] rowData = new Object[4];
+        rowData[0] = partition.getStartAddress();
+        rowData[1] = partition.getSize();
+        rowData[2] = partition.getStatus();
         
-        // 更新表格外观
-        for (int i = 0; i < memoryTable.getColumnCount(); i++) {
-            memoryTable.getColumnModel().getColumn(i).setPreferredWidth(150);
+        if (partition instanceof AllocatedPartition) {
+            rowData[3] = ((AllocatedPartition) partition).getJobName();
+        } else {
+            rowData[3] = "-";
         }
-        memoryTable.setRowHeight(25);
+        return rowData;
+    }
+
+    /**
+     * 更新统计信息标签
+     */
+    private void updateStatistics() {
+        MemoryStatistics statistics = memoryManager.getStatistics();
+        statisticsLabel.setText(String.format("空闲 %dK，已分配 %dK，最大空闲分区 %dK，空闲分区 %d 个，外部碎片率 %.1f%%，内部碎片率 %.1f%%",
+                statistics.getFreeBytes() / 1024, statistics.getUsedBytes() / 1024,
+                statistics.getLargestFreeBlock() / 1024, statistics.getFreeBlockCount(),
+                statistics.getExternalFragmentation() * 100, statistics.getInternalFragmentation() * 100));
     }
 
     /**
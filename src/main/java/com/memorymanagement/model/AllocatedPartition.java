@@ -27,17 +27,37 @@ public class AllocatedPartition extends Partition {
      */
     private String jobName;
 
+    /**
+     * 作业实际申请的空间大小
+     * 不超过分区大小，两者之差即为该分区的内部碎片
+     */
+    private long requestedSize;
+
     /**
      * 构造函数
-     * 创建一个新的已分配分区对象
+     * 创建一个新的已分配分区对象，作业申请的大小等于分区大小
      * 
      * @param startAddress 分区的起始地址，从父类继承
      * @param size 分区的大小（单位：字节），从父类继承
      * @param jobName 占用此分区的作业名称，必须是唯一的标识符
      */
-    public AllocatedPartition(int startAddress, int size, String jobName) {
+    public AllocatedPartition(long startAddress, long size, String jobName) {
+        this(startAddress, size, jobName, size);
+    }
+
+    /**
+     * 构造函数
+     * 创建一个新的已分配分区对象，用于分区大于作业申请量的情况（如固定分区、伙伴系统）
+     *
+     * @param startAddress 分区的起始地址
+     * @param size 分区的大小（单位：字节）
+     * @param jobName 占用此分区的作业名称
+     * @param requestedSize 作业实际申请的空间大小
+     */
+    public AllocatedPartition(long startAddress, long size, String jobName, long requestedSize) {
         super(startAddress, size);
         this.jobName = jobName;
+        this.requestedSize = requestedSize;
     }
 
     /**
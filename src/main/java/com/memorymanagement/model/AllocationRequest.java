@@ -0,0 +1,28 @@
+package com.memorymanagement.model;
+
+import lombok.Getter;
+
+/**
+ * 分配请求类
+ * 批量分配（MemoryManager.allocateAll）中的一项：为作业申请指定大小的内存
+ */
+@Getter
+public class AllocationRequest {
+    private final String jobName;   // 作业名称
+    private final long size;        // 申请的空间大小
+
+    /**
+     * 构造函数
+     * @param jobName 作业名称
+     * @param size 申请的空间大小
+     */
+    public AllocationRequest(String jobName, long size) {
+        this.jobName = jobName;
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("作业: %s, 大小: %d", jobName, size);
+    }
+}
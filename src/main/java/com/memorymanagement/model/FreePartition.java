@@ -28,7 +28,7 @@ public class FreePartition extends Partition {
      * @param startAddress 分区的起始地址，从父类继承
      * @param size 分区的大小（单位：字节），从父类继承
      */
-    public FreePartition(int startAddress, int size) {
+    public FreePartition(long startAddress, long size) {
         super(startAddress, size);
     }
 
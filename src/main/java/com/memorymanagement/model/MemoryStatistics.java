@@ -0,0 +1,84 @@
+package com.memorymanagement.model;
+
+import lombok.Getter;
+
+/**
+ * 内存统计信息类
+ * 内存管理器在某一时刻的使用情况快照，由内存管理器在分配和释放时增量维护，获取开销为O(1)
+ *
+ * 字节数的含义：
+ * - usedBytes：已分配分区的总大小
+ * - requestedBytes：作业实际申请的总大小，与usedBytes之差即为内部碎片
+ * - freeBytes：空闲分区的总大小（不包括操作系统区域和未划分的空间）
+ */
+@Getter
+public class MemoryStatistics {
+    private final long freeBytes;           // 空闲空间总量
+    private final long usedBytes;           // 已分配分区的总大小
+    private final long requestedBytes;      // 作业实际申请的总大小
+    private final long largestFreeBlock;    // 最大空闲分区的大小
+    private final int freeBlockCount;       // 空闲分区数量
+    private final int allocatedCount;       // 已分配分区数量
+
+    /**
+     * 构造函数
+     * @param freeBytes 空闲空间总量
+     * @param usedBytes 已分配分区的总大小
+     * @param requestedBytes 作业实际申请的总大小
+     * @param largestFreeBlock 最大空闲分区的大小
+     * @param freeBlockCount 空闲分区数量
+     * @param allocatedCount 已分配分区数量
+     */
+    public MemoryStatistics(long freeBytes, long usedBytes, long requestedBytes,
+                            long largestFreeBlock, int freeBlockCount, int allocatedCount) {
+        this.freeBytes = freeBytes;
+        this.usedBytes = usedBytes;
+        this.requestedBytes = requestedBytes;
+        this.largestFreeBlock = largestFreeBlock;
+        this.freeBlockCount = freeBlockCount;
+        this.allocatedCount = allocatedCount;
+    }
+
+    /**
+     * 获取外部碎片率
+     * 即不属于最大空闲分区的空闲空间占全部空闲空间的比例，0表示空闲空间完全连续
+     *
+     * @return 0到1之间的碎片率，没有空闲空间时返回0
+     */
+    public double getExternalFragmentation() {
+        return freeBytes == 0 ? 0.0 : 1.0 - (double) largestFreeBlock / freeBytes;
+    }
+
+    /**
+     * 获取内部碎片大小，即已分配分区中超出作业申请量的部分
+     * @return 内部碎片的字节数
+     */
+    public long getInternalFragmentationBytes() {
+        return usedBytes - requestedBytes;
+    }
+
+    /**
+     * 获取内部碎片率
+     * @return 内部碎片占已分配分区总大小的比例，没有已分配分区时返回0
+     */
+    public double getInternalFragmentation() {
+        return usedBytes == 0 ? 0.0 : (double) (usedBytes - requestedBytes) / usedBytes;
+    }
+
+    /**
+     * 获取内存利用率
+     * @return 作业实际申请的空间占可分配空间（已分配加空闲）的比例，可分配空间为0时返回0
+     */
+    public double getUtilization() {
+        long capacity = usedBytes + freeBytes;
+        return capacity == 0 ? 0.0 : (double) requestedBytes / capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("空闲: %d, 已分配: %d, 实际申请: %d, 最大空闲分区: %d, 空闲分区数: %d, 已分配分区数: %d, "
+                        + "外部碎片率: %.2f%%, 内部碎片率: %.2f%%",
+                freeBytes, usedBytes, requestedBytes, largestFreeBlock, freeBlockCount, allocatedCount,
+                getExternalFragmentation() * 100, getInternalFragmentation() * 100);
+    }
+}
@@ -16,6 +16,7 @@ import lombok.Setter;
  * - 使用抽象类而不是接口，因为需要共享基本属性的实现
  * - 使用protected访问级别允许子类直接访问属性
  * - 使用Lombok简化getter/setter方法的编写
+ * - 地址和大小使用long，模拟GB级内存时不会溢出
  */
 @Setter
 @Getter
@@ -25,14 +26,14 @@ public abstract class Partition {
      * - 对于已分配分区，表示分配给作业的内存起始位置
      * - 对于空闲分区，表示可用内存的起始位置
      */
-    protected int startAddress;
+    protected long startAddress;
 
     /**
      * 分区的大小（单位：字节）
      * - 对于已分配分区，表示分配给作业的内存大小
      * - 对于空闲分区，表示可用于分配的内存大小
      */
-    protected int size;
+    protected long size;
 
     /**
      * 构造函数
@@ -41,7 +42,7 @@ public abstract class Partition {
      * @param startAddress 分区的起始地址，必须大于等于操作系统占用的空间
      * @param size 分区的大小，必须为正数
      */
-    public Partition(int startAddress, int size) {
+    public Partition(long startAddress, long size) {
         this.startAddress = startAddress;
         this.size = size;
     }
@@ -0,0 +1,28 @@
+package com.memorymanagement.service;
+
+/**
+ * 作业准入策略枚举类
+ * 定义了内存不足时等待中的作业在内存释放后按什么顺序获得内存（见AdmissionQueue）
+ */
+public enum AdmissionPolicy {
+    /**
+     * 先来先服务(FIFO)
+     * - 按到达顺序准入，队首作业放不下时后面的作业也必须等待
+     * - 不会饥饿，但一个大作业会阻塞所有后来的小作业
+     */
+    FIFO,
+
+    /**
+     * 最小作业优先(Smallest First)
+     * - 优先准入申请空间最小的作业
+     * - 内存利用率和吞吐量高，但大作业可能长期得不到内存（饥饿）
+     */
+    SMALLEST_FIRST,
+
+    /**
+     * 老化(Aging)
+     * - 平时按最小作业优先准入
+     * - 等待最久的作业等待时间超过老化阈值后，暂停准入其他作业，释放的内存留给它合并使用，避免饥饿
+     */
+    AGING
+}
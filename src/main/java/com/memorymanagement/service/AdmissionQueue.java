@@ -0,0 +1,375 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.FreePartition;
+import com.memorymanagement.model.MemoryStatistics;
+import com.memorymanagement.model.Partition;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * 作业准入队列
+ * 在内存管理器之上增加基于内存的准入控制：内存不足时作业不会被丢弃，而是进入等待队列，
+ * 每次通过本队列释放内存后，按准入策略为等待中的作业重新分配
+ *
+ * 重试过程：
+ * 1. 等待中的作业在释放前都放不进任何空闲分区，释放后只有新合并出的空闲分区可能放得下它们
+ * 2. 内存管理器支持分区变化通知时，取释放所通知的地址范围内最大的空闲分区作为上限；
+ *    否则以当前最大的空闲分区作为上限
+ * 3. 等待作业同时按申请大小排序，只查找申请大小不超过上限的作业
+ * 4. 按策略选出的作业分配失败时，其他候选作业（更大或排在后面）也不会成功，本轮重试结束
+ *
+ * 统计信息：准入、排队和拒绝的作业数，排队延迟的平均值和最大值，以及等待超过饥饿阈值的作业数
+ *
+ * 注意：准入队列管理的作业必须通过本队列释放，直接调用内存管理器释放不会触发重试
+ */
+public class AdmissionQueue {
+    // 默认老化阈值（0.5秒，单位为时钟的时间单位，默认时钟为纳秒）
+    public static final long DEFAULT_AGING_THRESHOLD = 500_000_000L;
+    // 默认饥饿阈值（1秒）
+    public static final long DEFAULT_STARVATION_THRESHOLD = 1_000_000_000L;
+
+    /**
+     * 等待中的作业
+     */
+    private static final class PendingJob {
+        final String jobName;
+        final long size;
+        final long arrivalTime;     // 进入队列的时间
+        final long sequence;        // 到达序号，申请大小相同时按到达顺序排列
+
+        PendingJob(String jobName, long size, long arrivalTime, long sequence) {
+            this.jobName = jobName;
+            this.size = size;
+            this.arrivalTime = arrivalTime;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<PendingJob> BY_SIZE =
+            Comparator.<PendingJob>comparingLong(job -> job.size).thenComparingLong(job -> job.sequence);
+
+    @Getter
+    private final MemoryManager manager;
+    @Getter
+    private final AdmissionPolicy policy;
+    private final LongSupplier clock;
+    private final Map<String, PendingJob> pending;      // 等待中的作业（保持到达顺序）
+    private final TreeSet<PendingJob> pendingBySize;    // 等待中的作业（按申请大小排序）
+    private final boolean rangeNotified;                // 内存管理器是否支持分区变化通知
+    private long sequence;
+
+    // 正在释放时记录内存管理器通知的变化范围
+    private boolean capturing;
+    private long changedFrom;
+    private long changedTo;
+
+    // 老化阈值和饥饿阈值
+    @Getter
+    private long agingThreshold = DEFAULT_AGING_THRESHOLD;
+    @Getter
+    private long starvationThreshold = DEFAULT_STARVATION_THRESHOLD;
+
+    // 统计：直接准入、排队后准入、拒绝和取消的作业数
+    @Getter
+    private long immediateCount;
+    @Getter
+    private long queuedAdmittedCount;
+    @Getter
+    private long rejectedCount;
+    @Getter
+    private long cancelledCount;
+    // 排队后准入的作业中等待超过饥饿阈值的作业数
+    @Getter
+    private long starvedCount;
+    // 排队延迟的总和与最大值（只统计排队后准入的作业）
+    private long totalDelay;
+    @Getter
+    private long maxDelay;
+
+    /**
+     * 使用System.nanoTime()作为时钟的构造函数
+     *
+     * @param manager 内存管理器
+     * @param policy 准入策略
+     */
+    public AdmissionQueue(MemoryManager manager, AdmissionPolicy policy) {
+        this(manager, policy, System::nanoTime);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param manager 内存管理器
+     * @param policy 准入策略
+     * @param clock 时钟，排队延迟、老化阈值和饥饿阈值都使用它的时间单位
+     * @throws IllegalArgumentException 参数为null时抛出
+     */
+    public AdmissionQueue(MemoryManager manager, AdmissionPolicy policy, LongSupplier clock) {
+        if (manager == null || policy == null || clock == null) {
+            throw new IllegalArgumentException("内存管理器、准入策略和时钟不能为空");
+        }
+        this.manager = manager;
+        this.policy = policy;
+        this.clock = clock;
+        this.pending = new LinkedHashMap<>();
+        this.pendingBySize = new TreeSet<>(BY_SIZE);
+        this.rangeNotified = manager.addPartitionListener(this::recordChange);
+    }
+
+    private void recordChange(long from, long to) {
+        if (capturing) {
+            changedFrom = Math.min(changedFrom, from);
+            changedTo = Math.max(changedTo, to);
+        }
+    }
+
+    /**
+     * 设置老化阈值
+     * @param agingThreshold 老化阈值，必须为正数
+     * @throws IllegalArgumentException 阈值不是正数时抛出
+     */
+    public void setAgingThreshold(long agingThreshold) {
+        if (agingThreshold <= 0) {
+            throw new IllegalArgumentException("老化阈值必须为正数: " + agingThreshold);
+        }
+        this.agingThreshold = agingThreshold;
+    }
+
+    /**
+     * 设置饥饿阈值，等待超过该时间的作业被视为饥饿
+     * @param starvationThreshold 饥饿阈值，必须为正数
+     * @throws IllegalArgumentException 阈值不是正数时抛出
+     */
+    public void setStarvationThreshold(long starvationThreshold) {
+        if (starvationThreshold <= 0) {
+            throw new IllegalArgumentException("饥饿阈值必须为正数: " + starvationThreshold);
+        }
+        this.starvationThreshold = starvationThreshold;
+    }
+
+    /**
+     * 提交作业
+     * 能立即分配时直接准入，否则进入等待队列。
+     * FIFO策略下已有作业在等待时新作业直接排队，老化策略下有作业超过老化阈值时同样直接排队
+     *
+     * @param jobName 作业名称，不能与已分配或正在等待的作业重名
+     * @param size 申请的空间大小
+     * @return 作业已准入或已进入等待队列时返回true；参数不合法、重名或申请大小超过全部用户内存时返回false
+     */
+    public boolean submit(String jobName, long size) {
+        if (size <= 0 || pending.containsKey(jobName) || manager.getAllocatedPartition(jobName) != null) {
+            rejectedCount++;
+            return false;
+        }
+        long now = clock.getAsLong();
+        if (!mustQueue(now) && manager.allocateMemory(jobName, size)) {
+            immediateCount++;
+            return true;
+        }
+        MemoryStatistics statistics = manager.getStatistics();
+        if (size > statistics.getFreeBytes() + statistics.getUsedBytes()) {
+            // 即使释放全部内存也放不下
+            rejectedCount++;
+            return false;
+        }
+        PendingJob job = new PendingJob(jobName, size, now, sequence++);
+        pending.put(jobName, job);
+        pendingBySize.add(job);
+        return true;
+    }
+
+    /**
+     * 新作业是否必须排在已等待的作业之后
+     */
+    private boolean mustQueue(long now) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        switch (policy) {
+            case FIFO:
+                return true;
+            case AGING:
+                return now - oldest().arrivalTime >= agingThreshold;
+            case SMALLEST_FIRST:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 释放作业的内存，并为等待中的作业重新分配
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    public boolean releaseMemory(String jobName) {
+        capturing = true;
+        changedFrom = Long.MAX_VALUE;
+        changedTo = Long.MIN_VALUE;
+        boolean released;
+        try {
+            released = manager.releaseMemory(jobName);
+        } finally {
+            capturing = false;
+        }
+        if (released && !pending.isEmpty()) {
+            admitPending(releasedBlockSize());
+        }
+        return released;
+    }
+
+    /**
+     * 获取释放后新合并出的空闲分区大小，作为本轮重试的申请大小上限
+     */
+    private long releasedBlockSize() {
+        if (!rangeNotified || changedFrom > changedTo) {
+            return manager.getStatistics().getLargestFreeBlock();
+        }
+        long largest = 0;
+        for (Partition partition : manager.getPartitions(changedFrom, changedTo)) {
+            if (partition instanceof FreePartition) {
+                largest = Math.max(largest, partition.getSize());
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * 按准入策略为申请大小不超过limit的等待作业分配内存，直到选出的作业分配失败
+     *
+     * @param limit 申请大小上限
+     * @return 本轮准入的作业数
+     */
+    private int admitPending(long limit) {
+        int admitted = 0;
+        while (!pending.isEmpty()) {
+            long now = clock.getAsLong();
+            PendingJob job = nextCandidate(now);
+            if (job.size > limit || !manager.allocateMemory(job.jobName, job.size)) {
+                break;
+            }
+            pending.remove(job.jobName);
+            pendingBySize.remove(job);
+            long delay = now - job.arrivalTime;
+            queuedAdmittedCount++;
+            totalDelay += delay;
+            maxDelay = Math.max(maxDelay, delay);
+            if (delay >= starvationThreshold) {
+                starvedCount++;
+            }
+            admitted++;
+        }
+        return admitted;
+    }
+
+    /**
+     * 按准入策略选出下一个尝试分配的作业
+     * FIFO选择最早到达的作业；最小作业优先选择申请大小最小的作业；
+     * 老化策略在最早到达的作业超过老化阈值时选择它，否则选择申请大小最小的作业
+     */
+    private PendingJob nextCandidate(long now) {
+        switch (policy) {
+            case FIFO:
+                return oldest();
+            case AGING:
+                PendingJob oldest = oldest();
+                return now - oldest.arrivalTime >= agingThreshold ? oldest : pendingBySize.first();
+            case SMALLEST_FIRST:
+            default:
+                return pendingBySize.first();
+        }
+    }
+
+    private PendingJob oldest() {
+        return pending.values().iterator().next();
+    }
+
+    /**
+     * 取消等待中的作业
+     * 被取消的是最早到达的作业时，它可能正阻塞着后面的作业（FIFO或已老化的队首），取消后立即重试等待队列
+     *
+     * @param jobName 作业名称
+     * @return 作业在等待队列中并被移除时返回true
+     */
+    public boolean cancel(String jobName) {
+        PendingJob job = pending.get(jobName);
+        if (job == null) {
+            return false;
+        }
+        boolean wasOldest = job == oldest();
+        pending.remove(jobName);
+        pendingBySize.remove(job);
+        cancelledCount++;
+        if (wasOldest && !pending.isEmpty()) {
+            admitPending(manager.getStatistics().getLargestFreeBlock());
+        }
+        return true;
+    }
+
+    /**
+     * 判断作业是否正在等待
+     */
+    public boolean isPending(String jobName) {
+        return pending.containsKey(jobName);
+    }
+
+    /**
+     * 获取按到达顺序排列的等待作业名称
+     */
+    public List<String> getPendingJobs() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    /**
+     * 获取等待中的作业数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 获取准入的作业总数（直接准入和排队后准入）
+     */
+    public long getAdmittedCount() {
+        return immediateCount + queuedAdmittedCount;
+    }
+
+    /**
+     * 获取排队后准入的作业的平均排队延迟
+     * @return 平均延迟，没有排队后准入的作业时返回0
+     */
+    public double getAverageDelay() {
+        return queuedAdmittedCount == 0 ? 0.0 : (double) totalDelay / queuedAdmittedCount;
+    }
+
+    /**
+     * 获取等待最久的作业当前已等待的时间
+     * @return 等待时间，没有等待作业时返回0
+     */
+    public long getOldestPendingWait() {
+        return pending.isEmpty() ? 0 : clock.getAsLong() - oldest().arrivalTime;
+    }
+
+    /**
+     * 获取当前等待时间已超过饥饿阈值的作业名称（按到达顺序）
+     */
+    public List<String> getStarvingJobs() {
+        long now = clock.getAsLong();
+        List<String> starving = new ArrayList<>();
+        for (PendingJob job : pending.values()) {
+            if (now - job.arrivalTime < starvationThreshold) {
+                // 后面的作业到达得更晚，等待时间更短
+                break;
+            }
+            starving.add(job.jobName);
+        }
+        return starving;
+    }
+}
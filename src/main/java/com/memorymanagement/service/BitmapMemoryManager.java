@@ -0,0 +1,215 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 位图内存管理器
+ * 以页为单位分配连续的内存，页的占用情况保存在堆外的PageBitmap中
+ *
+ * 特点：
+ * 1. 申请的空间向上取整到页大小，可能产生内部碎片
+ * 2. 使用首次适应算法，借助位图摘要跳过全部占用或全部空闲的区域
+ * 3. 空闲分区不以对象形式存在，释放时只需清除位图中的位，相邻空闲页自然合并
+ * 4. 每个作业只保存起始页、页数和申请大小，Partition对象只在getMemoryStatus()等查询时临时生成
+ *
+ * 内存布局：
+ * - 0~OS区域：操作系统区域（向上取整到页），不参与分配
+ * - 其余页：用户区域
+ */
+public class BitmapMemoryManager implements MemoryManager {
+    // 默认操作系统占用空间大小（4K）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 默认页大小（1K）
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    /**
+     * 作业占用的页
+     */
+    private static final class Allocation {
+        final long startPage;       // 起始页号
+        final long pages;           // 页数
+        final long requestedSize;   // 作业实际申请的大小
+
+        Allocation(long startPage, long pages, long requestedSize) {
+            this.startPage = startPage;
+            this.pages = pages;
+            this.requestedSize = requestedSize;
+        }
+    }
+
+    @Getter
+    private final int pageSize;                 // 页大小（2的幂）
+    private final int pageShift;                // 页大小的以2为底的对数
+    private final long osPages;                 // 操作系统区域占用的页数
+    private final PageBitmap bitmap;            // 页位图
+    private final Map<String, Allocation> allocations; // 作业名称到所占页的映射
+
+    private long requestedBytes;                // 作业实际申请的总大小
+    private int freeBlockCount;                 // 空闲段数量，分配和释放时根据相邻页增量维护
+    private long modificationCount;             // 位图修改次数，用于判断缓存的最长空闲段是否有效
+    private long largestCachedAt = -1;          // 缓存最长空闲段时的修改次数
+    private long largestFreePages;              // 缓存的最长空闲段页数
+
+    /**
+     * 默认构造函数：128K内存，前4K为操作系统区域，页大小1K
+     */
+    public BitmapMemoryManager() {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param totalMemory 总内存大小，必须是页大小的整数倍
+     * @param osSize 操作系统占用的空间，向上取整到页
+     * @param pageSize 页大小，必须是2的幂
+     * @throws IllegalArgumentException 参数不满足上述要求时抛出
+     */
+    public BitmapMemoryManager(long totalMemory, long osSize, int pageSize) {
+        if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("页大小必须是2的幂: " + pageSize);
+        }
+        if (totalMemory <= 0 || totalMemory % pageSize != 0) {
+            throw new IllegalArgumentException("总内存大小必须是页大小的正整数倍: " + totalMemory);
+        }
+        if (osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("操作系统区域大小不合法: " + osSize);
+        }
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.osPages = (osSize + pageSize - 1) >>> pageShift;
+        this.bitmap = new PageBitmap(totalMemory >>> pageShift);
+        this.allocations = new HashMap<>();
+        if (osPages > 0) {
+            bitmap.markUsed(0, osPages);
+        }
+        this.freeBlockCount = bitmap.getFreeCount() > 0 ? 1 : 0;
+    }
+
+    /**
+     * 分配内存空间
+     * 在位图中查找第一段足够长的连续空闲页
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @return 是否分配成功
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        if (size <= 0 || allocations.containsKey(jobName)) {
+            return false;
+        }
+        long pages = (size + pageSize - 1) >>> pageShift;
+        if (pages > bitmap.getFreeCount()) {
+            return false;
+        }
+        long start = bitmap.findFreeRun(pages, osPages);
+        if (start < 0) {
+            return false;
+        }
+        boolean leftFree = bitmap.isFree(start - 1);
+        boolean rightFree = bitmap.isFree(start + pages);
+        bitmap.markUsed(start, pages);
+        // 所在空闲段被切分：两侧仍有空闲页的部分各自成为一段
+        freeBlockCount += (leftFree ? 1 : 0) + (rightFree ? 1 : 0) - 1;
+        modificationCount++;
+        allocations.put(jobName, new Allocation(start, pages, size));
+        requestedBytes += size;
+        return true;
+    }
+
+    /**
+     * 释放内存空间
+     * 清除位图中的位，与两侧的空闲页自然连成一段
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        Allocation allocation = allocations.remove(jobName);
+        if (allocation == null) {
+            return false;
+        }
+        long start = allocation.startPage;
+        boolean leftFree = bitmap.isFree(start - 1);
+        boolean rightFree = bitmap.isFree(start + allocation.pages);
+        bitmap.markFree(start, allocation.pages);
+        freeBlockCount += 1 - (leftFree ? 1 : 0) - (rightFree ? 1 : 0);
+        modificationCount++;
+        requestedBytes -= allocation.requestedSize;
+        return true;
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 临时生成的分区视图，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        Allocation allocation = allocations.get(jobName);
+        return allocation == null ? null : toPartition(jobName, allocation);
+    }
+
+    private AllocatedPartition toPartition(String jobName, Allocation allocation) {
+        return new AllocatedPartition(allocation.startPage << pageShift, allocation.pages << pageShift,
+                jobName, allocation.requestedSize);
+    }
+
+    /**
+     * 获取内存统计信息
+     * 空闲字节数、已分配字节数和空闲段数量为O(1)；最长空闲段在位图变化后第一次查询时扫描位图得到并缓存，
+     * 扫描借助摘要跳过全部占用或全部空闲的位图字
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        if (largestCachedAt != modificationCount) {
+            largestFreePages = bitmap.getLargestFreeRun();
+            largestCachedAt = modificationCount;
+        }
+        long usedPages = bitmap.getPageCount() - osPages - bitmap.getFreeCount();
+        return new MemoryStatistics(bitmap.getFreeCount() << pageShift, usedPages << pageShift, requestedBytes,
+                largestFreePages << pageShift, freeBlockCount, allocations.size());
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出统计信息，分区明细在GUI中通过getMemoryStatus()显示
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("位图分配(页大小" + pageSize + ") " + getStatistics());
+    }
+
+    /**
+     * 获取当前内存状态
+     * 已分配分区由作业记录生成，空闲分区由位图中的连续空闲页生成，按起始地址排序
+     *
+     * @return 包含所有分区（已分配和空闲）的列表
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        List<Partition> allPartitions = new ArrayList<>(allocations.size() + freeBlockCount);
+        for (Map.Entry<String, Allocation> entry : allocations.entrySet()) {
+            allPartitions.add(toPartition(entry.getKey(), entry.getValue()));
+        }
+        bitmap.forEachFreeRun(osPages, (start, length) -> {
+            allPartitions.add(new FreePartition(start << pageShift, length << pageShift));
+            return true;
+        });
+        // 按起始地址排序
+        allPartitions.sort((p1, p2) -> Long.compare(p1.getStartAddress(), p2.getStartAddress()));
+        return allPartitions;
+    }
+}
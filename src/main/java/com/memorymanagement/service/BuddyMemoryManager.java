@@ -0,0 +1,327 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 伙伴系统内存管理器
+ * 以最小块为单位，把内存划分为大小为2的幂的块进行分配
+ *
+ * 特点：
+ * 1. 申请的空间向上取整到2的幂，可能产生内部碎片
+ * 2. 大块按需对半分裂，释放时与伙伴块合并，分裂和合并的开销为O(log N)
+ * 3. 每一阶（块大小）有一个空闲链表，链表用数组实现的双向链表，删除任意块为O(1)
+ * 4. 每一阶有一个位图记录哪些位置的块空闲，判断伙伴是否空闲为O(1)
+ *
+ * 内存布局：
+ * - 0~OS区域：操作系统区域，不参与分配
+ * - 其余空间被划分为尽可能大的对齐块放入空闲链表
+ */
+public class BuddyMemoryManager implements MemoryManager {
+    // 默认操作系统占用空间大小（4K）
+    private static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    private static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 默认最小块大小（1K）
+    private static final int DEFAULT_MIN_BLOCK = 1024;
+
+    /**
+     * 已分配块的记录
+     */
+    private static class Allocation {
+        final AllocatedPartition partition;    // 分配给作业的块，记录了作业实际申请的大小
+        final int order;                       // 块的阶
+
+        Allocation(AllocatedPartition partition, int order) {
+            this.partition = partition;
+            this.order = order;
+        }
+    }
+
+    private final long totalMemory;             // 总内存大小
+    private final int minBlockSize;             // 最小块大小（2的幂）
+    private final int minBlockShift;            // 最小块大小的以2为底的对数
+    private final int maxOrder;                 // 最大阶
+    private final int[] freeHead;               // 每一阶空闲链表的头（单元编号），-1表示空
+    private final int[] next;                   // 空闲链表的后继，以单元编号为下标
+    private final int[] prev;                   // 空闲链表的前驱，以单元编号为下标
+    private final long[][] freeBits;            // 每一阶的空闲位图，第i位表示第i个该阶块是否空闲
+    private final int[] freeCounts;             // 每一阶的空闲块数量
+    private final Map<String, Allocation> allocations; // 作业名称到已分配块的映射
+
+    @Getter
+    private long freeBytes;                     // 空闲空间总量
+    private long allocatedBytes;                // 已分配块的总大小
+    private long requestedBytes;                // 作业实际申请的总大小
+
+    /**
+     * 默认构造函数：128K内存，前4K为操作系统区域，最小块1K
+     */
+    public BuddyMemoryManager() {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, DEFAULT_MIN_BLOCK);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param totalMemory 总内存大小，必须是最小块大小的整数倍，且最小块数量不能超过int范围
+     * @param osSize 操作系统占用的空间，向上取整到最小块大小
+     * @param minBlockSize 最小块大小，必须是2的幂
+     * @throws IllegalArgumentException 参数不满足上述要求时抛出
+     */
+    public BuddyMemoryManager(long totalMemory, long osSize, int minBlockSize) {
+        if (minBlockSize <= 0 || Integer.bitCount(minBlockSize) != 1) {
+            throw new IllegalArgumentException("最小块大小必须是2的幂: " + minBlockSize);
+        }
+        if (totalMemory <= 0 || totalMemory % minBlockSize != 0) {
+            throw new IllegalArgumentException("总内存大小必须是最小块大小的正整数倍: " + totalMemory);
+        }
+        if (osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("操作系统区域大小不合法: " + osSize);
+        }
+        if (totalMemory / minBlockSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("最小块数量过多，请增大最小块大小: " + totalMemory / minBlockSize);
+        }
+        this.totalMemory = totalMemory;
+        this.minBlockSize = minBlockSize;
+        this.minBlockShift = Integer.numberOfTrailingZeros(minBlockSize);
+
+        int units = (int) (totalMemory >>> minBlockShift);
+        this.maxOrder = 31 - Integer.numberOfLeadingZeros(units);
+        this.freeHead = new int[maxOrder + 1];
+        Arrays.fill(freeHead, -1);
+        this.next = new int[units];
+        this.prev = new int[units];
+        this.freeBits = new long[maxOrder + 1][];
+        for (int order = 0; order <= maxOrder; order++) {
+            freeBits[order] = new long[((units >>> order) + 63) >>> 6];
+        }
+        this.freeCounts = new int[maxOrder + 1];
+        this.allocations = new HashMap<>();
+
+        // 将操作系统区域之后的空间划分为尽可能大的对齐块
+        // 单元数可接近int上限，块的结束位置用long计算以免溢出
+        long unit = (osSize + minBlockSize - 1) >>> minBlockShift;
+        while (unit < units) {
+            int order = Math.min(Long.numberOfTrailingZeros(unit), maxOrder);
+            while (unit + (1L << order) > units) {
+                order--;
+            }
+            pushFree((int) unit, order);
+            unit += 1L << order;
+        }
+    }
+
+    /**
+     * 分配内存空间
+     * 找到不小于所需阶的最小非空空闲链表，取出一块并逐级对半分裂到所需大小
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @return 是否分配成功
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        if (size <= 0 || size > totalMemory || allocations.containsKey(jobName)) {
+            return false;
+        }
+        int order = orderFor(size);
+        if (order > maxOrder) {
+            return false;
+        }
+        int current = order;
+        while (current <= maxOrder && freeHead[current] < 0) {
+            current++;
+        }
+        if (current > maxOrder) {
+            return false;
+        }
+
+        int unit = freeHead[current];
+        removeFree(unit, current);
+        // 逐级分裂，右半部分（伙伴）放回低一阶的空闲链表
+        while (current > order) {
+            current--;
+            pushFree(unit + (1 << current), current);
+        }
+
+        long blockSize = (long) minBlockSize << order;
+        AllocatedPartition partition = new AllocatedPartition((long) unit << minBlockShift, blockSize, jobName, size);
+        allocations.put(jobName, new Allocation(partition, order));
+        allocatedBytes += blockSize;
+        requestedBytes += size;
+        return true;
+    }
+
+    /**
+     * 释放内存空间
+     * 只要伙伴块空闲就与之合并，并继续尝试与更高一阶的伙伴合并
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        Allocation allocation = allocations.remove(jobName);
+        if (allocation == null) {
+            return false;
+        }
+        allocatedBytes -= allocation.partition.getSize();
+        requestedBytes -= allocation.partition.getRequestedSize();
+
+        int unit = (int) (allocation.partition.getStartAddress() >>> minBlockShift);
+        int order = allocation.order;
+        while (order < maxOrder) {
+            int buddy = unit ^ (1 << order);
+            if (!isFree(buddy, order)) {
+                break;
+            }
+            removeFree(buddy, order);
+            unit = Math.min(unit, buddy);
+            order++;
+        }
+        pushFree(unit, order);
+        return true;
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 作业占用的块，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        Allocation allocation = allocations.get(jobName);
+        return allocation == null ? null : allocation.partition;
+    }
+
+    /**
+     * 计算容纳size所需的最小阶
+     */
+    private int orderFor(long size) {
+        long units = (size + minBlockSize - 1) >>> minBlockShift;
+        return units <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(units - 1);
+    }
+
+    private boolean isFree(int unit, int order) {
+        int index = unit >>> order;
+        long[] bits = freeBits[order];
+        return (index >>> 6) < bits.length && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 将块加入对应阶的空闲链表头部并设置位图
+     */
+    private void pushFree(int unit, int order) {
+        int head = freeHead[order];
+        next[unit] = head;
+        prev[unit] = -1;
+        if (head >= 0) {
+            prev[head] = unit;
+        }
+        freeHead[order] = unit;
+        int index = unit >>> order;
+        freeBits[order][index >>> 6] |= 1L << index;
+        freeCounts[order]++;
+        freeBytes += (long) minBlockSize << order;
+    }
+
+    /**
+     * 将块从对应阶的空闲链表中删除并清除位图
+     */
+    private void removeFree(int unit, int order) {
+        if (prev[unit] >= 0) {
+            next[prev[unit]] = next[unit];
+        } else {
+            freeHead[order] = next[unit];
+        }
+        if (next[unit] >= 0) {
+            prev[next[unit]] = prev[unit];
+        }
+        int index = unit >>> order;
+        freeBits[order][index >>> 6] &= ~(1L << index);
+        freeCounts[order]--;
+        freeBytes -= (long) minBlockSize << order;
+    }
+
+    /**
+     * 获取内部碎片大小，即已分配块中超出作业申请量的部分
+     * @return 内部碎片的字节数
+     */
+    public long getInternalFragmentationBytes() {
+        return allocatedBytes - requestedBytes;
+    }
+
+    /**
+     * 获取内部碎片率
+     * @return 内部碎片占已分配块总大小的比例，没有已分配块时返回0
+     */
+    public double getInternalFragmentation() {
+        return allocatedBytes == 0 ? 0.0 : (double) (allocatedBytes - requestedBytes) / allocatedBytes;
+    }
+
+    /**
+     * 获取指定阶的空闲块数量
+     * @param order 阶，块大小为最小块大小乘以2的order次方
+     * @return 空闲块数量
+     */
+    public int getFreeBlockCount(int order) {
+        return freeCounts[order];
+    }
+
+    /**
+     * 获取内存统计信息
+     * 各字节数和每阶空闲块数在分裂、合并时增量维护，最大空闲块为最高的非空阶，开销为O(阶数)
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        long largest = 0;
+        int freeCount = 0;
+        for (int order = 0; order <= maxOrder; order++) {
+            if (freeCounts[order] > 0) {
+                largest = (long) minBlockSize << order;
+                freeCount += freeCounts[order];
+            }
+        }
+        return new MemoryStatistics(freeBytes, allocatedBytes, requestedBytes, largest, freeCount, allocations.size());
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出增量维护的统计信息，分区明细在GUI中通过getMemoryStatus()显示
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("伙伴系统 " + getStatistics());
+    }
+
+    /**
+     * 获取当前内存状态
+     * 返回按起始地址排序的所有分区列表
+     *
+     * @return 包含所有分区（已分配和空闲）的列表
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        List<Partition> allPartitions = new ArrayList<>();
+        for (Allocation allocation : allocations.values()) {
+            allPartitions.add(allocation.partition);
+        }
+        for (int order = 0; order <= maxOrder; order++) {
+            for (int unit = freeHead[order]; unit >= 0; unit = next[unit]) {
+                allPartitions.add(new FreePartition((long) unit << minBlockShift, (long) minBlockSize << order));
+            }
+        }
+        // 按起始地址排序
+        allPartitions.sort((p1, p2) -> Long.compare(p1.getStartAddress(), p2.getStartAddress()));
+        return allPartitions;
+    }
+}
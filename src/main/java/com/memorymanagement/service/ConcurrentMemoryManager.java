@@ -0,0 +1,263 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 线程安全的并发内存管理器
+ * 把用户区域划分为若干个地址连续的分区（arena），每个arena是一个独立加锁的可变分区管理器，
+ * 不同线程在不同arena上的分配和释放可以并行进行
+ *
+ * 分配过程：
+ * 1. 每个线程第一次分配时按轮转方式分配一个本地arena，之后优先在本地arena中分配（快速路径）
+ * 2. 本地arena没有足够的连续空间时，依次到其他arena中分配（窃取）
+ * 3. 作业名称到所属arena的映射保存在ConcurrentHashMap中，释放时直接找到对应的arena
+ *
+ * 限制：
+ * - 每个arena的空闲空间只在本arena内合并，单次分配的大小不能超过一个arena的大小
+ * - getMemoryStatus()和getStatistics()会依次锁住所有arena，开销与arena数量成正比
+ */
+public class ConcurrentMemoryManager implements MemoryManager {
+    // 默认操作系统占用空间大小（4K）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 作业正在分配、尚未确定所属arena时在映射中的占位值
+    private static final int PENDING = -1;
+
+    /**
+     * 一个arena：一段地址连续的内存及保护它的锁
+     */
+    private static final class Arena {
+        final ReentrantLock lock = new ReentrantLock();
+        final DynamicPartitionManager manager;
+
+        Arena(long start, long end, PlacementPolicy policy) {
+            // 把arena之前的地址当作不可分配区域，使arena内的地址与全局地址一致
+            this.manager = new DynamicPartitionManager(end, start, policy);
+        }
+    }
+
+    private final Arena[] arenas;
+    private final ConcurrentHashMap<String, Integer> owners;    // 作业名称到所属arena下标的映射
+    private final AtomicInteger nextHome;                       // 为新线程轮转分配本地arena
+    private final ThreadLocal<Integer> home;                    // 当前线程的本地arena下标
+    private final LongAdder steals;                             // 在本地arena以外完成的分配次数
+
+    /**
+     * 默认构造函数：128K内存，前4K为操作系统区域，arena数量等于处理器数量，使用首次适应
+     */
+    public ConcurrentMemoryManager() {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, Runtime.getRuntime().availableProcessors(),
+                PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 构造函数
+     * 用户区域被平均划分为arenaCount个arena，余数归最后一个arena
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间
+     * @param arenaCount arena数量，必须为正数且每个arena至少有1字节
+     * @param policy 每个arena内使用的放置策略
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    public ConcurrentMemoryManager(long totalMemory, long osSize, int arenaCount, PlacementPolicy policy) {
+        if (totalMemory <= 0 || osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("内存大小不合法: 总内存" + totalMemory + ", 操作系统区域" + osSize);
+        }
+        if (arenaCount <= 0 || arenaCount > totalMemory - osSize) {
+            throw new IllegalArgumentException("arena数量不合法: " + arenaCount);
+        }
+        long arenaSize = (totalMemory - osSize) / arenaCount;
+        this.arenas = new Arena[arenaCount];
+        for (int i = 0; i < arenaCount; i++) {
+            long start = osSize + i * arenaSize;
+            long end = i == arenaCount - 1 ? totalMemory : start + arenaSize;
+            arenas[i] = new Arena(start, end, policy);
+        }
+        this.owners = new ConcurrentHashMap<>();
+        this.nextHome = new AtomicInteger();
+        this.home = ThreadLocal.withInitial(() -> Math.floorMod(nextHome.getAndIncrement(), arenaCount));
+        this.steals = new LongAdder();
+    }
+
+    /**
+     * 分配内存空间
+     * 先在当前线程的本地arena中分配，失败时依次尝试其他arena
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @return 是否分配成功
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        if (size <= 0 || owners.putIfAbsent(jobName, PENDING) != null) {
+            return false;
+        }
+        int first = home.get();
+        for (int i = 0; i < arenas.length; i++) {
+            int index = (first + i) % arenas.length;
+            Arena arena = arenas[index];
+            boolean success;
+            arena.lock.lock();
+            try {
+                success = arena.manager.allocateMemory(jobName, size);
+            } finally {
+                arena.lock.unlock();
+            }
+            if (success) {
+                if (i > 0) {
+                    steals.increment();
+                }
+                owners.put(jobName, index);
+                return true;
+            }
+        }
+        owners.remove(jobName);
+        return false;
+    }
+
+    /**
+     * 释放内存空间
+     * 正在分配中的作业视为尚未分配
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        Integer index = owners.get(jobName);
+        if (index == null || index == PENDING) {
+            return false;
+        }
+        Arena arena = arenas[index];
+        boolean success;
+        arena.lock.lock();
+        try {
+            success = arena.manager.releaseMemory(jobName);
+        } finally {
+            arena.lock.unlock();
+        }
+        if (success) {
+            // 释放完成后才移除名称，在此之前同名作业的分配会因重名而失败
+            owners.remove(jobName, index);
+        }
+        return success;
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 作业占用的分区，作业不存在或正在分配时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        Integer index = owners.get(jobName);
+        if (index == null || index == PENDING) {
+            return null;
+        }
+        Arena arena = arenas[index];
+        arena.lock.lock();
+        try {
+            return arena.manager.getAllocatedPartition(jobName);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    /**
+     * 获取内存统计信息
+     * 按地址顺序锁住所有arena后汇总，得到一致的快照，开销与arena数量成正比
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        lockAll();
+        try {
+            long free = 0;
+            long used = 0;
+            long requested = 0;
+            long largest = 0;
+            int freeCount = 0;
+            int allocatedCount = 0;
+            for (Arena arena : arenas) {
+                MemoryStatistics statistics = arena.manager.getStatistics();
+                free += statistics.getFreeBytes();
+                used += statistics.getUsedBytes();
+                requested += statistics.getRequestedBytes();
+                largest = Math.max(largest, statistics.getLargestFreeBlock());
+                freeCount += statistics.getFreeBlockCount();
+                allocatedCount += statistics.getAllocatedCount();
+            }
+            return new MemoryStatistics(free, used, requested, largest, freeCount, allocatedCount);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出汇总的统计信息和窃取次数
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("并发分区(" + arenas.length + "个arena) " + getStatistics() + ", 窃取次数: " + getStealCount());
+    }
+
+    /**
+     * 获取当前内存状态
+     * arena按地址顺序排列，依次拼接各arena的分区列表即得到按起始地址排序的结果
+     *
+     * @return 包含所有分区（已分配和空闲）的列表
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        lockAll();
+        try {
+            List<Partition> allPartitions = new ArrayList<>();
+            for (Arena arena : arenas) {
+                allPartitions.addAll(arena.manager.getMemoryStatus());
+            }
+            return allPartitions;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * 获取arena数量
+     */
+    public int getArenaCount() {
+        return arenas.length;
+    }
+
+    /**
+     * 获取在本地arena以外完成的分配次数
+     */
+    public long getStealCount() {
+        return steals.sum();
+    }
+
+    /**
+     * 按地址顺序锁住所有arena，固定的加锁顺序避免死锁
+     */
+    private void lockAll() {
+        for (Arena arena : arenas) {
+            arena.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = arenas.length - 1; i >= 0; i--) {
+            arenas[i].lock.unlock();
+        }
+    }
+}
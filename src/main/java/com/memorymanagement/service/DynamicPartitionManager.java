@@ -1,8 +1,14 @@
 package com.memorymanagement.service;
 
 import com.memorymanagement.model.*;
+import lombok.Getter;
+import lombok.Setter;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 可变分区管理器
@@ -11,22 +17,61 @@ import java.util.List;
  * 特点：
  * 1. 根据进程需要，动态分配内存空间
  * 2. 支持分区的分割和合并
- * 3. 使用首次适应算法进行分区分配
+ * 3. 默认使用首次适应算法进行分区分配，也可选择最佳、最坏或循环首次适应（见PlacementPolicy）
  * 4. 自动处理内存碎片
+ * 5. 空闲分区由FreeBlockIndex同时按地址和大小索引，分配与合并的开销为O(log n)
+ * 6. 支持紧凑（移动已分配分区以合并空闲空间），可在分配失败时自动进行
+ * 7. 所有分区同时保存在按地址排序的分区表中，getMemoryStatus()无需排序，
+ *    并支持按地址范围查询和分区变化通知（见PartitionListener）
+ * 8. 可以把分配、释放、分割、合并和紧凑记录到事件日志（见MemoryEventLog），用于重建任意时刻的分区表
+ * 9. 支持批量分配和批量释放：整批操作只通知一次分区变化，批量释放在一次按地址的扫描中合并所有空闲分区
  * 
- * 内存布局：
+ * 内存布局（默认配置，总大小和操作系统区域大小可通过构造函数指定）：
  * - 0~4K：操作系统区域
  * - 4K~128K：用户区域（可分配区域）
  */
 public class DynamicPartitionManager implements MemoryManager {
-    // 操作系统占用空间大小（4K）
-    private static final int OS_SIZE = 4 * 1024;
-    // 总内存大小（128K）
-    private static final int TOTAL_MEMORY = 128 * 1024;
-    // 已分配分区列表
-    private List<AllocatedPartition> allocatedPartitions;
-    // 空闲分区列表
-    private List<FreePartition> freePartitions;
+    // 默认操作系统占用空间大小（4K）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 操作系统占用空间大小
+    @Getter
+    private final long osSize;
+    // 总内存大小
+    @Getter
+    private final long totalMemory;
+    // 已分配分区索引：作业名称到分区的映射（保持分配顺序）
+    private Map<String, AllocatedPartition> allocatedPartitions;
+    // 空闲分区索引（按地址和按大小）
+    private FreeBlockIndex freeBlocks;
+    // 按起始地址排序的全部分区（已分配和空闲）
+    private final PartitionMap partitions;
+    // 已分配分区的总大小，随分配和释放增量维护
+    private long allocatedBytes;
+    // 放置策略
+    @Getter
+    private final PlacementPolicy policy;
+    // 循环首次适应的游标，即上次分配结束的地址
+    private long rover;
+    // 分配统计：成功次数、失败次数和分配操作的累计耗时（纳秒）
+    @Getter
+    private long allocationCount;
+    @Getter
+    private long failedAllocationCount;
+    private long allocationNanos;
+    // 分配失败且空闲空间总量足够时是否自动紧凑（默认关闭）
+    @Getter
+    @Setter
+    private boolean autoCompact;
+    // 紧凑统计：紧凑次数和累计移动的字节数（移动代价）
+    @Getter
+    private long compactionCount;
+    @Getter
+    private long bytesMoved;
+    // 事件日志，为null时不记录
+    @Getter
+    private MemoryEventLog eventLog;
 
     /**
      * 构造函数
@@ -37,64 +82,294 @@ public class DynamicPartitionManager implements MemoryManager {
      * 3. 初始化一个大的空闲分区（除去OS区域的所有空间）
      */
     public DynamicPartitionManager() {
-        allocatedPartitions = new ArrayList<>();
-        freePartitions = new ArrayList<>();
+        this(PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 使用指定放置策略的构造函数
+     * @param policy 放置策略
+     */
+    public DynamicPartitionManager(PlacementPolicy policy) {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, policy);
+    }
+
+    /**
+     * 指定内存大小的构造函数
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间，必须小于总内存大小
+     * @param policy 放置策略
+     * @throws IllegalArgumentException 内存大小不合法时抛出
+     */
+    public DynamicPartitionManager(long totalMemory, long osSize, PlacementPolicy policy) {
+        if (totalMemory <= 0 || osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("内存大小不合法: 总内存" + totalMemory + ", 操作系统区域" + osSize);
+        }
+        this.totalMemory = totalMemory;
+        this.osSize = osSize;
+        this.policy = policy;
+        allocatedPartitions = new LinkedHashMap<>();
+        freeBlocks = new FreeBlockIndex();
+        partitions = new PartitionMap();
         initializeMemory();
     }
 
     /**
      * 初始化内存空间
-     * 创建一个初始的大空闲分区，起始地址为OS_SIZE，
+     * 创建一个初始的大空闲分区，起始地址为osSize，
      * 大小为总内存减去OS占用的空间
      */
     private void initializeMemory() {
-        freePartitions.add(new FreePartition(OS_SIZE, TOTAL_MEMORY - OS_SIZE));
+        freeBlocks.insert(osSize, totalMemory - osSize);
+        partitions.put(new FreePartition(osSize, totalMemory - osSize));
+        rover = osSize;
+    }
+
+    /**
+     * 开始把分区表的变化记录到事件日志，以当前分区表作为日志的初始状态
+     *
+     * @param eventLog 尚未开始记录的事件日志，为null时停止记录
+     * @throws IllegalArgumentException 事件日志已被使用时抛出
+     */
+    public void setEventLog(MemoryEventLog eventLog) {
+        if (eventLog != null) {
+            eventLog.begin(partitions.toList());
+        }
+        this.eventLog = eventLog;
     }
 
     /**
      * 分配内存空间
-     * 使用首次适应算法，在空闲分区中查找第一个足够大的分区
+     * 按放置策略在空闲分区中查找足够大的分区，并统计分配耗时
      * 
      * @param jobName 作业名称
      * @param size 申请的空间大小
      * @return 是否分配成功
      */
     @Override
-    public boolean allocateMemory(String jobName, int size) {
-        // 验证申请的空间大小是否有效
-        if (size <= 0) {
+    public boolean allocateMemory(String jobName, long size) {
+        // 验证申请的空间大小是否有效，作业名称不能重复
+        if (size <= 0 || allocatedPartitions.containsKey(jobName)) {
             return false;
         }
         
-        // 遍历空闲分区列表，查找第一个足够大的分区
-        for (int i = 0; i < freePartitions.size(); i++) {
-            FreePartition freePartition = freePartitions.get(i);
-            if (freePartition.getSize() >= size) {
-                // 在找到的空闲分区中创建新的已分配分区
-                AllocatedPartition allocatedPartition = new AllocatedPartition(
-                        freePartition.getStartAddress(),
-                        size,
-                        jobName
-                );
-                allocatedPartitions.add(allocatedPartition);
-
-                // 处理剩余空间
-                if (freePartition.getSize() > size) {
-                    // 如果空闲分区大于申请空间，分割分区
-                    FreePartition newFreePartition = new FreePartition(
-                            freePartition.getStartAddress() + size,
-                            freePartition.getSize() - size
-                    );
-                    freePartitions.set(i, newFreePartition);
+        long begin = System.nanoTime();
+        // 按放置策略在空闲分区索引中查找足够大的分区
+        long start = findFreeBlock(size);
+        if (start < 0 && autoCompact && compactFor(size) >= 0) {
+            start = findFreeBlock(size);
+        }
+        if (start < 0) {
+            // 没有找到合适的分区
+            failedAllocationCount++;
+            allocationNanos += System.nanoTime() - begin;
+            return false;
+        }
+
+        // 在找到的空闲分区中创建新的已分配分区
+        long freeSize = freeBlocks.remove(start);
+        AllocatedPartition partition = new AllocatedPartition(start, size, jobName);
+        allocatedPartitions.put(jobName, partition);
+        partitions.put(partition);
+        allocatedBytes += size;
+
+        // 如果空闲分区大于申请空间，分割分区，剩余部分仍为空闲
+        if (freeSize > size) {
+            freeBlocks.insert(start + size, freeSize - size);
+            partitions.put(new FreePartition(start + size, freeSize - size));
+        }
+        if (eventLog != null) {
+            if (freeSize > size) {
+                eventLog.recordSplit(start, size);
+            }
+            eventLog.recordAllocate(start, size, size, jobName);
+        }
+        rover = start + size;
+        allocationCount++;
+        allocationNanos += System.nanoTime() - begin;
+        partitions.fireChanged(start, start + freeSize);
+        return true;
+    }
+
+    /**
+     * 按放置策略查找空闲分区
+     * @return 空闲分区起始地址，找不到时返回-1
+     */
+    private long findFreeBlock(long size) {
+        switch (policy) {
+            case BEST_FIT:
+                return freeBlocks.findBestFit(size);
+            case WORST_FIT:
+                return freeBlocks.findWorstFit(size);
+            case NEXT_FIT:
+                // 从游标开始查找，找不到时回绕到内存开头
+                long start = freeBlocks.findFirstFitFrom(rover, size);
+                return start >= 0 ? start : freeBlocks.findFirstFit(size);
+            case FIRST_FIT:
+            default:
+                return freeBlocks.findFirstFit(size);
+        }
+    }
+
+    /**
+     * 完全紧凑
+     * 把所有已分配分区按地址顺序滑动到用户区域开头，空闲空间合并为末尾的一个分区
+     *
+     * @return 本次移动的字节数
+     */
+    public long compact() {
+        List<AllocatedPartition> ordered = new ArrayList<>(allocatedPartitions.values());
+        ordered.sort((p1, p2) -> Long.compare(p1.getStartAddress(), p2.getStartAddress()));
+        long moved = 0;
+        long cursor = osSize;
+        for (AllocatedPartition partition : ordered) {
+            if (partition.getStartAddress() != cursor) {
+                moved += partition.getSize();
+                partition.setStartAddress(cursor);
+            }
+            cursor += partition.getSize();
+        }
+        freeBlocks = new FreeBlockIndex();
+        partitions.clear();
+        for (AllocatedPartition partition : ordered) {
+            partitions.put(partition);
+        }
+        if (cursor < totalMemory) {
+            freeBlocks.insert(cursor, totalMemory - cursor);
+            partitions.put(new FreePartition(cursor, totalMemory - cursor));
+        }
+        rover = cursor;
+        if (eventLog != null) {
+            eventLog.recordCompact(osSize, totalMemory);
+        }
+        partitions.fireChanged(osSize, totalMemory);
+        return recordCompaction(moved);
+    }
+
+    /**
+     * 为一次分配进行紧凑，在完全紧凑和部分紧凑中选择移动字节数较少的一种
+     *
+     * 部分紧凑：在按地址排列的分区序列中选择一段连续的窗口，窗口内的空闲空间之和不小于size，
+     * 把窗口内的已分配分区滑动到窗口开头，窗口末尾即形成足够大的空闲分区。
+     * 使用双指针在O(n)时间内找到已分配字节数（即需要移动的字节数）最少的窗口
+     *
+     * @param size 需要的连续空闲空间大小
+     * @return 本次移动的字节数；空闲空间总量不足时不紧凑并返回-1
+     */
+    public long compactFor(long size) {
+        if (freeBlocks.getTotalSize() < size) {
+            return -1;
+        }
+        List<Partition> layout = getMemoryStatus();
+
+        // 完全紧凑需要移动第一个空闲分区之后的所有已分配分区
+        long fullCost = 0;
+        boolean seenFree = false;
+        for (Partition partition : layout) {
+            if (partition instanceof FreePartition) {
+                seenFree = true;
+            } else if (seenFree) {
+                fullCost += partition.getSize();
+            }
+        }
+
+        // 双指针查找移动代价最小的窗口[bestLeft, bestRight]
+        long windowFree = 0;
+        long windowUsed = 0;
+        long bestCost = Long.MAX_VALUE;
+        int bestLeft = -1;
+        int bestRight = -1;
+        int left = 0;
+        for (int right = 0; right < layout.size(); right++) {
+            Partition partition = layout.get(right);
+            if (partition instanceof FreePartition) {
+                windowFree += partition.getSize();
+            } else {
+                windowUsed += partition.getSize();
+            }
+            // 收缩左端：开头的已分配分区不必移动，多余的空闲分区也可以去掉
+            while (left <= right) {
+                Partition first = layout.get(left);
+                if (first instanceof AllocatedPartition) {
+                    windowUsed -= first.getSize();
+                } else if (windowFree - first.getSize() >= size) {
+                    windowFree -= first.getSize();
                 } else {
-                    // 如果空闲分区大小正好，直接移除该空闲分区
-                    freePartitions.remove(i);
+                    break;
                 }
-                return true;
+                left++;
             }
+            if (windowFree >= size && windowUsed < bestCost) {
+                bestCost = windowUsed;
+                bestLeft = left;
+                bestRight = right;
+            }
+        }
+
+        if (bestCost >= fullCost) {
+            return compact();
+        }
+
+        // 部分紧凑：窗口内的已分配分区滑动到窗口开头，空闲空间集中到窗口末尾
+        long moved = 0;
+        long windowStart = layout.get(bestLeft).getStartAddress();
+        long windowEnd = layout.get(bestRight).getStartAddress() + layout.get(bestRight).getSize();
+        long cursor = windowStart;
+        partitions.removeRange(windowStart, windowEnd);
+        for (int i = bestLeft; i <= bestRight; i++) {
+            Partition partition = layout.get(i);
+            if (partition instanceof FreePartition) {
+                freeBlocks.remove(partition.getStartAddress());
+            } else {
+                if (partition.getStartAddress() != cursor) {
+                    moved += partition.getSize();
+                    partition.setStartAddress(cursor);
+                }
+                partitions.put(partition);
+                cursor += partition.getSize();
+            }
+        }
+        freeBlocks.release(cursor, windowEnd - cursor);
+        partitions.put(new FreePartition(cursor, windowEnd - cursor));
+        if (eventLog != null) {
+            eventLog.recordCompact(windowStart, windowEnd);
         }
-        // 没有找到合适的分区
-        return false;
+        partitions.fireChanged(windowStart, windowEnd);
+        return recordCompaction(moved);
+    }
+
+    private long recordCompaction(long moved) {
+        compactionCount++;
+        bytesMoved += moved;
+        return moved;
+    }
+
+    /**
+     * 获取外部碎片率
+     * 即不属于最大空闲分区的空闲空间占全部空闲空间的比例，0表示空闲空间完全连续
+     *
+     * @return 0到1之间的碎片率，没有空闲空间时返回0
+     */
+    public double getExternalFragmentation() {
+        long free = freeBlocks.getTotalSize();
+        return free == 0 ? 0.0 : 1.0 - (double) freeBlocks.getLargestSize() / free;
+    }
+
+    /**
+     * 获取空闲分区数量
+     * @return 空闲分区数量
+     */
+    public int getFreePartitionCount() {
+        return freeBlocks.getCount();
+    }
+
+    /**
+     * 获取平均每次分配操作（含失败的分配）的耗时
+     * @return 平均耗时（纳秒），尚未分配时返回0
+     */
+    public double getAverageAllocationNanos() {
+        long total = allocationCount + failedAllocationCount;
+        return total == 0 ? 0.0 : (double) allocationNanos / total;
     }
 
     /**
@@ -106,85 +381,245 @@ public class DynamicPartitionManager implements MemoryManager {
      */
     @Override
     public boolean releaseMemory(String jobName) {
-        // 查找要释放的已分配分区
-        AllocatedPartition partitionToRelease = null;
-        for (int i = 0; i < allocatedPartitions.size(); i++) {
-            if (allocatedPartitions.get(i).getJobName().equals(jobName)) {
-                partitionToRelease = allocatedPartitions.remove(i);
-                break;
-            }
-        }
+        // 通过作业名称索引查找并移除要释放的已分配分区
+        AllocatedPartition partitionToRelease = allocatedPartitions.remove(jobName);
 
         // 如果没有找到对应的分区，返回失败
         if (partitionToRelease == null) {
             return false;
         }
 
-        // 创建新的空闲分区
-        FreePartition newFreePartition = new FreePartition(
-                partitionToRelease.getStartAddress(),
-                partitionToRelease.getSize()
-        );
+        // 回收为空闲分区，并与地址相邻的空闲分区合并
+        long start = partitionToRelease.getStartAddress();
+        long end = start + partitionToRelease.getSize();
+        freeBlocks.release(start, partitionToRelease.getSize());
+        allocatedBytes -= partitionToRelease.getSize();
 
-        // 尝试与相邻的空闲分区合并
-        mergePartitions(newFreePartition);
+        // 分区表中同样与前后相邻的空闲分区合并
+        partitions.remove(start);
+        if (eventLog != null) {
+            eventLog.recordRelease(start);
+        }
+        Partition previous = partitions.lower(start);
+        if (previous instanceof FreePartition && previous.getStartAddress() + previous.getSize() == start) {
+            partitions.remove(previous.getStartAddress());
+            start = previous.getStartAddress();
+            if (eventLog != null) {
+                eventLog.recordMerge(start);
+            }
+        }
+        Partition next = partitions.get(end);
+        if (next instanceof FreePartition) {
+            partitions.remove(end);
+            end += next.getSize();
+            if (eventLog != null) {
+                eventLog.recordMerge(start);
+            }
+        }
+        partitions.put(new FreePartition(start, end - start));
+        partitions.fireChanged(start, end);
         return true;
     }
 
     /**
-     * 合并相邻的空闲分区
-     * 检查新释放的分区是否与现有的空闲分区相邻，如果相邻则合并
-     * 
-     * @param newFreePartition 新释放的空闲分区
-     */
-    private void mergePartitions(FreePartition newFreePartition) {
-        List<FreePartition> mergedPartitions = new ArrayList<>();
-        int newStart = newFreePartition.getStartAddress();
-        int newSize = newFreePartition.getSize();
-
-        // 遍历现有空闲分区，查找可以合并的分区
-        for (FreePartition partition : freePartitions) {
-            if (partition.getStartAddress() + partition.getSize() == newStart) {
-                // 当前分区的结束地址等于新分区的起始地址，可以向后合并
-                newStart = partition.getStartAddress();
-                newSize += partition.getSize();
-                mergedPartitions.add(partition);
-            } else if (newStart + newSize == partition.getStartAddress()) {
-                // 新分区的结束地址等于当前分区的起始地址，可以向前合并
-                newSize += partition.getSize();
-                mergedPartitions.add(partition);
+     * 批量分配内存空间
+     * 整批请求只通知一次分区变化；全部成功或全部失败模式下，申请总量超过空闲空间时不修改任何索引直接返回，
+     * 遇到失败的请求时通过一次批量释放撤销已分配的作业。
+     * 全部成功或全部失败模式下整批请求期间不自动紧凑（紧凑移动的其他作业无法撤销），只有紧凑后才能放下时整批失败，
+     * 可以先调用compact()再重试；失败时循环首次适应的游标和分配统计也恢复到调用前的值
+     *
+     * @param requests 按顺序处理的分配请求
+     * @param atomic 是否全部成功或全部失败
+     * @return 与请求一一对应的分配结果，atomic为true且有请求失败时全部为false
+     */
+    @Override
+    public boolean[] allocateAll(List<AllocationRequest> requests, boolean atomic) {
+        boolean[] results = new boolean[requests.size()];
+        if (atomic) {
+            long remaining = freeBlocks.getTotalSize();
+            for (AllocationRequest request : requests) {
+                if (request.getSize() > remaining) {
+                    return results;
+                }
+                remaining -= Math.max(request.getSize(), 0);
+            }
+        }
+        boolean savedAutoCompact = autoCompact;
+        long savedRover = rover;
+        long savedAllocationCount = allocationCount;
+        long savedFailedAllocationCount = failedAllocationCount;
+        long savedAllocationNanos = allocationNanos;
+        if (atomic) {
+            autoCompact = false;
+        }
+        partitions.beginBatch();
+        try {
+            for (int i = 0; i < results.length; i++) {
+                AllocationRequest request = requests.get(i);
+                results[i] = allocateMemory(request.getJobName(), request.getSize());
+                if (atomic && !results[i]) {
+                    List<String> allocated = new ArrayList<>(i);
+                    for (int j = 0; j < i; j++) {
+                        allocated.add(requests.get(j).getJobName());
+                    }
+                    releaseAll(allocated);
+                    rover = savedRover;
+                    allocationCount = savedAllocationCount;
+                    failedAllocationCount = savedFailedAllocationCount;
+                    allocationNanos = savedAllocationNanos;
+                    return new boolean[results.length];
+                }
+            }
+            return results;
+        } finally {
+            autoCompact = savedAutoCompact;
+            partitions.endBatch();
+        }
+    }
+
+    /**
+     * 批量释放内存空间
+     * 先移除所有作业，再按地址顺序扫描一次：每段地址相连的被释放分区连同夹在其间和两侧的空闲分区
+     * 合并为一个空闲分区，只插入一次空闲分区索引，整批释放只通知一次分区变化
+     *
+     * @param jobNames 要释放内存的作业名称集合，不存在的作业会被跳过
+     * @return 按集合的迭代顺序与作业一一对应的释放结果
+     */
+    @Override
+    public boolean[] releaseAll(Collection<String> jobNames) {
+        boolean[] results = new boolean[jobNames.size()];
+        List<AllocatedPartition> released = new ArrayList<>();
+        int index = 0;
+        for (String jobName : jobNames) {
+            AllocatedPartition partition = allocatedPartitions.remove(jobName);
+            if (partition != null) {
+                released.add(partition);
+                allocatedBytes -= partition.getSize();
+                results[index] = true;
+            }
+            index++;
+        }
+        if (released.isEmpty()) {
+            return results;
+        }
+        released.sort((p1, p2) -> Long.compare(p1.getStartAddress(), p2.getStartAddress()));
+
+        long changedFrom = Long.MAX_VALUE;
+        long changedTo = Long.MIN_VALUE;
+        int next = 0;
+        while (next < released.size()) {
+            // 一段合并区域从第一个被释放分区（或与它相邻的前一个空闲分区）开始
+            long start = released.get(next).getStartAddress();
+            long runStart = start;
+            int pieces = 0;
+            Partition previous = partitions.lower(start);
+            if (previous instanceof FreePartition && previous.getStartAddress() + previous.getSize() == start) {
+                runStart = previous.getStartAddress();
+                freeBlocks.remove(runStart);
+                pieces++;
+            }
+            // 向后吸收被释放的分区和空闲分区，直到遇到仍被占用的分区
+            long cursor = start;
+            Partition partition;
+            while ((partition = partitions.get(cursor)) != null) {
+                if (next < released.size() && released.get(next) == partition) {
+                    if (eventLog != null) {
+                        eventLog.recordRelease(cursor);
+                    }
+                    next++;
+                } else if (partition instanceof FreePartition) {
+                    freeBlocks.remove(cursor);
+                } else {
+                    break;
+                }
+                pieces++;
+                cursor += partition.getSize();
+            }
+            partitions.removeRange(runStart, cursor);
+            partitions.put(new FreePartition(runStart, cursor - runStart));
+            freeBlocks.insert(runStart, cursor - runStart);
+            if (eventLog != null) {
+                for (int i = 1; i < pieces; i++) {
+                    eventLog.recordMerge(runStart);
+                }
             }
+            changedFrom = Math.min(changedFrom, runStart);
+            changedTo = Math.max(changedTo, cursor);
         }
+        partitions.fireChanged(changedFrom, changedTo);
+        return results;
+    }
 
-        // 从空闲分区列表中移除已合并的分区
-        freePartitions.removeAll(mergedPartitions);
-        // 添加合并后的新空闲分区
-        freePartitions.add(new FreePartition(newStart, newSize));
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 作业占用的分区，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        return allocatedPartitions.get(jobName);
+    }
+
+    /**
+     * 获取内存统计信息
+     * 空闲空间、最大空闲分区和空闲分区数由空闲分区索引维护，已分配大小在分配和释放时累计，开销为O(1)
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        return new MemoryStatistics(freeBlocks.getTotalSize(), allocatedBytes, allocatedBytes,
+                freeBlocks.getLargestSize(), freeBlocks.getCount(), allocatedPartitions.size());
     }
 
     /**
      * 显示当前内存使用状态
-     * 输出所有分区的信息，包括已分配和空闲分区
+     * 输出增量维护的统计信息，分区明细在GUI中通过getMemoryStatus()显示
      */
     @Override
     public void displayMemoryStatus() {
-        // 具体实现在GUI中完成
+        System.out.println("可变分区(" + policy + ") " + getStatistics());
     }
 
     /**
      * 获取当前内存状态
-     * 返回按起始地址排序的所有分区列表
+     * 直接按地址顺序复制分区表，不需要排序
      * 
      * @return 包含所有分区（已分配和空闲）的列表
      */
     @Override
     public List<Partition> getMemoryStatus() {
-        List<Partition> allPartitions = new ArrayList<>();
-        // 将已分配和空闲分区合并到一个列表
-        allPartitions.addAll(allocatedPartitions);
-        allPartitions.addAll(freePartitions);
-        // 按起始地址排序
-        allPartitions.sort((p1, p2) -> p1.getStartAddress() - p2.getStartAddress());
-        return allPartitions;
+        return partitions.toList();
+    }
+
+    /**
+     * 查询与地址范围[from, to)有重叠的分区
+     * 开销为O(log n + k)，k为返回的分区数
+     *
+     * @param from 起始地址（包含）
+     * @param to 结束地址（不包含）
+     * @return 按起始地址排序的分区列表
+     */
+    @Override
+    public List<Partition> getPartitions(long from, long to) {
+        return partitions.range(from, to);
+    }
+
+    /**
+     * 注册分区变化监听器
+     * 分配时通知被分割的空闲分区的范围，释放时通知合并后的空闲分区的范围，紧凑时通知被移动的范围
+     *
+     * @param listener 监听器
+     * @return 总是返回true
+     */
+    @Override
+    public boolean addPartitionListener(PartitionListener listener) {
+        partitions.addListener(listener);
+        return true;
+    }
+
+    @Override
+    public void removePartitionListener(PartitionListener listener) {
+        partitions.removeListener(listener);
     }
 }
\ No newline at end of file
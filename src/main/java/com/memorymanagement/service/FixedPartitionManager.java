@@ -1,8 +1,16 @@
 package com.memorymanagement.service;
 
 import com.memorymanagement.model.*;
+import lombok.Getter;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * 固定分区管理器
@@ -14,7 +22,15 @@ import java.util.List;
  * 3. 不支持分区合并和分割
  * 4. 可能产生内部碎片
  * 
- * 分区布局：
+ * 5. 空闲分区按地址索引，首次适应查找的开销为O(log n)，可以支持数百万个分区
+ * 6. 所有分区同时保存在按地址排序的分区表中，getMemoryStatus()无需排序，
+ *    并支持按地址范围查询和分区变化通知（见PartitionListener）
+ * 7. 空闲分区同时按大小类（即分区大小）分桶，最佳适应和最坏适应只需在k个大小类中查找，开销为O(log k)
+ * 8. 支持等待队列：暂时没有合适分区的作业进入队列，有合适的分区被释放时按到达顺序为其分配
+ * 9. 可以把分配和释放记录到事件日志（见MemoryEventLog），用于重建任意时刻的分区表
+ * 10. 支持批量分配和批量释放，整批操作只通知一次分区变化
+ * 
+ * 默认分区布局（总大小、操作系统区域大小和分区布局都可以通过构造函数指定）：
  * - 0~4K：操作系统区域
  * - 4K~6K：两个1K分区
  * - 6K~8K：一个2K分区
@@ -24,14 +40,61 @@ import java.util.List;
  * - 40K~128K：一个88K分区
  */
 public class FixedPartitionManager implements MemoryManager {
-    // 操作系统占用空间大小(4K)
-    private static final int OS_SIZE = 4 * 1024;
-    // 总内存大小(128K)
-    private static final int TOTAL_MEMORY = 128 * 1024;
-    // 已分配分区列表，存储已被作业占用的分区
-    private List<AllocatedPartition> allocatedPartitions;
-    // 空闲分区列表，存储未被分配的分区
-    private List<FreePartition> freePartitions;
+    // 默认操作系统占用空间大小(4K)
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小(128K)
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 默认分区布局
+    public static final String DEFAULT_LAYOUT = "2x1K,2K,2x4K,8K,16K,88K";
+    // 操作系统占用空间大小
+    @Getter
+    private final long osSize;
+    // 总内存大小
+    @Getter
+    private final long totalMemory;
+    // 已分配分区索引，作业名称到已被作业占用的分区的映射（保持分配顺序）
+    private Map<String, AllocatedPartition> allocatedPartitions;
+    // 空闲分区索引，存储未被分配的分区（固定分区不合并，只使用按地址的首次适应查找）
+    private FreeBlockIndex freePartitions;
+    // 按起始地址排序的全部分区（已分配和空闲）
+    private final PartitionMap partitions;
+    // 已分配分区的总大小和作业实际申请的总大小，随分配和释放增量维护
+    private long allocatedBytes;
+    private long requestedBytes;
+    // 放置策略，默认首次适应
+    @Getter
+    private final PlacementPolicy policy;
+    // 所有大小类：分区大小到该大小类的映射
+    private final TreeMap<Long, SizeClass> sizeClasses;
+    // 仍有空闲分区的大小类，最佳适应和最坏适应在其中查找
+    private final TreeMap<Long, SizeClass> freeSizeClasses;
+    // 循环首次适应的游标，即上次分配的分区结束的地址
+    private long rover;
+    // 等待队列：作业名称到申请大小的映射（保持到达顺序）
+    private final Map<String, Long> waitingJobs;
+    // 从等待队列中完成分配的作业数
+    @Getter
+    private long servedFromQueueCount;
+    // 累计的分配次数和每次分配的内部碎片率之和，用于计算平均内部碎片率
+    private long allocationCount;
+    private double internalFragmentationSum;
+    // 事件日志，为null时不记录
+    @Getter
+    private MemoryEventLog eventLog;
+
+    /**
+     * 大小类：同一大小的所有分区
+     */
+    private static final class SizeClass {
+        final long size;                                // 分区大小
+        final TreeSet<Long> freeAddresses = new TreeSet<>(); // 该大小的空闲分区起始地址
+        int partitionCount;                             // 该大小的分区总数
+        long wastedBytes;                               // 该大小的已分配分区中的内部碎片总量
+
+        SizeClass(long size) {
+            this.size = size;
+        }
+    }
 
     /**
      * 构造函数
@@ -42,14 +105,156 @@ public class FixedPartitionManager implements MemoryManager {
      * 3. 初始化预定义大小的分区
      */
     public FixedPartitionManager() {
-        allocatedPartitions = new ArrayList<>();
-        freePartitions = new ArrayList<>();
-        initializePartitions();
+        this(PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 使用默认分区布局和指定放置策略的构造函数
+     * @param policy 放置策略
+     */
+    public FixedPartitionManager(PlacementPolicy policy) {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, parseLayout(DEFAULT_LAYOUT), policy);
+    }
+
+    /**
+     * 使用分区布局描述的构造函数
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间
+     * @param layout 分区布局描述，格式见parseLayout
+     * @throws IllegalArgumentException 参数不合法或分区总大小超过用户区域时抛出
+     */
+    public FixedPartitionManager(long totalMemory, long osSize, String layout) {
+        this(totalMemory, osSize, parseLayout(layout), PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 使用分区布局描述和指定放置策略的构造函数
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间
+     * @param layout 分区布局描述，格式见parseLayout
+     * @param policy 放置策略
+     * @throws IllegalArgumentException 参数不合法或分区总大小超过用户区域时抛出
+     */
+    public FixedPartitionManager(long totalMemory, long osSize, String layout, PlacementPolicy policy) {
+        this(totalMemory, osSize, parseLayout(layout), policy);
+    }
+
+    /**
+     * 构造函数
+     * 从操作系统区域之后开始按顺序划分分区，分区总大小小于用户区域时剩余空间不参与分配
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间
+     * @param partitionSizes 按地址顺序排列的各分区大小
+     * @throws IllegalArgumentException 参数不合法或分区总大小超过用户区域时抛出
+     */
+    public FixedPartitionManager(long totalMemory, long osSize, long[] partitionSizes) {
+        this(totalMemory, osSize, partitionSizes, PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 构造函数
+     * 从操作系统区域之后开始按顺序划分分区，分区总大小小于用户区域时剩余空间不参与分配
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间
+     * @param partitionSizes 按地址顺序排列的各分区大小
+     * @param policy 放置策略：首次适应和循环首次适应按地址查找，最佳适应和最坏适应按大小类查找
+     * @throws IllegalArgumentException 参数不合法或分区总大小超过用户区域时抛出
+     */
+    public FixedPartitionManager(long totalMemory, long osSize, long[] partitionSizes, PlacementPolicy policy) {
+        if (totalMemory <= 0 || osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("内存大小不合法: 总内存" + totalMemory + ", 操作系统区域" + osSize);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("放置策略不能为空");
+        }
+        this.totalMemory = totalMemory;
+        this.osSize = osSize;
+        this.policy = policy;
+        allocatedPartitions = new LinkedHashMap<>();
+        freePartitions = new FreeBlockIndex();
+        partitions = new PartitionMap();
+        sizeClasses = new TreeMap<>();
+        freeSizeClasses = new TreeMap<>();
+        waitingJobs = new LinkedHashMap<>();
+        rover = osSize;
+        initializePartitions(partitionSizes);
+    }
+
+    /**
+     * 解析分区布局描述
+     * 描述由逗号分隔的若干项组成，每项为"[数量x]大小"，大小可以带K、M或G后缀，
+     * 例如默认布局"2x1K,2K,2x4K,8K,16K,88K"
+     *
+     * @param spec 分区布局描述
+     * @return 按地址顺序排列的各分区大小
+     * @throws IllegalArgumentException 描述格式不正确时抛出
+     */
+    public static long[] parseLayout(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("分区布局不能为空");
+        }
+        List<long[]> items = new ArrayList<>();
+        long total = 0;
+        for (String item : spec.split(",")) {
+            String text = item.trim().toUpperCase();
+            int times = text.indexOf('X');
+            try {
+                long count = times < 0 ? 1 : Long.parseLong(text.substring(0, times).trim());
+                long size = parseSize(text.substring(times + 1).trim());
+                if (count <= 0 || size <= 0) {
+                    throw new IllegalArgumentException("分区数量和大小必须为正数: " + item);
+                }
+                items.add(new long[]{count, size});
+                total += count;
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("无法解析分区布局项: " + item, e);
+            }
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("分区数量过多: " + total);
+        }
+        long[] sizes = new long[(int) total];
+        int index = 0;
+        for (long[] entry : items) {
+            for (long i = 0; i < entry[0]; i++) {
+                sizes[index++] = entry[1];
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * 解析带K、M或G后缀的大小，例如"64K"、"8G"或"1536"
+     *
+     * @param text 大小描述
+     * @return 字节数
+     * @throws NumberFormatException 数字格式错误时抛出
+     * @throws ArithmeticException 大小超出long范围时抛出
+     */
+    public static long parseSize(String text) {
+        text = text.trim().toUpperCase();
+        long unit = 1;
+        char suffix = text.isEmpty() ? ' ' : text.charAt(text.length() - 1);
+        if (suffix == 'K') {
+            unit = 1L << 10;
+        } else if (suffix == 'M') {
+            unit = 1L << 20;
+        } else if (suffix == 'G') {
+            unit = 1L << 30;
+        }
+        if (unit > 1) {
+            text = text.substring(0, text.length() - 1).trim();
+        }
+        return Math.multiplyExact(Long.parseLong(text), unit);
     }
 
     /**
      * 初始化固定大小的分区
-     * 按照预定义的大小创建8个分区：
+     * 默认布局创建8个分区：
      * - 2个1K的分区：适合小型作业
      * - 1个2K的分区：适合小到中型作业
      * - 2个4K的分区：适合中型作业
@@ -57,71 +262,174 @@ public class FixedPartitionManager implements MemoryManager {
      * - 1个16K的分区：适合大型作业
      * - 1个88K的分区：适合特大型作业
      */
-    private void initializePartitions() {
-        int currentAddress = OS_SIZE;
-
-        // 创建2个1K的分区，适合小型作业
-        for (int i = 0; i < 2; i++) {
-            freePartitions.add(new FreePartition(currentAddress, 1024));
-            currentAddress += 1024;
+    private void initializePartitions(long[] partitionSizes) {
+        long currentAddress = osSize;
+        for (long size : partitionSizes) {
+            if (size <= 0 || size > totalMemory - currentAddress) {
+                throw new IllegalArgumentException("分区布局超出用户区域: 分区大小" + size + ", 起始地址" + currentAddress);
+            }
+            freePartitions.insert(currentAddress, size);
+            partitions.put(new FreePartition(currentAddress, size));
+            SizeClass sizeClass = sizeClasses.computeIfAbsent(size, SizeClass::new);
+            sizeClass.partitionCount++;
+            addFree(sizeClass, currentAddress);
+            currentAddress += size;
         }
+    }
 
-        // 创建1个2K的分区，适合小到中型作业
-        freePartitions.add(new FreePartition(currentAddress, 2048));
-        currentAddress += 2048;
+    private void addFree(SizeClass sizeClass, long start) {
+        sizeClass.freeAddresses.add(start);
+        freeSizeClasses.put(sizeClass.size, sizeClass);
+    }
 
-        // 创建2个4K的分区，适合中型作业
-        for (int i = 0; i < 2; i++) {
-            freePartitions.add(new FreePartition(currentAddress, 4096));
-            currentAddress += 4096;
+    private void removeFree(SizeClass sizeClass, long start) {
+        sizeClass.freeAddresses.remove(start);
+        if (sizeClass.freeAddresses.isEmpty()) {
+            freeSizeClasses.remove(sizeClass.size);
         }
+    }
 
-        // 创建1个8K的分区，适合中到大型作业
-        freePartitions.add(new FreePartition(currentAddress, 8192));
-        currentAddress += 8192;
-
-        // 创建1个16K的分区，适合大型作业
-        freePartitions.add(new FreePartition(currentAddress, 16384));
-        currentAddress += 16384;
-
-        // 创建1个88K的分区，适合特大型作业
-        freePartitions.add(new FreePartition(currentAddress, 90112));
-        currentAddress += 90112;
+    /**
+     * 开始把分区的分配和释放记录到事件日志，以当前分区表作为日志的初始状态
+     * 固定分区不分割也不合并，日志中只有分配和释放事件
+     *
+     * @param eventLog 尚未开始记录的事件日志，为null时停止记录
+     * @throws IllegalArgumentException 事件日志已被使用时抛出
+     */
+    public void setEventLog(MemoryEventLog eventLog) {
+        if (eventLog != null) {
+            eventLog.begin(partitions.toList());
+        }
+        this.eventLog = eventLog;
     }
 
     /**
      * 分配内存空间
-     * 使用首次适应算法，在固定大小的分区中查找第一个足够大的分区
+     * 按放置策略在固定大小的分区中查找足够大的分区，整个分区分配给作业
      * 
-     * @param jobName 作业名称
+     * @param jobName 作业名称，不能与已分配或正在等待的作业重名
      * @param size 申请的空间大小
      * @return 是否分配成功
      */
     @Override
-    public boolean allocateMemory(String jobName, int size) {
-        // 验证申请的空间大小是否有效
-        if (size <= 0) {
+    public boolean allocateMemory(String jobName, long size) {
+        // 验证申请的空间大小是否有效，作业名称不能重复
+        if (size <= 0 || allocatedPartitions.containsKey(jobName) || waitingJobs.containsKey(jobName)) {
             return false;
         }
         
-        // 遍历空闲分区列表，查找第一个足够大的分区
-        for (int i = 0; i < freePartitions.size(); i++) {
-            FreePartition partition = freePartitions.get(i);
-            if (partition.getSize() >= size) {
-                // 创建新的已分配分区，整个分区都分配给作业
-                AllocatedPartition allocatedPartition = new AllocatedPartition(
-                        partition.getStartAddress(),
-                        partition.getSize(),
-                        jobName
-                );
-                allocatedPartitions.add(allocatedPartition);
-                // 从空闲分区列表中移除已分配的分区
-                freePartitions.remove(i);
-                return true;
+        long start = findFreePartition(size);
+        if (start < 0) {
+            // 没有找到合适的分区
+            return false;
+        }
+        // 从空闲分区索引中移除该分区，整个分区都分配给作业
+        long partitionSize = freePartitions.remove(start);
+        SizeClass sizeClass = sizeClasses.get(partitionSize);
+        removeFree(sizeClass, start);
+        sizeClass.wastedBytes += partitionSize - size;
+        AllocatedPartition partition = new AllocatedPartition(start, partitionSize, jobName, size);
+        allocatedPartitions.put(jobName, partition);
+        partitions.put(partition);
+        allocatedBytes += partitionSize;
+        requestedBytes += size;
+        allocationCount++;
+        internalFragmentationSum += (double) (partitionSize - size) / partitionSize;
+        rover = start + partitionSize;
+        if (eventLog != null) {
+            eventLog.recordAllocate(start, partitionSize, size, jobName);
+        }
+        partitions.fireChanged(start, start + partitionSize);
+        return true;
+    }
+
+    /**
+     * 按放置策略查找空闲分区
+     * @return 空闲分区起始地址，找不到时返回-1
+     */
+    private long findFreePartition(long size) {
+        Map.Entry<Long, SizeClass> entry;
+        switch (policy) {
+            case BEST_FIT:
+                // 不小于申请大小的最小大小类，同一大小类中取地址最低的分区
+                entry = freeSizeClasses.ceilingEntry(size);
+                return entry == null ? -1 : entry.getValue().freeAddresses.first();
+            case WORST_FIT:
+                entry = freeSizeClasses.lastEntry();
+                return entry == null || entry.getKey() < size ? -1 : entry.getValue().freeAddresses.first();
+            case NEXT_FIT:
+                long start = freePartitions.findFirstFitFrom(rover, size);
+                return start >= 0 ? start : freePartitions.findFirstFit(size);
+            case FIRST_FIT:
+            default:
+                return freePartitions.findFirstFit(size);
+        }
+    }
+
+    /**
+     * 分配内存空间，暂时没有合适的空闲分区时进入等待队列
+     * 等待的作业在合适的分区被释放时按到达顺序完成分配，可以通过getAllocatedPartition()查询
+     *
+     * @param jobName 作业名称，不能与已分配或正在等待的作业重名
+     * @param size 申请的空间大小
+     * @return 作业已分配或已进入等待队列时返回true；参数不合法、重名或申请大小超过最大的分区时返回false
+     */
+    public boolean allocateOrWait(String jobName, long size) {
+        if (allocateMemory(jobName, size)) {
+            return true;
+        }
+        if (size <= 0 || allocatedPartitions.containsKey(jobName) || waitingJobs.containsKey(jobName)
+                || sizeClasses.isEmpty() || size > sizeClasses.lastKey()) {
+            return false;
+        }
+        waitingJobs.put(jobName, size);
+        return true;
+    }
+
+    /**
+     * 取消正在等待的作业
+     * @param jobName 作业名称
+     * @return 作业在等待队列中并被移除时返回true
+     */
+    public boolean cancelWaiting(String jobName) {
+        return waitingJobs.remove(jobName) != null;
+    }
+
+    /**
+     * 判断作业是否正在等待
+     * @param jobName 作业名称
+     * @return 作业在等待队列中时返回true
+     */
+    public boolean isWaiting(String jobName) {
+        return waitingJobs.containsKey(jobName);
+    }
+
+    /**
+     * 获取按到达顺序排列的等待作业名称
+     */
+    public List<String> getWaitingJobs() {
+        return new ArrayList<>(waitingJobs.keySet());
+    }
+
+    /**
+     * 为等待队列中的作业分配刚释放的分区
+     * 在此之前等待的作业都放不进其他空闲分区，因此只有刚释放的分区可能满足它们，
+     * 按到达顺序找到第一个放得下的作业为其分配
+     *
+     * @param partitionSize 刚释放的分区大小
+     */
+    private void serveWaitingJobs(long partitionSize) {
+        Iterator<Map.Entry<String, Long>> iterator = waitingJobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> job = iterator.next();
+            if (job.getValue() <= partitionSize) {
+                iterator.remove();
+                if (allocateMemory(job.getKey(), job.getValue())) {
+                    servedFromQueueCount++;
+                }
+                return;
             }
         }
-        // 没有找到合适的分区
-        return false;
     }
 
     /**
@@ -133,49 +441,204 @@ public class FixedPartitionManager implements MemoryManager {
      */
     @Override
     public boolean releaseMemory(String jobName) {
-        // 遍历已分配分区列表，查找要释放的分区
-        for (int i = 0; i < allocatedPartitions.size(); i++) {
-            AllocatedPartition partition = allocatedPartitions.get(i);
-            if (partition.getJobName().equals(jobName)) {
-                // 创建新的空闲分区，保持原分区大小不变
-                FreePartition freePartition = new FreePartition(
-                        partition.getStartAddress(),
-                        partition.getSize()
-                );
-                freePartitions.add(freePartition);
-                // 从已分配分区列表中移除该分区
-                allocatedPartitions.remove(i);
-                return true;
+        AllocatedPartition partition = release(jobName);
+        if (partition == null) {
+            return false;
+        }
+        serveWaitingJobs(partition.getSize());
+        return true;
+    }
+
+    /**
+     * 释放作业占用的分区，不为等待队列中的作业分配
+     * @return 被释放的分区，作业不存在时返回null
+     */
+    private AllocatedPartition release(String jobName) {
+        // 通过作业名称索引查找并移除要释放的分区
+        AllocatedPartition partition = allocatedPartitions.remove(jobName);
+        if (partition == null) {
+            // 没有找到对应的分区
+            return null;
+        }
+        // 分区重新变为空闲，保持原分区大小不变（不与相邻分区合并）
+        freePartitions.insert(partition.getStartAddress(), partition.getSize());
+        partitions.put(new FreePartition(partition.getStartAddress(), partition.getSize()));
+        SizeClass sizeClass = sizeClasses.get(partition.getSize());
+        addFree(sizeClass, partition.getStartAddress());
+        sizeClass.wastedBytes -= partition.getSize() - partition.getRequestedSize();
+        allocatedBytes -= partition.getSize();
+        requestedBytes -= partition.getRequestedSize();
+        if (eventLog != null) {
+            eventLog.recordRelease(partition.getStartAddress());
+        }
+        partitions.fireChanged(partition.getStartAddress(), partition.getStartAddress() + partition.getSize());
+        return partition;
+    }
+
+    /**
+     * 批量分配内存空间
+     * 整批请求只通知一次分区变化；全部成功或全部失败模式下撤销已分配的作业时，
+     * 释放的分区不会分配给等待队列中的作业
+     *
+     * @param requests 按顺序处理的分配请求
+     * @param atomic 是否全部成功或全部失败
+     * @return 与请求一一对应的分配结果，atomic为true且有请求失败时全部为false
+     */
+    @Override
+    public boolean[] allocateAll(List<AllocationRequest> requests, boolean atomic) {
+        boolean[] results = new boolean[requests.size()];
+        partitions.beginBatch();
+        try {
+            for (int i = 0; i < results.length; i++) {
+                AllocationRequest request = requests.get(i);
+                results[i] = allocateMemory(request.getJobName(), request.getSize());
+                if (atomic && !results[i]) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        release(requests.get(j).getJobName());
+                    }
+                    return new boolean[results.length];
+                }
+            }
+            return results;
+        } finally {
+            partitions.endBatch();
+        }
+    }
+
+    /**
+     * 批量释放内存空间
+     * 先释放所有作业，再按释放顺序为等待队列中的作业分配，整批释放只通知一次分区变化
+     *
+     * @param jobNames 要释放内存的作业名称集合，不存在的作业会被跳过
+     * @return 按集合的迭代顺序与作业一一对应的释放结果
+     */
+    @Override
+    public boolean[] releaseAll(Collection<String> jobNames) {
+        boolean[] results = new boolean[jobNames.size()];
+        List<Long> releasedSizes = new ArrayList<>();
+        partitions.beginBatch();
+        try {
+            int index = 0;
+            for (String jobName : jobNames) {
+                AllocatedPartition partition = release(jobName);
+                if (partition != null) {
+                    releasedSizes.add(partition.getSize());
+                    results[index] = true;
+                }
+                index++;
+            }
+            for (long size : releasedSizes) {
+                if (waitingJobs.isEmpty()) {
+                    break;
+                }
+                serveWaitingJobs(size);
             }
+            return results;
+        } finally {
+            partitions.endBatch();
+        }
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 作业占用的分区，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        return allocatedPartitions.get(jobName);
+    }
+
+    /**
+     * 获取内存统计信息
+     * 空闲空间、最大空闲分区和空闲分区数由空闲分区索引维护，已分配大小和申请大小在分配和释放时累计，开销为O(1)。
+     * 固定分区整块分配给作业，已分配大小与申请大小之差即为内部碎片
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        return new MemoryStatistics(freePartitions.getTotalSize(), allocatedBytes, requestedBytes,
+                freePartitions.getLargestSize(), freePartitions.getCount(), allocatedPartitions.size());
+    }
+
+    /**
+     * 获取各大小类当前的内部碎片
+     * @return 分区大小到该大小的已分配分区中内部碎片总量（字节）的映射，按分区大小排序
+     */
+    public Map<Long, Long> getInternalFragmentationBySizeClass() {
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (SizeClass sizeClass : sizeClasses.values()) {
+            result.put(sizeClass.size, sizeClass.wastedBytes);
         }
-        // 没有找到对应的分区
-        return false;
+        return result;
+    }
+
+    /**
+     * 获取历史上所有成功分配的平均内部碎片率
+     * 即每次分配中分区未被使用的部分占分区大小的比例的平均值
+     *
+     * @return 0到1之间的平均内部碎片率，尚未分配时返回0
+     */
+    public double getAverageInternalFragmentation() {
+        return allocationCount == 0 ? 0.0 : internalFragmentationSum / allocationCount;
     }
 
     /**
      * 显示当前内存使用状态
-     * 输出所有分区的信息，包括已分配和空闲分区
+     * 输出增量维护的统计信息和各大小类的内部碎片，分区明细在GUI中通过getMemoryStatus()显示
      */
     @Override
     public void displayMemoryStatus() {
-        // 具体实现在GUI中完成
+        System.out.println("固定分区(" + policy + ") " + getStatistics());
+        for (SizeClass sizeClass : sizeClasses.values()) {
+            System.out.println("  大小类" + formatNumber(10, sizeClass.size) + "字节: 分区" + sizeClass.partitionCount
+                    + "个, 空闲" + sizeClass.freeAddresses.size() + "个, 内部碎片" + sizeClass.wastedBytes + "字节");
+        }
+        System.out.printf("  平均内部碎片率: %.1f%%, 等待作业: %d个%n",
+                getAverageInternalFragmentation() * 100, waitingJobs.size());
     }
 
     /**
      * 获取当前内存状态
-     * 返回按起始地址排序的所有分区列表
+     * 直接按地址顺序复制分区表，不需要排序
      * 
      * @return 包含所有分区（已分配和空闲）的列表
      */
     @Override
     public List<Partition> getMemoryStatus() {
-        List<Partition> allPartitions = new ArrayList<>();
-        // 将已分配和空闲分区合并到一个列表
-        allPartitions.addAll(allocatedPartitions);
-        allPartitions.addAll(freePartitions);
-        // 按起始地址排序
-        allPartitions.sort((p1, p2) -> p1.getStartAddress() - p2.getStartAddress());
-        return allPartitions;
+        return partitions.toList();
+    }
+
+    /**
+     * 查询与地址范围[from, to)有重叠的分区
+     * 开销为O(log n + k)，k为返回的分区数
+     *
+     * @param from 起始地址（包含）
+     * @param to 结束地址（不包含）
+     * @return 按起始地址排序的分区列表
+     */
+    @Override
+    public List<Partition> getPartitions(long from, long to) {
+        return partitions.range(from, to);
+    }
+
+    /**
+     * 注册分区变化监听器
+     * 固定分区不分割也不合并，每次分配或释放只通知该分区本身的范围
+     *
+     * @param listener 监听器
+     * @return 总是返回true
+     */
+    @Override
+    public boolean addPartitionListener(PartitionListener listener) {
+        partitions.addListener(listener);
+        return true;
+    }
+
+    @Override
+    public void removePartitionListener(PartitionListener listener) {
+        partitions.removeListener(listener);
     }
 
     /**
@@ -186,7 +649,7 @@ public class FixedPartitionManager implements MemoryManager {
      * @param number 要格式化的数字
      * @return 格式化后的字符串
      */
-    private String formatNumber(int width, int number) {
+    private String formatNumber(int width, long number) {
         String numStr = String.valueOf(number);
         int spaces = width - numStr.length();
         return " ".repeat(spaces) + numStr + " ";
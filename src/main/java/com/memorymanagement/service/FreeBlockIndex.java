@@ -0,0 +1,301 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.FreePartition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * 空闲块索引
+ * 同时按地址和按大小组织空闲块，使分配和合并的开销从O(n)降为O(log n)
+ *
+ * 数据结构：
+ * - 按地址排序的树堆（Treap），每个结点额外记录子树中最大的空闲块大小，
+ *   可以在O(log n)时间内找到"地址最低且足够大"的空闲块（首次适应），
+ *   也可以在O(log n)时间内找到某个地址前后相邻的空闲块（合并）
+ * - 按（大小，地址）排序的有序集合，用于最佳适应和最坏适应查找
+ *
+ * 两个结构中存放的是同一批结点，结点在索引中时其地址和大小不会被修改
+ */
+public class FreeBlockIndex {
+    /**
+     * 空闲块结点
+     */
+    private static final class Node {
+        final long start;       // 空闲块起始地址
+        final long size;        // 空闲块大小
+        final int priority;     // 树堆优先级（随机）
+        long maxSize;           // 以该结点为根的子树中最大的空闲块大小
+        Node left;
+        Node right;
+
+        Node(long start, long size, int priority) {
+            this.start = start;
+            this.size = size;
+            this.priority = priority;
+            this.maxSize = size;
+        }
+    }
+
+    private static final Comparator<Node> BY_SIZE =
+            Comparator.<Node>comparingLong(n -> n.size).thenComparingLong(n -> n.start);
+
+    private final Random random;            // 生成树堆优先级，固定种子保证结果可重现
+    private final TreeSet<Node> bySize;     // 按大小排序的空闲块
+    private Node root;                      // 按地址排序的树堆的根
+    private int count;                      // 空闲块数量
+    private long totalSize;                 // 空闲空间总量
+
+    /**
+     * 空闲块索引构造函数，初始时没有空闲块
+     */
+    public FreeBlockIndex() {
+        this.random = new Random(0x5eed);
+        this.bySize = new TreeSet<>(BY_SIZE);
+    }
+
+    /**
+     * 加入一个空闲块（不做合并）
+     * @param start 起始地址，不能与已有空闲块重叠
+     * @param size 大小，必须为正数
+     */
+    public void insert(long start, long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("空闲块大小必须为正数: " + size);
+        }
+        Node node = new Node(start, size, random.nextInt());
+        Node[] parts = split(root, start);
+        root = merge(merge(parts[0], node), parts[1]);
+        bySize.add(node);
+        count++;
+        totalSize += size;
+    }
+
+    /**
+     * 移除起始地址为start的空闲块
+     * @param start 起始地址
+     * @return 被移除空闲块的大小，不存在时返回-1
+     */
+    public long remove(long start) {
+        Node[] parts = split(root, start);
+        Node[] rest = split(parts[1], start + 1);
+        Node node = rest[0];        // 地址互不相同，因此中间部分至多只有一个结点
+        root = merge(parts[0], rest[1]);
+        if (node == null) {
+            return -1;
+        }
+        bySize.remove(node);
+        count--;
+        totalSize -= node.size;
+        return node.size;
+    }
+
+    /**
+     * 释放一个块并与地址相邻的空闲块合并
+     * @param start 被释放块的起始地址
+     * @param size 被释放块的大小
+     * @return 合并后空闲块的起始地址
+     */
+    public long release(long start, long size) {
+        long end = start + size;
+        Node before = floor(start - 1);
+        if (before != null && before.start + before.size == start) {
+            remove(before.start);
+            start = before.start;
+            size += before.size;
+        }
+        Node after = floor(end);
+        if (after != null && after.start == end) {
+            remove(after.start);
+            size += after.size;
+        }
+        insert(start, size);
+        return start;
+    }
+
+    /**
+     * 首次适应：查找地址最低且大小不小于size的空闲块
+     * @return 空闲块起始地址，找不到时返回-1
+     */
+    public long findFirstFit(long size) {
+        Node node = firstFit(root, size);
+        return node == null ? -1 : node.start;
+    }
+
+    /**
+     * 查找起始地址不小于address、地址最低且大小不小于size的空闲块
+     * @return 空闲块起始地址，找不到时返回-1
+     */
+    public long findFirstFitFrom(long address, long size) {
+        Node node = firstFitFrom(root, address, size);
+        return node == null ? -1 : node.start;
+    }
+
+    /**
+     * 最佳适应：查找大小不小于size的最小空闲块（大小相同时取地址最低的）
+     * @return 空闲块起始地址，找不到时返回-1
+     */
+    public long findBestFit(long size) {
+        Node node = bySize.ceiling(new Node(Long.MIN_VALUE, size, 0));
+        return node == null ? -1 : node.start;
+    }
+
+    /**
+     * 最坏适应：查找最大的空闲块
+     * @return 空闲块起始地址，其大小小于size或没有空闲块时返回-1
+     */
+    public long findWorstFit(long size) {
+        if (bySize.isEmpty() || bySize.last().size < size) {
+            return -1;
+        }
+        return bySize.last().start;
+    }
+
+    /**
+     * 获取起始地址为start的空闲块大小
+     * @return 空闲块大小，不存在时返回-1
+     */
+    public long sizeAt(long start) {
+        Node node = floor(start);
+        return node != null && node.start == start ? node.size : -1;
+    }
+
+    /**
+     * 获取最大空闲块的大小
+     * @return 最大空闲块大小，没有空闲块时返回0
+     */
+    public long getLargestSize() {
+        return root == null ? 0 : root.maxSize;
+    }
+
+    /**
+     * 获取空闲块数量
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 获取空闲空间总量
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * 按地址顺序生成所有空闲块的分区视图
+     * @return 空闲分区列表
+     */
+    public List<FreePartition> toPartitions() {
+        List<FreePartition> result = new ArrayList<>(count);
+        collect(root, result);
+        return result;
+    }
+
+    private void collect(Node node, List<FreePartition> result) {
+        while (node != null) {
+            collect(node.left, result);
+            result.add(new FreePartition(node.start, node.size));
+            node = node.right;
+        }
+    }
+
+    /**
+     * 查找起始地址不大于key的最后一个空闲块
+     */
+    private Node floor(long key) {
+        Node node = root;
+        Node result = null;
+        while (node != null) {
+            if (node.start <= key) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private static Node firstFit(Node node, long size) {
+        while (node != null && node.maxSize >= size) {
+            if (node.left != null && node.left.maxSize >= size) {
+                node = node.left;
+            } else if (node.size >= size) {
+                return node;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private static Node firstFitFrom(Node node, long address, long size) {
+        if (node == null || node.maxSize < size) {
+            return null;
+        }
+        if (node.start < address) {
+            return firstFitFrom(node.right, address, size);
+        }
+        Node result = firstFitFrom(node.left, address, size);
+        if (result != null) {
+            return result;
+        }
+        return node.size >= size ? node : firstFit(node.right, size);
+    }
+
+    /**
+     * 将树堆按地址拆分为小于key和不小于key的两部分
+     */
+    private static Node[] split(Node node, long key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        Node[] parts;
+        if (node.start < key) {
+            parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = node;
+        } else {
+            parts = split(node.left, key);
+            node.left = parts[1];
+            parts[1] = node;
+        }
+        update(node);
+        return parts;
+    }
+
+    /**
+     * 合并两个树堆，要求left中所有地址都小于right中的地址
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        long max = node.size;
+        if (node.left != null && node.left.maxSize > max) {
+            max = node.left.maxSize;
+        }
+        if (node.right != null && node.right.maxSize > max) {
+            max = node.right.maxSize;
+        }
+        node.maxSize = max;
+    }
+}
@@ -0,0 +1,48 @@
+package com.memorymanagement.service;
+
+import lombok.Getter;
+
+/**
+ * 内存事件类
+ * 事件日志中的一条记录，描述分区表的一次变化
+ */
+@Getter
+public class MemoryEvent {
+    /**
+     * 内存事件类型
+     */
+    public enum Type {
+        ALLOCATE,   // 起始地址为start、大小为size的空闲分区分配给作业
+        RELEASE,    // 起始地址为start的已分配分区变为空闲
+        SPLIT,      // 起始地址为start的空闲分区分割为大小为size的前半部分和剩余部分
+        MERGE,      // 起始地址为start的空闲分区与紧随其后的空闲分区合并
+        COMPACT     // 地址范围[start, start + size)内的已分配分区按顺序滑动到范围开头，剩余空间成为末尾的空闲分区
+    }
+
+    private final Type type;            // 事件类型
+    private final long start;           // 分区或紧凑范围的起始地址
+    private final long size;            // 分配的分区大小、分割后前半部分的大小或紧凑范围的长度，其他事件为0
+    private final long requestedSize;   // 作业实际申请的大小，只有分配事件有效
+    private final String jobName;       // 作业名称，只有分配事件有效
+
+    MemoryEvent(Type type, long start, long size, long requestedSize, String jobName) {
+        this.type = type;
+        this.start = start;
+        this.size = size;
+        this.requestedSize = requestedSize;
+        this.jobName = jobName;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ALLOCATE:
+                return String.format("%s 地址: %d, 大小: %d, 申请: %d, 作业: %s", type, start, size, requestedSize, jobName);
+            case SPLIT:
+            case COMPACT:
+                return String.format("%s 地址: %d, 大小: %d", type, start, size);
+            default:
+                return String.format("%s 地址: %d", type, start);
+        }
+    }
+}
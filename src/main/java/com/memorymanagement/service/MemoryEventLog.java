@@ -0,0 +1,485 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.FreePartition;
+import com.memorymanagement.model.Partition;
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 内存事件日志
+ * 以紧凑的二进制格式追加记录内存管理器的分配、释放、分割、合并和紧凑事件（见MemoryEvent），
+ * 可以重建任意事件序号时的分区表，用于审计长时间运行中碎片的演变过程
+ *
+ * 编码：每条事件以1字节类型开头，地址和大小使用变长整数（每字节7位），作业名称只在分配事件中以UTF-8记录，
+ * 常见的事件只占几个字节
+ *
+ * 检查点：日志内部按事件维护一份分区表，每记录checkpointInterval条事件保存一次分区表快照及其在日志中的位置。
+ * 重建第k条事件之后的分区表时，从k之前最近的检查点出发，只重放其后不超过checkpointInterval条事件
+ *
+ * 使用方式：通过DynamicPartitionManager或FixedPartitionManager的setEventLog()开始记录，
+ * 当时的分区表即为日志的初始状态（事件序号0）
+ */
+public class MemoryEventLog {
+    // 默认检查点间隔（事件数）
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+    // 日志文件的魔数（"MEVL"）和格式版本
+    private static final int MAGIC = 0x4D45564C;
+    private static final int VERSION = 1;
+
+    /**
+     * 检查点：第eventIndex条事件之后的分区表快照
+     */
+    private static final class Checkpoint {
+        final long eventIndex;          // 快照对应的事件序号
+        final int offset;               // 下一条事件在日志中的字节位置
+        final Partition[] partitions;   // 按起始地址排序的分区，不会被修改
+
+        Checkpoint(long eventIndex, int offset, Partition[] partitions) {
+            this.eventIndex = eventIndex;
+            this.offset = offset;
+            this.partitions = partitions;
+        }
+    }
+
+    @Getter
+    private final int checkpointInterval;
+    private byte[] data;                                // 编码后的事件
+    private int length;                                 // 已使用的字节数
+    @Getter
+    private long eventCount;                            // 已记录的事件数
+    private final TreeMap<Long, Partition> current;     // 最新事件之后的分区表
+    private final List<Checkpoint> checkpoints;         // 按事件序号排列的检查点
+    private boolean started;
+
+    /**
+     * 使用默认检查点间隔的构造函数
+     */
+    public MemoryEventLog() {
+        this(DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * 构造函数
+     * @param checkpointInterval 检查点间隔（事件数），越小重建越快，检查点占用的内存越多
+     * @throws IllegalArgumentException 间隔不是正数时抛出
+     */
+    public MemoryEventLog(int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("检查点间隔必须为正数: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+        this.data = new byte[256];
+        this.current = new TreeMap<>();
+        this.checkpoints = new ArrayList<>();
+    }
+
+    /**
+     * 以给定的分区表作为初始状态开始记录
+     * @throws IllegalArgumentException 日志已经开始记录时抛出
+     */
+    void begin(List<Partition> partitions) {
+        if (started) {
+            throw new IllegalArgumentException("事件日志已被使用，不能再次开始记录");
+        }
+        started = true;
+        for (Partition partition : partitions) {
+            Partition copy = copy(partition);
+            current.put(copy.getStartAddress(), copy);
+        }
+        checkpoints.add(new Checkpoint(0, 0, current.values().toArray(new Partition[0])));
+    }
+
+    /**
+     * 记录分配事件：起始地址为start、大小为size的空闲分区分配给作业
+     */
+    void recordAllocate(long start, long size, long requestedSize, String jobName) {
+        byte[] name = jobName.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(1 + 30 + 5 + name.length);
+        writeByte(MemoryEvent.Type.ALLOCATE.ordinal());
+        writeVarLong(start);
+        writeVarLong(size);
+        writeVarLong(size - requestedSize);
+        writeVarLong(name.length);
+        System.arraycopy(name, 0, data, length, name.length);
+        length += name.length;
+        appended(new MemoryEvent(MemoryEvent.Type.ALLOCATE, start, size, requestedSize, jobName), length);
+    }
+
+    /**
+     * 记录释放事件：起始地址为start的已分配分区变为空闲
+     */
+    void recordRelease(long start) {
+        record(MemoryEvent.Type.RELEASE, start, 0);
+    }
+
+    /**
+     * 记录分割事件：起始地址为start的空闲分区分割为大小为firstSize的前半部分和剩余部分
+     */
+    void recordSplit(long start, long firstSize) {
+        record(MemoryEvent.Type.SPLIT, start, firstSize);
+    }
+
+    /**
+     * 记录合并事件：起始地址为start的空闲分区与紧随其后的空闲分区合并
+     */
+    void recordMerge(long start) {
+        record(MemoryEvent.Type.MERGE, start, 0);
+    }
+
+    /**
+     * 记录紧凑事件：地址范围[from, to)内的已分配分区滑动到范围开头
+     */
+    void recordCompact(long from, long to) {
+        record(MemoryEvent.Type.COMPACT, from, to - from);
+    }
+
+    private void record(MemoryEvent.Type type, long start, long size) {
+        ensureCapacity(1 + 20);
+        writeByte(type.ordinal());
+        writeVarLong(start);
+        if (type == MemoryEvent.Type.SPLIT || type == MemoryEvent.Type.COMPACT) {
+            writeVarLong(size);
+        }
+        appended(new MemoryEvent(type, start, size, 0, null), length);
+    }
+
+    /**
+     * 事件编码完成后更新分区表，到达检查点间隔时保存快照
+     * @param end 该事件之后的字节位置
+     */
+    private void appended(MemoryEvent event, int end) {
+        apply(current, event);
+        eventCount++;
+        if (eventCount % checkpointInterval == 0) {
+            checkpoints.add(new Checkpoint(eventCount, end, current.values().toArray(new Partition[0])));
+        }
+    }
+
+    /**
+     * 获取编码后的日志大小
+     * @return 事件占用的字节数（不含检查点）
+     */
+    public long getSizeInBytes() {
+        return length;
+    }
+
+    /**
+     * 获取检查点数量（含初始状态）
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /**
+     * 重建前eventIndex条事件发生之后的分区表
+     * 从最近的检查点出发重放其后的事件，开销为O(n + checkpointInterval)，n为分区数
+     *
+     * @param eventIndex 事件序号，0表示开始记录时的初始状态，eventCount表示当前状态
+     * @return 按起始地址排序的分区列表（新创建的对象，修改它们不影响日志）
+     * @throws IllegalArgumentException 日志尚未开始记录或序号超出范围时抛出
+     */
+    public List<Partition> getMemoryMapAt(long eventIndex) {
+        if (!started || eventIndex < 0 || eventIndex > eventCount) {
+            throw new IllegalArgumentException("事件序号超出范围: " + eventIndex + "，共" + eventCount + "条事件");
+        }
+        Checkpoint checkpoint = checkpointBefore(eventIndex);
+        TreeMap<Long, Partition> map = new TreeMap<>();
+        for (Partition partition : checkpoint.partitions) {
+            map.put(partition.getStartAddress(), partition);
+        }
+        EventReader reader = new EventReader(checkpoint.offset);
+        for (long i = checkpoint.eventIndex; i < eventIndex; i++) {
+            apply(map, reader.next());
+        }
+        List<Partition> result = new ArrayList<>(map.size());
+        for (Partition partition : map.values()) {
+            result.add(copy(partition));
+        }
+        return result;
+    }
+
+    /**
+     * 获取序号在[from, to)内的事件，第一条事件的序号为0
+     * 从from之前最近的检查点开始解码
+     *
+     * @param from 起始序号（包含）
+     * @param to 结束序号（不包含）
+     * @return 事件列表
+     * @throws IllegalArgumentException 序号范围不合法时抛出
+     */
+    public List<MemoryEvent> getEvents(long from, long to) {
+        if (from < 0 || from > to || to > eventCount) {
+            throw new IllegalArgumentException("事件序号范围不合法: [" + from + ", " + to + ")，共" + eventCount + "条事件");
+        }
+        List<MemoryEvent> events = new ArrayList<>();
+        if (from == to) {
+            return events;
+        }
+        Checkpoint checkpoint = checkpointBefore(from);
+        EventReader reader = new EventReader(checkpoint.offset);
+        for (long i = checkpoint.eventIndex; i < to; i++) {
+            MemoryEvent event = reader.next();
+            if (i >= from) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 查找事件序号不超过eventIndex的最后一个检查点
+     */
+    private Checkpoint checkpointBefore(long eventIndex) {
+        int index = (int) Math.min(eventIndex / checkpointInterval, checkpoints.size() - 1);
+        return checkpoints.get(index);
+    }
+
+    /**
+     * 把初始分区表和全部事件写出到输出流，检查点不写出，读取时重新生成
+     *
+     * @param out 输出流
+     * @throws IOException 写入出错时抛出
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeInt(checkpointInterval);
+        Partition[] initial = started ? checkpoints.get(0).partitions : new Partition[0];
+        output.writeInt(initial.length);
+        for (Partition partition : initial) {
+            output.writeBoolean(partition instanceof AllocatedPartition);
+            output.writeLong(partition.getStartAddress());
+            output.writeLong(partition.getSize());
+            if (partition instanceof AllocatedPartition) {
+                AllocatedPartition allocated = (AllocatedPartition) partition;
+                output.writeLong(allocated.getRequestedSize());
+                output.writeUTF(allocated.getJobName());
+            }
+        }
+        output.writeLong(eventCount);
+        output.writeInt(length);
+        output.write(data, 0, length);
+        output.flush();
+    }
+
+    /**
+     * 从输入流读取writeTo()写出的日志，重放全部事件以重新生成检查点
+     *
+     * @param in 输入流
+     * @return 事件日志，只用于查询，不能再交给内存管理器记录
+     * @throws IOException 读取出错时抛出
+     * @throws IllegalArgumentException 日志格式错误或事件与分区表不一致时抛出
+     */
+    public static MemoryEventLog readFrom(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+            throw new IllegalArgumentException("不是内存事件日志或版本不受支持");
+        }
+        MemoryEventLog log = new MemoryEventLog(input.readInt());
+        int partitionCount = input.readInt();
+        List<Partition> initial = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            boolean allocated = input.readBoolean();
+            long start = input.readLong();
+            long size = input.readLong();
+            if (allocated) {
+                long requestedSize = input.readLong();
+                initial.add(new AllocatedPartition(start, size, input.readUTF(), requestedSize));
+            } else {
+                initial.add(new FreePartition(start, size));
+            }
+        }
+        log.begin(initial);
+        long count = input.readLong();
+        int byteCount = input.readInt();
+        if (count < 0 || byteCount < 0) {
+            throw new IllegalArgumentException("日志长度不合法");
+        }
+        log.data = new byte[Math.max(byteCount, 256)];
+        input.readFully(log.data, 0, byteCount);
+        log.length = byteCount;
+        EventReader reader = log.new EventReader(0);
+        for (long i = 0; i < count; i++) {
+            log.appended(reader.next(), reader.position);
+        }
+        if (reader.position != byteCount) {
+            throw new IllegalArgumentException("日志中的事件数与记录的不一致");
+        }
+        return log;
+    }
+
+    /**
+     * 把一条事件应用到分区表，分区对象只替换不修改，检查点可以共享它们
+     * @throws IllegalArgumentException 事件与分区表不一致时抛出
+     */
+    private static void apply(TreeMap<Long, Partition> map, MemoryEvent event) {
+        long start = event.getStart();
+        Partition partition = map.get(start);
+        switch (event.getType()) {
+            case ALLOCATE:
+                requireFree(partition, event);
+                if (partition.getSize() != event.getSize()) {
+                    throw inconsistent(event);
+                }
+                map.put(start, new AllocatedPartition(start, event.getSize(), event.getJobName(), event.getRequestedSize()));
+                break;
+            case RELEASE:
+                if (!(partition instanceof AllocatedPartition)) {
+                    throw inconsistent(event);
+                }
+                map.put(start, new FreePartition(start, partition.getSize()));
+                break;
+            case SPLIT:
+                requireFree(partition, event);
+                if (event.getSize() <= 0 || event.getSize() >= partition.getSize()) {
+                    throw inconsistent(event);
+                }
+                map.put(start, new FreePartition(start, event.getSize()));
+                map.put(start + event.getSize(), new FreePartition(start + event.getSize(), partition.getSize() - event.getSize()));
+                break;
+            case MERGE:
+                requireFree(partition, event);
+                Partition next = map.get(start + partition.getSize());
+                if (!(next instanceof FreePartition)) {
+                    throw inconsistent(event);
+                }
+                map.remove(next.getStartAddress());
+                map.put(start, new FreePartition(start, partition.getSize() + next.getSize()));
+                break;
+            case COMPACT:
+            default:
+                long end = start + event.getSize();
+                Map<Long, Partition> window = map.subMap(start, end);
+                List<Partition> moved = new ArrayList<>(window.values());
+                window.clear();
+                long cursor = start;
+                for (Partition p : moved) {
+                    if (p instanceof AllocatedPartition) {
+                        AllocatedPartition allocated = (AllocatedPartition) p;
+                        map.put(cursor, new AllocatedPartition(cursor, p.getSize(), allocated.getJobName(),
+                                allocated.getRequestedSize()));
+                        cursor += p.getSize();
+                    }
+                }
+                if (cursor > end) {
+                    throw inconsistent(event);
+                }
+                if (cursor < end) {
+                    map.put(cursor, new FreePartition(cursor, end - cursor));
+                }
+                break;
+        }
+    }
+
+    private static void requireFree(Partition partition, MemoryEvent event) {
+        if (!(partition instanceof FreePartition)) {
+            throw inconsistent(event);
+        }
+    }
+
+    private static IllegalArgumentException inconsistent(MemoryEvent event) {
+        return new IllegalArgumentException("事件与分区表不一致: " + event);
+    }
+
+    private static Partition copy(Partition partition) {
+        if (partition instanceof AllocatedPartition) {
+            AllocatedPartition allocated = (AllocatedPartition) partition;
+            return new AllocatedPartition(allocated.getStartAddress(), allocated.getSize(), allocated.getJobName(),
+                    allocated.getRequestedSize());
+        }
+        return new FreePartition(partition.getStartAddress(), partition.getSize());
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            long capacity = Math.max((long) data.length * 2, (long) length + extra);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("事件日志超过2G字节");
+            }
+            data = Arrays.copyOf(data, (int) capacity);
+        }
+    }
+
+    private void writeByte(int value) {
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * 写出非负的变长整数，每字节保存7位，最高位表示后面还有字节
+     */
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * 从指定字节位置开始顺序解码事件
+     */
+    private final class EventReader {
+        int position;
+
+        EventReader(int position) {
+            this.position = position;
+        }
+
+        MemoryEvent next() {
+            if (position >= length) {
+                throw new IllegalArgumentException("事件日志在第" + position + "字节处意外结束");
+            }
+            int ordinal = data[position++];
+            if (ordinal < 0 || ordinal >= MemoryEvent.Type.values().length) {
+                throw new IllegalArgumentException("事件日志第" + (position - 1) + "字节处的事件类型未知: " + ordinal);
+            }
+            MemoryEvent.Type type = MemoryEvent.Type.values()[ordinal];
+            long start = readVarLong();
+            switch (type) {
+                case ALLOCATE:
+                    long size = readVarLong();
+                    long requested = size - readVarLong();
+                    int nameLength = (int) readVarLong();
+                    if (nameLength < 0 || nameLength > length - position) {
+                        throw new IllegalArgumentException("事件日志第" + position + "字节处的作业名称长度不合法");
+                    }
+                    String jobName = new String(data, position, nameLength, StandardCharsets.UTF_8);
+                    position += nameLength;
+                    return new MemoryEvent(type, start, size, requested, jobName);
+                case SPLIT:
+                case COMPACT:
+                    return new MemoryEvent(type, start, readVarLong(), 0, null);
+                default:
+                    return new MemoryEvent(type, start, 0, 0, null);
+            }
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= length) {
+                    throw new IllegalArgumentException("事件日志在第" + position + "字节处意外结束");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("事件日志第" + position + "字节处的变长整数过长");
+        }
+    }
+}
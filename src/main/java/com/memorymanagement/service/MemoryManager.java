@@ -1,6 +1,12 @@
 package com.memorymanagement.service;
 
+import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.AllocationRequest;
+import com.memorymanagement.model.FreePartition;
+import com.memorymanagement.model.MemoryStatistics;
 import com.memorymanagement.model.Partition;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,7 +36,7 @@ public interface MemoryManager {
      * 2. 申请的空间大小超出系统限制
      * 3. 作业名称已存在
      */
-    boolean allocateMemory(String jobName, int size);
+    boolean allocateMemory(String jobName, long size);
 
     /**
      * 释放指定作业占用的内存空间
@@ -45,6 +51,57 @@ public interface MemoryManager {
      */
     boolean releaseMemory(String jobName);
 
+    /**
+     * 批量分配内存空间，各请求相互独立，某个请求失败不影响其他请求
+     *
+     * @param requests 按顺序处理的分配请求
+     * @return 与请求一一对应的分配结果
+     * @see #allocateAll(List, boolean)
+     */
+    default boolean[] allocateAll(List<AllocationRequest> requests) {
+        return allocateAll(requests, false);
+    }
+
+    /**
+     * 批量分配内存空间
+     * 默认实现依次调用allocateMemory()，全部成功或全部失败模式下遇到失败的请求时按相反顺序释放已分配的作业。
+     * 实现类可以在整批请求完成后只通知一次分区变化，以减少监听器（如GUI）的刷新次数
+     *
+     * @param requests 按顺序处理的分配请求
+     * @param atomic 是否全部成功或全部失败：为true时只要有一个请求失败，整批请求都不分配
+     * @return 与请求一一对应的分配结果，atomic为true且有请求失败时全部为false
+     */
+    default boolean[] allocateAll(List<AllocationRequest> requests, boolean atomic) {
+        boolean[] results = new boolean[requests.size()];
+        for (int i = 0; i < results.length; i++) {
+            AllocationRequest request = requests.get(i);
+            results[i] = allocateMemory(request.getJobName(), request.getSize());
+            if (atomic && !results[i]) {
+                for (int j = i - 1; j >= 0; j--) {
+                    releaseMemory(requests.get(j).getJobName());
+                }
+                return new boolean[results.length];
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 批量释放多个作业占用的内存空间
+     * 默认实现依次调用releaseMemory()，实现类可以在一次扫描中合并所有释放出的空闲分区
+     *
+     * @param jobNames 要释放内存的作业名称集合，不存在的作业会被跳过
+     * @return 按集合的迭代顺序与作业一一对应的释放结果
+     */
+    default boolean[] releaseAll(Collection<String> jobNames) {
+        boolean[] results = new boolean[jobNames.size()];
+        int i = 0;
+        for (String jobName : jobNames) {
+            results[i++] = releaseMemory(jobName);
+        }
+        return results;
+    }
+
     /**
      * 显示当前内存使用状态
      * 包括：
@@ -54,6 +111,33 @@ public interface MemoryManager {
      */
     void displayMemoryStatus();
 
+    /**
+     * 获取内存统计信息（空闲/已分配字节数、最大空闲分区、空闲分区数和碎片率）
+     * 默认实现遍历getMemoryStatus()的结果，实现类应在分配和释放时增量维护统计值，以O(1)开销返回
+     *
+     * @return 当前的内存统计信息
+     */
+    default MemoryStatistics getStatistics() {
+        long free = 0;
+        long used = 0;
+        long requested = 0;
+        long largest = 0;
+        int freeCount = 0;
+        int allocatedCount = 0;
+        for (Partition partition : getMemoryStatus()) {
+            if (partition instanceof FreePartition) {
+                free += partition.getSize();
+                largest = Math.max(largest, partition.getSize());
+                freeCount++;
+            } else if (partition instanceof AllocatedPartition) {
+                used += partition.getSize();
+                requested += ((AllocatedPartition) partition).getRequestedSize();
+                allocatedCount++;
+            }
+        }
+        return new MemoryStatistics(free, used, requested, largest, freeCount, allocatedCount);
+    }
+
     /**
      * 获取当前内存分区状态列表
      * 
@@ -64,4 +148,57 @@ public interface MemoryManager {
      *         - 占用作业名称（如果被占用）
      */
     List<Partition> getMemoryStatus();
-}
\ No newline at end of file
+
+    /**
+     * 查询与地址范围[from, to)有重叠的分区
+     * 默认实现遍历getMemoryStatus()的结果，实现类可以使用按地址排序的分区表加速
+     *
+     * @param from 起始地址（包含）
+     * @param to 结束地址（不包含）
+     * @return 按起始地址排序的分区列表
+     */
+    default List<Partition> getPartitions(long from, long to) {
+        List<Partition> result = new ArrayList<>();
+        for (Partition partition : getMemoryStatus()) {
+            if (partition.getStartAddress() < to && partition.getStartAddress() + partition.getSize() > from) {
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 注册分区变化监听器，分配、释放等操作改变分区后按地址范围通知监听器
+     * 默认实现不支持变化通知，调用方应在每次操作后通过getMemoryStatus()重新获取全部分区
+     *
+     * @param listener 监听器
+     * @return 是否支持分区变化通知
+     */
+    default boolean addPartitionListener(PartitionListener listener) {
+        return false;
+    }
+
+    /**
+     * 移除分区变化监听器
+     * @param listener 监听器
+     */
+    default void removePartitionListener(PartitionListener listener) {
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * 默认实现遍历getMemoryStatus()的结果，实现类可以使用索引加速
+     *
+     * @param jobName 作业名称
+     * @return 作业占用的分区，作业不存在时返回null
+     */
+    default AllocatedPartition getAllocatedPartition(String jobName) {
+        for (Partition partition : getMemoryStatus()) {
+            if (partition instanceof AllocatedPartition
+                    && ((AllocatedPartition) partition).getJobName().equals(jobName)) {
+                return (AllocatedPartition) partition;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,484 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * NUMA多节点内存管理器
+ * 模拟多路服务器的非一致内存访问：内存由若干节点组成，每个节点由一个独立的可变分区管理器管理
+ *
+ * 特点：
+ * 1. 节点依次排列在统一的地址空间中，节点i的地址范围为[base_i, base_i + size_i)，各节点大小可以不同
+ * 2. 支持本地优先、交错分配和首选节点三种策略（见NumaPolicy），节点放不下时按距离回退到其他节点
+ * 3. 每个节点内部使用DynamicPartitionManager，单个节点的分配和释放开销为O(log n)；
+ *    回退时借助各节点O(1)的最大空闲分区跳过放不下的节点
+ * 4. 节点间距离沿用ACPI SLIT的约定：本地为10，默认远程为20，访问代价与距离成正比
+ * 5. 记录每个作业运行的节点和内存所在的节点，统计远程分配次数和访问代价
+ *
+ * 内存布局（默认配置）：
+ * - 4个32K的节点，共128K
+ * - 节点0的0~4K为操作系统区域
+ */
+public class NumaMemoryManager implements MemoryManager {
+    // 默认节点布局（格式同FixedPartitionManager.parseLayout）
+    public static final String DEFAULT_NODE_LAYOUT = "4x32K";
+    // 默认操作系统占用空间大小（4K，位于节点0）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 本地节点距离和默认的远程节点距离
+    public static final int LOCAL_DISTANCE = 10;
+    public static final int DEFAULT_REMOTE_DISTANCE = 20;
+    // 默认本地内存访问时间（100纳秒）
+    public static final long DEFAULT_LOCAL_ACCESS_NANOS = 100;
+
+    /**
+     * 内存节点
+     */
+    private static final class Node {
+        final long base;                        // 节点的起始地址
+        final long size;                        // 节点的内存大小
+        final long osSize;                      // 节点中操作系统区域的大小
+        final DynamicPartitionManager manager;  // 节点内部的分区管理器，使用从0开始的局部地址
+
+        Node(long base, long size, long osSize, PlacementPolicy placement) {
+            this.base = base;
+            this.size = size;
+            this.osSize = osSize;
+            this.manager = new DynamicPartitionManager(size, osSize, placement);
+        }
+    }
+
+    /**
+     * 作业的分配位置
+     */
+    private static final class Placement {
+        final int node;         // 内存所在的节点
+        final int cpuNode;      // 作业运行的节点
+
+        Placement(int node, int cpuNode) {
+            this.node = node;
+            this.cpuNode = cpuNode;
+        }
+    }
+
+    @Getter
+    private final NumaPolicy policy;
+    private final Node[] nodes;
+    private final int[][] distances;            // 节点间距离
+    private final int[][] fallbackOrder;        // 从每个节点出发按距离由近到远排列的节点
+    private final Map<String, Placement> jobs;  // 作业名称到分配位置的映射
+
+    // 当前发起分配的CPU所在节点，以及首选节点策略使用的首选节点
+    @Getter
+    private int currentNode;
+    @Getter
+    private int preferredNode;
+    // 交错分配的下一个起始节点
+    private int interleaveCursor;
+    // 本地内存访问时间（纳秒），远程访问按距离比例增加
+    @Getter
+    private long localAccessNanos = DEFAULT_LOCAL_ACCESS_NANOS;
+
+    // 分配统计：内存与作业在同一节点和不在同一节点的分配次数
+    @Getter
+    private long localAllocationCount;
+    @Getter
+    private long remoteAllocationCount;
+    // 访问统计：访问次数、远程访问次数和累计访问时间
+    @Getter
+    private long accessCount;
+    @Getter
+    private long remoteAccessCount;
+    private long totalAccessNanos;
+
+    /**
+     * 默认构造函数：4个32K的节点，节点0的前4K为操作系统区域，本地优先
+     */
+    public NumaMemoryManager() {
+        this(NumaPolicy.LOCAL_FIRST);
+    }
+
+    /**
+     * 使用默认节点布局和指定策略的构造函数
+     * @param policy NUMA分配策略
+     */
+    public NumaMemoryManager(NumaPolicy policy) {
+        this(DEFAULT_NODE_LAYOUT, DEFAULT_OS_SIZE, policy);
+    }
+
+    /**
+     * 使用节点布局描述的构造函数，节点内部使用首次适应
+     *
+     * @param nodeLayout 节点布局描述，格式同FixedPartitionManager.parseLayout，例如"2x4G,8G"
+     * @param osSize 操作系统占用的空间，位于节点0的开头
+     * @param policy NUMA分配策略
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    public NumaMemoryManager(String nodeLayout, long osSize, NumaPolicy policy) {
+        this(FixedPartitionManager.parseLayout(nodeLayout), osSize, policy, PlacementPolicy.FIRST_FIT);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param nodeSizes 按地址顺序排列的各节点内存大小
+     * @param osSize 操作系统占用的空间，位于节点0的开头，必须小于节点0的大小
+     * @param policy NUMA分配策略
+     * @param placement 节点内部的放置策略
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    public NumaMemoryManager(long[] nodeSizes, long osSize, NumaPolicy policy, PlacementPolicy placement) {
+        if (nodeSizes == null || nodeSizes.length == 0) {
+            throw new IllegalArgumentException("至少需要一个节点");
+        }
+        if (policy == null || placement == null) {
+            throw new IllegalArgumentException("分配策略不能为空");
+        }
+        this.policy = policy;
+        this.nodes = new Node[nodeSizes.length];
+        long base = 0;
+        for (int i = 0; i < nodeSizes.length; i++) {
+            if (nodeSizes[i] <= 0 || base > Long.MAX_VALUE - nodeSizes[i]) {
+                throw new IllegalArgumentException("节点" + i + "的大小不合法: " + nodeSizes[i]);
+            }
+            nodes[i] = new Node(base, nodeSizes[i], i == 0 ? osSize : 0, placement);
+            base += nodeSizes[i];
+        }
+        this.distances = new int[nodes.length][nodes.length];
+        for (int[] row : distances) {
+            Arrays.fill(row, DEFAULT_REMOTE_DISTANCE);
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            distances[i][i] = LOCAL_DISTANCE;
+        }
+        this.fallbackOrder = new int[nodes.length][];
+        updateFallbackOrder();
+        this.jobs = new HashMap<>();
+    }
+
+    /**
+     * 按距离重新计算每个节点的回退顺序，距离相同时按节点编号排列
+     */
+    private void updateFallbackOrder() {
+        for (int from = 0; from < nodes.length; from++) {
+            int[] distance = distances[from];
+            fallbackOrder[from] = IntStream.range(0, nodes.length).boxed()
+                    .sorted((a, b) -> distance[a] != distance[b] ? Integer.compare(distance[a], distance[b])
+                            : Integer.compare(a, b))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodes.length) {
+            throw new IllegalArgumentException("节点编号超出范围: " + node);
+        }
+    }
+
+    /**
+     * 设置节点间距离（对称）
+     *
+     * @param from 节点编号
+     * @param to 另一个节点编号，不能与from相同
+     * @param distance 距离，不能小于本地距离10
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    public void setDistance(int from, int to, int distance) {
+        checkNode(from);
+        checkNode(to);
+        if (from == to || distance < LOCAL_DISTANCE) {
+            throw new IllegalArgumentException("节点距离不合法: " + from + "到" + to + "为" + distance);
+        }
+        distances[from][to] = distance;
+        distances[to][from] = distance;
+        updateFallbackOrder();
+    }
+
+    /**
+     * 获取节点间距离
+     */
+    public int getDistance(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        return distances[from][to];
+    }
+
+    /**
+     * 设置当前发起分配的CPU所在节点，allocateMemory(String, long)使用该节点
+     * @throws IllegalArgumentException 节点编号超出范围时抛出
+     */
+    public void setCurrentNode(int currentNode) {
+        checkNode(currentNode);
+        this.currentNode = currentNode;
+    }
+
+    /**
+     * 设置首选节点策略使用的首选节点
+     * @throws IllegalArgumentException 节点编号超出范围时抛出
+     */
+    public void setPreferredNode(int preferredNode) {
+        checkNode(preferredNode);
+        this.preferredNode = preferredNode;
+    }
+
+    /**
+     * 设置本地内存访问时间
+     * @throws IllegalArgumentException 时间为负数时抛出
+     */
+    public void setLocalAccessNanos(long localAccessNanos) {
+        if (localAccessNanos < 0) {
+            throw new IllegalArgumentException("访问时间不能为负数: " + localAccessNanos);
+        }
+        this.localAccessNanos = localAccessNanos;
+    }
+
+    /**
+     * 在当前节点上为作业分配内存空间
+     * @see #allocateMemory(String, long, int)
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        return allocateMemory(jobName, size, currentNode);
+    }
+
+    /**
+     * 为运行在cpuNode上的作业分配内存空间
+     * 按分配策略确定起始节点，起始节点放不下时依次尝试其他节点
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @param cpuNode 作业运行的节点
+     * @return 是否分配成功
+     * @throws IllegalArgumentException 节点编号超出范围时抛出
+     */
+    public boolean allocateMemory(String jobName, long size, int cpuNode) {
+        checkNode(cpuNode);
+        if (size <= 0 || jobs.containsKey(jobName)) {
+            return false;
+        }
+        int node = -1;
+        if (policy == NumaPolicy.INTERLEAVE) {
+            // 从游标开始轮流尝试各节点，分配成功后游标移到下一个节点
+            for (int i = 0; i < nodes.length && node < 0; i++) {
+                int candidate = (interleaveCursor + i) % nodes.length;
+                if (tryAllocate(candidate, jobName, size)) {
+                    node = candidate;
+                }
+            }
+            if (node >= 0) {
+                interleaveCursor = (node + 1) % nodes.length;
+            }
+        } else {
+            int home = policy == NumaPolicy.PREFERRED ? preferredNode : cpuNode;
+            for (int candidate : fallbackOrder[home]) {
+                if (tryAllocate(candidate, jobName, size)) {
+                    node = candidate;
+                    break;
+                }
+            }
+        }
+        if (node < 0) {
+            return false;
+        }
+        jobs.put(jobName, new Placement(node, cpuNode));
+        if (node == cpuNode) {
+            localAllocationCount++;
+        } else {
+            remoteAllocationCount++;
+        }
+        return true;
+    }
+
+    /**
+     * 在指定节点上分配，最大空闲分区放不下时直接跳过
+     */
+    private boolean tryAllocate(int node, String jobName, long size) {
+        DynamicPartitionManager manager = nodes[node].manager;
+        return manager.getStatistics().getLargestFreeBlock() >= size && manager.allocateMemory(jobName, size);
+    }
+
+    /**
+     * 释放内存空间
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        Placement placement = jobs.remove(jobName);
+        return placement != null && nodes[placement.node].manager.releaseMemory(jobName);
+    }
+
+    /**
+     * 模拟作业访问一次自己的内存，访问时间为本地访问时间乘以节点距离与本地距离之比
+     *
+     * @param jobName 作业名称
+     * @return 本次访问的时间（纳秒），作业不存在时返回-1
+     */
+    public long accessMemory(String jobName) {
+        Placement placement = jobs.get(jobName);
+        if (placement == null) {
+            return -1;
+        }
+        int distance = distances[placement.cpuNode][placement.node];
+        long nanos = localAccessNanos * distance / LOCAL_DISTANCE;
+        accessCount++;
+        if (placement.node != placement.cpuNode) {
+            remoteAccessCount++;
+        }
+        totalAccessNanos += nanos;
+        return nanos;
+    }
+
+    /**
+     * 获取平均每次访问的时间
+     * @return 平均访问时间（纳秒），尚未访问时返回0
+     */
+    public double getAverageAccessNanos() {
+        return accessCount == 0 ? 0.0 : (double) totalAccessNanos / accessCount;
+    }
+
+    /**
+     * 获取作业内存所在的节点
+     * @return 节点编号，作业不存在时返回-1
+     */
+    public int getNodeOf(String jobName) {
+        Placement placement = jobs.get(jobName);
+        return placement == null ? -1 : placement.node;
+    }
+
+    /**
+     * 获取节点数量
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * 获取节点的起始地址
+     */
+    public long getNodeBase(int node) {
+        checkNode(node);
+        return nodes[node].base;
+    }
+
+    /**
+     * 获取节点的内存统计信息
+     */
+    public MemoryStatistics getNodeStatistics(int node) {
+        checkNode(node);
+        return nodes[node].manager.getStatistics();
+    }
+
+    /**
+     * 获取节点的利用率，即已分配空间占节点用户区域的比例
+     * @return 0到1之间的利用率
+     */
+    public double getNodeUtilization(int node) {
+        checkNode(node);
+        Node n = nodes[node];
+        return (double) n.manager.getStatistics().getUsedBytes() / (n.size - n.osSize);
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @return 使用全局地址的分区视图，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        Placement placement = jobs.get(jobName);
+        if (placement == null) {
+            return null;
+        }
+        Node node = nodes[placement.node];
+        return (AllocatedPartition) toGlobal(node.manager.getAllocatedPartition(jobName), node.base);
+    }
+
+    /**
+     * 获取内存统计信息，由各节点的统计值汇总，开销为O(节点数)
+     * 最大空闲分区取各节点的最大值，空闲分区不跨节点合并
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        long free = 0;
+        long used = 0;
+        long requested = 0;
+        long largest = 0;
+        int freeCount = 0;
+        int allocatedCount = 0;
+        for (Node node : nodes) {
+            MemoryStatistics statistics = node.manager.getStatistics();
+            free += statistics.getFreeBytes();
+            used += statistics.getUsedBytes();
+            requested += statistics.getRequestedBytes();
+            largest = Math.max(largest, statistics.getLargestFreeBlock());
+            freeCount += statistics.getFreeBlockCount();
+            allocatedCount += statistics.getAllocatedCount();
+        }
+        return new MemoryStatistics(free, used, requested, largest, freeCount, allocatedCount);
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出汇总的统计信息以及各节点的利用率
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("NUMA(" + policy + ", " + nodes.length + "个节点) " + getStatistics());
+        for (int i = 0; i < nodes.length; i++) {
+            System.out.printf("  节点%d: 地址%d~%d, 利用率%.1f%%%n", i, nodes[i].base, nodes[i].base + nodes[i].size,
+                    getNodeUtilization(i) * 100);
+        }
+        System.out.printf("  远程分配: %d/%d, 平均访问时间: %.1fns%n", remoteAllocationCount,
+                localAllocationCount + remoteAllocationCount, getAverageAccessNanos());
+    }
+
+    /**
+     * 获取当前内存状态
+     * 按节点顺序拼接各节点的分区，地址转换为全局地址
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        List<Partition> allPartitions = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Partition partition : node.manager.getMemoryStatus()) {
+                allPartitions.add(toGlobal(partition, node.base));
+            }
+        }
+        return allPartitions;
+    }
+
+    /**
+     * 查询与地址范围[from, to)有重叠的分区
+     * 只查询与范围重叠的节点，每个节点的开销为O(log n + k)
+     */
+    @Override
+    public List<Partition> getPartitions(long from, long to) {
+        List<Partition> result = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.base < to && node.base + node.size > from) {
+                for (Partition partition : node.manager.getPartitions(from - node.base, to - node.base)) {
+                    result.add(toGlobal(partition, node.base));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 把节点内的分区转换为使用全局地址的新分区对象
+     */
+    private static Partition toGlobal(Partition partition, long base) {
+        if (partition instanceof AllocatedPartition) {
+            AllocatedPartition allocated = (AllocatedPartition) partition;
+            return new AllocatedPartition(allocated.getStartAddress() + base, allocated.getSize(),
+                    allocated.getJobName(), allocated.getRequestedSize());
+        }
+        return new FreePartition(partition.getStartAddress() + base, partition.getSize());
+    }
+}
@@ -0,0 +1,28 @@
+package com.memorymanagement.service;
+
+/**
+ * NUMA内存分配策略枚举类
+ * 定义了多节点内存管理器（NumaMemoryManager）选择从哪个节点分配内存的方式
+ */
+public enum NumaPolicy {
+    /**
+     * 本地优先(Local First)
+     * - 优先在发起分配的CPU所在节点分配
+     * - 本地节点放不下时按节点距离由近到远依次尝试其他节点
+     */
+    LOCAL_FIRST,
+
+    /**
+     * 交错分配(Interleave)
+     * - 各次分配轮流从不同节点开始尝试，使内存均匀分布在所有节点上
+     * - 平均访问代价较高，但不会出现单个节点被占满的情况
+     */
+    INTERLEAVE,
+
+    /**
+     * 首选节点(Preferred)
+     * - 无论在哪个节点发起分配，都优先在指定的首选节点分配
+     * - 首选节点放不下时按距首选节点由近到远依次尝试其他节点
+     */
+    PREFERRED
+}
@@ -0,0 +1,280 @@
+package com.memorymanagement.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * 页位图
+ * 每页用一位记录是否已被占用（1表示占用），位图存放在堆外的直接缓冲区中，
+ * 模拟8G内存、4K页时只需256K堆外空间，不产生任何堆上对象
+ *
+ * 为了快速查找连续空闲页，每64个位图字（即4096页）额外有两个摘要字：
+ * - full摘要：第i位为1表示第i个位图字的64页全部占用，查找时可以整字跳过
+ * - empty摘要：第i位为1表示第i个位图字的64页全部空闲，长空闲段可以整字跨过
+ * 最后一个位图字中超出页数的位恒为1，保证查找不会越界
+ */
+public class PageBitmap {
+    /**
+     * 空闲段访问者
+     */
+    public interface RunVisitor {
+        /**
+         * 访问一段连续空闲页
+         * @param start 起始页号
+         * @param length 页数
+         * @return 是否继续访问后面的空闲段
+         */
+        boolean visit(long start, long length);
+    }
+
+    private final long pageCount;       // 总页数
+    private final int words;            // 位图字数
+    private final int summaryWords;     // 摘要字数
+    private final LongBuffer bits;      // 页位图
+    private final LongBuffer full;      // 全部占用的位图字摘要
+    private final LongBuffer empty;     // 全部空闲的位图字摘要
+    private long freeCount;             // 空闲页数
+
+    /**
+     * 构造函数，初始时所有页都空闲
+     * @param pageCount 总页数，必须为正数
+     * @throws IllegalArgumentException 页数不合法或超出直接缓冲区的容量时抛出
+     */
+    public PageBitmap(long pageCount) {
+        if (pageCount <= 0 || (pageCount + 63) >>> 6 > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("页数不合法: " + pageCount);
+        }
+        this.pageCount = pageCount;
+        this.words = (int) ((pageCount + 63) >>> 6);
+        this.summaryWords = (words + 63) >>> 6;
+        this.bits = allocate(words);
+        this.full = allocate(summaryWords);
+        this.empty = allocate(summaryWords);
+        this.freeCount = pageCount;
+
+        // 超出页数的位视为占用，超出字数的摘要位视为"全部占用"
+        int tail = (int) (pageCount & 63);
+        if (tail != 0) {
+            bits.put(words - 1, -1L << tail);
+        }
+        for (int w = 0; w < words; w++) {
+            updateSummary(w);
+        }
+        int summaryTail = words & 63;
+        if (summaryTail != 0) {
+            full.put(summaryWords - 1, full.get(summaryWords - 1) | (-1L << summaryTail));
+        }
+    }
+
+    private static LongBuffer allocate(int longs) {
+        return ByteBuffer.allocateDirect(longs * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * 获取总页数
+     */
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * 获取空闲页数
+     */
+    public long getFreeCount() {
+        return freeCount;
+    }
+
+    /**
+     * 判断页是否空闲
+     * @param page 页号
+     * @return 页空闲时返回true，页号越界时返回false
+     */
+    public boolean isFree(long page) {
+        if (page < 0 || page >= pageCount) {
+            return false;
+        }
+        return (bits.get((int) (page >>> 6)) & (1L << page)) == 0;
+    }
+
+    /**
+     * 将一段页标记为占用，调用方保证这些页当前都空闲
+     * @param start 起始页号
+     * @param count 页数
+     */
+    public void markUsed(long start, long count) {
+        setRange(start, count, true);
+        freeCount -= count;
+    }
+
+    /**
+     * 将一段页标记为空闲，调用方保证这些页当前都被占用
+     * @param start 起始页号
+     * @param count 页数
+     */
+    public void markFree(long start, long count) {
+        setRange(start, count, false);
+        freeCount += count;
+    }
+
+    private void setRange(long start, long count, boolean used) {
+        if (start < 0 || count <= 0 || count > pageCount - start) {
+            throw new IllegalArgumentException("页范围越界: " + start + "+" + count);
+        }
+        long end = start + count;
+        int first = (int) (start >>> 6);
+        int last = (int) ((end - 1) >>> 6);
+        for (int w = first; w <= last; w++) {
+            long mask = -1L;
+            if (w == first) {
+                mask &= -1L << start;
+            }
+            if (w == last && (end & 63) != 0) {
+                mask &= -1L >>> (64 - (end & 63));
+            }
+            long word = bits.get(w);
+            bits.put(w, used ? word | mask : word & ~mask);
+            updateSummary(w);
+        }
+    }
+
+    private void updateSummary(int w) {
+        long word = bits.get(w);
+        int s = w >>> 6;
+        long bit = 1L << w;
+        full.put(s, word == -1L ? full.get(s) | bit : full.get(s) & ~bit);
+        empty.put(s, word == 0 ? empty.get(s) | bit : empty.get(s) & ~bit);
+    }
+
+    /**
+     * 首次适应：查找起始页号不小于from的第一段长度不小于count的连续空闲页
+     * @param count 需要的页数
+     * @param from 查找的起始页号
+     * @return 空闲段的起始页号（若from落在空闲段中间，则为from），找不到时返回-1
+     */
+    public long findFreeRun(long count, long from) {
+        long[] result = {-1};
+        forEachFreeRun(from, (start, length) -> {
+            if (length >= count) {
+                result[0] = start;
+                return false;
+            }
+            return true;
+        });
+        return result[0];
+    }
+
+    /**
+     * 获取最长的连续空闲页数
+     * @return 最长空闲段的页数，没有空闲页时返回0
+     */
+    public long getLargestFreeRun() {
+        long[] largest = {0};
+        forEachFreeRun(0, (start, length) -> {
+            largest[0] = Math.max(largest[0], length);
+            return true;
+        });
+        return largest[0];
+    }
+
+    /**
+     * 按页号顺序访问起始页号不小于from的所有极大连续空闲段
+     * 全部占用的位图字和全部空闲的位图字借助摘要整字跳过
+     *
+     * @param from 起始页号，之前的页视为占用
+     * @param visitor 空闲段访问者
+     */
+    public void forEachFreeRun(long from, RunVisitor visitor) {
+        if (from >= pageCount) {
+            return;
+        }
+        int firstWord = (int) (Math.max(0, from) >>> 6);
+        long firstMask = from > 0 ? ~(-1L << from) : 0;     // 第一个字中from之前的位视为占用
+        long runStart = -1;
+        int w = firstWord;
+        while (w < words) {
+            if (runStart < 0) {
+                w = nextNonFullWord(w);
+                if (w < 0) {
+                    return;
+                }
+            }
+            long word = bits.get(w) | (w == firstWord ? firstMask : 0);
+            if (word == 0) {
+                // 整字空闲：跨过连续的空闲字
+                if (runStart < 0) {
+                    runStart = (long) w << 6;
+                }
+                w = nextNonEmptyWord(w + 1);
+                continue;
+            }
+            int pos = 0;
+            while (pos < 64) {
+                long rest = word >>> pos;
+                if (rest == 0) {
+                    // 剩余位全部空闲，空闲段延续到下一个字
+                    if (runStart < 0) {
+                        runStart = ((long) w << 6) + pos;
+                    }
+                    break;
+                }
+                int zeros = Long.numberOfTrailingZeros(rest);
+                if (zeros > 0 && runStart < 0) {
+                    runStart = ((long) w << 6) + pos;
+                }
+                pos += zeros;
+                if (runStart >= 0) {
+                    long runEnd = ((long) w << 6) + pos;
+                    if (!visitor.visit(runStart, runEnd - runStart)) {
+                        return;
+                    }
+                    runStart = -1;
+                }
+                pos += Math.min(Long.numberOfTrailingZeros(~(word >>> pos)), 64 - pos);
+            }
+            w++;
+        }
+        if (runStart >= 0) {
+            visitor.visit(runStart, pageCount - runStart);
+        }
+    }
+
+    /**
+     * 查找下标不小于w的第一个不是全部占用的位图字
+     * @return 位图字下标，不存在时返回-1
+     */
+    private int nextNonFullWord(int w) {
+        if (w >= words) {
+            return -1;
+        }
+        int s = w >>> 6;
+        long candidates = ~full.get(s) & (-1L << w);
+        while (candidates == 0) {
+            if (++s >= summaryWords) {
+                return -1;
+            }
+            candidates = ~full.get(s);
+        }
+        int result = (s << 6) + Long.numberOfTrailingZeros(candidates);
+        return result < words ? result : -1;
+    }
+
+    /**
+     * 查找下标不小于w的第一个不是全部空闲的位图字
+     * @return 位图字下标，不存在时返回位图字数
+     */
+    private int nextNonEmptyWord(int w) {
+        if (w >= words) {
+            return words;
+        }
+        int s = w >>> 6;
+        long candidates = ~empty.get(s) & (-1L << w);
+        while (candidates == 0) {
+            if (++s >= summaryWords) {
+                return words;
+            }
+            candidates = ~empty.get(s);
+        }
+        return Math.min(words, (s << 6) + Long.numberOfTrailingZeros(candidates));
+    }
+}
@@ -0,0 +1,514 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+import com.virtualmemorymanagement.algorithm.PageReplacementAlgorithm;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * 分页内存管理器
+ * 把作业的地址空间划分为固定大小的页，每页装入任意一个空闲的物理帧，作业在物理内存中不必连续
+ *
+ * 特点：
+ * 1. 物理帧的占用情况保存在页位图（PageBitmap）中，每个作业有自己的页表（页号到帧号的映射）
+ * 2. 不使用页面置换算法时为纯分页：作业的所有页必须同时装入内存，空闲帧不足时分配失败
+ * 3. 使用页面置换算法（com.virtualmemorymanagement中的FIFO、LRU、LFU）时为请求分页：
+ *    分配时只把前面的页装入空闲帧，其余页在访问时缺页装入；没有空闲帧时由置换算法选出被换出的页，
+ *    因此作业的大小可以超过物理内存
+ * 4. 每个页在全局有唯一的页号，置换算法在全部作业的页之间选择被换出的页（全局置换）；
+ *    作业释放后它的页号段被回收，供之后的作业重新使用
+ * 5. 统计访问次数、缺页次数和换出次数，按内存访问时间和缺页处理时间计算有效访问时间
+ *
+ * 内存布局：
+ * - 0~OS区域：操作系统区域（向上取整到帧），不参与分配
+ * - 其余帧：用户区域
+ */
+public class PagedMemoryManager implements MemoryManager {
+    // 默认操作系统占用空间大小（4K）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+    // 默认页大小（1K）
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    // 默认内存访问时间（100纳秒）
+    public static final long DEFAULT_MEMORY_ACCESS_NANOS = 100;
+    // 默认缺页处理时间（8毫秒，相当于一次磁盘读取）
+    public static final long DEFAULT_PAGE_FAULT_NANOS = 8_000_000;
+    // 页表中表示页不在内存中的帧号
+    private static final int NOT_RESIDENT = -1;
+
+    /**
+     * 作业的页表
+     */
+    private static final class JobPages {
+        final String jobName;
+        final long size;            // 作业申请的大小
+        final int firstPage;        // 第0页的全局页号
+        final int[] frames;         // 页表：页号到帧号的映射，不在内存中时为NOT_RESIDENT
+        int residentPages;          // 在内存中的页数
+
+        JobPages(String jobName, long size, int firstPage, int pages) {
+            this.jobName = jobName;
+            this.size = size;
+            this.firstPage = firstPage;
+            this.frames = new int[pages];
+            Arrays.fill(frames, NOT_RESIDENT);
+        }
+    }
+
+    @Getter
+    private final int pageSize;                         // 页（帧）大小
+    private final int pageShift;                        // 页大小的以2为底的对数
+    private final int osFrames;                         // 操作系统区域占用的帧数
+    private final PageBitmap frameBitmap;               // 物理帧位图
+    private final JobPages[] frameOwners;               // 每个帧所属的作业页表
+    private final int[] framePages;                     // 每个帧装入的是作业的第几页
+    private final PageReplacementAlgorithm algorithm;   // 页面置换算法，纯分页时为null
+    private final Map<String, JobPages> jobs;           // 作业名称到页表的映射
+    private final TreeMap<Integer, JobPages> jobsByPage; // 第0页的全局页号到页表的映射
+    private final TreeMap<Integer, Integer> freePageRanges; // 已回收的全局页号段：起始页号到页数的映射
+    private int nextPage;                               // 从未使用过的第一个全局页号
+
+    private long requestedBytes;                        // 在内存中的页对应的作业申请大小
+    private int freeBlockCount;                         // 连续空闲帧段的数量
+
+    // 访问统计
+    @Getter
+    private long accessCount;
+    @Getter
+    private long pageFaultCount;
+    @Getter
+    private long evictionCount;
+    @Getter
+    private long memoryAccessNanos = DEFAULT_MEMORY_ACCESS_NANOS;
+    @Getter
+    private long pageFaultNanos = DEFAULT_PAGE_FAULT_NANOS;
+
+    /**
+     * 默认构造函数：128K内存，前4K为操作系统区域，页大小1K，纯分页
+     */
+    public PagedMemoryManager() {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 纯分页构造函数：作业的所有页必须同时装入内存
+     *
+     * @param totalMemory 总内存大小，必须是页大小的整数倍
+     * @param osSize 操作系统占用的空间，向上取整到帧
+     * @param pageSize 页大小，必须是2的幂
+     * @throws IllegalArgumentException 参数不满足上述要求时抛出
+     */
+    public PagedMemoryManager(long totalMemory, long osSize, int pageSize) {
+        this(totalMemory, osSize, pageSize, null);
+    }
+
+    /**
+     * 请求分页构造函数
+     *
+     * @param totalMemory 总内存大小，必须是页大小的整数倍，帧数不能超过int范围
+     * @param osSize 操作系统占用的空间，向上取整到帧
+     * @param pageSize 页大小，必须是2的幂
+     * @param algorithmFactory 根据用户区域的帧数创建页面置换算法，例如LRUAlgorithm::new；为null时为纯分页
+     * @throws IllegalArgumentException 参数不满足上述要求时抛出
+     */
+    public PagedMemoryManager(long totalMemory, long osSize, int pageSize,
+                              IntFunction<PageReplacementAlgorithm> algorithmFactory) {
+        if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("页大小必须是2的幂: " + pageSize);
+        }
+        if (totalMemory <= 0 || totalMemory % pageSize != 0 || totalMemory / pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("总内存大小必须是页大小的正整数倍，且帧数不能超过int范围: " + totalMemory);
+        }
+        if (osSize < 0 || osSize >= totalMemory) {
+            throw new IllegalArgumentException("操作系统区域大小不合法: " + osSize);
+        }
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        int frameCount = (int) (totalMemory >>> pageShift);
+        this.osFrames = (int) ((osSize + pageSize - 1) >>> pageShift);
+        this.frameBitmap = new PageBitmap(frameCount);
+        if (osFrames > 0) {
+            frameBitmap.markUsed(0, osFrames);
+        }
+        this.freeBlockCount = frameBitmap.getFreeCount() > 0 ? 1 : 0;
+        this.frameOwners = new JobPages[frameCount];
+        this.framePages = new int[frameCount];
+        this.algorithm = algorithmFactory == null ? null : algorithmFactory.apply(frameCount - osFrames);
+        this.jobs = new HashMap<>();
+        this.jobsByPage = new TreeMap<>();
+        this.freePageRanges = new TreeMap<>();
+    }
+
+    /**
+     * 设置内存访问时间
+     * @param memoryAccessNanos 一次命中的内存访问时间（纳秒），不能为负数
+     * @throws IllegalArgumentException 时间为负数时抛出
+     */
+    public void setMemoryAccessNanos(long memoryAccessNanos) {
+        if (memoryAccessNanos < 0) {
+            throw new IllegalArgumentException("内存访问时间不能为负数: " + memoryAccessNanos);
+        }
+        this.memoryAccessNanos = memoryAccessNanos;
+    }
+
+    /**
+     * 设置缺页处理时间
+     * @param pageFaultNanos 一次缺页的处理时间（纳秒，包括装入页面），不能为负数
+     * @throws IllegalArgumentException 时间为负数时抛出
+     */
+    public void setPageFaultNanos(long pageFaultNanos) {
+        if (pageFaultNanos < 0) {
+            throw new IllegalArgumentException("缺页处理时间不能为负数: " + pageFaultNanos);
+        }
+        this.pageFaultNanos = pageFaultNanos;
+    }
+
+    /**
+     * 是否使用页面置换算法（请求分页）
+     */
+    public boolean isDemandPaging() {
+        return algorithm != null;
+    }
+
+    /**
+     * 分配内存空间
+     * 纯分页时为作业的每一页分配一个空闲帧，空闲帧不足时失败；
+     * 请求分页时只把前面的页装入空闲帧，不换出其他作业的页，其余页在访问时装入
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @return 是否分配成功
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        if (size <= 0 || jobs.containsKey(jobName)) {
+            return false;
+        }
+        long pages = (size + pageSize - 1) >>> pageShift;
+        if (pages > Integer.MAX_VALUE) {
+            return false;
+        }
+        if (algorithm == null && pages > frameBitmap.getFreeCount()) {
+            return false;
+        }
+        int firstPage = allocatePageRange((int) pages);
+        if (firstPage < 0) {
+            // 全局页号用尽
+            return false;
+        }
+        JobPages job = new JobPages(jobName, size, firstPage, (int) pages);
+        jobs.put(jobName, job);
+        jobsByPage.put(job.firstPage, job);
+        for (int page = 0; page < pages && frameBitmap.getFreeCount() > 0; page++) {
+            int frame = (int) frameBitmap.findFreeRun(1, osFrames);
+            if (algorithm != null) {
+                algorithm.accessPage(job.firstPage + page);
+            }
+            mapPage(job, page, frame);
+        }
+        return true;
+    }
+
+    /**
+     * 为作业分配一段连续的全局页号
+     * 首次适应地使用已回收的页号段，都放不下时从未使用过的页号中分配
+     *
+     * @return 第一个页号，页号用尽时返回-1
+     */
+    private int allocatePageRange(int pages) {
+        for (Map.Entry<Integer, Integer> range : freePageRanges.entrySet()) {
+            int length = range.getValue();
+            if (length >= pages) {
+                int start = range.getKey();
+                freePageRanges.remove(start);
+                if (length > pages) {
+                    freePageRanges.put(start + pages, length - pages);
+                }
+                return start;
+            }
+        }
+        if (pages > Integer.MAX_VALUE - nextPage) {
+            return -1;
+        }
+        int start = nextPage;
+        nextPage += pages;
+        return start;
+    }
+
+    /**
+     * 回收一段全局页号，与相邻的已回收页号段合并；位于末尾时直接退回未使用的页号
+     */
+    private void freePageRange(int start, int pages) {
+        Map.Entry<Integer, Integer> lower = freePageRanges.lowerEntry(start);
+        if (lower != null && lower.getKey() + lower.getValue() == start) {
+            start = lower.getKey();
+            pages += lower.getValue();
+            freePageRanges.remove(start);
+        }
+        Integer higher = freePageRanges.remove(start + pages);
+        if (higher != null) {
+            pages += higher;
+        }
+        if (start + pages == nextPage) {
+            nextPage = start;
+        } else {
+            freePageRanges.put(start, pages);
+        }
+    }
+
+    /**
+     * 访问作业的一页
+     * 页不在内存中时发生缺页：有空闲帧时直接装入，否则由页面置换算法换出一页
+     *
+     * @param jobName 作业名称
+     * @param page 作业内的页号
+     * @return 是否发生缺页
+     * @throws IllegalArgumentException 作业不存在或页号越界时抛出
+     */
+    public boolean accessPage(String jobName, long page) {
+        JobPages job = jobs.get(jobName);
+        if (job == null) {
+            throw new IllegalArgumentException("作业不存在: " + jobName);
+        }
+        if (page < 0 || page >= job.frames.length) {
+            throw new IllegalArgumentException("页号越界: " + page);
+        }
+        int index = (int) page;
+        accessCount++;
+        if (algorithm == null) {
+            // 纯分页时所有页都在内存中
+            return false;
+        }
+        boolean fault = algorithm.accessPage(job.firstPage + index);
+        if (!fault) {
+            return false;
+        }
+        pageFaultCount++;
+        Integer victim = algorithm.getLastReplacedPage();
+        int frame;
+        if (victim != null) {
+            // 置换算法换出的页所在的帧直接给新页使用
+            JobPages owner = jobsByPage.floorEntry(victim).getValue();
+            frame = owner.frames[victim - owner.firstPage];
+            unmapPage(owner, victim - owner.firstPage);
+            evictionCount++;
+        } else {
+            frame = (int) frameBitmap.findFreeRun(1, osFrames);
+        }
+        mapPage(job, index, frame);
+        return true;
+    }
+
+    /**
+     * 把作业的虚拟地址转换为物理地址，页不在内存中时先处理缺页
+     *
+     * @param jobName 作业名称
+     * @param virtualAddress 作业内的虚拟地址
+     * @return 物理地址
+     * @throws IllegalArgumentException 作业不存在或地址越界时抛出
+     */
+    public long translate(String jobName, long virtualAddress) {
+        JobPages job = jobs.get(jobName);
+        if (job == null || virtualAddress < 0 || virtualAddress >= job.size) {
+            throw new IllegalArgumentException("作业不存在或地址越界: " + jobName + "@" + virtualAddress);
+        }
+        long page = virtualAddress >>> pageShift;
+        accessPage(jobName, page);
+        return ((long) job.frames[(int) page] << pageShift) | (virtualAddress & (pageSize - 1));
+    }
+
+    /**
+     * 判断作业的一页是否在内存中
+     * @return 页在内存中时返回true，作业不存在或页号越界时返回false
+     */
+    public boolean isResident(String jobName, long page) {
+        JobPages job = jobs.get(jobName);
+        return job != null && page >= 0 && page < job.frames.length && job.frames[(int) page] != NOT_RESIDENT;
+    }
+
+    /**
+     * 获取作业在内存中的页数
+     * @return 页数，作业不存在时返回0
+     */
+    public int getResidentPages(String jobName) {
+        JobPages job = jobs.get(jobName);
+        return job == null ? 0 : job.residentPages;
+    }
+
+    /**
+     * 获取缺页率
+     * @return 缺页次数与访问次数之比，尚未访问时返回0
+     */
+    public double getPageFaultRate() {
+        return accessCount == 0 ? 0.0 : (double) pageFaultCount / accessCount;
+    }
+
+    /**
+     * 获取有效访问时间
+     * 即(1 - 缺页率) * 内存访问时间 + 缺页率 * 缺页处理时间
+     *
+     * @return 平均每次访问的时间（纳秒），尚未访问时返回0
+     */
+    public double getEffectiveAccessNanos() {
+        if (accessCount == 0) {
+            return 0.0;
+        }
+        return ((double) (accessCount - pageFaultCount) * memoryAccessNanos
+                + (double) pageFaultCount * pageFaultNanos) / accessCount;
+    }
+
+    /**
+     * 释放内存空间
+     * 收回作业占用的所有帧和全局页号，并把它的页从置换算法中移除
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        JobPages job = jobs.remove(jobName);
+        if (job == null) {
+            return false;
+        }
+        jobsByPage.remove(job.firstPage);
+        for (int page = 0; page < job.frames.length && job.residentPages > 0; page++) {
+            int frame = job.frames[page];
+            if (frame != NOT_RESIDENT) {
+                if (algorithm != null) {
+                    algorithm.removePage(job.firstPage + page);
+                }
+                unmapPage(job, page);
+                freeFrame(frame);
+            }
+        }
+        freePageRange(job.firstPage, job.frames.length);
+        return true;
+    }
+
+    /**
+     * 把作业的一页装入帧，帧如果空闲则在位图中标记为占用
+     */
+    private void mapPage(JobPages job, int page, int frame) {
+        if (frameBitmap.isFree(frame)) {
+            boolean leftFree = frameBitmap.isFree(frame - 1);
+            boolean rightFree = frameBitmap.isFree(frame + 1);
+            frameBitmap.markUsed(frame, 1);
+            freeBlockCount += (leftFree ? 1 : 0) + (rightFree ? 1 : 0) - 1;
+        }
+        job.frames[page] = frame;
+        job.residentPages++;
+        frameOwners[frame] = job;
+        framePages[frame] = page;
+        requestedBytes += pageRequestedBytes(job, page);
+    }
+
+    /**
+     * 把作业的一页从帧中移出，帧仍标记为占用，由调用方决定重新使用还是释放
+     */
+    private void unmapPage(JobPages job, int page) {
+        int frame = job.frames[page];
+        job.frames[page] = NOT_RESIDENT;
+        job.residentPages--;
+        frameOwners[frame] = null;
+        requestedBytes -= pageRequestedBytes(job, page);
+    }
+
+    private void freeFrame(int frame) {
+        boolean leftFree = frameBitmap.isFree(frame - 1);
+        boolean rightFree = frameBitmap.isFree(frame + 1);
+        frameBitmap.markFree(frame, 1);
+        freeBlockCount += 1 - (leftFree ? 1 : 0) - (rightFree ? 1 : 0);
+    }
+
+    /**
+     * 作业的一页中实际被申请的字节数，只有最后一页可能不满
+     */
+    private long pageRequestedBytes(JobPages job, int page) {
+        return page == job.frames.length - 1 ? job.size - ((long) page << pageShift) : pageSize;
+    }
+
+    /**
+     * 查找指定作业占用的空间
+     * 分页时作业在物理内存中不连续，返回的分区表示作业的整个虚拟地址空间：
+     * 起始地址为第0页所在帧的地址（第0页不在内存中时为-1），大小为页数乘以页大小
+     *
+     * @param jobName 作业名称
+     * @return 作业的分区视图，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        JobPages job = jobs.get(jobName);
+        if (job == null) {
+            return null;
+        }
+        long start = job.frames[0] == NOT_RESIDENT ? -1 : (long) job.frames[0] << pageShift;
+        return new AllocatedPartition(start, (long) job.frames.length << pageShift, jobName, job.size);
+    }
+
+    /**
+     * 获取内存统计信息
+     * 已分配大小和申请大小只统计在内存中的页，已分配数为作业数，最长空闲段需要扫描帧位图
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        long freeFrames = frameBitmap.getFreeCount();
+        long usedFrames = frameBitmap.getPageCount() - osFrames - freeFrames;
+        return new MemoryStatistics(freeFrames << pageShift, usedFrames << pageShift, requestedBytes,
+                frameBitmap.getLargestFreeRun() << pageShift, freeBlockCount, jobs.size());
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出统计信息和访问统计
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("分页(页大小" + pageSize + (algorithm == null ? "" : ", " + algorithm.getClass().getSimpleName())
+                + ") " + getStatistics());
+        System.out.printf("  访问%d次, 缺页%d次, 换出%d次, 缺页率%.2f%%, 有效访问时间%.1f纳秒%n",
+                accessCount, pageFaultCount, evictionCount, getPageFaultRate() * 100, getEffectiveAccessNanos());
+    }
+
+    /**
+     * 获取当前内存状态
+     * 按帧的顺序把同一作业的连续页合并为一个已分配分区，把连续的空闲帧合并为一个空闲分区
+     *
+     * @return 包含所有分区（已分配和空闲）的列表
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        List<Partition> allPartitions = new ArrayList<>();
+        int frameCount = frameOwners.length;
+        int frame = osFrames;
+        while (frame < frameCount) {
+            JobPages owner = frameOwners[frame];
+            int start = frame;
+            if (owner == null) {
+                while (frame < frameCount && frameOwners[frame] == null) {
+                    frame++;
+                }
+                allPartitions.add(new FreePartition((long) start << pageShift, (long) (frame - start) << pageShift));
+                continue;
+            }
+            long requested = 0;
+            do {
+                requested += pageRequestedBytes(owner, framePages[frame]);
+                frame++;
+            } while (frame < frameCount && frameOwners[frame] == owner
+                    && framePages[frame] == framePages[frame - 1] + 1);
+            allPartitions.add(new AllocatedPartition((long) start << pageShift, (long) (frame - start) << pageShift,
+                    owner.jobName, requested));
+        }
+        return allPartitions;
+    }
+}
@@ -0,0 +1,17 @@
+package com.memorymanagement.service;
+
+/**
+ * 分区变化监听器
+ * 内存管理器在分配、释放或紧凑改变了某段地址范围内的分区后通知监听器，
+ * 监听器（例如GUI表格）只需重新获取这段范围内的分区，而不必刷新全部分区
+ */
+public interface PartitionListener {
+    /**
+     * 地址范围[from, to)内的分区发生了变化
+     * 范围的两端总是落在分区边界上：变化前后的每个分区要么完全在范围内，要么完全在范围外
+     *
+     * @param from 起始地址（包含）
+     * @param to 结束地址（不包含）
+     */
+    void partitionsChanged(long from, long to);
+}
@@ -0,0 +1,137 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.Partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按起始地址排序的分区表
+ * 同时保存已分配分区和空闲分区，供内存管理器按地址顺序返回分区、按地址范围查询分区，
+ * 并在分区变化时通知监听器。批量操作期间的变化合并为一次通知
+ */
+class PartitionMap {
+    private final TreeMap<Long, Partition> partitions = new TreeMap<>();
+    private final List<PartitionListener> listeners = new CopyOnWriteArrayList<>();
+    // 批量操作的嵌套层数，以及批量操作期间累计的变化范围
+    private int batchDepth;
+    private long pendingFrom = Long.MAX_VALUE;
+    private long pendingTo = Long.MIN_VALUE;
+
+    /**
+     * 加入分区，调用方保证分区与已有分区不重叠
+     */
+    void put(Partition partition) {
+        partitions.put(partition.getStartAddress(), partition);
+    }
+
+    /**
+     * 移除起始地址为start的分区
+     * @return 被移除的分区，不存在时返回null
+     */
+    Partition remove(long start) {
+        return partitions.remove(start);
+    }
+
+    /**
+     * 获取起始地址为start的分区
+     * @return 分区，不存在时返回null
+     */
+    Partition get(long start) {
+        return partitions.get(start);
+    }
+
+    /**
+     * 获取起始地址小于start的最后一个分区
+     * @return 分区，不存在时返回null
+     */
+    Partition lower(long start) {
+        Map.Entry<Long, Partition> entry = partitions.lowerEntry(start);
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * 移除起始地址在[from, to)内的所有分区
+     */
+    void removeRange(long from, long to) {
+        partitions.subMap(from, to).clear();
+    }
+
+    /**
+     * 清空分区表
+     */
+    void clear() {
+        partitions.clear();
+    }
+
+    /**
+     * 按起始地址顺序返回所有分区
+     */
+    List<Partition> toList() {
+        return new ArrayList<>(partitions.values());
+    }
+
+    /**
+     * 按起始地址顺序返回与地址范围[from, to)有重叠的分区
+     * 开销为O(log n + k)，k为返回的分区数
+     */
+    List<Partition> range(long from, long to) {
+        List<Partition> result = new ArrayList<>();
+        if (from >= to) {
+            return result;
+        }
+        // 起始地址在from之前但跨过from的分区
+        Map.Entry<Long, Partition> first = partitions.floorEntry(from);
+        if (first != null && first.getKey() < from
+                && first.getKey() + first.getValue().getSize() > from) {
+            result.add(first.getValue());
+        }
+        result.addAll(partitions.subMap(from, true, to, false).values());
+        return result;
+    }
+
+    void addListener(PartitionListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(PartitionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 开始批量操作，此后的变化通知被合并，直到对应的endBatch()
+     */
+    void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * 结束批量操作，最外层的批量操作结束时把期间所有变化的范围合并为一次通知
+     */
+    void endBatch() {
+        if (--batchDepth == 0 && pendingFrom < pendingTo) {
+            long from = pendingFrom;
+            long to = pendingTo;
+            pendingFrom = Long.MAX_VALUE;
+            pendingTo = Long.MIN_VALUE;
+            fireChanged(from, to);
+        }
+    }
+
+    /**
+     * 通知监听器地址范围[from, to)内的分区发生了变化，批量操作期间只记录范围
+     */
+    void fireChanged(long from, long to) {
+        if (batchDepth > 0) {
+            pendingFrom = Math.min(pendingFrom, from);
+            pendingTo = Math.max(pendingTo, to);
+            return;
+        }
+        for (PartitionListener listener : listeners) {
+            listener.partitionsChanged(from, to);
+        }
+    }
+}
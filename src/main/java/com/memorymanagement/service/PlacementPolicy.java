@@ -0,0 +1,35 @@
+package com.memorymanagement.service;
+
+/**
+ * 可变分区放置策略枚举类
+ * 定义了动态分区分配时选择空闲分区的算法，均借助FreeBlockIndex在O(log n)时间内完成查找
+ */
+public enum PlacementPolicy {
+    /**
+     * 首次适应(First Fit)
+     * - 选择地址最低且足够大的空闲分区
+     * - 低地址部分容易留下小碎片
+     */
+    FIRST_FIT,
+
+    /**
+     * 最佳适应(Best Fit)
+     * - 选择足够大的空闲分区中最小的一个
+     * - 剩余部分最小，但会产生大量难以利用的小碎片
+     */
+    BEST_FIT,
+
+    /**
+     * 最坏适应(Worst Fit)
+     * - 总是选择最大的空闲分区
+     * - 剩余部分较大，仍可继续利用，但大分区会很快被消耗
+     */
+    WORST_FIT,
+
+    /**
+     * 循环首次适应(Next Fit)
+     * - 从上次分配结束的位置（游标）开始查找第一个足够大的空闲分区，到末尾后回绕
+     * - 空闲分区在整个内存中分布更均匀
+     */
+    NEXT_FIT
+}
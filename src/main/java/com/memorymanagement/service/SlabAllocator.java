@@ -0,0 +1,349 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.AllocatedPartition;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Slab分配器（对象缓存）
+ * 从底层MemoryManager申请固定大小的分区（slab），再把每个slab切分为等长的对象，
+ * 用于大量同尺寸小对象的分配，避免每个小对象都在底层分区管理器中查找和合并
+ *
+ * 结构：
+ * - 每种对象尺寸对应一个ObjectCache，缓存内的slab按使用情况分为满、部分使用和空三个链表
+ * - 每个线程在每个缓存上有一个弹匣（magazine），分配和释放优先在弹匣中完成，不需要加锁；
+ *   弹匣空或满时才加锁与slab批量交换一半容量的对象
+ * - 对象地址到slab的查找使用按起始地址排序的TreeMap，开销为O(log slab数)
+ *
+ * 底层MemoryManager不要求线程安全，所有对它的访问都在分配器锁内完成。
+ * slab的起始地址和已分配对象的地址在slab存在期间必须保持不变，因此底层管理器不能移动分区：
+ * 不能使用开启了自动紧凑的可变分区管理器，也不能在分配器持有slab时调用它的compact()
+ */
+public class SlabAllocator {
+    // 默认slab大小（4K）
+    private static final int DEFAULT_SLAB_SIZE = 4 * 1024;
+    // 默认弹匣容量
+    private static final int DEFAULT_MAGAZINE_SIZE = 16;
+
+    private final MemoryManager backing;        // 提供slab的底层内存管理器
+    @Getter
+    private final int slabSize;                 // 每个slab的大小
+    @Getter
+    private final int magazineSize;             // 每个线程弹匣的容量
+    private final Map<String, ObjectCache> caches; // 缓存名称到对象缓存的映射
+    private int slabCounter;                    // 用于生成slab在底层管理器中的作业名称
+
+    /**
+     * 使用默认slab大小和弹匣容量的构造函数
+     * @param backing 底层内存管理器
+     */
+    public SlabAllocator(MemoryManager backing) {
+        this(backing, DEFAULT_SLAB_SIZE, DEFAULT_MAGAZINE_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param backing 底层内存管理器，不能移动已分配的分区
+     * @param slabSize 每个slab的大小，必须为正数
+     * @param magazineSize 每个线程弹匣的容量，必须为正数
+     * @throws IllegalArgumentException 参数不合法或底层管理器开启了自动紧凑时抛出
+     */
+    public SlabAllocator(MemoryManager backing, int slabSize, int magazineSize) {
+        if (slabSize <= 0 || magazineSize <= 0) {
+            throw new IllegalArgumentException("slab大小和弹匣容量必须为正数: " + slabSize + ", " + magazineSize);
+        }
+        if (relocates(backing)) {
+            throw new IllegalArgumentException("底层内存管理器不能开启自动紧凑，紧凑会移动已分配的slab");
+        }
+        this.backing = backing;
+        this.slabSize = slabSize;
+        this.magazineSize = magazineSize;
+        this.caches = new HashMap<>();
+    }
+
+    /**
+     * 判断底层管理器是否会在分配时自动紧凑、移动已分配的分区
+     */
+    private static boolean relocates(MemoryManager backing) {
+        return backing instanceof DynamicPartitionManager && ((DynamicPartitionManager) backing).isAutoCompact();
+    }
+
+    /**
+     * 创建对象缓存
+     *
+     * @param name 缓存名称
+     * @param objectSize 对象大小，不能超过slab大小
+     * @return 新创建的对象缓存
+     * @throws IllegalArgumentException 名称已存在或对象大小不合法时抛出
+     */
+    public synchronized ObjectCache createCache(String name, int objectSize) {
+        if (objectSize <= 0 || objectSize > slabSize) {
+            throw new IllegalArgumentException("对象大小必须在1到" + slabSize + "之间: " + objectSize);
+        }
+        if (caches.containsKey(name)) {
+            throw new IllegalArgumentException("对象缓存已存在: " + name);
+        }
+        ObjectCache cache = new ObjectCache(name, objectSize);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    /**
+     * 获取对象缓存
+     * @param name 缓存名称
+     * @return 对象缓存，不存在时返回null
+     */
+    public synchronized ObjectCache getCache(String name) {
+        return caches.get(name);
+    }
+
+    /**
+     * 一个slab：底层管理器中的一个分区，被切分为若干等长对象
+     */
+    private static final class Slab {
+        final String jobName;       // 在底层管理器中的作业名称
+        final long startAddress;    // 起始地址
+        final int[] freeObjects;    // 空闲对象下标栈
+        int freeCount;              // 空闲对象数
+
+        Slab(String jobName, long startAddress, int objectCount) {
+            this.jobName = jobName;
+            this.startAddress = startAddress;
+            this.freeObjects = new int[objectCount];
+            for (int i = 0; i < objectCount; i++) {
+                freeObjects[i] = objectCount - 1 - i;   // 低地址的对象先分配
+            }
+            this.freeCount = objectCount;
+        }
+    }
+
+    /**
+     * 线程私有的弹匣，缓存已从slab取出但尚未分配（或已释放但尚未归还）的对象地址
+     */
+    private static final class Magazine {
+        final long[] rounds;
+        int count;
+
+        Magazine(int capacity) {
+            this.rounds = new long[capacity];
+        }
+    }
+
+    /**
+     * 对象缓存：管理同一尺寸对象的所有slab
+     */
+    public final class ObjectCache {
+        @Getter
+        private final String name;                          // 缓存名称
+        @Getter
+        private final int objectSize;                       // 对象大小
+        @Getter
+        private final int objectsPerSlab;                   // 每个slab容纳的对象数
+        private final Set<Slab> fullSlabs;                  // 没有空闲对象的slab
+        private final Set<Slab> partialSlabs;               // 部分对象空闲的slab
+        private final Set<Slab> emptySlabs;                 // 所有对象都空闲的slab
+        private final TreeMap<Long, Slab> slabsByAddress;   // 按起始地址索引的slab
+        private final ThreadLocal<Magazine> magazine;
+        private final LongAdder inUse;                      // 已交给调用者的对象数
+
+        private ObjectCache(String name, int objectSize) {
+            this.name = name;
+            this.objectSize = objectSize;
+            this.objectsPerSlab = slabSize / objectSize;
+            this.fullSlabs = new LinkedHashSet<>();
+            this.partialSlabs = new LinkedHashSet<>();
+            this.emptySlabs = new LinkedHashSet<>();
+            this.slabsByAddress = new TreeMap<>();
+            this.magazine = ThreadLocal.withInitial(() -> new Magazine(magazineSize));
+            this.inUse = new LongAdder();
+        }
+
+        /**
+         * 分配一个对象
+         * 弹匣中有对象时直接取出（无锁），否则加锁从slab中批量补充弹匣
+         *
+         * @return 对象地址，底层内存不足时返回-1
+         */
+        public long allocate() {
+            Magazine m = magazine.get();
+            if (m.count == 0 && refill(m) == 0) {
+                return -1;
+            }
+            inUse.increment();
+            return m.rounds[--m.count];
+        }
+
+        /**
+         * 释放一个对象
+         * 弹匣未满时直接放入弹匣（无锁），否则加锁把一半对象归还给所属slab
+         *
+         * @param address 对象地址，必须是本缓存分配的对象
+         */
+        public void free(long address) {
+            Magazine m = magazine.get();
+            if (m.count == m.rounds.length) {
+                flush(m, Math.max(1, m.count / 2));
+            }
+            m.rounds[m.count++] = address;
+            inUse.decrement();
+        }
+
+        /**
+         * 把当前线程弹匣中的对象全部归还给slab
+         * 线程结束使用缓存前调用，使空slab可以被回收
+         */
+        public void drainMagazine() {
+            Magazine m = magazine.get();
+            flush(m, m.count);
+        }
+
+        /**
+         * 从部分使用或空slab中取出对象补充到弹匣，需要时向底层管理器申请新slab
+         * @return 补充的对象数
+         */
+        private int refill(Magazine m) {
+            synchronized (SlabAllocator.this) {
+                int wanted = Math.max(1, m.rounds.length / 2);
+                while (m.count < wanted) {
+                    Slab slab = !partialSlabs.isEmpty() ? partialSlabs.iterator().next()
+                            : !emptySlabs.isEmpty() ? emptySlabs.iterator().next() : grow();
+                    if (slab == null) {
+                        break;
+                    }
+                    boolean wasEmpty = slab.freeCount == objectsPerSlab;
+                    while (slab.freeCount > 0 && m.count < wanted) {
+                        int index = slab.freeObjects[--slab.freeCount];
+                        m.rounds[m.count++] = slab.startAddress + (long) index * objectSize;
+                    }
+                    moveSlab(slab, wasEmpty);
+                }
+                return m.count;
+            }
+        }
+
+        /**
+         * 把弹匣顶部的count个对象归还给所属slab
+         */
+        private void flush(Magazine m, int count) {
+            if (count == 0) {
+                return;
+            }
+            synchronized (SlabAllocator.this) {
+                for (int i = 0; i < count; i++) {
+                    long address = m.rounds[--m.count];
+                    Slab slab = slabsByAddress.floorEntry(address).getValue();
+                    boolean wasFull = slab.freeCount == 0;
+                    slab.freeObjects[slab.freeCount++] = (int) ((address - slab.startAddress) / objectSize);
+                    if (wasFull) {
+                        fullSlabs.remove(slab);
+                        classify(slab);
+                    } else if (slab.freeCount == objectsPerSlab) {
+                        moveSlab(slab, false);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 向底层管理器申请一个新slab并放入空slab链表
+         * @return 新slab，底层内存不足时返回null
+         * @throws IllegalStateException 底层管理器在创建分配器之后开启了自动紧凑时抛出
+         */
+        private Slab grow() {
+            if (relocates(backing)) {
+                throw new IllegalStateException("底层内存管理器开启了自动紧凑，不能再申请slab");
+            }
+            String jobName = "slab-" + name + "-" + (++slabCounter);
+            if (!backing.allocateMemory(jobName, objectsPerSlab * objectSize)) {
+                return null;
+            }
+            AllocatedPartition partition = backing.getAllocatedPartition(jobName);
+            Slab slab = new Slab(jobName, partition.getStartAddress(), objectsPerSlab);
+            slabsByAddress.put(slab.startAddress, slab);
+            emptySlabs.add(slab);
+            return slab;
+        }
+
+        /**
+         * slab的空闲对象数变化后，把它移动到正确的链表
+         */
+        private void moveSlab(Slab slab, boolean wasEmpty) {
+            if (wasEmpty) {
+                emptySlabs.remove(slab);
+            } else {
+                partialSlabs.remove(slab);
+            }
+            classify(slab);
+        }
+
+        private void classify(Slab slab) {
+            if (slab.freeCount == 0) {
+                fullSlabs.add(slab);
+            } else if (slab.freeCount == objectsPerSlab) {
+                emptySlabs.add(slab);
+            } else {
+                partialSlabs.add(slab);
+            }
+        }
+
+        /**
+         * 把所有空slab归还给底层内存管理器
+         * @return 归还的slab数
+         */
+        public int reap() {
+            synchronized (SlabAllocator.this) {
+                int count = emptySlabs.size();
+                for (Slab slab : emptySlabs) {
+                    slabsByAddress.remove(slab.startAddress);
+                    backing.releaseMemory(slab.jobName);
+                }
+                emptySlabs.clear();
+                return count;
+            }
+        }
+
+        /**
+         * 获取slab数量
+         */
+        public int getSlabCount() {
+            synchronized (SlabAllocator.this) {
+                return slabsByAddress.size();
+            }
+        }
+
+        /**
+         * 获取满、部分使用和空slab的数量
+         * @return 长度为3的数组，依次为满、部分使用、空slab数
+         */
+        public int[] getSlabListSizes() {
+            synchronized (SlabAllocator.this) {
+                return new int[]{fullSlabs.size(), partialSlabs.size(), emptySlabs.size()};
+            }
+        }
+
+        /**
+         * 获取已交给调用者使用的对象数
+         */
+        public long getObjectsInUse() {
+            return inUse.sum();
+        }
+
+        /**
+         * 获取slab利用率
+         * 即已交给调用者使用的对象数占所有slab对象容量的比例，弹匣中缓存的对象不计为使用中
+         *
+         * @return 0到1之间的利用率，没有slab时返回0
+         */
+        public double getUtilization() {
+            long capacity = (long) getSlabCount() * objectsPerSlab;
+            return capacity == 0 ? 0.0 : (double) inUse.sum() / capacity;
+        }
+    }
+}
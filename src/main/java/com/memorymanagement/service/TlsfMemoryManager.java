@@ -0,0 +1,349 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TLSF（Two-Level Segregated Fit，两级分离适应）内存管理器
+ * 适用于实时系统的动态分区分配算法，分配和释放的开销都是O(1)，与空闲块数量无关
+ *
+ * 特点：
+ * 1. 空闲块按大小分为两级大小类：第一级按2的幂划分，第二级把每个2的幂区间再等分为16份，
+ *    每个大小类有一个空闲链表
+ * 2. 两级位图记录哪些大小类的链表非空，查找时只需几次位运算（numberOfTrailingZeros）
+ * 3. 分配时把申请大小向上取整到所在大小类的上界，保证找到的大小类中任何一块都足够大（好适应，近似最佳适应）
+ * 4. 每个块通过边界标记（物理上相邻的前后块）在释放时立即与相邻的空闲块合并
+ * 5. 申请的空间向上取整到16字节，分割后剩余不足16字节时不分割，可能产生少量内部碎片
+ *
+ * 由于申请大小按大小类上界取整，当只有同一大小类中略大于申请大小的块时分配可能失败，
+ * 这是TLSF为了有界的分配时间所做的取舍
+ *
+ * 内存布局：
+ * - 0~OS区域：操作系统区域，不参与分配
+ * - 其余空间初始为一个空闲块
+ */
+public class TlsfMemoryManager implements MemoryManager {
+    // 默认操作系统占用空间大小（4K）
+    public static final long DEFAULT_OS_SIZE = 4 * 1024;
+    // 默认总内存大小（128K）
+    public static final long DEFAULT_TOTAL_MEMORY = 128 * 1024;
+
+    // 第二级大小类数量的以2为底的对数（每个2的幂区间分为16个大小类）
+    private static final int SL_INDEX_COUNT_LOG2 = 4;
+    private static final int SL_INDEX_COUNT = 1 << SL_INDEX_COUNT_LOG2;
+    // 对齐大小（16字节），也是最小块大小
+    private static final int ALIGN_SIZE_LOG2 = 4;
+    private static final long ALIGN_SIZE = 1L << ALIGN_SIZE_LOG2;
+    // 小于SMALL_BLOCK_SIZE的块都属于第一级大小类0，第二级按16字节线性划分
+    private static final int FL_INDEX_SHIFT = SL_INDEX_COUNT_LOG2 + ALIGN_SIZE_LOG2;
+    private static final long SMALL_BLOCK_SIZE = 1L << FL_INDEX_SHIFT;
+    // 第一级大小类数量，覆盖long范围内的所有块大小
+    private static final int FL_INDEX_COUNT = Long.SIZE - FL_INDEX_SHIFT + 1;
+
+    /**
+     * 内存块
+     * 物理上相邻的前后块相当于边界标记，释放时据此在O(1)时间内找到相邻块
+     */
+    private static final class Block {
+        long start;                 // 起始地址
+        long size;                  // 块大小
+        boolean free;               // 是否空闲
+        Block prevPhysical;         // 物理上相邻的前一块
+        Block nextPhysical;         // 物理上相邻的后一块
+        Block prevFree;             // 空闲链表中的前驱
+        Block nextFree;             // 空闲链表中的后继
+        String jobName;             // 占用的作业名称
+        long requestedSize;         // 作业实际申请的大小
+
+        Block(long start, long size) {
+            this.start = start;
+            this.size = size;
+            this.free = true;
+        }
+    }
+
+    private final long totalMemory;                 // 总内存大小
+    private final long osSize;                      // 操作系统占用空间大小
+    private final Block firstBlock;                 // 地址最低的块，遍历全部块的起点
+    private final Block[][] freeLists;              // 每个大小类的空闲链表头
+    private long flBitmap;                          // 第一级位图，第i位表示第一级大小类i中有非空的链表
+    private final int[] slBitmaps;                  // 第二级位图，每个第一级大小类一个
+    private final Map<String, Block> allocations;   // 作业名称到已分配块的映射
+
+    private long freeBytes;                         // 空闲空间总量
+    private long allocatedBytes;                    // 已分配块的总大小
+    private long requestedBytes;                    // 作业实际申请的总大小
+    private int freeBlockCount;                     // 空闲块数量
+
+    /**
+     * 默认构造函数：128K内存，前4K为操作系统区域
+     */
+    public TlsfMemoryManager() {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_OS_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param totalMemory 总内存大小
+     * @param osSize 操作系统占用的空间，用户区域至少为16字节
+     * @throws IllegalArgumentException 内存大小不合法时抛出
+     */
+    public TlsfMemoryManager(long totalMemory, long osSize) {
+        if (totalMemory <= 0 || osSize < 0 || osSize >= totalMemory || totalMemory - osSize < ALIGN_SIZE) {
+            throw new IllegalArgumentException("内存大小不合法: 总内存" + totalMemory + ", 操作系统区域" + osSize);
+        }
+        this.totalMemory = totalMemory;
+        this.osSize = osSize;
+        this.freeLists = new Block[FL_INDEX_COUNT][SL_INDEX_COUNT];
+        this.slBitmaps = new int[FL_INDEX_COUNT];
+        this.allocations = new HashMap<>();
+        this.firstBlock = new Block(osSize, totalMemory - osSize);
+        insertFree(firstBlock);
+        freeBytes = firstBlock.size;
+    }
+
+    /**
+     * 计算块大小所属的大小类
+     * @return 第一级下标左移4位后与第二级下标的组合
+     */
+    private static int mappingInsert(long size) {
+        int fl;
+        int sl;
+        if (size < SMALL_BLOCK_SIZE) {
+            fl = 0;
+            sl = (int) (size >>> ALIGN_SIZE_LOG2);
+        } else {
+            int log2 = 63 - Long.numberOfLeadingZeros(size);
+            sl = (int) (size >>> (log2 - SL_INDEX_COUNT_LOG2)) ^ SL_INDEX_COUNT;
+            fl = log2 - FL_INDEX_SHIFT + 1;
+        }
+        return fl << SL_INDEX_COUNT_LOG2 | sl;
+    }
+
+    /**
+     * 计算分配时开始查找的大小类
+     * 先把申请大小向上取整到所在大小类的上界，使该大小类及更大的大小类中的任何一块都足够大
+     */
+    private static int mappingSearch(long size) {
+        if (size >= SMALL_BLOCK_SIZE) {
+            size += (1L << (63 - Long.numberOfLeadingZeros(size) - SL_INDEX_COUNT_LOG2)) - 1;
+        }
+        return mappingInsert(size);
+    }
+
+    /**
+     * 查找不小于指定大小类的第一个非空大小类的空闲块
+     * @return 空闲块，找不到时返回null
+     */
+    private Block findSuitableBlock(int fl, int sl) {
+        if (fl >= FL_INDEX_COUNT) {
+            return null;
+        }
+        int slMap = slBitmaps[fl] & (-1 << sl);
+        if (slMap == 0) {
+            // 当前第一级大小类中没有足够大的块，到更大的第一级大小类中查找
+            long flMap = fl + 1 < FL_INDEX_COUNT ? flBitmap & (-1L << (fl + 1)) : 0;
+            if (flMap == 0) {
+                return null;
+            }
+            fl = Long.numberOfTrailingZeros(flMap);
+            slMap = slBitmaps[fl];
+        }
+        return freeLists[fl][Integer.numberOfTrailingZeros(slMap)];
+    }
+
+    private void insertFree(Block block) {
+        int index = mappingInsert(block.size);
+        int fl = index >>> SL_INDEX_COUNT_LOG2;
+        int sl = index & (SL_INDEX_COUNT - 1);
+        Block head = freeLists[fl][sl];
+        block.prevFree = null;
+        block.nextFree = head;
+        if (head != null) {
+            head.prevFree = block;
+        }
+        freeLists[fl][sl] = block;
+        flBitmap |= 1L << fl;
+        slBitmaps[fl] |= 1 << sl;
+        freeBlockCount++;
+    }
+
+    private void removeFree(Block block) {
+        int index = mappingInsert(block.size);
+        int fl = index >>> SL_INDEX_COUNT_LOG2;
+        int sl = index & (SL_INDEX_COUNT - 1);
+        if (block.prevFree != null) {
+            block.prevFree.nextFree = block.nextFree;
+        } else {
+            freeLists[fl][sl] = block.nextFree;
+            if (block.nextFree == null) {
+                // 链表变空，清除位图中对应的位
+                slBitmaps[fl] &= ~(1 << sl);
+                if (slBitmaps[fl] == 0) {
+                    flBitmap &= ~(1L << fl);
+                }
+            }
+        }
+        if (block.nextFree != null) {
+            block.nextFree.prevFree = block.prevFree;
+        }
+        block.prevFree = null;
+        block.nextFree = null;
+        freeBlockCount--;
+    }
+
+    /**
+     * 分配内存空间
+     * 通过两级位图找到足够大的空闲块，多余部分分割为新的空闲块
+     *
+     * @param jobName 作业名称，不能与已分配的作业重名
+     * @param size 申请的空间大小
+     * @return 是否分配成功
+     */
+    @Override
+    public boolean allocateMemory(String jobName, long size) {
+        if (size <= 0 || size > totalMemory - osSize || allocations.containsKey(jobName)) {
+            return false;
+        }
+        long adjusted = (size + ALIGN_SIZE - 1) & -ALIGN_SIZE;
+        int index = mappingSearch(adjusted);
+        Block block = findSuitableBlock(index >>> SL_INDEX_COUNT_LOG2, index & (SL_INDEX_COUNT - 1));
+        if (block == null) {
+            return false;
+        }
+        removeFree(block);
+
+        // 剩余部分不小于最小块时分割出新的空闲块
+        if (block.size - adjusted >= ALIGN_SIZE) {
+            Block rest = new Block(block.start + adjusted, block.size - adjusted);
+            rest.prevPhysical = block;
+            rest.nextPhysical = block.nextPhysical;
+            if (block.nextPhysical != null) {
+                block.nextPhysical.prevPhysical = rest;
+            }
+            block.nextPhysical = rest;
+            block.size = adjusted;
+            insertFree(rest);
+        }
+        block.free = false;
+        block.jobName = jobName;
+        block.requestedSize = size;
+        allocations.put(jobName, block);
+        freeBytes -= block.size;
+        allocatedBytes += block.size;
+        requestedBytes += size;
+        return true;
+    }
+
+    /**
+     * 释放内存空间
+     * 借助边界标记立即与物理上相邻的空闲块合并
+     *
+     * @param jobName 要释放内存的作业名称
+     * @return 是否释放成功
+     */
+    @Override
+    public boolean releaseMemory(String jobName) {
+        Block block = allocations.remove(jobName);
+        if (block == null) {
+            return false;
+        }
+        freeBytes += block.size;
+        allocatedBytes -= block.size;
+        requestedBytes -= block.requestedSize;
+        block.free = true;
+        block.jobName = null;
+
+        // 与前一块合并
+        Block prev = block.prevPhysical;
+        if (prev != null && prev.free) {
+            removeFree(prev);
+            absorbNext(prev);
+            block = prev;
+        }
+        // 与后一块合并
+        Block next = block.nextPhysical;
+        if (next != null && next.free) {
+            removeFree(next);
+            absorbNext(block);
+        }
+        insertFree(block);
+        return true;
+    }
+
+    /**
+     * 把物理上的后一块并入block
+     */
+    private static void absorbNext(Block block) {
+        Block next = block.nextPhysical;
+        block.size += next.size;
+        block.nextPhysical = next.nextPhysical;
+        if (next.nextPhysical != null) {
+            next.nextPhysical.prevPhysical = block;
+        }
+    }
+
+    /**
+     * 查找指定作业占用的分区
+     * @param jobName 作业名称
+     * @return 临时生成的分区视图，作业不存在时返回null
+     */
+    @Override
+    public AllocatedPartition getAllocatedPartition(String jobName) {
+        Block block = allocations.get(jobName);
+        return block == null ? null : toPartition(block);
+    }
+
+    private static AllocatedPartition toPartition(Block block) {
+        return new AllocatedPartition(block.start, block.size, block.jobName, block.requestedSize);
+    }
+
+    /**
+     * 获取内存统计信息
+     * 除最大空闲块外都为O(1)；最大空闲块一定在最高的非空大小类中，只需遍历该大小类的链表
+     *
+     * @return 当前的内存统计信息
+     */
+    @Override
+    public MemoryStatistics getStatistics() {
+        long largest = 0;
+        if (flBitmap != 0) {
+            int fl = 63 - Long.numberOfLeadingZeros(flBitmap);
+            int sl = 31 - Integer.numberOfLeadingZeros(slBitmaps[fl]);
+            for (Block block = freeLists[fl][sl]; block != null; block = block.nextFree) {
+                largest = Math.max(largest, block.size);
+            }
+        }
+        return new MemoryStatistics(freeBytes, allocatedBytes, requestedBytes, largest,
+                freeBlockCount, allocations.size());
+    }
+
+    /**
+     * 显示当前内存使用状态
+     * 输出统计信息，分区明细在GUI中通过getMemoryStatus()显示
+     */
+    @Override
+    public void displayMemoryStatus() {
+        System.out.println("TLSF " + getStatistics());
+    }
+
+    /**
+     * 获取当前内存状态
+     * 沿物理相邻关系从地址最低的块开始遍历，结果天然按起始地址排序
+     *
+     * @return 包含所有分区（已分配和空闲）的列表
+     */
+    @Override
+    public List<Partition> getMemoryStatus() {
+        List<Partition> allPartitions = new ArrayList<>(allocations.size() + freeBlockCount);
+        for (Block block = firstBlock; block != null; block = block.nextPhysical) {
+            allPartitions.add(block.free ? new FreePartition(block.start, block.size) : toPartition(block));
+        }
+        return allPartitions;
+    }
+}
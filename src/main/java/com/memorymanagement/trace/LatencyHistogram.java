@@ -0,0 +1,102 @@
+package com.memorymanagement.trace;
+
+/**
+ * 延迟直方图
+ * 以对数分桶的方式记录延迟（纳秒），每个2的幂区间再等分为32个子桶，
+ * 相对误差不超过1/32，记录和查询分位数的空间开销是固定的，与记录的样本数无关
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;                      // 每个2的幂区间的子桶数为2^SUB_BITS
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_COUNT << 1;     // 小于该值的延迟每个值一个桶
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BITS - 1) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;        // 样本数
+    private long totalNanos;        // 样本之和
+    private long maxNanos;          // 最大样本
+
+    /**
+     * 记录一个样本
+     * @param nanos 延迟（纳秒），负数按0记录
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[indexOf(nanos)]++;
+        totalCount++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * 获取分位数
+     * @param percentile 百分位，0到100之间，例如99表示P99
+     * @return 不小于该比例样本的延迟上界（纳秒），没有样本时返回0
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("百分位必须在0到100之间: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * 获取样本数
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * 获取平均延迟（纳秒），没有样本时返回0
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * 获取最大延迟（纳秒）
+     */
+    public long getMax() {
+        return maxNanos;
+    }
+
+    /**
+     * 获取所有样本之和（纳秒）
+     */
+    public long getTotal() {
+        return totalNanos;
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_COUNT;
+        return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * SUB_COUNT + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_COUNT + SUB_BITS + 1;
+        long sub = (index - LINEAR_LIMIT) % SUB_COUNT + SUB_COUNT;
+        int shift = exponent - SUB_BITS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.memorymanagement.trace;
+
+import lombok.Getter;
+
+/**
+ * 轨迹回放结果类
+ * 记录一次回放中内存管理器的分配成功率、碎片情况和操作延迟
+ */
+@Getter
+public class ReplayResult {
+    private final String managerName;                                   // 内存管理器名称
+    private final LatencyHistogram allocationLatency = new LatencyHistogram(); // 分配操作延迟
+    private final LatencyHistogram releaseLatency = new LatencyHistogram();    // 释放操作延迟
+    long events;                    // 回放的事件数
+    long allocations;               // 成功的分配次数
+    long failedAllocations;         // 失败的分配次数
+    long releases;                  // 成功的释放次数
+    long skippedReleases;           // 因对应的分配失败而跳过的释放事件数
+    long failedReleases;            // 管理器拒绝的释放次数（作业不存在）
+    long liveBytes;                 // 当前存活作业申请的总大小
+    long peakLiveBytes;             // 存活作业申请总大小的峰值
+    double peakFragmentation;       // 采样得到的外部碎片率峰值
+    long elapsedNanos;              // 回放的总耗时，包括读取轨迹和碎片采样
+
+    /**
+     * 构造函数
+     * @param managerName 内存管理器名称
+     */
+    public ReplayResult(String managerName) {
+        this.managerName = managerName;
+    }
+
+    /**
+     * 获取吞吐量
+     * 即每秒完成的分配和释放操作数，只计算内存管理器内部的耗时，不包括读取轨迹和碎片采样
+     *
+     * @return 每秒操作数，没有操作时返回0
+     */
+    public double getThroughput() {
+        long nanos = allocationLatency.getTotal() + releaseLatency.getTotal();
+        long operations = allocationLatency.getCount() + releaseLatency.getCount();
+        return nanos == 0 ? 0.0 : operations * 1e9 / nanos;
+    }
+
+    /**
+     * 获取分配失败率
+     * @return 失败的分配占所有分配请求的比例，没有分配请求时返回0
+     */
+    public double getFailureRate() {
+        long total = allocations + failedAllocations;
+        return total == 0 ? 0.0 : (double) failedAllocations / total;
+    }
+}
@@ -0,0 +1,63 @@
+package com.memorymanagement.trace;
+
+import lombok.Getter;
+
+/**
+ * 内存分配轨迹事件类
+ * 轨迹中的一条记录：在某个时刻为作业分配指定大小的内存，或释放作业占用的内存
+ */
+@Getter
+public class TraceEvent {
+    /**
+     * 轨迹事件类型
+     */
+    public enum Type {
+        ALLOC,      // 为作业分配内存
+        FREE        // 释放作业占用的内存
+    }
+
+    private final long time;            // 事件发生的时刻
+    private final Type type;            // 事件类型
+    private final String jobName;       // 作业名称
+    private final long size;            // 申请的空间大小，释放事件为0
+
+    private TraceEvent(long time, Type type, String jobName, long size) {
+        if (jobName == null || jobName.isEmpty() || jobName.indexOf(',') >= 0
+                || jobName.indexOf('\n') >= 0 || jobName.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("作业名称不能为空，也不能包含逗号或换行: " + jobName);
+        }
+        this.time = time;
+        this.type = type;
+        this.jobName = jobName;
+        this.size = size;
+    }
+
+    /**
+     * 创建分配事件
+     * @param time 事件发生的时刻
+     * @param jobName 作业名称
+     * @param size 申请的空间大小，必须为正数
+     * @return 分配事件
+     */
+    public static TraceEvent alloc(long time, String jobName, long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("申请的空间大小必须为正数: " + size);
+        }
+        return new TraceEvent(time, Type.ALLOC, jobName, size);
+    }
+
+    /**
+     * 创建释放事件
+     * @param time 事件发生的时刻
+     * @param jobName 作业名称
+     * @return 释放事件
+     */
+    public static TraceEvent free(long time, String jobName) {
+        return new TraceEvent(time, Type.FREE, jobName, 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("时间: %d, 事件: %s, 作业: %s, 大小: %d", time, type, jobName, size);
+    }
+}
@@ -0,0 +1,155 @@
+package com.memorymanagement.trace;
+
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * 合成轨迹生成器
+ * 按给定的大小分布和生存期分布生成分配/释放事件序列
+ *
+ * 生成规则：
+ * - 每个时刻到达一个作业（作业名称为J0、J1……），申请的大小服从sizeDistribution
+ * - 作业的生存期服从均值为meanLifetime的指数分布（至少为1），到期时产生释放事件
+ * - 同一时刻先输出到期的释放事件，再输出分配事件；所有作业分配完后输出剩余的释放事件
+ *
+ * 种子和参数相同时，每次调用iterator()都得到完全相同的序列，
+ * 因此可以用同一个生成器依次回放到多个内存管理器上进行比较。
+ * 生成过程是流式的，内存占用只与同时存活的作业数有关
+ */
+@Getter
+public class TraceGenerator implements Iterable<TraceEvent> {
+    /**
+     * 申请大小的分布
+     */
+    public enum SizeDistribution {
+        UNIFORM,        // 在[minSize, maxSize]内均匀分布
+        EXPONENTIAL,    // minSize加上均值为(maxSize-minSize)/4的指数分布，超过maxSize时截断，小请求占多数
+        LOG_UNIFORM     // 对数均匀分布，每个数量级的请求数大致相同
+    }
+
+    private final long seed;                    // 随机数种子
+    private long allocationCount = 10000;       // 生成的分配事件数
+    private long minSize = 256;                 // 最小申请大小
+    private long maxSize = 8 * 1024;            // 最大申请大小
+    private SizeDistribution sizeDistribution = SizeDistribution.LOG_UNIFORM;
+    private double meanLifetime = 20;           // 平均生存期
+
+    /**
+     * 构造函数
+     * @param seed 随机数种子
+     */
+    public TraceGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 设置生成的分配事件数
+     * @param allocationCount 分配事件数，不能为负数
+     */
+    public void setAllocationCount(long allocationCount) {
+        if (allocationCount < 0) {
+            throw new IllegalArgumentException("分配事件数不能为负数: " + allocationCount);
+        }
+        this.allocationCount = allocationCount;
+    }
+
+    /**
+     * 设置申请大小的范围
+     * @param minSize 最小申请大小，必须为正数
+     * @param maxSize 最大申请大小，不能小于minSize
+     */
+    public void setSizeRange(long minSize, long maxSize) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("申请大小范围不合法: " + minSize + "~" + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 设置申请大小的分布
+     * @param sizeDistribution 大小分布
+     */
+    public void setSizeDistribution(SizeDistribution sizeDistribution) {
+        if (sizeDistribution == null) {
+            throw new IllegalArgumentException("大小分布不能为空");
+        }
+        this.sizeDistribution = sizeDistribution;
+    }
+
+    /**
+     * 设置平均生存期
+     * @param meanLifetime 平均生存期，必须为正数
+     */
+    public void setMeanLifetime(double meanLifetime) {
+        if (!(meanLifetime > 0)) {
+            throw new IllegalArgumentException("平均生存期必须为正数: " + meanLifetime);
+        }
+        this.meanLifetime = meanLifetime;
+    }
+
+    /**
+     * 创建一个从头开始的事件序列
+     */
+    @Override
+    public Iterator<TraceEvent> iterator() {
+        return new Generation();
+    }
+
+    /**
+     * 一次生成过程的状态
+     */
+    private final class Generation implements Iterator<TraceEvent> {
+        private final Random random = new Random(seed);
+        // 尚未释放的作业，按释放时刻排序，时刻相同时按作业编号排序；元素为{释放时刻, 作业编号}
+        private final PriorityQueue<long[]> pendingFrees = new PriorityQueue<>(
+                (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        private long allocated;         // 已生成的分配事件数，同时是下一个分配事件的时刻
+
+        @Override
+        public boolean hasNext() {
+            return allocated < allocationCount || !pendingFrees.isEmpty();
+        }
+
+        @Override
+        public TraceEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (!pendingFrees.isEmpty() && (allocated >= allocationCount || pendingFrees.peek()[0] <= allocated)) {
+                long[] free = pendingFrees.poll();
+                return TraceEvent.free(free[0], "J" + free[1]);
+            }
+            long id = allocated++;
+            long lifetime = Math.max(1, (long) Math.ceil(exponential(meanLifetime)));
+            pendingFrees.add(new long[]{id + lifetime, id});
+            return TraceEvent.alloc(id, "J" + id, nextSize());
+        }
+
+        private long nextSize() {
+            double value;
+            switch (sizeDistribution) {
+                case UNIFORM:
+                    value = minSize + random.nextDouble() * (maxSize - minSize + 1);
+                    break;
+                case EXPONENTIAL:
+                    value = minSize + exponential(Math.max(1.0, (maxSize - minSize) / 4.0));
+                    break;
+                case LOG_UNIFORM:
+                default:
+                    double low = Math.log(minSize);
+                    value = Math.exp(low + random.nextDouble() * (Math.log(maxSize + 1.0) - low));
+                    break;
+            }
+            return Math.max(minSize, Math.min(maxSize, (long) value));
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.memorymanagement.trace;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 轨迹文件读取器
+ * 逐行解析轨迹文件，每次只在内存中保留一条事件，可以回放任意长度的轨迹
+ *
+ * 轨迹文件格式：每行一个事件，时刻必须非递减，以#开头的行和空行会被忽略，例如：
+ * 0,alloc,Job1,4096
+ * 3,alloc,Job2,1024
+ * 5,free,Job1
+ */
+public class TraceReader implements Iterator<TraceEvent>, Closeable {
+    private final BufferedReader reader;
+    private TraceEvent nextEvent;       // 预读的下一条事件
+    private int lineNumber;             // 当前行号，用于错误信息
+    private long lastTime;              // 上一条事件的时刻
+
+    /**
+     * 构造函数
+     * @param reader 轨迹内容的字符输入流
+     */
+    public TraceReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.lastTime = Long.MIN_VALUE;
+    }
+
+    /**
+     * 打开UTF-8编码的轨迹文件
+     * @param path 轨迹文件路径
+     * @return 轨迹读取器
+     * @throws IOException 文件打开失败时抛出
+     */
+    public static TraceReader open(Path path) throws IOException {
+        return new TraceReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 判断是否还有事件
+     * @throws UncheckedIOException 读取出错时抛出
+     * @throws IllegalArgumentException 文件内容格式错误时抛出
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextEvent != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    nextEvent = parse(line);
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public TraceEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TraceEvent event = nextEvent;
+        nextEvent = null;
+        return event;
+    }
+
+    /**
+     * 解析一行轨迹记录
+     */
+    private TraceEvent parse(String line) {
+        String[] parts = line.split(",");
+        try {
+            long time = Long.parseLong(parts[0].trim());
+            if (time < lastTime) {
+                throw new IllegalArgumentException("轨迹文件第" + lineNumber + "行的时刻早于上一条事件: " + line);
+            }
+            lastTime = time;
+            if (parts.length == 4 && "alloc".equalsIgnoreCase(parts[1].trim())) {
+                return TraceEvent.alloc(time, parts[2].trim(), Long.parseLong(parts[3].trim()));
+            }
+            if (parts.length == 3 && "free".equalsIgnoreCase(parts[1].trim())) {
+                return TraceEvent.free(time, parts[2].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("轨迹文件第" + lineNumber + "行数字格式错误: " + line);
+        }
+        throw new IllegalArgumentException("轨迹文件第" + lineNumber + "行格式错误: " + line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,492 @@
+package com.memorymanagement.trace;
+
+import com.memorymanagement.service.BitmapMemoryManager;
+import com.memorymanagement.service.BuddyMemoryManager;
+import com.memorymanagement.service.DynamicPartitionManager;
+import com.memorymanagement.service.FixedPartitionManager;
+import com.memorymanagement.service.MemoryManager;
+import com.memorymanagement.service.PlacementPolicy;
+import com.memorymanagement.service.TlsfMemoryManager;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 轨迹回放工具类
+ * 把分配/释放事件序列依次回放到内存管理器上，统计吞吐量、分配失败、碎片率峰值和延迟分位数，
+ * 用于比较不同内存管理器和放置策略在同一负载下的表现
+ *
+ * 命令行参数：
+ * --trace 文件           回放轨迹文件，不指定时使用合成轨迹
+ * --seed 种子            合成轨迹的随机数种子，默认1
+ * --allocations 数量     合成轨迹的分配事件数，默认10000
+ * --size-dist 分布       合成轨迹的大小分布：uniform、exponential或log-uniform，默认log-uniform
+ * --min-size 大小        合成轨迹的最小申请大小，默认256
+ * --max-size 大小        合成轨迹的最大申请大小，默认8K
+ * --lifetime 时间        合成轨迹的平均生存期，默认20
+ * --save-trace 文件      把合成轨迹保存到文件
+ * --managers 列表        逗号分隔的内存管理器：fixed、fixed-best-fit、first-fit、best-fit、worst-fit、next-fit、buddy、bitmap、tlsf，默认全部
+ * --memory 大小          总内存大小，默认128K
+ * --os 大小              操作系统区域大小，默认4K
+ * --layout 布局          固定分区布局，默认"2x1K,2K,2x4K,8K,16K,88K"
+ * --min-block 大小       伙伴系统的最小块大小，默认1K
+ * --page-size 大小       位图分配的页大小，默认1K
+ * --sample 间隔          每回放多少个事件采样一次碎片率，默认1（每个事件都采样）
+ * --format 格式          json或csv，默认json
+ * --output 文件          结果输出文件，默认输出到标准输出
+ * 大小参数可以带K、M或G后缀
+ */
+public class TraceReplayer {
+    // 支持的内存管理器名称
+    private static final String[] MANAGER_NAMES = {"fixed", "fixed-best-fit", "first-fit", "best-fit", "worst-fit", "next-fit", "buddy", "bitmap", "tlsf"};
+
+    private int sampleInterval = 1;         // 碎片率采样间隔（事件数）
+
+    /**
+     * 设置碎片率采样间隔
+     * 内置的内存管理器以O(1)开销提供统计信息，使用默认getStatistics()实现的管理器每次采样需要遍历所有分区，
+     * 此时可以增大间隔以加快回放
+     *
+     * @param sampleInterval 采样间隔（事件数），必须为正数
+     */
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("采样间隔必须为正数: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * 把事件序列回放到内存管理器上
+     * 分配失败的作业对应的释放事件会被跳过，不调用管理器
+     *
+     * @param managerName 内存管理器名称，用于结果展示
+     * @param manager 内存管理器
+     * @param events 事件序列，按时刻非递减排列
+     * @return 回放结果
+     */
+    public ReplayResult replay(String managerName, MemoryManager manager, Iterator<TraceEvent> events) {
+        ReplayResult result = new ReplayResult(managerName);
+        Map<String, Long> liveSizes = new HashMap<>();     // 存活作业申请的大小
+        long begin = System.nanoTime();
+        while (events.hasNext()) {
+            TraceEvent event = events.next();
+            result.events++;
+            if (event.getType() == TraceEvent.Type.ALLOC) {
+                long start = System.nanoTime();
+                boolean success = manager.allocateMemory(event.getJobName(), event.getSize());
+                result.getAllocationLatency().record(System.nanoTime() - start);
+                if (success) {
+                    result.allocations++;
+                    liveSizes.put(event.getJobName(), event.getSize());
+                    result.liveBytes += event.getSize();
+                    result.peakLiveBytes = Math.max(result.peakLiveBytes, result.liveBytes);
+                } else {
+                    result.failedAllocations++;
+                }
+            } else {
+                Long size = liveSizes.remove(event.getJobName());
+                if (size == null) {
+                    result.skippedReleases++;
+                } else {
+                    long start = System.nanoTime();
+                    boolean success = manager.releaseMemory(event.getJobName());
+                    result.getReleaseLatency().record(System.nanoTime() - start);
+                    result.liveBytes -= size;
+                    if (success) {
+                        result.releases++;
+                    } else {
+                        result.failedReleases++;
+                    }
+                }
+            }
+            if (result.events % sampleInterval == 0) {
+                sampleFragmentation(manager, result);
+            }
+        }
+        sampleFragmentation(manager, result);
+        result.elapsedNanos = System.nanoTime() - begin;
+        return result;
+    }
+
+    /**
+     * 采样当前的外部碎片率并更新峰值
+     */
+    private static void sampleFragmentation(MemoryManager manager, ReplayResult result) {
+        result.peakFragmentation = Math.max(result.peakFragmentation,
+                manager.getStatistics().getExternalFragmentation());
+    }
+
+    /**
+     * 命令行选项
+     */
+    private static class Options {
+        String trace;
+        long seed = 1;
+        long allocations = 10000;
+        TraceGenerator.SizeDistribution sizeDistribution = TraceGenerator.SizeDistribution.LOG_UNIFORM;
+        long minSize = 256;
+        long maxSize = 8 * 1024;
+        double lifetime = 20;
+        String saveTrace;
+        List<String> managers = List.of(MANAGER_NAMES);
+        long memory = FixedPartitionManager.DEFAULT_TOTAL_MEMORY;
+        long osSize = FixedPartitionManager.DEFAULT_OS_SIZE;
+        String layout = FixedPartitionManager.DEFAULT_LAYOUT;
+        long minBlock = 1024;
+        long pageSize = BitmapMemoryManager.DEFAULT_PAGE_SIZE;
+        int sampleInterval = 1;
+        String format = "json";
+        String output;
+    }
+
+    /**
+     * 命令行入口
+     * @param args 命令行参数
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * 执行轨迹回放并输出比较结果
+     * @param args 命令行参数
+     * @param out 标准输出流
+     * @param err 错误输出流
+     * @return 退出码：0表示成功，1表示参数或文件错误
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        TraceGenerator generator = null;
+        try {
+            options = parseOptions(args);
+            if (options.trace == null) {
+                generator = new TraceGenerator(options.seed);
+                generator.setAllocationCount(options.allocations);
+                generator.setSizeRange(options.minSize, options.maxSize);
+                generator.setSizeDistribution(options.sizeDistribution);
+                generator.setMeanLifetime(options.lifetime);
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            printUsage(err);
+            return 1;
+        }
+
+        List<ReplayResult> results = new ArrayList<>();
+        try {
+            if (generator != null && options.saveTrace != null) {
+                try (TraceWriter writer = TraceWriter.create(Paths.get(options.saveTrace))) {
+                    writer.writeAll(generator);
+                }
+            }
+            TraceReplayer replayer = new TraceReplayer();
+            replayer.setSampleInterval(options.sampleInterval);
+            for (String name : options.managers) {
+                MemoryManager manager = createManager(name, options);
+                if (generator != null) {
+                    results.add(replayer.replay(name, manager, generator.iterator()));
+                } else {
+                    try (TraceReader reader = TraceReader.open(Paths.get(options.trace))) {
+                        results.add(replayer.replay(name, manager, reader));
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            err.println("错误: 读写轨迹文件失败: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            return 1;
+        }
+
+        try (PrintStream target = options.output == null ? null
+                : new PrintStream(new FileOutputStream(options.output), false, "UTF-8")) {
+            PrintStream report = target == null ? out : target;
+            if ("csv".equals(options.format)) {
+                writeCsv(report, results);
+            } else {
+                writeJson(report, results, options);
+            }
+            report.flush();
+        } catch (IOException e) {
+            err.println("错误: 写入结果失败: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * 按名称创建内存管理器
+     * @throws IllegalArgumentException 名称或内存配置不合法时抛出
+     */
+    private static MemoryManager createManager(String name, Options options) {
+        switch (name) {
+            case "fixed":
+                return new FixedPartitionManager(options.memory, options.osSize, options.layout);
+            case "fixed-best-fit":
+                return new FixedPartitionManager(options.memory, options.osSize, options.layout, PlacementPolicy.BEST_FIT);
+            case "first-fit":
+                return new DynamicPartitionManager(options.memory, options.osSize, PlacementPolicy.FIRST_FIT);
+            case "best-fit":
+                return new DynamicPartitionManager(options.memory, options.osSize, PlacementPolicy.BEST_FIT);
+            case "worst-fit":
+                return new DynamicPartitionManager(options.memory, options.osSize, PlacementPolicy.WORST_FIT);
+            case "next-fit":
+                return new DynamicPartitionManager(options.memory, options.osSize, PlacementPolicy.NEXT_FIT);
+            case "buddy":
+                if (options.minBlock > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("最小块大小过大: " + options.minBlock);
+                }
+                return new BuddyMemoryManager(options.memory, options.osSize, (int) options.minBlock);
+            case "bitmap":
+                if (options.pageSize > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("页大小过大: " + options.pageSize);
+                }
+                return new BitmapMemoryManager(options.memory, options.osSize, (int) options.pageSize);
+            case "tlsf":
+                return new TlsfMemoryManager(options.memory, options.osSize);
+            default:
+                throw new IllegalArgumentException("不支持的内存管理器: " + name);
+        }
+    }
+
+    /**
+     * 解析命令行参数
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    private static Options parseOptions(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数缺少取值: " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--trace":
+                    options.trace = value;
+                    break;
+                case "--seed":
+                    options.seed = parseLong(arg, value);
+                    break;
+                case "--allocations":
+                    options.allocations = parseLong(arg, value);
+                    break;
+                case "--size-dist":
+                    options.sizeDistribution = parseDistribution(value);
+                    break;
+                case "--min-size":
+                    options.minSize = parseSize(arg, value);
+                    break;
+                case "--max-size":
+                    options.maxSize = parseSize(arg, value);
+                    break;
+                case "--lifetime":
+                    try {
+                        options.lifetime = Double.parseDouble(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(arg + " 必须为数字: " + value);
+                    }
+                    break;
+                case "--save-trace":
+                    options.saveTrace = value;
+                    break;
+                case "--managers":
+                    options.managers = parseManagers(value);
+                    break;
+                case "--memory":
+                    options.memory = parseSize(arg, value);
+                    break;
+                case "--os":
+                    options.osSize = parseSize(arg, value);
+                    break;
+                case "--layout":
+                    options.layout = value;
+                    break;
+                case "--min-block":
+                    options.minBlock = parseSize(arg, value);
+                    break;
+                case "--page-size":
+                    options.pageSize = parseSize(arg, value);
+                    break;
+                case "--sample":
+                    long interval = parseLong(arg, value);
+                    if (interval <= 0 || interval > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException(arg + " 必须为正整数: " + value);
+                    }
+                    options.sampleInterval = (int) interval;
+                    break;
+                case "--format":
+                    options.format = value.toLowerCase(Locale.ROOT);
+                    if (!"json".equals(options.format) && !"csv".equals(options.format)) {
+                        throw new IllegalArgumentException("不支持的输出格式: " + value);
+                    }
+                    break;
+                case "--output":
+                    options.output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 必须为整数: " + value);
+        }
+    }
+
+    /**
+     * 解析带K、M或G后缀的大小参数
+     */
+    private static long parseSize(String name, String value) {
+        try {
+            long size = FixedPartitionManager.parseSize(value);
+            if (size >= 0) {
+                return size;
+            }
+        } catch (NumberFormatException | ArithmeticException ignored) {
+            // 统一在下面抛出异常
+        }
+        throw new IllegalArgumentException(name + " 必须为非负的大小: " + value);
+    }
+
+    private static TraceGenerator.SizeDistribution parseDistribution(String value) {
+        try {
+            return TraceGenerator.SizeDistribution.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的大小分布: " + value);
+        }
+    }
+
+    private static List<String> parseManagers(String value) {
+        List<String> managers = new ArrayList<>();
+        for (String name : value.split(",")) {
+            name = name.trim().toLowerCase(Locale.ROOT);
+            if (!List.of(MANAGER_NAMES).contains(name)) {
+                throw new IllegalArgumentException("不支持的内存管理器: " + name);
+            }
+            managers.add(name);
+        }
+        return managers;
+    }
+
+    /**
+     * 计算一个回放结果的指标
+     * @return 指标名称与格式化后取值的数组
+     */
+    private static String[][] summarize(ReplayResult result) {
+        LatencyHistogram alloc = result.getAllocationLatency();
+        LatencyHistogram release = result.getReleaseLatency();
+        return new String[][]{
+            {"events", String.valueOf(result.getEvents())},
+            {"allocations", String.valueOf(result.getAllocations())},
+            {"failedAllocations", String.valueOf(result.getFailedAllocations())},
+            {"failureRate", format(result.getFailureRate())},
+            {"releases", String.valueOf(result.getReleases())},
+            {"skippedReleases", String.valueOf(result.getSkippedReleases())},
+            {"peakLiveBytes", String.valueOf(result.getPeakLiveBytes())},
+            {"peakFragmentation", format(result.getPeakFragmentation())},
+            {"throughput", format(result.getThroughput())},
+            {"allocMeanNanos", format(alloc.getMean())},
+            {"allocP50Nanos", String.valueOf(alloc.getPercentile(50))},
+            {"allocP90Nanos", String.valueOf(alloc.getPercentile(90))},
+            {"allocP99Nanos", String.valueOf(alloc.getPercentile(99))},
+            {"allocP999Nanos", String.valueOf(alloc.getPercentile(99.9))},
+            {"allocMaxNanos", String.valueOf(alloc.getMax())},
+            {"releaseP50Nanos", String.valueOf(release.getPercentile(50))},
+            {"releaseP99Nanos", String.valueOf(release.getPercentile(99))},
+            {"releaseMaxNanos", String.valueOf(release.getMax())},
+            {"elapsedMillis", format(result.getElapsedNanos() / 1e6)}
+        };
+    }
+
+    /**
+     * 以JSON格式输出所有回放结果
+     */
+    private static void writeJson(PrintStream out, List<ReplayResult> results, Options options) {
+        out.println("{");
+        out.println("  \"trace\": \"" + (options.trace == null ? "generated" : json(options.trace)) + "\",");
+        if (options.trace == null) {
+            out.println("  \"seed\": " + options.seed + ",");
+        }
+        out.println("  \"memory\": " + options.memory + ",");
+        out.println("  \"os\": " + options.osSize + ",");
+        out.println("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            ReplayResult result = results.get(i);
+            StringBuilder line = new StringBuilder("    {\"manager\": \"" + result.getManagerName() + "\"");
+            for (String[] metric : summarize(result)) {
+                line.append(", \"").append(metric[0]).append("\": ").append(metric[1]);
+            }
+            out.println(line.append('}').append(i < results.size() - 1 ? "," : ""));
+        }
+        out.println("  ]");
+        out.println("}");
+    }
+
+    /**
+     * 以CSV格式输出所有回放结果，每个内存管理器一行
+     */
+    private static void writeCsv(PrintStream out, List<ReplayResult> results) {
+        StringBuilder header = new StringBuilder("manager");
+        for (String[] metric : summarize(new ReplayResult(""))) {
+            header.append(',').append(metric[0]);
+        }
+        out.println(header);
+        for (ReplayResult result : results) {
+            StringBuilder line = new StringBuilder(result.getManagerName());
+            for (String[] metric : summarize(result)) {
+                line.append(',').append(metric[1]);
+            }
+            out.println(line);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    /**
+     * 转义JSON字符串中的特殊字符
+     */
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 输出命令行用法说明
+     */
+    private static void printUsage(PrintStream err) {
+        err.println("用法: java -cp OperatingSystem.jar com.memorymanagement.trace.TraceReplayer");
+        err.println("       [--trace 轨迹文件 | --seed 种子 --allocations 数量 --size-dist uniform|exponential|log-uniform");
+        err.println("        --min-size 大小 --max-size 大小 --lifetime 平均生存期 --save-trace 文件]");
+        err.println("       [--managers fixed,fixed-best-fit,first-fit,best-fit,worst-fit,next-fit,buddy,bitmap,tlsf] [--memory 大小] [--os 大小]");
+        err.println("       [--layout 固定分区布局] [--min-block 大小] [--page-size 大小] [--sample 采样间隔]");
+        err.println("       [--format json|csv] [--output 文件]");
+    }
+}
@@ -0,0 +1,74 @@
+package com.memorymanagement.trace;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 轨迹文件写入器
+ * 按TraceReader能够读取的格式逐条写出轨迹事件
+ */
+public class TraceWriter implements Closeable {
+    private final Writer writer;
+
+    /**
+     * 构造函数
+     * @param writer 轨迹内容的字符输出流
+     */
+    public TraceWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    }
+
+    /**
+     * 创建UTF-8编码的轨迹文件，已存在时覆盖
+     * @param path 轨迹文件路径
+     * @return 轨迹写入器
+     * @throws IOException 文件创建失败时抛出
+     */
+    public static TraceWriter create(Path path) throws IOException {
+        return new TraceWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 写出一条事件
+     * @param event 轨迹事件
+     * @throws IOException 写入出错时抛出
+     */
+    public void write(TraceEvent event) throws IOException {
+        writer.write(Long.toString(event.getTime()));
+        if (event.getType() == TraceEvent.Type.ALLOC) {
+            writer.write(",alloc,");
+            writer.write(event.getJobName());
+            writer.write(',');
+            writer.write(Long.toString(event.getSize()));
+        } else {
+            writer.write(",free,");
+            writer.write(event.getJobName());
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * 写出所有事件
+     * @param events 轨迹事件序列
+     * @return 写出的事件数
+     * @throws IOException 写入出错时抛出
+     */
+    public long writeAll(Iterable<TraceEvent> events) throws IOException {
+        long count = 0;
+        for (TraceEvent event : events) {
+            write(event);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,27 @@
+package com.processmanagement;
+
+import com.processmanagement.gui.ProcessManagementGUI;
+import com.processmanagement.util.BatchRunner;
+
+/**
+ * 进程管理系统入口类
+ * - 不带参数运行时启动图形界面
+ * - 带参数运行时以无界面的批量模式运行模拟，参数说明见{@link BatchRunner}
+ */
+public class ProcessManagementSystem {
+
+    /**
+     * 程序入口
+     * @param args 命令行参数，为空时启动图形界面
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            ProcessManagementGUI.main(args);
+            return;
+        }
+        int exitCode = BatchRunner.run(args, System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+}
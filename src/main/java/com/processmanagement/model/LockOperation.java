@@ -0,0 +1,50 @@
+package com.processmanagement.model;
+
+import lombok.Getter;
+
+/**
+ * 锁操作类
+ * 描述进程在执行到某一时刻时对模拟锁进行的获取或释放操作
+ * 例如"执行2个时间单位后获取锁1，执行5个时间单位后释放锁1"
+ */
+@Getter
+public class LockOperation {
+    /**
+     * 锁操作类型
+     */
+    public enum Type {
+        /**
+         * 获取锁：锁不可用时进程进入等待状态
+         */
+        ACQUIRE,
+
+        /**
+         * 释放锁：唤醒等待该锁的进程
+         */
+        RELEASE
+    }
+
+    private final int at;       // 操作发生时进程已执行的时间
+    private final int lockId;   // 操作的锁ID
+    private final Type type;    // 操作类型
+
+    /**
+     * 锁操作构造函数
+     * @param at 操作发生时进程已执行的时间，不能为负数
+     * @param lockId 锁ID
+     * @param type 操作类型
+     */
+    public LockOperation(int at, int lockId, Type type) {
+        if (at < 0) {
+            throw new IllegalArgumentException("操作时间不能为负数: " + at);
+        }
+        this.at = at;
+        this.lockId = lockId;
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(锁%d)@%d", type, lockId, at);
+    }
+}
@@ -3,6 +3,9 @@ package com.processmanagement.model;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 进程控制块(Process Control Block)类
  * 用于存储和管理进程的所有相关信息和状态
@@ -18,6 +21,17 @@ public class PCB {
     private int timeSlice;          // 分配给进程的时间片大小
     private int totalTime;          // 进程需要的总执行时间
     private int elapsedTime;        // 进程已经执行的时间
+    private int groupId;            // 所属进程组ID（0表示不属于任何进程组），用于组调度
+    private int inheritedPriority;  // 通过锁协议临时获得的优先级（0表示没有）
+    private int blockedTime;        // 因等待锁而阻塞的累计时间
+    private List<LockOperation> lockOperations; // 按执行时间排序的锁操作序列
+    private int nextLockOperation;  // 下一个待执行的锁操作下标
+    private int arrivalTime;        // 进程创建（到达）的系统时间
+    private int startTime;          // 进程第一次被分派到CPU的系统时间（-1表示尚未运行）
+    private int finishTime;         // 进程终止的系统时间（-1表示尚未终止）
+    private int[] maxClaim;         // 对各类资源声明的最大需求（未启用资源控制时为null）
+    private int[] allocation;       // 已分配的各类资源数量（未启用资源控制时为null）
+    private int lastCpu;            // 上一次运行所在的CPU编号（-1表示尚未运行），用于判断迁移
 
     /**
      * PCB构造函数
@@ -35,6 +49,58 @@ public class PCB {
         this.timeSlice = 2;               // 默认时间片为2个时间单位
         this.totalTime = totalTime;
         this.elapsedTime = 0;
+        this.groupId = 0;                 // 默认不属于任何进程组
+        this.inheritedPriority = 0;
+        this.blockedTime = 0;
+        this.lockOperations = new ArrayList<>();
+        this.nextLockOperation = 0;
+        this.arrivalTime = 0;
+        this.startTime = -1;
+        this.finishTime = -1;
+        this.maxClaim = null;
+        this.allocation = null;
+        this.lastCpu = -1;
+    }
+
+    /**
+     * 获取进程的有效优先级
+     * 即基础优先级与通过锁协议继承的优先级中的较大者
+     * @return 有效优先级
+     */
+    public int getEffectivePriority() {
+        return Math.max(priority, inheritedPriority);
+    }
+
+    /**
+     * 添加锁操作
+     * 操作按执行时间插入，同一时间的操作保持添加顺序
+     * @param operation 锁操作
+     */
+    public void addLockOperation(LockOperation operation) {
+        int index = lockOperations.size();
+        while (index > 0 && lockOperations.get(index - 1).getAt() > operation.getAt()) {
+            index--;
+        }
+        lockOperations.add(index, operation);
+    }
+
+    /**
+     * 获取当前应当执行的锁操作
+     * @return 执行时间已到达的下一个锁操作，没有时返回null
+     */
+    public LockOperation getDueLockOperation() {
+        if (nextLockOperation >= lockOperations.size()) {
+            return null;
+        }
+        LockOperation operation = lockOperations.get(nextLockOperation);
+        return operation.getAt() <= elapsedTime ? operation : null;
+    }
+
+    /**
+     * 标记当前锁操作已完成，前进到下一个锁操作
+     */
+    public void completeLockOperation() {
+        nextLockOperation++;
     }
 
     /**
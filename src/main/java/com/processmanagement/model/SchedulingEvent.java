@@ -0,0 +1,50 @@
+package com.processmanagement.model;
+
+import lombok.Getter;
+
+/**
+ * 调度事件类
+ * 记录进程调度过程中发生的一次状态变化，用于事件日志和调度过程分析
+ */
+@Getter
+public class SchedulingEvent {
+    /**
+     * 调度事件类型
+     */
+    public enum Type {
+        CREATE,     // 进程创建并进入就绪状态
+        DISPATCH,   // 进程被分派到CPU上运行
+        PREEMPT,    // 进程因时间片用完或被抢占而让出CPU
+        BLOCK,      // 进程因等待资源进入等待状态
+        WAKE,       // 进程获得资源，从等待状态回到就绪状态
+        TERMINATE   // 进程执行完成或被销毁
+    }
+
+    private final int time;             // 事件发生的系统时间
+    private final Type type;            // 事件类型
+    private final int pid;              // 相关进程ID
+    private final String processName;   // 相关进程名称
+    private final int cpu;              // 相关CPU编号，与CPU无关时为-1
+
+    /**
+     * 调度事件构造函数
+     * @param time 事件发生的系统时间
+     * @param type 事件类型
+     * @param pid 进程ID
+     * @param processName 进程名称
+     * @param cpu CPU编号，与CPU无关时为-1
+     */
+    public SchedulingEvent(int time, Type type, int pid, String processName, int cpu) {
+        this.time = time;
+        this.type = type;
+        this.pid = pid;
+        this.processName = processName;
+        this.cpu = cpu;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("时间: %d, 事件: %s, 进程ID: %d, 名称: %s, CPU: %d",
+            time, type, pid, processName, cpu);
+    }
+}
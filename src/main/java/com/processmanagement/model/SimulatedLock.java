@@ -0,0 +1,66 @@
+package com.processmanagement.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟锁资源类
+ * 用于在进程模拟器中表示互斥锁或计数信号量
+ * permits为1时等价于互斥锁，大于1时为计数信号量
+ *
+ * 进程在执行过程中按照预先设定的锁操作获取和释放锁，
+ * 获取失败的进程进入等待状态，并被加入该锁的等待队列
+ */
+@Getter
+public class SimulatedLock {
+    private final int lockId;               // 锁的唯一标识符
+    private final String name;              // 锁名称
+    private final int permits;              // 可同时持有该锁的进程数
+    @Setter
+    private int ceiling;                    // 优先级天花板（可能使用该锁的进程的最高优先级）
+    private final List<PCB> holders;        // 当前持有该锁的进程
+    private final List<PCB> waiters;        // 等待该锁的进程，按到达顺序排列
+
+    /**
+     * 模拟锁构造函数
+     * @param lockId 锁ID
+     * @param name 锁名称
+     * @param permits 许可数量，必须为正数
+     */
+    public SimulatedLock(int lockId, String name, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("许可数量必须为正数: " + permits);
+        }
+        this.lockId = lockId;
+        this.name = name;
+        this.permits = permits;
+        this.ceiling = 0;
+        this.holders = new ArrayList<>();
+        this.waiters = new ArrayList<>();
+    }
+
+    /**
+     * 判断锁是否还有可用的许可
+     * @return 持有者数量小于许可数量时返回true
+     */
+    public boolean isAvailable() {
+        return holders.size() < permits;
+    }
+
+    /**
+     * 判断该锁是否为互斥锁
+     * @return 许可数量为1时返回true
+     */
+    public boolean isMutex() {
+        return permits == 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("锁ID: %d, 名称: %s, 许可: %d/%d, 等待进程数: %d",
+            lockId, name, permits - holders.size(), permits, waiters.size());
+    }
+}
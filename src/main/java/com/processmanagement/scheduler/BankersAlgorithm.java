@@ -0,0 +1,344 @@
+package com.processmanagement.scheduler;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 银行家算法（死锁避免）
+ * 进程在创建时声明对各类资源的最大需求，每次申请资源时先假设分配，
+ * 再检查系统是否仍处于安全状态，不安全则拒绝本次申请
+ *
+ * 数据结构（均为基本类型数组，按槽位下标组织，槽位在进程注销后复用）：
+ * - max、allocation、need：最大需求矩阵、已分配矩阵、尚需矩阵
+ * - order：每类资源一个槽位数组，按该类资源的尚需量升序排列，申请和释放时增量维护
+ *
+ * 安全性检查：
+ * - 借助order，对每类资源用一个指针扫描"尚需量不超过当前可用量"的进程，
+ *   统计每个进程已满足的资源类数，全部满足的进程即可完成并归还资源
+ * - 可用量只增不减，指针只前进不后退，一次检查的开销为O(进程数 × 资源类数)
+ * - 若可用量已经不小于每类资源的最大尚需量，则无需扫描直接判定为安全（提前退出）
+ */
+public class BankersAlgorithm {
+    /**
+     * 资源申请结果
+     */
+    public enum RequestResult {
+        GRANTED,        // 申请被批准，资源已分配
+        UNAVAILABLE,    // 当前可用资源不足，需要等待
+        UNSAFE          // 分配后系统将处于不安全状态，需要等待
+    }
+
+    @Getter
+    private final int resourceCount;            // 资源种类数
+    private final int[] total;                  // 各类资源总量
+    private final int[] available;              // 各类资源当前可用量
+    private int[][] max;                        // 最大需求矩阵，按槽位索引
+    private int[][] allocation;                 // 已分配矩阵，按槽位索引
+    private int[][] need;                       // 尚需矩阵，按槽位索引
+    private final int[][] order;                // 每类资源按尚需量升序排列的槽位
+    private final Map<Integer, Integer> slotOfPid; // 进程ID到槽位的映射
+    private final Deque<Integer> freeSlots;     // 可复用的空闲槽位
+    private int slotCount;                      // 已使用过的最大槽位数
+    private int size;                           // 当前登记的进程数
+
+    /**
+     * 银行家算法构造函数
+     * @param totalResources 各类资源的总量
+     */
+    public BankersAlgorithm(int[] totalResources) {
+        for (int amount : totalResources) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("资源总量不能为负数: " + Arrays.toString(totalResources));
+            }
+        }
+        this.resourceCount = totalResources.length;
+        this.total = totalResources.clone();
+        this.available = totalResources.clone();
+        this.max = new int[16][];
+        this.allocation = new int[16][];
+        this.need = new int[16][];
+        this.order = new int[resourceCount][16];
+        this.slotOfPid = new HashMap<>();
+        this.freeSlots = new ArrayDeque<>();
+    }
+
+    /**
+     * 登记进程的最大资源需求
+     *
+     * @param pid 进程ID
+     * @param maxClaim 各类资源的最大需求
+     * @return 该进程的已分配向量（与算法内部共享，可直接保存到PCB中）
+     * @throws IllegalArgumentException 需求向量长度不符、含负数、超过资源总量或进程已登记时抛出
+     */
+    public int[] register(int pid, int[] maxClaim) {
+        checkVector(maxClaim);
+        for (int r = 0; r < resourceCount; r++) {
+            if (maxClaim[r] > total[r]) {
+                throw new IllegalArgumentException("最大需求超过资源总量: " + Arrays.toString(maxClaim));
+            }
+        }
+        if (slotOfPid.containsKey(pid)) {
+            throw new IllegalArgumentException("进程已登记: " + pid);
+        }
+
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        ensureCapacity(slotCount);
+        max[slot] = maxClaim.clone();
+        allocation[slot] = new int[resourceCount];
+        need[slot] = maxClaim.clone();
+        for (int r = 0; r < resourceCount; r++) {
+            insertIntoOrder(r, slot, size);
+        }
+        size++;
+        slotOfPid.put(pid, slot);
+        return allocation[slot];
+    }
+
+    /**
+     * 注销进程并归还其占有的全部资源
+     * @param pid 进程ID
+     * @return 进程已登记时返回true
+     */
+    public boolean unregister(int pid) {
+        Integer slot = slotOfPid.remove(pid);
+        if (slot == null) {
+            return false;
+        }
+        for (int r = 0; r < resourceCount; r++) {
+            removeFromOrder(r, slot, size);
+            available[r] += allocation[slot][r];
+        }
+        size--;
+        max[slot] = null;
+        allocation[slot] = null;
+        need[slot] = null;
+        freeSlots.push(slot);
+        return true;
+    }
+
+    /**
+     * 申请资源
+     * 先检查申请量是否超过声明的需求和当前可用量，再假设分配并执行安全性检查，不安全时撤销分配
+     *
+     * @param pid 进程ID
+     * @param request 各类资源的申请量
+     * @return 申请结果
+     * @throws IllegalArgumentException 进程未登记或申请量超过其尚需量时抛出
+     */
+    public RequestResult request(int pid, int[] request) {
+        int slot = slotOf(pid);
+        checkVector(request);
+        for (int r = 0; r < resourceCount; r++) {
+            if (request[r] > need[slot][r]) {
+                throw new IllegalArgumentException("申请量超过声明的最大需求: " + Arrays.toString(request));
+            }
+        }
+        for (int r = 0; r < resourceCount; r++) {
+            if (request[r] > available[r]) {
+                return RequestResult.UNAVAILABLE;
+            }
+        }
+
+        apply(slot, request, 1);
+        if (isSafe()) {
+            return RequestResult.GRANTED;
+        }
+        apply(slot, request, -1);
+        return RequestResult.UNSAFE;
+    }
+
+    /**
+     * 释放进程占有的部分资源
+     *
+     * @param pid 进程ID
+     * @param release 各类资源的释放量
+     * @throws IllegalArgumentException 进程未登记或释放量超过已分配量时抛出
+     */
+    public void release(int pid, int[] release) {
+        int slot = slotOf(pid);
+        checkVector(release);
+        for (int r = 0; r < resourceCount; r++) {
+            if (release[r] > allocation[slot][r]) {
+                throw new IllegalArgumentException("释放量超过已分配量: " + Arrays.toString(release));
+            }
+        }
+        apply(slot, release, -1);
+    }
+
+    /**
+     * 按方向分配（1）或归还（-1）资源，并增量更新尚需量的排序
+     */
+    private void apply(int slot, int[] amount, int direction) {
+        int[] alloc = allocation[slot];
+        int[] needRow = need[slot];
+        for (int r = 0; r < resourceCount; r++) {
+            int delta = amount[r] * direction;
+            if (delta == 0) {
+                continue;
+            }
+            removeFromOrder(r, slot, size);
+            available[r] -= delta;
+            alloc[r] += delta;
+            needRow[r] -= delta;
+            insertIntoOrder(r, slot, size - 1);
+        }
+    }
+
+    /**
+     * 安全性检查
+     * @return 存在一个能让所有登记进程都执行完成的顺序时返回true
+     */
+    public boolean isSafe() {
+        if (size == 0 || resourceCount == 0) {
+            return true;
+        }
+        int[] work = available.clone();
+
+        // 提前退出：可用量满足每类资源的最大尚需量时所有进程都能完成
+        boolean dominates = true;
+        for (int r = 0; r < resourceCount && dominates; r++) {
+            dominates = need[order[r][size - 1]][r] <= work[r];
+        }
+        if (dominates) {
+            return true;
+        }
+
+        int[] satisfied = new int[slotCount];   // 每个槽位已满足的资源类数
+        int[] pointer = new int[resourceCount]; // 每类资源在order中的扫描位置
+        int[] runnable = new int[size];         // 所有资源都已满足、可以完成的槽位
+        int head = 0;
+        int tail = 0;
+        int finished = 0;
+        while (true) {
+            for (int r = 0; r < resourceCount; r++) {
+                int[] sorted = order[r];
+                int p = pointer[r];
+                int w = work[r];
+                while (p < size && need[sorted[p]][r] <= w) {
+                    int slot = sorted[p++];
+                    if (++satisfied[slot] == resourceCount) {
+                        runnable[tail++] = slot;
+                    }
+                }
+                pointer[r] = p;
+            }
+            if (head == tail) {
+                return false;
+            }
+            while (head < tail) {
+                int[] alloc = allocation[runnable[head++]];
+                for (int r = 0; r < resourceCount; r++) {
+                    work[r] += alloc[r];
+                }
+                finished++;
+            }
+            if (finished == size) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 将槽位按尚需量插入到指定资源的有序数组中（二分查找插入位置）
+     * @param count 插入前有序数组中的元素个数
+     */
+    private void insertIntoOrder(int r, int slot, int count) {
+        int[] sorted = order[r];
+        int index = lowerBound(r, need[slot][r], count);
+        System.arraycopy(sorted, index, sorted, index + 1, count - index);
+        sorted[index] = slot;
+    }
+
+    /**
+     * 从指定资源的有序数组中删除槽位
+     * @param count 删除前有序数组中的元素个数
+     */
+    private void removeFromOrder(int r, int slot, int count) {
+        int[] sorted = order[r];
+        int index = lowerBound(r, need[slot][r], count);
+        while (sorted[index] != slot) {
+            index++;
+        }
+        System.arraycopy(sorted, index + 1, sorted, index, count - index - 1);
+    }
+
+    /**
+     * 在指定资源有序数组的前count个元素中查找第一个尚需量不小于value的位置
+     */
+    private int lowerBound(int r, int value, int count) {
+        int[] sorted = order[r];
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (need[sorted[mid]][r] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 保证矩阵和有序数组能容纳指定数量的槽位
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= max.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, max.length * 2);
+        max = Arrays.copyOf(max, newCapacity);
+        allocation = Arrays.copyOf(allocation, newCapacity);
+        need = Arrays.copyOf(need, newCapacity);
+        for (int r = 0; r < resourceCount; r++) {
+            order[r] = Arrays.copyOf(order[r], newCapacity);
+        }
+    }
+
+    private int slotOf(int pid) {
+        Integer slot = slotOfPid.get(pid);
+        if (slot == null) {
+            throw new IllegalArgumentException("进程未登记: " + pid);
+        }
+        return slot;
+    }
+
+    private void checkVector(int[] vector) {
+        if (vector.length != resourceCount) {
+            throw new IllegalArgumentException("资源向量长度应为" + resourceCount + ": " + Arrays.toString(vector));
+        }
+        for (int amount : vector) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("资源数量不能为负数: " + Arrays.toString(vector));
+            }
+        }
+    }
+
+    /**
+     * 判断进程是否已登记
+     * @param pid 进程ID
+     * @return 已登记时返回true
+     */
+    public boolean isRegistered(int pid) {
+        return slotOfPid.containsKey(pid);
+    }
+
+    /**
+     * 获取各类资源的当前可用量
+     * @return 可用量向量的副本
+     */
+    public int[] getAvailable() {
+        return available.clone();
+    }
+
+    /**
+     * 获取进程对各类资源的尚需量
+     * @param pid 进程ID
+     * @return 尚需量向量的副本
+     */
+    public int[] getNeed(int pid) {
+        return need[slotOf(pid)].clone();
+    }
+}
@@ -0,0 +1,164 @@
+package com.processmanagement.scheduler;
+
+import com.processmanagement.model.PCB;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 上下文切换开销模型
+ * 进程被分派到CPU上时，若该CPU上一次运行的是其他进程，则需要付出分派延迟；
+ * 若进程上一次运行在其他CPU上（迁移），还需要额外付出缓存预热开销。
+ * 开销期间CPU被占用但进程不前进，从而使时间片大小等参数能够反映在吞吐量上
+ *
+ * 模型同时按调度策略分别统计切换次数、迁移次数、有效时间和开销时间，
+ * 用于比较不同策略下的CPU效率（有效时间 / CPU总时间）
+ */
+public class ContextSwitchModel {
+    /**
+     * 单个调度策略的统计数据
+     */
+    private static class Stats {
+        long switches;          // 上下文切换次数
+        long migrations;        // 进程迁移次数
+        long usefulTicks;       // 进程实际执行的CPU时间
+        long overheadTicks;     // 消耗在切换开销上的CPU时间
+        long totalTicks;        // CPU总时间（时间单位 × CPU数）
+    }
+
+    @Getter
+    private int dispatchLatency;        // 每次上下文切换的分派延迟（时间单位）
+    @Getter
+    private int cacheWarmupPenalty;     // 进程迁移到其他CPU时的缓存预热开销（时间单位）
+    private final Map<SchedulingStrategy, Stats> stats;
+
+    /**
+     * 上下文切换开销模型构造函数
+     * 默认开销均为0，即切换不消耗时间
+     */
+    public ContextSwitchModel() {
+        this.stats = new EnumMap<>(SchedulingStrategy.class);
+    }
+
+    /**
+     * 设置每次上下文切换的分派延迟
+     * @param dispatchLatency 分派延迟，不能为负数
+     */
+    public void setDispatchLatency(int dispatchLatency) {
+        if (dispatchLatency < 0) {
+            throw new IllegalArgumentException("分派延迟不能为负数: " + dispatchLatency);
+        }
+        this.dispatchLatency = dispatchLatency;
+    }
+
+    /**
+     * 设置进程迁移时的缓存预热开销
+     * @param cacheWarmupPenalty 缓存预热开销，不能为负数
+     */
+    public void setCacheWarmupPenalty(int cacheWarmupPenalty) {
+        if (cacheWarmupPenalty < 0) {
+            throw new IllegalArgumentException("缓存预热开销不能为负数: " + cacheWarmupPenalty);
+        }
+        this.cacheWarmupPenalty = cacheWarmupPenalty;
+    }
+
+    private Stats statsOf(SchedulingStrategy strategy) {
+        return stats.computeIfAbsent(strategy, s -> new Stats());
+    }
+
+    /**
+     * 计算一次分派的开销并记录切换和迁移次数
+     *
+     * @param strategy 当前调度策略
+     * @param pcb 被分派的进程
+     * @param cpu 目标CPU
+     * @param previous 该CPU上一次运行的进程，从未运行过进程时为null
+     * @return 本次分派需要付出的开销（时间单位），同一进程继续在同一CPU上运行时为0
+     */
+    public int charge(SchedulingStrategy strategy, PCB pcb, int cpu, PCB previous) {
+        if (previous == pcb) {
+            return 0;
+        }
+        Stats s = statsOf(strategy);
+        s.switches++;
+        int cost = dispatchLatency;
+        if (pcb.getLastCpu() >= 0 && pcb.getLastCpu() != cpu) {
+            s.migrations++;
+            cost += cacheWarmupPenalty;
+        }
+        return cost;
+    }
+
+    /**
+     * 记录一个时间单位内各CPU的使用情况
+     *
+     * @param strategy 当前调度策略
+     * @param usefulCpus 实际执行进程的CPU数
+     * @param overheadCpus 正在付出切换开销的CPU数
+     * @param cpuCount CPU总数
+     */
+    public void recordTick(SchedulingStrategy strategy, int usefulCpus, int overheadCpus, int cpuCount) {
+        Stats s = statsOf(strategy);
+        s.usefulTicks += usefulCpus;
+        s.overheadTicks += overheadCpus;
+        s.totalTicks += cpuCount;
+    }
+
+    /**
+     * 获取指定策略下的上下文切换次数
+     * @param strategy 调度策略，为null时返回所有策略之和
+     */
+    public long getSwitchCount(SchedulingStrategy strategy) {
+        return sum(strategy, s -> s.switches);
+    }
+
+    /**
+     * 获取指定策略下的进程迁移次数
+     * @param strategy 调度策略，为null时返回所有策略之和
+     */
+    public long getMigrationCount(SchedulingStrategy strategy) {
+        return sum(strategy, s -> s.migrations);
+    }
+
+    /**
+     * 获取指定策略下消耗在切换开销上的CPU时间
+     * @param strategy 调度策略，为null时返回所有策略之和
+     */
+    public long getOverheadTicks(SchedulingStrategy strategy) {
+        return sum(strategy, s -> s.overheadTicks);
+    }
+
+    /**
+     * 获取指定策略下的CPU效率，即进程实际执行时间占CPU总时间的比例
+     * @param strategy 调度策略，为null时统计所有策略
+     * @return 0到1之间的效率，尚未运行时返回0
+     */
+    public double getCpuEfficiency(SchedulingStrategy strategy) {
+        long total = sum(strategy, s -> s.totalTicks);
+        return total == 0 ? 0.0 : (double) sum(strategy, s -> s.usefulTicks) / total;
+    }
+
+    /**
+     * 获取指定策略下的切换开销比例，即开销时间占CPU总时间的比例
+     * @param strategy 调度策略，为null时统计所有策略
+     * @return 0到1之间的比例，尚未运行时返回0
+     */
+    public double getOverheadRatio(SchedulingStrategy strategy) {
+        long total = sum(strategy, s -> s.totalTicks);
+        return total == 0 ? 0.0 : (double) sum(strategy, s -> s.overheadTicks) / total;
+    }
+
+    private long sum(SchedulingStrategy strategy, ToLongFunction<Stats> field) {
+        if (strategy != null) {
+            Stats s = stats.get(strategy);
+            return s == null ? 0 : field.applyAsLong(s);
+        }
+        long total = 0;
+        for (Stats s : stats.values()) {
+            total += field.applyAsLong(s);
+        }
+        return total;
+    }
+}
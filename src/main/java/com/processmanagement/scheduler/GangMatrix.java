@@ -0,0 +1,269 @@
+package com.processmanagement.scheduler;
+
+import com.processmanagement.model.PCB;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 组调度（Gang Scheduling）时隙矩阵
+ * 采用Ousterhout矩阵组织进程组：行表示时隙，列表示CPU
+ * 同一进程组的所有成员被放置在同一行，从而在同一时隙内同时运行
+ *
+ * 数据结构：
+ * - slots：时隙矩阵，每行是长度为CPU数的PCB数组
+ * - rowsByFree：按空闲列数分桶的行集合，放置进程组时按最佳适应选择空闲列数最少且足够的行
+ * - occupiedRows：非空行的有序集合，用于时隙轮转
+ * 放置、移除和轮转的开销为O(CPU数 + log 行数)，即使有成千上万个进程组也不需要扫描整个矩阵
+ */
+public class GangMatrix {
+    private final int cpuCount;                     // CPU数量，即矩阵列数
+    private final List<PCB[]> slots;                // 时隙矩阵
+    private final List<Integer> freeColumns;        // 每行的空闲列数
+    private final List<Set<Integer>> rowsByFree;    // 下标为空闲列数，值为具有该空闲列数的行集合
+    private final TreeSet<Integer> occupiedRows;    // 至少有一个成员的行
+    private final Map<Integer, Integer> rowOfPid;   // 进程ID到所在行的映射
+    private final Map<Integer, Integer> groupSize;  // 进程组键到剩余成员数的映射
+
+    @Getter
+    private int activeRow;                          // 当前正在运行的时隙行，-1表示没有
+    @Getter
+    private int quantum;                            // 每个时隙的长度（时间单位）
+    private int ticksInSlot;                        // 当前时隙已经运行的时间
+    private int freeInOccupiedRows;                 // 所有非空行中空闲列的总数
+    private long busyCpuTicks;                      // 累计的忙碌CPU时间
+    private long totalCpuTicks;                     // 累计的CPU总时间
+
+    /**
+     * 时隙矩阵构造函数
+     * @param cpuCount CPU数量
+     */
+    public GangMatrix(int cpuCount) {
+        if (cpuCount <= 0) {
+            throw new IllegalArgumentException("CPU数量必须为正数: " + cpuCount);
+        }
+        this.cpuCount = cpuCount;
+        this.slots = new ArrayList<>();
+        this.freeColumns = new ArrayList<>();
+        this.rowsByFree = new ArrayList<>();
+        for (int i = 0; i <= cpuCount; i++) {
+            rowsByFree.add(new LinkedHashSet<>());
+        }
+        this.occupiedRows = new TreeSet<>();
+        this.rowOfPid = new HashMap<>();
+        this.groupSize = new HashMap<>();
+        this.activeRow = -1;
+        this.quantum = 2;                           // 与PCB默认时间片保持一致
+    }
+
+    /**
+     * 设置时隙长度
+     * @param quantum 新的时隙长度，必须为正数
+     */
+    public void setQuantum(int quantum) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("时隙长度必须为正数: " + quantum);
+        }
+        this.quantum = quantum;
+    }
+
+    /**
+     * 计算进程所属进程组的键
+     * 未分组的进程视为只有一个成员的进程组，使用负的进程ID作为键
+     */
+    static int groupKey(PCB pcb) {
+        return pcb.getGroupId() > 0 ? pcb.getGroupId() : -pcb.getPid();
+    }
+
+    /**
+     * 将一个进程组的所有成员放入同一时隙行
+     * 优先选择空闲列数最少但足够容纳整个进程组的行（最佳适应），以减少碎片
+     *
+     * @param members 进程组成员，必须属于同一进程组
+     * @return 放置成功返回true；进程组成员数超过CPU数量时返回false
+     */
+    public boolean place(List<PCB> members) {
+        int need = members.size();
+        if (need == 0 || need > cpuCount) {
+            return false;
+        }
+
+        int row = -1;
+        for (int free = need; free <= cpuCount && row < 0; free++) {
+            Set<Integer> bucket = rowsByFree.get(free);
+            if (!bucket.isEmpty()) {
+                row = bucket.iterator().next();
+            }
+        }
+        if (row < 0) {
+            row = slots.size();
+            slots.add(new PCB[cpuCount]);
+            freeColumns.add(cpuCount);
+            rowsByFree.get(cpuCount).add(row);
+        }
+
+        PCB[] columns = slots.get(row);
+        int column = 0;
+        for (PCB member : members) {
+            while (columns[column] != null) {
+                column++;
+            }
+            columns[column] = member;
+            rowOfPid.put(member.getPid(), row);
+        }
+        int key = groupKey(members.get(0));
+        groupSize.merge(key, need, Integer::sum);
+        updateFreeColumns(row, freeColumns.get(row) - need);
+        return true;
+    }
+
+    /**
+     * 从矩阵中移除指定进程（进程终止或被销毁时调用）
+     * @param pcb 要移除的进程
+     * @return 进程在矩阵中时返回true
+     */
+    public boolean remove(PCB pcb) {
+        Integer row = rowOfPid.remove(pcb.getPid());
+        if (row == null) {
+            return false;
+        }
+        PCB[] columns = slots.get(row);
+        for (int i = 0; i < cpuCount; i++) {
+            if (columns[i] == pcb) {
+                columns[i] = null;
+                break;
+            }
+        }
+        int key = groupKey(pcb);
+        if (groupSize.merge(key, -1, Integer::sum) == 0) {
+            groupSize.remove(key);
+        }
+        updateFreeColumns(row, freeColumns.get(row) + 1);
+        return true;
+    }
+
+    /**
+     * 更新某一行的空闲列数，并同步维护分桶、非空行集合和碎片计数
+     */
+    private void updateFreeColumns(int row, int newFree) {
+        int oldFree = freeColumns.get(row);
+        boolean wasOccupied = oldFree < cpuCount;
+        boolean isOccupied = newFree < cpuCount;
+
+        rowsByFree.get(oldFree).remove(row);
+        rowsByFree.get(newFree).add(row);
+        freeColumns.set(row, newFree);
+
+        if (wasOccupied) {
+            freeInOccupiedRows -= oldFree;
+        }
+        if (isOccupied) {
+            freeInOccupiedRows += newFree;
+            occupiedRows.add(row);
+        } else {
+            occupiedRows.remove(row);
+        }
+    }
+
+    /**
+     * 轮转到下一个非空时隙行
+     * @return 新时隙行中的进程（按列排列，空闲列为null）；矩阵为空时返回null
+     */
+    public PCB[] nextSlot() {
+        ticksInSlot = 0;
+        if (occupiedRows.isEmpty()) {
+            activeRow = -1;
+            return null;
+        }
+        Integer next = occupiedRows.higher(activeRow);
+        activeRow = next != null ? next : occupiedRows.first();
+        return slots.get(activeRow).clone();
+    }
+
+    /**
+     * 记录一个时间单位的执行情况
+     * @param busyCpus 本时间单位内实际执行进程的CPU数
+     */
+    public void recordTick(int busyCpus) {
+        if (activeRow < 0) {
+            return;
+        }
+        ticksInSlot++;
+        busyCpuTicks += busyCpus;
+        totalCpuTicks += cpuCount;
+    }
+
+    /**
+     * 判断当前时隙是否需要切换
+     * @return 时隙用完或当前行已没有成员时返回true
+     */
+    public boolean isSlotExpired() {
+        return activeRow < 0 || ticksInSlot >= quantum || !occupiedRows.contains(activeRow);
+    }
+
+    /**
+     * 将矩阵中的所有进程取出并清空矩阵
+     * 切换到其他调度策略时使用
+     *
+     * @return 按行、列顺序排列的所有进程
+     */
+    public List<PCB> drain() {
+        List<PCB> result = new ArrayList<>();
+        for (int row : occupiedRows) {
+            for (PCB pcb : slots.get(row)) {
+                if (pcb != null) {
+                    result.add(pcb);
+                }
+            }
+        }
+        slots.clear();
+        freeColumns.clear();
+        rowsByFree.forEach(Set::clear);
+        occupiedRows.clear();
+        rowOfPid.clear();
+        groupSize.clear();
+        activeRow = -1;
+        ticksInSlot = 0;
+        freeInOccupiedRows = 0;
+        return result;
+    }
+
+    /**
+     * 获取当前使用中的时隙行数
+     * @return 至少包含一个进程的行数
+     */
+    public int getSlotCount() {
+        return occupiedRows.size();
+    }
+
+    /**
+     * 获取当前矩阵中的进程组数
+     * @return 进程组数（未分组的进程各自算作一个进程组）
+     */
+    public int getGroupCount() {
+        return groupSize.size();
+    }
+
+    /**
+     * 获取矩阵碎片率
+     * 即所有非空时隙行中空闲CPU列所占的比例，反映因进程组无法填满一行而浪费的处理能力
+     *
+     * @return 0到1之间的碎片率，矩阵为空时返回0
+     */
+    public double getFragmentation() {
+        if (occupiedRows.isEmpty()) {
+            return 0.0;
+        }
+        return (double) freeInOccupiedRows / ((long) occupiedRows.size() * cpuCount);
+    }
+
+    /**
+     * 获取时隙利用率
+     * 即组调度运行期间CPU实际执行进程的时间占CPU总时间的比例
+     *
+     * @return 0到1之间的利用率，尚未运行时返回0
+     */
+    public double getSlotUtilization() {
+        return totalCpuTicks == 0 ? 0.0 : (double) busyCpuTicks / totalCpuTicks;
+    }
+}
@@ -0,0 +1,452 @@
+package com.processmanagement.scheduler;
+
+import com.processmanagement.model.LockOperation;
+import com.processmanagement.model.PCB;
+import com.processmanagement.model.ProcessState;
+import com.processmanagement.model.SimulatedLock;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 模拟锁管理器
+ * 负责模拟锁的获取、释放、阻塞与唤醒，并实现优先级继承和优先级天花板协议
+ *
+ * 死锁检测：
+ * - 维护等待图(wait-for graph)，边"等待者→持有者"在阻塞、授予和释放时增量更新
+ * - 每次新增阻塞边时从持有者出发做一次深度优先搜索，若能回到等待者即形成环路
+ * - 检测到的死锁会被记录下来，死锁中的进程保持等待状态
+ *
+ * 统计信息：
+ * - 阻塞次数、累计阻塞时间，用于衡量竞争下的阻塞延迟
+ */
+public class LockManager {
+    private final Map<Integer, SimulatedLock> locks;            // 锁ID到锁的映射
+    private final Map<Integer, SimulatedLock> waitingOn;        // 进程ID到其等待的锁的映射
+    private final Map<Integer, List<SimulatedLock>> heldLocks;  // 进程ID到其持有的锁的映射
+    private final Map<Integer, Set<Integer>> waitForGraph;      // 等待图：等待者ID到持有者ID集合
+    private final Map<Integer, Integer> blockStart;             // 进程ID到开始阻塞时间的映射
+    private final List<List<Integer>> deadlocks;                // 检测到的死锁环路（进程ID序列）
+    private final Consumer<PCB> wakeHandler;                    // 进程被唤醒后的回调（放回就绪队列）
+
+    @Getter
+    private LockProtocol protocol;      // 当前使用的锁协议
+    @Getter
+    private int blockCount;             // 累计阻塞次数
+    @Getter
+    private long totalBlockedTime;      // 累计阻塞时间
+    private int wakeCount;              // 结束阻塞（被唤醒）的次数
+    private int lockCounter;            // 锁ID计数器
+
+    /**
+     * 锁管理器构造函数
+     * @param wakeHandler 进程从等待状态被唤醒为就绪状态后调用的回调
+     */
+    public LockManager(Consumer<PCB> wakeHandler) {
+        this.locks = new LinkedHashMap<>();
+        this.waitingOn = new HashMap<>();
+        this.heldLocks = new HashMap<>();
+        this.waitForGraph = new HashMap<>();
+        this.blockStart = new HashMap<>();
+        this.deadlocks = new ArrayList<>();
+        this.wakeHandler = wakeHandler;
+        this.protocol = LockProtocol.NONE;
+    }
+
+    /**
+     * 设置锁协议
+     * 切换协议后重新计算所有持锁进程的继承优先级
+     * @param protocol 新的锁协议
+     */
+    public void setProtocol(LockProtocol protocol) {
+        this.protocol = protocol;
+        for (List<SimulatedLock> held : heldLocks.values()) {
+            for (SimulatedLock lock : held) {
+                for (PCB holder : lock.getHolders()) {
+                    recomputeInheritedPriority(holder, new HashSet<>());
+                }
+            }
+        }
+    }
+
+    /**
+     * 创建模拟锁
+     * @param name 锁名称
+     * @param permits 许可数量，1表示互斥锁
+     * @return 新创建的锁
+     */
+    public SimulatedLock createLock(String name, int permits) {
+        SimulatedLock lock = new SimulatedLock(++lockCounter, name, permits);
+        locks.put(lock.getLockId(), lock);
+        return lock;
+    }
+
+    /**
+     * 根据ID查找锁
+     * @param lockId 锁ID
+     * @return 找到的锁，不存在时返回null
+     */
+    public SimulatedLock findLock(int lockId) {
+        return locks.get(lockId);
+    }
+
+    /**
+     * 获取所有模拟锁
+     * @return 按创建顺序排列的锁列表
+     */
+    public List<SimulatedLock> getAllLocks() {
+        return new ArrayList<>(locks.values());
+    }
+
+    /**
+     * 为进程添加锁操作
+     * 获取操作会将锁的优先级天花板提升到该进程的优先级
+     *
+     * @param pcb 进程
+     * @param operation 锁操作
+     * @throws IllegalArgumentException 锁不存在时抛出
+     */
+    public void addOperation(PCB pcb, LockOperation operation) {
+        SimulatedLock lock = locks.get(operation.getLockId());
+        if (lock == null) {
+            throw new IllegalArgumentException("锁不存在: " + operation.getLockId());
+        }
+        if (operation.getType() == LockOperation.Type.ACQUIRE) {
+            raiseCeiling(lock, pcb.getPriority());
+        }
+        pcb.addLockOperation(operation);
+    }
+
+    /**
+     * 进程的基础优先级改变后调用
+     * 把进程尚未完成的获取操作所对应的锁的天花板提升到新的优先级，优先级天花板协议下同时提升这些锁的持有者；
+     * 优先级继承协议下，若进程正在等待锁，则把新的有效优先级传递给持有者
+     *
+     * @param pcb 优先级已改变的进程
+     */
+    public void priorityChanged(PCB pcb) {
+        int priority = pcb.getPriority();
+        List<LockOperation> operations = pcb.getLockOperations();
+        for (int i = pcb.getNextLockOperation(); i < operations.size(); i++) {
+            LockOperation operation = operations.get(i);
+            if (operation.getType() != LockOperation.Type.ACQUIRE) {
+                continue;
+            }
+            raiseCeiling(locks.get(operation.getLockId()), priority);
+        }
+        SimulatedLock blockedOn = waitingOn.get(pcb.getPid());
+        if (protocol == LockProtocol.PRIORITY_INHERITANCE && blockedOn != null) {
+            for (PCB holder : blockedOn.getHolders()) {
+                inheritPriority(holder, pcb.getEffectivePriority());
+            }
+        }
+    }
+
+    /**
+     * 将锁的天花板提升到指定优先级，优先级天花板协议下同时提升锁的当前持有者
+     */
+    private void raiseCeiling(SimulatedLock lock, int priority) {
+        if (lock.getCeiling() >= priority) {
+            return;
+        }
+        lock.setCeiling(priority);
+        if (protocol == LockProtocol.PRIORITY_CEILING) {
+            for (PCB holder : lock.getHolders()) {
+                recomputeInheritedPriority(holder, new HashSet<>());
+            }
+        }
+    }
+
+    /**
+     * 执行进程当前已到期的锁操作
+     * 在进程即将执行一个时间单位之前调用
+     *
+     * @param pcb 即将执行的进程
+     * @param now 当前系统时间
+     * @return 进程可以继续执行时返回true；因获取锁失败而被阻塞时返回false
+     */
+    public boolean runDueOperations(PCB pcb, int now) {
+        LockOperation operation;
+        while ((operation = pcb.getDueLockOperation()) != null) {
+            SimulatedLock lock = locks.get(operation.getLockId());
+            if (operation.getType() == LockOperation.Type.RELEASE) {
+                release(pcb, lock, now);
+                pcb.completeLockOperation();
+            } else if (lock.isAvailable() && lock.getWaiters().isEmpty()) {
+                grant(pcb, lock);
+                pcb.completeLockOperation();
+            } else {
+                block(pcb, lock, now);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将锁授予进程
+     */
+    private void grant(PCB pcb, SimulatedLock lock) {
+        lock.getHolders().add(pcb);
+        heldLocks.computeIfAbsent(pcb.getPid(), k -> new ArrayList<>()).add(lock);
+        if (protocol == LockProtocol.PRIORITY_CEILING && lock.getCeiling() > pcb.getEffectivePriority()) {
+            pcb.setInheritedPriority(lock.getCeiling());
+        }
+    }
+
+    /**
+     * 阻塞进程：进入等待状态，加入锁的等待队列并更新等待图
+     */
+    private void block(PCB pcb, SimulatedLock lock, int now) {
+        pcb.setState(ProcessState.WAITING);
+        lock.getWaiters().add(pcb);
+        waitingOn.put(pcb.getPid(), lock);
+        blockStart.put(pcb.getPid(), now);
+        blockCount++;
+
+        for (PCB holder : lock.getHolders()) {
+            addEdge(pcb, holder);
+        }
+        if (protocol == LockProtocol.PRIORITY_INHERITANCE) {
+            for (PCB holder : lock.getHolders()) {
+                inheritPriority(holder, pcb.getEffectivePriority());
+            }
+        }
+    }
+
+    /**
+     * 释放锁，并将许可交给等待队列中的下一个进程
+     */
+    private void release(PCB pcb, SimulatedLock lock, int now) {
+        if (!lock.getHolders().remove(pcb)) {
+            return;
+        }
+        List<SimulatedLock> held = heldLocks.get(pcb.getPid());
+        held.remove(lock);
+        if (held.isEmpty()) {
+            heldLocks.remove(pcb.getPid());
+        }
+        for (PCB waiter : lock.getWaiters()) {
+            removeEdge(waiter, pcb);
+        }
+
+        while (lock.isAvailable() && !lock.getWaiters().isEmpty()) {
+            PCB next = selectWaiter(lock);
+            lock.getWaiters().remove(next);
+            wake(next, lock, now);
+        }
+        recomputeInheritedPriority(pcb, new HashSet<>());
+    }
+
+    /**
+     * 选择下一个获得锁的等待进程
+     * 启用优先级协议时选择有效优先级最高的进程（相同时按到达顺序），否则按到达顺序
+     */
+    private PCB selectWaiter(SimulatedLock lock) {
+        List<PCB> waiters = lock.getWaiters();
+        if (protocol == LockProtocol.NONE) {
+            return waiters.get(0);
+        }
+        PCB best = waiters.get(0);
+        for (PCB waiter : waiters) {
+            if (waiter.getEffectivePriority() > best.getEffectivePriority()) {
+                best = waiter;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 唤醒等待进程：授予锁、结算阻塞时间并通知调度器
+     */
+    private void wake(PCB pcb, SimulatedLock lock, int now) {
+        waitingOn.remove(pcb.getPid());
+        removeAllEdges(pcb);
+        grant(pcb, lock);
+        pcb.completeLockOperation();
+        for (PCB waiter : lock.getWaiters()) {
+            addEdge(waiter, pcb);
+            if (protocol == LockProtocol.PRIORITY_INHERITANCE) {
+                inheritPriority(pcb, waiter.getEffectivePriority());
+            }
+        }
+
+        Integer start = blockStart.remove(pcb.getPid());
+        int blocked = start == null ? 0 : now - start;
+        pcb.setBlockedTime(pcb.getBlockedTime() + blocked);
+        totalBlockedTime += blocked;
+        wakeCount++;
+
+        pcb.setState(ProcessState.READY);
+        wakeHandler.accept(pcb);
+    }
+
+    /**
+     * 释放进程持有的所有锁并取消其等待
+     * 在进程终止或被销毁时调用
+     *
+     * @param pcb 进程
+     * @param now 当前系统时间
+     */
+    public void releaseAll(PCB pcb, int now) {
+        SimulatedLock waiting = waitingOn.remove(pcb.getPid());
+        if (waiting != null) {
+            waiting.getWaiters().remove(pcb);
+            removeAllEdges(pcb);
+            blockStart.remove(pcb.getPid());
+        }
+        List<SimulatedLock> held = heldLocks.get(pcb.getPid());
+        if (held != null) {
+            for (SimulatedLock lock : new ArrayList<>(held)) {
+                release(pcb, lock, now);
+            }
+        }
+    }
+
+    /**
+     * 优先级继承：将持有者的继承优先级提升到指定值，并沿等待链向下传递
+     */
+    private void inheritPriority(PCB holder, int priority) {
+        if (holder.getEffectivePriority() >= priority) {
+            return;
+        }
+        holder.setInheritedPriority(priority);
+        SimulatedLock blockedOn = waitingOn.get(holder.getPid());
+        if (blockedOn != null) {
+            for (PCB next : blockedOn.getHolders()) {
+                inheritPriority(next, priority);
+            }
+        }
+    }
+
+    /**
+     * 重新计算进程的继承优先级
+     * 取其仍持有的锁所对应的最高优先级：优先级继承协议下为等待者的最高有效优先级，
+     * 优先级天花板协议下为锁的天花板；若发生变化则沿等待链向下更新
+     */
+    private void recomputeInheritedPriority(PCB pcb, Set<Integer> visited) {
+        if (!visited.add(pcb.getPid())) {
+            return;
+        }
+        int inherited = 0;
+        List<SimulatedLock> held = heldLocks.getOrDefault(pcb.getPid(), Collections.emptyList());
+        for (SimulatedLock lock : held) {
+            if (protocol == LockProtocol.PRIORITY_CEILING) {
+                inherited = Math.max(inherited, lock.getCeiling());
+            } else if (protocol == LockProtocol.PRIORITY_INHERITANCE) {
+                for (PCB waiter : lock.getWaiters()) {
+                    inherited = Math.max(inherited, waiter.getEffectivePriority());
+                }
+            }
+        }
+        if (inherited == pcb.getInheritedPriority()) {
+            return;
+        }
+        pcb.setInheritedPriority(inherited);
+        SimulatedLock blockedOn = waitingOn.get(pcb.getPid());
+        if (blockedOn != null) {
+            for (PCB holder : blockedOn.getHolders()) {
+                recomputeInheritedPriority(holder, visited);
+            }
+        }
+    }
+
+    /**
+     * 在等待图中添加一条"等待者→持有者"的边，并检测是否形成环路
+     */
+    private void addEdge(PCB waiter, PCB holder) {
+        if (waiter.getPid() == holder.getPid()) {
+            return;
+        }
+        if (!waitForGraph.computeIfAbsent(waiter.getPid(), k -> new HashSet<>()).add(holder.getPid())) {
+            return;
+        }
+        List<Integer> cycle = findPath(holder.getPid(), waiter.getPid());
+        if (cycle != null) {
+            deadlocks.add(cycle);
+        }
+    }
+
+    /**
+     * 从等待图中删除一条边
+     */
+    private void removeEdge(PCB waiter, PCB holder) {
+        Set<Integer> targets = waitForGraph.get(waiter.getPid());
+        if (targets != null) {
+            targets.remove(holder.getPid());
+            if (targets.isEmpty()) {
+                waitForGraph.remove(waiter.getPid());
+            }
+        }
+    }
+
+    /**
+     * 删除某个进程的所有出边（进程不再等待任何锁）
+     */
+    private void removeAllEdges(PCB waiter) {
+        waitForGraph.remove(waiter.getPid());
+    }
+
+    /**
+     * 在等待图中查找从from到to的路径
+     * @return 路径上的进程ID序列（以from开始、to结束），不存在时返回null
+     */
+    private List<Integer> findPath(int from, int to) {
+        Map<Integer, Integer> parent = new HashMap<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(from);
+        parent.put(from, from);
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            if (current == to) {
+                LinkedList<Integer> path = new LinkedList<>();
+                for (int node = to; node != from; node = parent.get(node)) {
+                    path.addFirst(node);
+                }
+                path.addFirst(from);
+                return path;
+            }
+            for (int next : waitForGraph.getOrDefault(current, Collections.emptySet())) {
+                if (!parent.containsKey(next)) {
+                    parent.put(next, current);
+                    stack.push(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取指定进程当前等待的锁
+     * @param pid 进程ID
+     * @return 等待的锁，未处于等待状态时返回null
+     */
+    public SimulatedLock getWaitingLock(int pid) {
+        return waitingOn.get(pid);
+    }
+
+    /**
+     * 获取检测到的所有死锁
+     * @return 每个死锁环路上的进程ID序列
+     */
+    public List<List<Integer>> getDeadlocks() {
+        return new ArrayList<>(deadlocks);
+    }
+
+    /**
+     * 判断是否检测到死锁
+     * @return 检测到至少一个死锁时返回true
+     */
+    public boolean hasDeadlock() {
+        return !deadlocks.isEmpty();
+    }
+
+    /**
+     * 获取平均阻塞延迟
+     * @return 已结束的阻塞的平均等待时间，没有时返回0
+     */
+    public double getAverageBlockingLatency() {
+        return wakeCount == 0 ? 0.0 : (double) totalBlockedTime / wakeCount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.processmanagement.scheduler;
+
+/**
+ * 锁协议枚举类
+ * 定义了模拟锁在发生阻塞时对持有者优先级的处理方式
+ */
+public enum LockProtocol {
+    /**
+     * 无协议
+     * - 持有者保持原有优先级
+     * - 等待进程按到达顺序获得锁
+     * - 可能出现优先级反转
+     */
+    NONE,
+
+    /**
+     * 优先级继承协议(Priority Inheritance)
+     * - 高优先级进程被阻塞时，锁持有者临时继承其优先级
+     * - 继承沿等待链传递
+     * - 释放锁后恢复为仍持有的锁对应的最高优先级
+     */
+    PRIORITY_INHERITANCE,
+
+    /**
+     * 优先级天花板协议(Priority Ceiling，立即天花板)
+     * - 进程获得锁后立即提升到该锁的天花板优先级
+     * - 天花板为可能使用该锁的进程的最高优先级
+     * - 避免链式阻塞
+     */
+    PRIORITY_CEILING
+}
@@ -1,10 +1,15 @@
 package com.processmanagement.scheduler;
 
+import com.processmanagement.model.LockOperation;
 import com.processmanagement.model.PCB;
 import com.processmanagement.model.ProcessState;
+import com.processmanagement.model.SchedulingEvent;
+import com.processmanagement.model.SimulatedLock;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 进程调度器类
@@ -12,26 +17,143 @@ import java.util.*;
  */
 public class ProcessScheduler {
     private Queue<PCB> readyQueue;      // 就绪队列，存储等待CPU的进程
-    private PCB runningProcess;         // 当前正在运行的进程
+    private PCB[] cpus;                 // 各CPU上正在运行的进程，空闲CPU为null
     private List<PCB> allProcesses;     // 系统中所有进程的列表
+    private GangMatrix gangMatrix;      // 组调度使用的时隙矩阵
+    private LockManager lockManager;    // 模拟锁管理器
+    private ContextSwitchModel switchModel; // 上下文切换开销模型
+    private PCB[] lastOnCpu;            // 各CPU上一次运行的进程，用于判断是否发生切换
+    private int[] switchOverhead;       // 各CPU上尚未付完的切换开销
+    private BankersAlgorithm banker;    // 银行家算法，启用资源控制后才创建
+    private Map<Integer, int[]> pendingRequests; // 因资源申请未获批准而等待的进程及其申请量（按申请顺序）
     
     @Getter
     private int currentTime;            // 当前系统时间
+    @Getter
+    private int cpuCount;               // CPU数量
     private int pidCounter;             // 进程ID计数器
+    private int groupCounter;           // 进程组ID计数器
+    private int unfinishedCount;        // 尚未终止的进程数
     private SchedulingStrategy strategy; // 当前使用的调度策略
+    @Getter
+    @Setter
+    private boolean preemptive;         // 优先级调度是否抢占（默认非抢占）
+    @Getter
+    private int timeSlice;              // 新建进程的默认时间片，同时作为组调度的时隙长度
+    @Getter
+    private long busyCpuTicks;          // 累计的CPU忙碌时间（所有CPU之和）
+    @Setter
+    private Consumer<SchedulingEvent> eventListener; // 调度事件监听器，为null时不产生事件
 
     /**
      * 进程调度器构造函数
-     * 初始化各种数据结构和默认值
+     * 初始化各种数据结构和默认值，默认只有一个CPU
      */
     public ProcessScheduler() {
+        this(1);
+    }
+
+    /**
+     * 多CPU进程调度器构造函数
+     * @param cpuCount CPU数量，必须为正数
+     */
+    public ProcessScheduler(int cpuCount) {
+        if (cpuCount <= 0) {
+            throw new IllegalArgumentException("CPU数量必须为正数: " + cpuCount);
+        }
         this.readyQueue = new LinkedList<>();
+        this.cpus = new PCB[cpuCount];
         this.allProcesses = new ArrayList<>();
+        this.gangMatrix = new GangMatrix(cpuCount);
+        this.lockManager = new LockManager(this::onProcessWoken);
+        this.switchModel = new ContextSwitchModel();
+        this.lastOnCpu = new PCB[cpuCount];
+        this.switchOverhead = new int[cpuCount];
+        this.pendingRequests = new LinkedHashMap<>();
         this.currentTime = 0;
+        this.cpuCount = cpuCount;
         this.pidCounter = 0;
+        this.groupCounter = 0;
+        this.timeSlice = 2;                             // 默认时间片为2个时间单位
         this.strategy = SchedulingStrategy.ROUND_ROBIN; // 默认使用时间片轮转
     }
 
+    /**
+     * 设置默认时间片
+     * 影响之后创建的进程的时间片以及组调度的时隙长度
+     * @param timeSlice 时间片大小，必须为正数
+     */
+    public void setTimeSlice(int timeSlice) {
+        if (timeSlice <= 0) {
+            throw new IllegalArgumentException("时间片必须为正数: " + timeSlice);
+        }
+        this.timeSlice = timeSlice;
+        gangMatrix.setQuantum(timeSlice);
+    }
+
+    /**
+     * 发出调度事件
+     * 没有设置监听器时不创建事件对象，避免影响批量模拟的性能
+     */
+    private void emit(SchedulingEvent.Type type, PCB pcb, int cpu) {
+        if (eventListener != null) {
+            eventListener.accept(new SchedulingEvent(currentTime, type, pcb.getPid(), pcb.getProcessName(), cpu));
+        }
+    }
+
+    /**
+     * 初始化新建进程的公共属性并发出创建事件
+     */
+    private PCB newProcess(String name, int priority, int totalTime) {
+        PCB pcb = new PCB(++pidCounter, name, ProcessState.NEW, priority, totalTime);
+        pcb.setTimeSlice(timeSlice);
+        pcb.setArrivalTime(currentTime);
+        pcb.setState(ProcessState.READY);
+        allProcesses.add(pcb);
+        unfinishedCount++;
+        emit(SchedulingEvent.Type.CREATE, pcb, -1);
+        return pcb;
+    }
+
+    /**
+     * 将进程分派到指定CPU上运行
+     */
+    private void dispatch(int cpu, PCB pcb) {
+        cpus[cpu] = pcb;
+        switchOverhead[cpu] = switchModel.charge(strategy, pcb, cpu, lastOnCpu[cpu]);
+        lastOnCpu[cpu] = pcb;
+        pcb.setLastCpu(cpu);
+        pcb.setState(ProcessState.RUNNING);
+        if (pcb.getStartTime() < 0) {
+            pcb.setStartTime(currentTime);
+        }
+        emit(SchedulingEvent.Type.DISPATCH, pcb, cpu);
+    }
+
+    /**
+     * 将运行中的进程从指定CPU上撤下，进程回到就绪状态
+     */
+    private PCB undispatch(int cpu) {
+        PCB pcb = cpus[cpu];
+        cpus[cpu] = null;
+        pcb.setState(ProcessState.READY);
+        emit(SchedulingEvent.Type.PREEMPT, pcb, cpu);
+        return pcb;
+    }
+
+    /**
+     * 将进程标记为终止并记录完成时间
+     */
+    private void terminate(PCB pcb, int cpu) {
+        // PCB在执行时间用完时会自行切换为终止状态，因此以完成时间判断是否已经结算过
+        if (pcb.getFinishTime() < 0) {
+            unfinishedCount--;
+        }
+        pcb.setState(ProcessState.TERMINATED);
+        pcb.setFinishTime(currentTime);
+        emit(SchedulingEvent.Type.TERMINATE, pcb, cpu);
+    }
+
     /**
      * 获取所有进程的列表
      * @return 返回系统中所有进程的副本
@@ -40,6 +162,130 @@ public class ProcessScheduler {
         return new ArrayList<>(allProcesses);
     }
 
+    /**
+     * 获取尚未终止的进程数
+     * 批量模拟时用于判断所有进程是否已经完成
+     * @return 处于就绪、运行或等待状态的进程数
+     */
+    public int getUnfinishedProcessCount() {
+        return unfinishedCount;
+    }
+
+    /**
+     * 获取各CPU上正在运行的进程
+     * @return 长度为CPU数量的列表，空闲CPU对应的元素为null
+     */
+    public List<PCB> getRunningProcesses() {
+        return Arrays.asList(cpus.clone());
+    }
+
+    /**
+     * 获取组调度使用的时隙矩阵
+     * 可用于设置时隙长度以及查询碎片率和时隙利用率
+     * @return 时隙矩阵
+     */
+    public GangMatrix getGangMatrix() {
+        return gangMatrix;
+    }
+
+    /**
+     * 获取上下文切换开销模型
+     * 可用于设置分派延迟和缓存预热开销，以及按调度策略查询CPU效率和切换开销
+     * @return 上下文切换开销模型
+     */
+    public ContextSwitchModel getContextSwitchModel() {
+        return switchModel;
+    }
+
+    /**
+     * 获取模拟锁管理器
+     * 可用于查询阻塞延迟统计和检测到的死锁
+     * @return 锁管理器
+     */
+    public LockManager getLockManager() {
+        return lockManager;
+    }
+
+    /**
+     * 启用基于银行家算法的资源控制
+     * 启用后可以创建声明最大资源需求的进程，进程的资源申请只有在系统保持安全状态时才会被批准
+     *
+     * @param totalResources 各类资源的总量
+     * @throws IllegalArgumentException 资源总量含负数时抛出
+     */
+    public void enableResourceControl(int[] totalResources) {
+        this.banker = new BankersAlgorithm(totalResources);
+        this.pendingRequests.clear();
+    }
+
+    /**
+     * 获取银行家算法实例
+     * @return 未启用资源控制时返回null
+     */
+    public BankersAlgorithm getBankersAlgorithm() {
+        return banker;
+    }
+
+    /**
+     * 获取因资源申请未获批准而等待的进程数
+     * @return 等待资源的进程数（含尚未被接纳的新建进程）
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * 创建模拟锁
+     * @param name 锁名称
+     * @param permits 许可数量，1表示互斥锁，大于1表示计数信号量
+     * @return 新创建的锁
+     */
+    public SimulatedLock createLock(String name, int permits) {
+        return lockManager.createLock(name, permits);
+    }
+
+    /**
+     * 设置锁协议（无协议、优先级继承或优先级天花板）
+     * @param protocol 锁协议
+     */
+    public void setLockProtocol(LockProtocol protocol) {
+        lockManager.setProtocol(protocol);
+        if (strategy == SchedulingStrategy.PRIORITY) {
+            reorganizeReadyQueue();
+        }
+    }
+
+    /**
+     * 为进程添加锁操作
+     * 进程执行到指定时间时获取或释放指定的锁，获取失败时进入等待状态
+     *
+     * @param pid 进程ID
+     * @param at 操作发生时进程已执行的时间
+     * @param lockId 锁ID
+     * @param type 操作类型
+     * @return 进程和锁都存在时返回true
+     */
+    public boolean addLockOperation(int pid, int at, int lockId, LockOperation.Type type) {
+        PCB process = findProcessByPid(pid);
+        if (process == null || lockManager.findLock(lockId) == null) {
+            return false;
+        }
+        lockManager.addOperation(process, new LockOperation(at, lockId, type));
+        return true;
+    }
+
+    /**
+     * 进程因获得锁而结束等待时的回调
+     * 组调度下进程仍留在时隙矩阵中，其他策略下放回就绪队列
+     */
+    private void onProcessWoken(PCB pcb) {
+        emit(SchedulingEvent.Type.WAKE, pcb, -1);
+        if (strategy == SchedulingStrategy.GANG) {
+            return;
+        }
+        readyQueue.add(pcb);
+    }
+
     /**
      * 获取就绪队列中的进程信息
      * @return 返回格式化的就绪队列信息字符串
@@ -66,11 +312,46 @@ public class ProcessScheduler {
      * @param strategy 新的调度策略
      */
     public void setSchedulingStrategy(SchedulingStrategy strategy) {
+        SchedulingStrategy previous = this.strategy;
         this.strategy = strategy;
+
+        if (strategy == SchedulingStrategy.GANG && previous != SchedulingStrategy.GANG) {
+            // 切换到组调度：将运行中和就绪的进程按进程组放入时隙矩阵
+            enterGangMode();
+        } else if (strategy != SchedulingStrategy.GANG && previous == SchedulingStrategy.GANG) {
+            // 离开组调度：将矩阵中的进程放回就绪队列
+            for (PCB pcb : gangMatrix.drain()) {
+                pcb.setState(ProcessState.READY);
+                readyQueue.add(pcb);
+            }
+            Arrays.fill(cpus, null);
+        }
         // 重新组织就绪队列
         reorganizeReadyQueue();
     }
 
+    /**
+     * 进入组调度模式
+     * 将运行中和就绪的进程按进程组分组后逐组放入时隙矩阵
+     */
+    private void enterGangMode() {
+        Map<Integer, List<PCB>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < cpuCount; i++) {
+            if (cpus[i] != null) {
+                cpus[i].setState(ProcessState.READY);
+                groups.computeIfAbsent(GangMatrix.groupKey(cpus[i]), k -> new ArrayList<>()).add(cpus[i]);
+                cpus[i] = null;
+            }
+        }
+        for (PCB pcb : readyQueue) {
+            groups.computeIfAbsent(GangMatrix.groupKey(pcb), k -> new ArrayList<>()).add(pcb);
+        }
+        readyQueue.clear();
+        for (List<PCB> members : groups.values()) {
+            gangMatrix.place(members);
+        }
+    }
+
     /**
      * 根据当前调度策略重新组织就绪队列
      * 不同的调度策略有不同的排序方式
@@ -94,8 +375,8 @@ public class ProcessScheduler {
                 break;
             
             case PRIORITY:
-                // 优先级调度，按优先级排序
-                processes.sort((p1, p2) -> p2.getPriority() - p1.getPriority());
+                // 优先级调度，按有效优先级（含继承的优先级）排序
+                processes.sort((p1, p2) -> p2.getEffectivePriority() - p1.getEffectivePriority());
                 readyQueue.addAll(processes);
                 break;
             
@@ -115,17 +396,197 @@ public class ProcessScheduler {
      * @return 返回新创建的PCB对象
      */
     public PCB createProcess(String name, int priority, int totalTime) {
-        PCB newProcess = new PCB(++pidCounter, name, ProcessState.NEW, priority, totalTime);
-        readyQueue.add(newProcess);
-        allProcesses.add(newProcess);
-        newProcess.setState(ProcessState.READY);
-        
+        PCB newProcess = newProcess(name, priority, totalTime);
+        admit(newProcess);
+        return newProcess;
+    }
+
+    /**
+     * 创建声明最大资源需求的进程
+     * 进程创建时即申请初始资源，只有申请被银行家算法批准后才进入就绪状态，
+     * 否则保持新建状态，等到其他进程释放资源后再重新检查
+     *
+     * @param name 进程名称
+     * @param priority 进程优先级
+     * @param totalTime 进程总执行时间
+     * @param maxClaim 对各类资源的最大需求
+     * @param initialRequest 创建时申请的资源数量
+     * @return 返回新创建的PCB对象
+     * @throws IllegalStateException 未启用资源控制时抛出
+     * @throws IllegalArgumentException 需求向量不合法或初始申请超过最大需求时抛出
+     */
+    public PCB createProcess(String name, int priority, int totalTime, int[] maxClaim, int[] initialRequest) {
+        if (banker == null) {
+            throw new IllegalStateException("尚未启用资源控制");
+        }
+        // 先以即将分配的进程ID登记并校验需求，避免非法参数留下半创建的进程
+        int pid = pidCounter + 1;
+        int[] allocation = banker.register(pid, maxClaim);
+        BankersAlgorithm.RequestResult result;
+        try {
+            result = banker.request(pid, initialRequest);
+        } catch (IllegalArgumentException e) {
+            banker.unregister(pid);
+            throw e;
+        }
+
+        PCB newProcess = newProcess(name, priority, totalTime);
+        newProcess.setMaxClaim(maxClaim.clone());
+        newProcess.setAllocation(allocation);
+        if (result == BankersAlgorithm.RequestResult.GRANTED) {
+            admit(newProcess);
+        } else {
+            newProcess.setState(ProcessState.NEW);
+            pendingRequests.put(pid, initialRequest.clone());
+        }
+        return newProcess;
+    }
+
+    /**
+     * 接纳处于就绪状态的新进程：组调度下放入时隙矩阵，其他策略下加入就绪队列
+     */
+    private void admit(PCB pcb) {
+        pcb.setState(ProcessState.READY);
+        if (strategy == SchedulingStrategy.GANG) {
+            // 组调度下未分组的进程单独占用一个时隙列
+            gangMatrix.place(Collections.singletonList(pcb));
+            return;
+        }
+
+        readyQueue.add(pcb);
         // 根据调度策略重新组织队列
         if (strategy != SchedulingStrategy.ROUND_ROBIN) {
             reorganizeReadyQueue();
         }
-        
-        return newProcess;
+    }
+
+    /**
+     * 进程申请资源
+     * 申请由银行家算法检查，批准后资源立即分配；
+     * 可用资源不足或分配后系统不安全时，进程进入等待状态，直到其他进程释放资源后申请被批准
+     *
+     * @param pid 进程ID
+     * @param request 各类资源的申请量
+     * @return 申请结果，进程不存在或不受资源控制时返回null
+     * @throws IllegalArgumentException 进程正在等待资源或申请量超过其尚需量时抛出
+     */
+    public BankersAlgorithm.RequestResult requestResources(int pid, int[] request) {
+        PCB process = findProcessByPid(pid);
+        if (banker == null || process == null || !banker.isRegistered(pid)) {
+            return null;
+        }
+        if (pendingRequests.containsKey(pid)) {
+            throw new IllegalArgumentException("进程正在等待资源: " + pid);
+        }
+        BankersAlgorithm.RequestResult result = banker.request(pid, request);
+        if (result != BankersAlgorithm.RequestResult.GRANTED) {
+            int cpu = -1;
+            for (int i = 0; i < cpuCount; i++) {
+                if (cpus[i] == process) {
+                    cpus[i] = null;
+                    cpu = i;
+                }
+            }
+            readyQueue.remove(process);
+            // 组调度下进程仍留在时隙矩阵中，等待期间不会被分派
+            process.setState(ProcessState.WAITING);
+            emit(SchedulingEvent.Type.BLOCK, process, cpu);
+            pendingRequests.put(pid, request.clone());
+        }
+        return result;
+    }
+
+    /**
+     * 进程释放部分资源，并重新检查等待资源的进程
+     *
+     * @param pid 进程ID
+     * @param release 各类资源的释放量
+     * @return 进程存在且受资源控制时返回true
+     * @throws IllegalArgumentException 释放量超过已分配量时抛出
+     */
+    public boolean releaseResources(int pid, int[] release) {
+        if (banker == null || findProcessByPid(pid) == null || !banker.isRegistered(pid)) {
+            return false;
+        }
+        banker.release(pid, release);
+        retryPendingRequests();
+        return true;
+    }
+
+    /**
+     * 进程终止时归还其占有的全部资源
+     */
+    private void releaseAllResources(PCB pcb) {
+        if (banker == null) {
+            return;
+        }
+        pendingRequests.remove(pcb.getPid());
+        if (banker.unregister(pcb.getPid())) {
+            retryPendingRequests();
+        }
+    }
+
+    /**
+     * 按申请顺序重新检查等待资源的进程
+     * 批准申请只会减少可用资源，因此一轮检查中被拒绝的申请在本轮内不可能再被批准，只需扫描一遍
+     */
+    private void retryPendingRequests() {
+        boolean woken = false;
+        Iterator<Map.Entry<Integer, int[]>> iterator = pendingRequests.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, int[]> entry = iterator.next();
+            if (banker.request(entry.getKey(), entry.getValue()) != BankersAlgorithm.RequestResult.GRANTED) {
+                continue;
+            }
+            iterator.remove();
+            PCB pcb = findProcessByPid(entry.getKey());
+            if (pcb.getState() == ProcessState.NEW) {
+                admit(pcb);
+            } else {
+                pcb.setState(ProcessState.READY);
+                onProcessWoken(pcb);
+                woken = true;
+            }
+        }
+        if (woken && (strategy == SchedulingStrategy.SJF || strategy == SchedulingStrategy.PRIORITY)) {
+            reorganizeReadyQueue();
+        }
+    }
+
+    /**
+     * 创建进程组
+     * 进程组的所有成员具有相同的优先级和执行时间，在组调度策略下会被放入同一时隙同时运行；
+     * 在其他调度策略下成员作为普通进程独立调度
+     *
+     * @param name 进程组名称，成员名称为"名称-序号"
+     * @param memberCount 成员数量，不能超过CPU数量
+     * @param priority 成员优先级
+     * @param totalTime 每个成员的总执行时间
+     * @return 按序号排列的成员列表
+     * @throws IllegalArgumentException 成员数量不在1到CPU数量之间时抛出
+     */
+    public List<PCB> createProcessGroup(String name, int memberCount, int priority, int totalTime) {
+        if (memberCount <= 0 || memberCount > cpuCount) {
+            throw new IllegalArgumentException("进程组成员数必须在1到" + cpuCount + "之间: " + memberCount);
+        }
+
+        int groupId = ++groupCounter;
+        List<PCB> members = new ArrayList<>();
+        for (int i = 1; i <= memberCount; i++) {
+            PCB member = newProcess(name + "-" + i, priority, totalTime);
+            member.setGroupId(groupId);
+            members.add(member);
+        }
+
+        if (strategy == SchedulingStrategy.GANG) {
+            gangMatrix.place(members);
+        } else {
+            readyQueue.addAll(members);
+            if (strategy != SchedulingStrategy.ROUND_ROBIN) {
+                reorganizeReadyQueue();
+            }
+        }
+        return members;
     }
 
     /**
@@ -133,17 +594,48 @@ public class ProcessScheduler {
      * 根据当前调度策略选择下一个要运行的进程
      */
     public void schedule() {
-        if (runningProcess == null && !readyQueue.isEmpty()) {
-            switch (strategy) {
-                case ROUND_ROBIN:
-                case FCFS:
-                case SJF:
-                case PRIORITY:
-                    // 所有策略都从队列头部取进程
-                    runningProcess = readyQueue.poll();
-                    break;
+        if (strategy == SchedulingStrategy.GANG) {
+            scheduleGang();
+            return;
+        }
+        for (int i = 0; i < cpuCount && !readyQueue.isEmpty(); i++) {
+            if (cpus[i] == null) {
+                switch (strategy) {
+                    case ROUND_ROBIN:
+                    case FCFS:
+                    case SJF:
+                    case PRIORITY:
+                    default:
+                        // 所有策略都从队列头部取进程
+                        dispatch(i, readyQueue.poll());
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 组调度：时隙用完时整体切换到矩阵的下一行
+     * 同一行中的所有进程（即整个进程组）同时被分派到各CPU上运行
+     */
+    private void scheduleGang() {
+        if (!gangMatrix.isSlotExpired()) {
+            return;
+        }
+        for (int i = 0; i < cpuCount; i++) {
+            if (cpus[i] != null) {
+                undispatch(i);
+            }
+        }
+        PCB[] slot = gangMatrix.nextSlot();
+        if (slot == null) {
+            return;
+        }
+        for (int i = 0; i < cpuCount; i++) {
+            // 等待锁的成员不参与本时隙的运行
+            if (slot[i] != null && slot[i].getState() == ProcessState.READY) {
+                dispatch(i, slot[i]);
             }
-            runningProcess.setState(ProcessState.RUNNING);
         }
     }
 
@@ -154,33 +646,118 @@ public class ProcessScheduler {
     public void advanceTime() {
         currentTime++;
 
-        if (runningProcess != null) {
+        int busyCpus = 0;
+        int overheadCpus = 0;
+        for (int i = 0; i < cpuCount; i++) {
+            PCB runningProcess = cpus[i];
+            if (runningProcess != null && payOverhead(i)) {
+                overheadCpus++;
+                continue;
+            }
+            // 执行到期的锁操作，获取锁失败的进程进入等待状态，CPU立即分派给下一个就绪进程
+            while (runningProcess != null && !lockManager.runDueOperations(runningProcess, currentTime)) {
+                emit(SchedulingEvent.Type.BLOCK, runningProcess, i);
+                cpus[i] = null;
+                runningProcess = pollAfterBlock();
+                if (runningProcess != null) {
+                    dispatch(i, runningProcess);
+                }
+            }
+            if (runningProcess == null) {
+                continue;
+            }
+            if (payOverhead(i)) {
+                overheadCpus++;
+                continue;
+            }
+            busyCpus++;
             runningProcess.incrementElapsedTime();
 
             // 检查进程是否完成
             if (runningProcess.getElapsedTime() >= runningProcess.getTotalTime()) {
-                runningProcess.setState(ProcessState.TERMINATED);
-                runningProcess = null;
-                schedule();  // 调度下一个进程
-                return;
+                terminate(runningProcess, i);
+                lockManager.releaseAll(runningProcess, currentTime);
+                cpus[i] = null;
+                releaseAllResources(runningProcess);
+                if (strategy == SchedulingStrategy.GANG) {
+                    gangMatrix.remove(runningProcess);
+                }
             }
             // 对于时间片轮转，检查时间片是否用完
             else if (strategy == SchedulingStrategy.ROUND_ROBIN && 
                      runningProcess.getElapsedTime() % runningProcess.getTimeSlice() == 0) {
-                readyQueue.add(runningProcess);
-                runningProcess.setState(ProcessState.READY);
-                runningProcess = null;
+                readyQueue.add(undispatch(i));
             }
         }
+        busyCpuTicks += busyCpus;
+        switchModel.recordTick(strategy, busyCpus, overheadCpus, cpuCount);
+
+        if (strategy == SchedulingStrategy.GANG) {
+            gangMatrix.recordTick(busyCpus);
+        }
 
         // 根据当前策略重新组织队列
         if (strategy == SchedulingStrategy.SJF || strategy == SchedulingStrategy.PRIORITY) {
             reorganizeReadyQueue();
         }
+        if (preemptive && strategy == SchedulingStrategy.PRIORITY) {
+            preempt();
+        }
 
         schedule();
     }
 
+    /**
+     * 若指定CPU上还有未付完的切换开销，则本时间单位用于支付开销，进程不前进
+     * @return 本时间单位消耗在切换开销上时返回true
+     */
+    private boolean payOverhead(int cpu) {
+        if (switchOverhead[cpu] <= 0) {
+            return false;
+        }
+        switchOverhead[cpu]--;
+        return true;
+    }
+
+    /**
+     * 运行中的进程因等待锁被阻塞后，选择接替它的就绪进程
+     * 锁协议可能已经改变了某些进程的有效优先级，因此先重新组织就绪队列
+     * @return 接替运行的进程，组调度或没有就绪进程时返回null
+     */
+    private PCB pollAfterBlock() {
+        if (strategy == SchedulingStrategy.GANG) {
+            return null;
+        }
+        if (strategy == SchedulingStrategy.SJF || strategy == SchedulingStrategy.PRIORITY) {
+            reorganizeReadyQueue();
+        }
+        return readyQueue.poll();
+    }
+
+    /**
+     * 抢占式优先级调度
+     * 当就绪队列队首进程的有效优先级高于某个运行中进程时，将该运行进程放回就绪队列
+     */
+    private void preempt() {
+        while (!readyQueue.isEmpty()) {
+            int lowest = -1;
+            for (int i = 0; i < cpuCount; i++) {
+                if (cpus[i] == null) {
+                    return;     // 有空闲CPU时由schedule()直接分派，无需抢占
+                }
+                if (lowest < 0 || cpus[i].getEffectivePriority() < cpus[lowest].getEffectivePriority()) {
+                    lowest = i;
+                }
+            }
+            if (readyQueue.peek().getEffectivePriority() <= cpus[lowest].getEffectivePriority()) {
+                return;
+            }
+            readyQueue.add(undispatch(lowest));
+            reorganizeReadyQueue();
+            schedule();
+        }
+    }
+
     /**
      * 打印所有进程的状态
      */
@@ -214,11 +791,16 @@ public class ProcessScheduler {
         PCB process = findProcessByPid(pid);
         if (process == null) return false;
 
-        if (runningProcess != null && runningProcess.getPid() == pid) {
-            runningProcess = null;
+        for (int i = 0; i < cpuCount; i++) {
+            if (cpus[i] != null && cpus[i].getPid() == pid) {
+                cpus[i] = null;
+            }
         }
         readyQueue.removeIf(p -> p.getPid() == pid);
-        process.setState(ProcessState.TERMINATED);
+        gangMatrix.remove(process);
+        lockManager.releaseAll(process, currentTime);
+        terminate(process, -1);
+        releaseAllResources(process);
         
         // 从所有进程列表中移除
         allProcesses.removeIf(p -> p.getPid() == pid);
@@ -228,6 +810,7 @@ public class ProcessScheduler {
 
     /**
      * 更新进程优先级
+     * 同时提升该进程将要获取的锁的优先级天花板
      * @param pid 进程ID
      * @param newPriority 新的优先级
      * @return 返回是否成功更新
@@ -239,6 +822,7 @@ public class ProcessScheduler {
         if (process == null) return false;
 
         process.setPriority(newPriority);
+        lockManager.priorityChanged(process);
         return true;
     }
 
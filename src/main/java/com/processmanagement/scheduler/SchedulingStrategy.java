@@ -2,7 +2,7 @@ package com.processmanagement.scheduler;
 
 /**
  * 进程调度策略枚举类
- * 定义了系统支持的四种基本进程调度算法
+ * 定义了系统支持的四种基本进程调度算法，以及面向多CPU的组调度
  */
 public enum SchedulingStrategy {
     /**
@@ -35,5 +35,13 @@ public enum SchedulingStrategy {
      * - 高优先级进程优先执行
      * - 需要考虑优先级反转和饥饿问题
      */
-    PRIORITY        
+    PRIORITY,
+
+    /**
+     * 组调度(Gang Scheduling)
+     * - 同一进程组的所有成员在同一时隙内同时运行于不同CPU
+     * - 使用Ousterhout矩阵组织时隙，时隙用完后整行切换
+     * - 适合成员之间需要频繁同步的并行作业
+     */
+    GANG
 } 
\ No newline at end of file
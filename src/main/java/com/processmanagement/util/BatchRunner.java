@@ -0,0 +1,469 @@
+package com.processmanagement.util;
+
+import com.processmanagement.model.PCB;
+import com.processmanagement.model.SchedulingEvent;
+import com.processmanagement.scheduler.ContextSwitchModel;
+import com.processmanagement.scheduler.ProcessScheduler;
+import com.processmanagement.scheduler.SchedulingStrategy;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 进程调度批量运行工具类
+ * 不启动图形界面，直接读取负载文件运行模拟，并以JSON或CSV格式输出调度指标，
+ * 适合在持续集成环境或服务器上批量比较不同调度策略
+ *
+ * 负载文件格式：每行一个进程，格式为"进程名称,优先级,总执行时间[,到达时间[,进程组成员数]]"
+ * 以#开头的行和空行会被忽略，例如：
+ * Process1,5,10
+ * Process2,3,8,2
+ * Parallel,4,6,3,4
+ *
+ * 命令行参数：
+ * --workload 文件    负载文件路径（必需）
+ * --strategy 策略    RR、FCFS、SJF、PRIORITY或GANG，默认RR
+ * --quantum 时间片   时间片大小，默认2
+ * --cpus 数量        CPU数量，默认1
+ * --format 格式      json或csv，默认json
+ * --output 文件      指标输出文件，默认输出到标准输出
+ * --events 文件      事件日志文件（CSV），不指定时不记录事件
+ * --max-time 时间    模拟的最长时间，超过后停止，默认不限制
+ * --preemptive       优先级调度使用抢占方式
+ * --dispatch-latency 时间   每次上下文切换的分派延迟，默认0
+ * --warmup-penalty 时间     进程迁移到其他CPU时的缓存预热开销，默认0
+ */
+public class BatchRunner {
+
+    /**
+     * 负载文件中的一个条目
+     */
+    private static class WorkloadEntry {
+        String name;        // 进程名称
+        int priority;       // 优先级
+        int totalTime;      // 总执行时间
+        int arrivalTime;    // 到达时间
+        int groupSize;      // 进程组成员数，1表示普通进程
+    }
+
+    /**
+     * 命令行选项
+     */
+    private static class Options {
+        String workload;
+        SchedulingStrategy strategy = SchedulingStrategy.ROUND_ROBIN;
+        int quantum = 2;
+        int cpus = 1;
+        String format = "json";
+        String output;
+        String events;
+        int maxTime = Integer.MAX_VALUE;
+        boolean preemptive;
+        int dispatchLatency;
+        int warmupPenalty;
+    }
+
+    /**
+     * 执行批量模拟
+     * @param args 命令行参数
+     * @param out 标准输出流
+     * @param err 错误输出流
+     * @return 退出码：0表示成功，1表示参数或文件错误，2表示超过最长模拟时间
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        List<WorkloadEntry> workload;
+        try {
+            options = parseOptions(args);
+            workload = readWorkload(options.workload);
+        } catch (IllegalArgumentException | IOException e) {
+            err.println("错误: " + e.getMessage());
+            printUsage(err);
+            return 1;
+        }
+
+        ProcessScheduler scheduler = new ProcessScheduler(options.cpus);
+        scheduler.setSchedulingStrategy(options.strategy);
+        scheduler.setTimeSlice(options.quantum);
+        scheduler.setPreemptive(options.preemptive);
+        scheduler.getContextSwitchModel().setDispatchLatency(options.dispatchLatency);
+        scheduler.getContextSwitchModel().setCacheWarmupPenalty(options.warmupPenalty);
+
+        boolean completed;
+        try (BufferedWriter eventWriter = options.events == null ? null
+                : Files.newBufferedWriter(Paths.get(options.events), StandardCharsets.UTF_8)) {
+            if (eventWriter != null) {
+                eventWriter.write("time,event,pid,name,cpu\n");
+                scheduler.setEventListener(event -> writeEvent(eventWriter, event));
+            }
+            completed = simulate(scheduler, workload, options.maxTime);
+        } catch (IOException | UncheckedIOException e) {
+            err.println("错误: 写入事件日志失败: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            return 1;
+        }
+
+        try (PrintStream target = options.output == null ? null
+                : new PrintStream(new FileOutputStream(options.output), false, "UTF-8")) {
+            PrintStream metrics = target == null ? out : target;
+            if ("csv".equals(options.format)) {
+                writeCsv(metrics, scheduler, options);
+            } else {
+                writeJson(metrics, scheduler, options, completed);
+            }
+            metrics.flush();
+        } catch (IOException e) {
+            err.println("错误: 写入指标失败: " + e.getMessage());
+            return 1;
+        }
+
+        if (!completed) {
+            err.println("警告: 达到最长模拟时间 " + options.maxTime + "，仍有进程未完成");
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * 运行模拟直到所有进程完成或超过最长模拟时间
+     * 进程按到达时间在对应时刻被创建
+     *
+     * @return 所有进程都完成时返回true
+     */
+    private static boolean simulate(ProcessScheduler scheduler, List<WorkloadEntry> workload, int maxTime) {
+        int next = 0;
+        while (true) {
+            while (next < workload.size() && workload.get(next).arrivalTime <= scheduler.getCurrentTime()) {
+                WorkloadEntry entry = workload.get(next++);
+                if (entry.groupSize > 1) {
+                    scheduler.createProcessGroup(entry.name, entry.groupSize, entry.priority, entry.totalTime);
+                } else {
+                    scheduler.createProcess(entry.name, entry.priority, entry.totalTime);
+                }
+            }
+            if (next == workload.size() && scheduler.getUnfinishedProcessCount() == 0) {
+                return true;
+            }
+            if (scheduler.getCurrentTime() >= maxTime) {
+                return false;
+            }
+            // 先把本时刻到达的进程分派到空闲CPU上，否则它们要空等一个时间单位
+            scheduler.schedule();
+            scheduler.advanceTime();
+        }
+    }
+
+    /**
+     * 解析命令行参数
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    private static Options parseOptions(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--preemptive".equals(arg)) {
+                options.preemptive = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数缺少取值: " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--workload":
+                    options.workload = value;
+                    break;
+                case "--strategy":
+                    options.strategy = parseStrategy(value);
+                    break;
+                case "--quantum":
+                    options.quantum = parsePositive(arg, value);
+                    break;
+                case "--cpus":
+                    options.cpus = parsePositive(arg, value);
+                    break;
+                case "--format":
+                    options.format = value.toLowerCase(Locale.ROOT);
+                    if (!"json".equals(options.format) && !"csv".equals(options.format)) {
+                        throw new IllegalArgumentException("不支持的输出格式: " + value);
+                    }
+                    break;
+                case "--output":
+                    options.output = value;
+                    break;
+                case "--events":
+                    options.events = value;
+                    break;
+                case "--max-time":
+                    options.maxTime = parsePositive(arg, value);
+                    break;
+                case "--dispatch-latency":
+                    options.dispatchLatency = parseNonNegative(arg, value);
+                    break;
+                case "--warmup-penalty":
+                    options.warmupPenalty = parseNonNegative(arg, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        if (options.workload == null) {
+            throw new IllegalArgumentException("必须指定负载文件 --workload");
+        }
+        return options;
+    }
+
+    /**
+     * 解析调度策略名称，支持缩写RR
+     */
+    private static SchedulingStrategy parseStrategy(String value) {
+        String name = value.toUpperCase(Locale.ROOT);
+        if ("RR".equals(name)) {
+            return SchedulingStrategy.ROUND_ROBIN;
+        }
+        try {
+            return SchedulingStrategy.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的调度策略: " + value);
+        }
+    }
+
+    /**
+     * 解析正整数参数
+     */
+    private static int parsePositive(String name, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面抛出异常
+        }
+        throw new IllegalArgumentException(name + " 必须为正整数: " + value);
+    }
+
+    /**
+     * 解析非负整数参数
+     */
+    private static int parseNonNegative(String name, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一在下面抛出异常
+        }
+        throw new IllegalArgumentException(name + " 必须为非负整数: " + value);
+    }
+
+    /**
+     * 读取负载文件并按到达时间排序（到达时间相同的保持文件中的顺序）
+     * @throws IOException 文件读取出错时抛出
+     * @throws IllegalArgumentException 文件内容格式错误时抛出
+     */
+    private static List<WorkloadEntry> readWorkload(String path) throws IOException {
+        List<WorkloadEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 3 || parts.length > 5) {
+                    throw new IllegalArgumentException("负载文件第" + lineNumber + "行格式错误: " + line);
+                }
+                try {
+                    WorkloadEntry entry = new WorkloadEntry();
+                    entry.name = parts[0].trim();
+                    entry.priority = Integer.parseInt(parts[1].trim());
+                    entry.totalTime = Integer.parseInt(parts[2].trim());
+                    entry.arrivalTime = parts.length > 3 ? Integer.parseInt(parts[3].trim()) : 0;
+                    entry.groupSize = parts.length > 4 ? Integer.parseInt(parts[4].trim()) : 1;
+                    entries.add(entry);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("负载文件第" + lineNumber + "行数字格式错误: " + line);
+                }
+            }
+        }
+        entries.sort(Comparator.comparingInt(e -> e.arrivalTime));
+        return entries;
+    }
+
+    /**
+     * 以CSV格式写入一条调度事件
+     */
+    private static void writeEvent(Writer writer, SchedulingEvent event) {
+        try {
+            writer.write(event.getTime() + "," + event.getType() + "," + event.getPid() + ","
+                    + csv(event.getProcessName()) + "," + event.getCpu() + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 以JSON格式输出汇总指标和每个进程的指标
+     */
+    private static void writeJson(PrintStream out, ProcessScheduler scheduler, Options options, boolean completed) {
+        List<PCB> processes = scheduler.getAllProcesses();
+        out.println("{");
+        out.println("  \"strategy\": \"" + options.strategy + "\",");
+        out.println("  \"cpus\": " + options.cpus + ",");
+        out.println("  \"quantum\": " + options.quantum + ",");
+        out.println("  \"completed\": " + completed + ",");
+        out.println("  \"summary\": {");
+        String[][] summary = summarize(scheduler, processes);
+        for (int i = 0; i < summary.length; i++) {
+            out.println("    \"" + summary[i][0] + "\": " + summary[i][1] + (i < summary.length - 1 ? "," : ""));
+        }
+        out.println("  },");
+        out.println("  \"processes\": [");
+        for (int i = 0; i < processes.size(); i++) {
+            PCB p = processes.get(i);
+            out.print("    {\"pid\": " + p.getPid()
+                    + ", \"name\": \"" + json(p.getProcessName()) + "\""
+                    + ", \"group\": " + p.getGroupId()
+                    + ", \"priority\": " + p.getPriority()
+                    + ", \"burst\": " + p.getTotalTime()
+                    + ", \"arrival\": " + p.getArrivalTime()
+                    + ", \"start\": " + p.getStartTime()
+                    + ", \"finish\": " + p.getFinishTime()
+                    + ", \"turnaround\": " + turnaround(p)
+                    + ", \"waiting\": " + waiting(p)
+                    + ", \"response\": " + response(p) + "}");
+            out.println(i < processes.size() - 1 ? "," : "");
+        }
+        out.println("  ]");
+        out.println("}");
+    }
+
+    /**
+     * 以CSV格式输出指标
+     * 第一部分为"metric,value"形式的汇总指标，空行之后为每个进程一行的进程指标
+     */
+    private static void writeCsv(PrintStream out, ProcessScheduler scheduler, Options options) {
+        List<PCB> processes = scheduler.getAllProcesses();
+        out.println("metric,value");
+        out.println("strategy," + options.strategy);
+        out.println("cpus," + options.cpus);
+        out.println("quantum," + options.quantum);
+        for (String[] row : summarize(scheduler, processes)) {
+            out.println(row[0] + "," + row[1]);
+        }
+        out.println();
+        out.println("pid,name,group,priority,burst,arrival,start,finish,turnaround,waiting,response");
+        for (PCB p : processes) {
+            out.println(p.getPid() + "," + csv(p.getProcessName()) + "," + p.getGroupId() + ","
+                    + p.getPriority() + "," + p.getTotalTime() + "," + p.getArrivalTime() + ","
+                    + p.getStartTime() + "," + p.getFinishTime() + "," + turnaround(p) + ","
+                    + waiting(p) + "," + response(p));
+        }
+    }
+
+    /**
+     * 计算汇总指标
+     * @return 指标名称与格式化后取值的数组
+     */
+    private static String[][] summarize(ProcessScheduler scheduler, List<PCB> processes) {
+        int finished = 0;
+        long turnaround = 0;
+        long waiting = 0;
+        long response = 0;
+        for (PCB p : processes) {
+            if (p.getFinishTime() >= 0) {
+                finished++;
+                turnaround += turnaround(p);
+                waiting += waiting(p);
+                response += response(p);
+            }
+        }
+        int makespan = scheduler.getCurrentTime();
+        long capacity = (long) makespan * scheduler.getCpuCount();
+        ContextSwitchModel switchModel = scheduler.getContextSwitchModel();
+        return new String[][]{
+            {"processes", String.valueOf(processes.size())},
+            {"finished", String.valueOf(finished)},
+            {"makespan", String.valueOf(makespan)},
+            {"throughput", format(makespan == 0 ? 0 : (double) finished / makespan)},
+            {"avgTurnaround", format(finished == 0 ? 0 : (double) turnaround / finished)},
+            {"avgWaiting", format(finished == 0 ? 0 : (double) waiting / finished)},
+            {"avgResponse", format(finished == 0 ? 0 : (double) response / finished)},
+            {"cpuUtilization", format(capacity == 0 ? 0 : (double) scheduler.getBusyCpuTicks() / capacity)},
+            {"gangFragmentation", format(scheduler.getGangMatrix().getFragmentation())},
+            {"gangSlotUtilization", format(scheduler.getGangMatrix().getSlotUtilization())},
+            {"lockBlocks", String.valueOf(scheduler.getLockManager().getBlockCount())},
+            {"lockBlockedTime", String.valueOf(scheduler.getLockManager().getTotalBlockedTime())},
+            {"contextSwitches", String.valueOf(switchModel.getSwitchCount(null))},
+            {"migrations", String.valueOf(switchModel.getMigrationCount(null))},
+            {"switchOverhead", String.valueOf(switchModel.getOverheadTicks(null))},
+            {"cpuEfficiency", format(switchModel.getCpuEfficiency(null))}
+        };
+    }
+
+    private static int turnaround(PCB p) {
+        return p.getFinishTime() < 0 ? -1 : p.getFinishTime() - p.getArrivalTime();
+    }
+
+    private static int waiting(PCB p) {
+        return p.getFinishTime() < 0 ? -1 : turnaround(p) - p.getTotalTime();
+    }
+
+    private static int response(PCB p) {
+        return p.getStartTime() < 0 ? -1 : p.getStartTime() - p.getArrivalTime();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    /**
+     * 转义JSON字符串中的特殊字符
+     */
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 对包含逗号或引号的CSV字段加引号
+     */
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * 输出命令行用法说明
+     */
+    private static void printUsage(PrintStream err) {
+        err.println("用法: java -jar OperatingSystem.jar --workload 文件 [--strategy RR|FCFS|SJF|PRIORITY|GANG]");
+        err.println("       [--quantum 时间片] [--cpus CPU数] [--format json|csv] [--output 文件]");
+        err.println("       [--events 事件日志文件] [--max-time 最长时间] [--preemptive]");
+        err.println("       [--dispatch-latency 分派延迟] [--warmup-penalty 缓存预热开销]");
+    }
+}
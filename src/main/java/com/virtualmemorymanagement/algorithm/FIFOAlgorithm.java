@@ -8,14 +8,13 @@ import java.util.*;
  * 先进先出(FIFO)页面置换算法实现类
  * 特点：
  * - 选择在内存中驻留时间最长的页面进行置换
- * - 维护一个队列来记录页面进入内存的顺序
+ * - 维护一个按插入顺序排列的集合作为队列，记录页面进入内存的顺序，查找和移除页面都是O(1)
  * - 当需要置换时，选择队列头部（最早进入）的页面
  * - 新页面总是添加到队列尾部
  */
 public class FIFOAlgorithm implements PageReplacementAlgorithm {
     private final int frameCount;           // 内存帧数（可容纳的页面数）
-    private final Queue<Integer> frames;     // 页面队列，按进入顺序存储页面
-    private final Set<Integer> pageSet;      // 当前在内存中的页面集合，用于快速查找
+    private final LinkedHashSet<Integer> frames; // 页面队列，按进入顺序存储页面
     private final List<Integer> replacedPages; // 被置换出的页面历史记录
     private int pageFaults;                 // 缺页次数统计
     private Integer lastReplacedPage;       // 最近一次被置换出的页面
@@ -26,8 +25,7 @@ public class FIFOAlgorithm implements PageReplacementAlgorithm {
      */
     public FIFOAlgorithm(int frameCount) {
         this.frameCount = frameCount;
-        this.frames = new LinkedList<>();    // 使用LinkedList实现FIFO队列
-        this.pageSet = new HashSet<>();      // 使用HashSet实现O(1)的页面查找
+        this.frames = new LinkedHashSet<>(); // LinkedHashSet保持插入顺序，同时提供O(1)的页面查找
         this.replacedPages = new ArrayList<>();
         this.pageFaults = 0;
         this.lastReplacedPage = null;
@@ -57,7 +55,7 @@ public class FIFOAlgorithm implements PageReplacementAlgorithm {
     @Override
     public boolean accessPage(int pageNumber) {
         // 如果页面已在内存中，不需要置换
-        if (pageSet.contains(pageNumber)) {
+        if (frames.contains(pageNumber)) {
             return false;
         }
 
@@ -66,25 +64,32 @@ public class FIFOAlgorithm implements PageReplacementAlgorithm {
 
         // 如果内存未满，直接添加
         if (frames.size() < frameCount) {
-            frames.offer(pageNumber);
-            pageSet.add(pageNumber);
+            frames.add(pageNumber);
             lastReplacedPage = null;
             return true;
         }
 
         // 内存已满，需要置换
         // 移除队列头部（最早进入）的页面
-        int replacedPage = frames.poll();
-        pageSet.remove(replacedPage);
+        int replacedPage = frames.iterator().next();
+        frames.remove(replacedPage);
         // 将新页面添加到队列尾部
-        frames.offer(pageNumber);
-        pageSet.add(pageNumber);
+        frames.add(pageNumber);
         lastReplacedPage = replacedPage;
         replacedPages.add(replacedPage);
 
         return true;
     }
 
+    /**
+     * 从内存中移除页面
+     * 页面同时从队列中删除，队列中其他页面的先后顺序不变
+     */
+    @Override
+    public boolean removePage(int pageNumber) {
+        return frames.remove(pageNumber);
+    }
+
     /**
      * 获取缺页次数
      */
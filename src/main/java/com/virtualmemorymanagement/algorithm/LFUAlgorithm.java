@@ -98,6 +98,18 @@ public class LFUAlgorithm implements PageReplacementAlgorithm {
         return true;
     }
 
+    /**
+     * 从内存中移除页面，页面的访问频率也一并清除
+     */
+    @Override
+    public boolean removePage(int pageNumber) {
+        if (pageFrequency.remove(pageNumber) == null) {
+            return false;
+        }
+        pageAccessTime.remove(pageNumber);
+        return true;
+    }
+
     /**
      * 获取缺页次数
      * @return 返回算法执行过程中发生的缺页次数
@@ -84,6 +84,14 @@ public class LRUAlgorithm implements PageReplacementAlgorithm {
         return true;
     }
 
+    /**
+     * 从内存中移除页面
+     */
+    @Override
+    public boolean removePage(int pageNumber) {
+        return frames.remove(pageNumber);
+    }
+
     /**
      * 获取缺页次数
      * @return 返回算法执行过程中发生的缺页次数
@@ -32,6 +32,14 @@ public interface PageReplacementAlgorithm {
      */
     boolean accessPage(int pageNumber);
 
+    /**
+     * 将页面从内存中移除（例如所属作业已结束），空出的帧可供后续缺页直接使用
+     * 移除不计为置换，不影响缺页次数和置换历史
+     * @param pageNumber 要移除的页面号
+     * @return 页面在内存中并被移除时返回true
+     */
+    boolean removePage(int pageNumber);
+
     /**
      * 获取算法执行过程中发生的缺页次数
      * 用于评估算法性能
@@ -0,0 +1,101 @@
+package com.memorymanagement.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 作业准入队列测试类
+ * 使用手动推进的时钟测试FIFO、最小作业优先和老化三种准入策略
+ */
+public class AdmissionQueueTest {
+    private final long[] now = new long[1];
+
+    @Test
+    @DisplayName("测试FIFO策略下队首大作业阻塞后来的小作业")
+    void testFifoBlocksBehindHead() {
+        AdmissionQueue queue = new AdmissionQueue(new DynamicPartitionManager(), AdmissionPolicy.FIFO, () -> now[0]);
+        assertTrue(queue.submit("A", 60 * 1024));
+        assertTrue(queue.submit("B", 60 * 1024));
+        assertTrue(queue.submit("C", 100 * 1024));
+        assertTrue(queue.submit("D", 2 * 1024), "已有作业在等待时新作业应排队");
+        assertEquals(List.of("C", "D"), queue.getPendingJobs());
+        assertFalse(queue.submit("C", 1024), "等待中的作业名称不能重复");
+        assertFalse(queue.submit("E", 200 * 1024), "超过全部用户内存的作业应被拒绝");
+
+        now[0] = 3;
+        assertTrue(queue.releaseMemory("A"));
+        assertEquals(2, queue.getPendingCount(), "60K的空闲分区放不下队首的C，D也不能越过C");
+        now[0] = 5;
+        assertTrue(queue.releaseMemory("B"));
+        assertTrue(queue.getPendingJobs().isEmpty());
+        assertNotNull(queue.getManager().getAllocatedPartition("C"));
+        assertNotNull(queue.getManager().getAllocatedPartition("D"));
+
+        assertEquals(4, queue.getAdmittedCount());
+        assertEquals(2, queue.getQueuedAdmittedCount());
+        assertEquals(5.0, queue.getAverageDelay());
+        assertEquals(5, queue.getMaxDelay());
+        assertEquals(2, queue.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("测试取消阻塞的队首后立即准入后面的作业")
+    void testCancelBlockingHead() {
+        AdmissionQueue queue = new AdmissionQueue(new DynamicPartitionManager(), AdmissionPolicy.FIFO, () -> now[0]);
+        assertTrue(queue.submit("A", 100 * 1024));
+        assertTrue(queue.submit("C", 100 * 1024));
+        assertTrue(queue.submit("D", 2 * 1024));
+        assertTrue(queue.submit("E", 4 * 1024));
+        assertEquals(List.of("C", "D", "E"), queue.getPendingJobs());
+
+        now[0] = 2;
+        assertFalse(queue.cancel("X"));
+        assertTrue(queue.cancel("E"));
+        assertEquals(List.of("C", "D"), queue.getPendingJobs(), "取消非队首作业不影响阻塞");
+        assertTrue(queue.cancel("C"));
+        assertTrue(queue.getPendingJobs().isEmpty(), "队首取消后D应立即被准入");
+        assertNotNull(queue.getManager().getAllocatedPartition("D"));
+        assertEquals(2, queue.getMaxDelay());
+        assertEquals(2, queue.getCancelledCount());
+    }
+
+    @Test
+    @DisplayName("测试最小作业优先使大作业饥饿，老化策略避免饥饿")
+    void testAgingPreventsStarvation() {
+        AdmissionQueue smallestFirst = runSmallJobStream(AdmissionPolicy.SMALLEST_FIRST);
+        assertNull(smallestFirst.getManager().getAllocatedPartition("Big"));
+        assertEquals(List.of("Big"), smallestFirst.getStarvingJobs(), "小作业不断占用释放的空间，大作业应一直等待");
+        assertEquals(12, smallestFirst.getOldestPendingWait());
+
+        AdmissionQueue aging = runSmallJobStream(AdmissionPolicy.AGING);
+        assertNotNull(aging.getManager().getAllocatedPartition("Big"), "超过老化阈值后释放的空间应留给大作业");
+        assertEquals(9, aging.getMaxDelay());
+        assertTrue(aging.getStarvedCount() >= 1);
+        assertTrue(aging.getStarvingJobs().isEmpty());
+    }
+
+    /**
+     * 用12个10K的作业占满内存，提交一个50K的大作业后，每个时刻按地址顺序释放一个旧作业并提交一个新的10K作业
+     */
+    private AdmissionQueue runSmallJobStream(AdmissionPolicy policy) {
+        now[0] = 0;
+        AdmissionQueue queue = new AdmissionQueue(new DynamicPartitionManager(), policy, () -> now[0]);
+        queue.setAgingThreshold(5);
+        queue.setStarvationThreshold(8);
+        for (int i = 0; i < 12; i++) {
+            assertTrue(queue.submit("J" + i, 10 * 1024));
+        }
+        assertTrue(queue.submit("Big", 50 * 1024));
+        assertTrue(queue.isPending("Big"));
+        for (int t = 1; t <= 12; t++) {
+            now[0] = t;
+            assertTrue(queue.releaseMemory("J" + (t - 1)));
+            assertTrue(queue.submit("N" + t, 10 * 1024));
+        }
+        return queue;
+    }
+}
@@ -0,0 +1,89 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 伙伴系统测试类
+ * 默认配置：总内存128K，前4K被OS占用，最小块1K
+ * 初始空闲块为4K、8K、16K、32K和64K各一块
+ */
+public class BuddyMemoryManagerTest {
+    private BuddyMemoryManager buddyManager;
+    private static final int OS_MEMORY = 4 * 1024;      // 4K
+
+    @BeforeEach
+    void setUp() {
+        buddyManager = new BuddyMemoryManager();
+    }
+
+    @Test
+    @DisplayName("测试伙伴系统分配向上取整到2的幂")
+    void testAllocationRoundsUp() {
+        assertTrue(buddyManager.allocateMemory("Job1", 1536), "应该能够分配1.5K内存");
+        List<Partition> partitions = buddyManager.getMemoryStatus();
+        AllocatedPartition job1 = (AllocatedPartition) partitions.stream()
+                .filter(p -> p instanceof AllocatedPartition).findFirst().orElseThrow();
+        assertEquals(2048, job1.getSize(), "1.5K应分配2K的块");
+        assertEquals(OS_MEMORY, job1.getStartAddress(), "应从最小的4K空闲块中分裂出2K");
+        assertEquals(512, buddyManager.getInternalFragmentationBytes());
+        assertEquals(0.25, buddyManager.getInternalFragmentation(), 1e-9);
+
+        assertFalse(buddyManager.allocateMemory("Job1", 1024), "作业名称重复时应分配失败");
+        assertFalse(buddyManager.allocateMemory("Job2", 65 * 1024), "超过最大空闲块时应分配失败");
+    }
+
+    @Test
+    @DisplayName("测试伙伴块释放后逐级合并")
+    void testReleaseCoalesces() {
+        assertTrue(buddyManager.allocateMemory("Job1", 1024));
+        assertTrue(buddyManager.allocateMemory("Job2", 1024));
+        assertEquals(1, buddyManager.getFreeBlockCount(1), "4K块分裂后应剩余一个2K块");
+
+        assertTrue(buddyManager.releaseMemory("Job1"));
+        assertEquals(1, buddyManager.getFreeBlockCount(0), "伙伴仍被占用时不能合并");
+        assertTrue(buddyManager.releaseMemory("Job2"));
+        assertEquals(0, buddyManager.getFreeBlockCount(0));
+        assertEquals(1, buddyManager.getFreeBlockCount(2), "两个1K伙伴应逐级合并回4K块");
+        assertFalse(buddyManager.releaseMemory("Job2"), "不应该能够重复释放");
+        assertEquals(5, buddyManager.getMemoryStatus().size());
+    }
+
+    @Test
+    @DisplayName("测试大量随机分配释放后空闲空间完全恢复")
+    void testRandomAllocFreePairs() {
+        BuddyMemoryManager manager = new BuddyMemoryManager(64 * 1024 * 1024, 0, 64);
+        long initialFree = manager.getFreeBytes();
+        Random random = new Random(7);
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                String name = "J" + i;
+                if (manager.allocateMemory(name, 1 + random.nextInt(16 * 1024))) {
+                    live.add(name);
+                }
+            } else {
+                int index = random.nextInt(live.size());
+                String name = live.get(index);
+                live.set(index, live.get(live.size() - 1));
+                live.remove(live.size() - 1);
+                assertTrue(manager.releaseMemory(name));
+            }
+        }
+        for (String name : live) {
+            assertTrue(manager.releaseMemory(name));
+        }
+        assertEquals(initialFree, manager.getFreeBytes());
+        assertEquals(1, manager.getMemoryStatus().size(), "全部释放后应合并为一整块");
+        assertEquals(0, manager.getInternalFragmentationBytes());
+    }
+}
@@ -0,0 +1,98 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.MemoryStatistics;
+import com.memorymanagement.model.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 并发内存管理器测试类
+ * 测试本地arena分配、跨arena窃取以及多线程下分区的一致性
+ */
+public class ConcurrentMemoryManagerTest {
+    private static final long TOTAL_MEMORY = 128 * 1024;
+    private static final long OS_MEMORY = 4 * 1024;
+
+    @Test
+    @DisplayName("测试本地arena用尽后从其他arena窃取")
+    void testStealFromOtherArena() {
+        // 两个arena，各62K
+        ConcurrentMemoryManager manager = new ConcurrentMemoryManager(TOTAL_MEMORY, OS_MEMORY, 2, PlacementPolicy.FIRST_FIT);
+        assertTrue(manager.allocateMemory("Job1", 60 * 1024));
+        assertEquals(OS_MEMORY, manager.getAllocatedPartition("Job1").getStartAddress(), "第一个线程的本地arena应为第一个arena");
+        assertTrue(manager.allocateMemory("Job2", 60 * 1024), "本地arena不足时应到其他arena分配");
+        assertEquals(OS_MEMORY + 62 * 1024, manager.getAllocatedPartition("Job2").getStartAddress());
+        assertEquals(1, manager.getStealCount());
+        assertFalse(manager.allocateMemory("Job1", 1024), "作业名称不能重复");
+        assertFalse(manager.allocateMemory("Job3", 63 * 1024), "单次分配不能超过一个arena的大小");
+
+        assertTrue(manager.releaseMemory("Job1"));
+        assertFalse(manager.releaseMemory("Job1"));
+        MemoryStatistics statistics = manager.getStatistics();
+        assertEquals(64 * 1024, statistics.getFreeBytes());
+        assertEquals(62 * 1024, statistics.getLargestFreeBlock());
+        assertEquals(1, statistics.getAllocatedCount());
+    }
+
+    @Test
+    @DisplayName("测试多线程并发分配和释放后分区互不重叠")
+    void testConcurrentAllocation() throws Exception {
+        ConcurrentMemoryManager manager = new ConcurrentMemoryManager(64L * 1024 * 1024, OS_MEMORY, 4, PlacementPolicy.FIRST_FIT);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(thread);
+                    List<String> live = new ArrayList<>();
+                    for (int i = 0; i < 5000; i++) {
+                        if (live.size() < 50 && (live.isEmpty() || random.nextBoolean())) {
+                            String jobName = "T" + thread + "-" + i;
+                            assertTrue(manager.allocateMemory(jobName, 1 + random.nextInt(64 * 1024)));
+                            live.add(jobName);
+                        } else {
+                            String jobName = live.remove(random.nextInt(live.size()));
+                            assertTrue(manager.releaseMemory(jobName), "自己分配的作业应能释放");
+                        }
+                    }
+                    // 每个线程最终保留10个存活作业，其余释放
+                    for (int i = 0; live.size() < 10; i++) {
+                        String jobName = "T" + thread + "-extra" + i;
+                        assertTrue(manager.allocateMemory(jobName, 1024));
+                        live.add(jobName);
+                    }
+                    for (String jobName : live.subList(10, live.size())) {
+                        assertTrue(manager.releaseMemory(jobName));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 所有分区应按地址首尾相接地覆盖整个用户区域
+        long expectedStart = OS_MEMORY;
+        for (Partition partition : manager.getMemoryStatus()) {
+            assertEquals(expectedStart, partition.getStartAddress(), "分区之间不应有重叠或空隙");
+            expectedStart += partition.getSize();
+        }
+        assertEquals(64L * 1024 * 1024, expectedStart);
+        MemoryStatistics statistics = manager.getStatistics();
+        assertEquals(80, statistics.getAllocatedCount());
+        assertEquals(64L * 1024 * 1024 - OS_MEMORY, statistics.getFreeBytes() + statistics.getUsedBytes());
+    }
+}
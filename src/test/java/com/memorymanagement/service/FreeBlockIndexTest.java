@@ -0,0 +1,114 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.FreePartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 空闲块索引测试类
+ * 将索引的查找和合并结果与按地址线性扫描的朴素实现进行对比
+ */
+public class FreeBlockIndexTest {
+
+    @Test
+    @DisplayName("测试释放时与前后相邻的空闲块合并")
+    void testReleaseCoalesces() {
+        FreeBlockIndex index = new FreeBlockIndex();
+        index.insert(0, 10);
+        index.insert(20, 10);
+        assertEquals(0, index.release(10, 10), "中间块释放后应与前后两块合并");
+        assertEquals(1, index.getCount());
+        assertEquals(30, index.sizeAt(0));
+        assertEquals(30, index.getLargestSize());
+        assertEquals(-1, index.remove(5), "不存在的起始地址应返回-1");
+    }
+
+    @Test
+    @DisplayName("测试随机操作下各种适应算法与线性扫描结果一致")
+    void testMatchesLinearScan() {
+        FreeBlockIndex index = new FreeBlockIndex();
+        TreeMap<Long, Long> expected = new TreeMap<>();
+        Random random = new Random(42);
+        // 初始为交替的空闲块，之后随机地分配和释放
+        for (long start = 0; start < 20000; start += 200) {
+            long size = 1 + random.nextInt(100);
+            index.insert(start, size);
+            expected.put(start, size);
+        }
+
+        for (int round = 0; round < 2000; round++) {
+            long request = 1 + random.nextInt(120);
+            long address = random.nextInt(20000);
+            assertEquals(linearFirstFit(expected, 0, request), index.findFirstFit(request));
+            assertEquals(linearFirstFit(expected, address, request), index.findFirstFitFrom(address, request));
+            assertEquals(linearBestFit(expected, request), index.findBestFit(request));
+
+            long start = index.findFirstFit(request);
+            if (start >= 0 && random.nextBoolean()) {
+                long size = index.remove(start);
+                expected.remove(start);
+                if (size > request) {
+                    index.insert(start + request, size - request);
+                    expected.put(start + request, size - request);
+                }
+            } else if (!expected.isEmpty()) {
+                // 释放紧跟在某个空闲块之后的一小段空间（不与下一个空闲块重叠）
+                long key = expected.floorKey(address) == null ? expected.firstKey() : expected.floorKey(address);
+                long end = key + expected.get(key);
+                Long next = expected.higherKey(key);
+                long gap = (next == null ? 30000 : next) - end;
+                if (gap > 0) {
+                    long size = 1 + random.nextInt((int) gap);
+                    index.release(end, size);
+                    linearRelease(expected, end, size);
+                }
+            }
+        }
+
+        List<FreePartition> partitions = index.toPartitions();
+        assertEquals(expected.size(), partitions.size());
+        for (FreePartition partition : partitions) {
+            assertEquals(expected.get(partition.getStartAddress()), Long.valueOf(partition.getSize()));
+        }
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), index.getTotalSize());
+    }
+
+    private static long linearFirstFit(TreeMap<Long, Long> blocks, long address, long size) {
+        for (var entry : blocks.tailMap(address, true).entrySet()) {
+            if (entry.getValue() >= size) {
+                return entry.getKey();
+            }
+        }
+        return -1;
+    }
+
+    private static long linearBestFit(TreeMap<Long, Long> blocks, long size) {
+        long best = -1;
+        for (var entry : blocks.entrySet()) {
+            if (entry.getValue() >= size && (best < 0 || entry.getValue() < blocks.get(best))) {
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+
+    private static void linearRelease(TreeMap<Long, Long> blocks, long start, long size) {
+        Long before = blocks.floorKey(start);
+        if (before != null && before + blocks.get(before) == start) {
+            size += blocks.remove(before);
+            start = before;
+        }
+        Long after = blocks.get(start + size);
+        if (after != null) {
+            blocks.remove(start + size);
+            size += after;
+        }
+        blocks.put(start, size);
+    }
+}
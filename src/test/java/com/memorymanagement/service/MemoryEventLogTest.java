@@ -0,0 +1,138 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内存事件日志测试类
+ * 随机分配、释放和紧凑后，用日志重建每次操作之后的分区表，与当时内存管理器的分区表对比
+ */
+public class MemoryEventLogTest {
+
+    @Test
+    @DisplayName("测试可变分区的事件日志能重建任意时刻的分区表")
+    void testDynamicReplay() throws IOException {
+        DynamicPartitionManager manager = new DynamicPartitionManager(1024 * 1024, 4096, PlacementPolicy.BEST_FIT);
+        manager.setAutoCompact(true);
+        MemoryEventLog log = new MemoryEventLog(64);
+        manager.setEventLog(log);
+
+        List<Long> eventIndexes = new ArrayList<>();
+        List<String> layouts = new ArrayList<>();
+        eventIndexes.add(0L);
+        layouts.add(describe(manager.getMemoryStatus()));
+        List<String> jobs = new ArrayList<>();
+        Random random = new Random(47);
+        for (int i = 0; i < 2000; i++) {
+            if (jobs.isEmpty() || random.nextInt(100) < 55) {
+                String job = "J" + i;
+                if (manager.allocateMemory(job, 1 + random.nextInt(20000))) {
+                    jobs.add(job);
+                }
+            } else {
+                assertTrue(manager.releaseMemory(jobs.remove(random.nextInt(jobs.size()))));
+            }
+            if (i % 500 == 499) {
+                manager.compact();
+            }
+            eventIndexes.add(log.getEventCount());
+            layouts.add(describe(manager.getMemoryStatus()));
+        }
+        assertTrue(manager.getCompactionCount() > 4, "应包含自动紧凑和手动紧凑");
+        assertTrue(log.getCheckpointCount() > 10);
+
+        for (int i = 0; i < layouts.size(); i++) {
+            assertEquals(layouts.get(i), describe(log.getMemoryMapAt(eventIndexes.get(i))), "第" + i + "次操作之后");
+        }
+
+        // 写出后重新读取，重建结果不变
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        MemoryEventLog copy = MemoryEventLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(log.getEventCount(), copy.getEventCount());
+        for (int i = 0; i < layouts.size(); i += 97) {
+            assertEquals(layouts.get(i), describe(copy.getMemoryMapAt(eventIndexes.get(i))));
+        }
+        assertEquals(layouts.get(layouts.size() - 1), describe(copy.getMemoryMapAt(copy.getEventCount())));
+    }
+
+    @Test
+    @DisplayName("测试事件的内容和编码大小")
+    void testEvents() {
+        DynamicPartitionManager manager = new DynamicPartitionManager();
+        MemoryEventLog log = new MemoryEventLog();
+        manager.setEventLog(log);
+        assertThrows(IllegalArgumentException.class, () -> new DynamicPartitionManager().setEventLog(log),
+                "同一个日志不能记录两个管理器");
+
+        manager.allocateMemory("A", 1024);
+        manager.allocateMemory("B", 2048);
+        manager.releaseMemory("A");
+        manager.releaseMemory("B");
+        List<MemoryEvent> events = log.getEvents(0, log.getEventCount());
+        List<MemoryEvent.Type> types = new ArrayList<>();
+        for (MemoryEvent event : events) {
+            types.add(event.getType());
+        }
+        // 释放B时与前面的A和后面的剩余空间各合并一次
+        assertEquals(List.of(MemoryEvent.Type.SPLIT, MemoryEvent.Type.ALLOCATE, MemoryEvent.Type.SPLIT,
+                MemoryEvent.Type.ALLOCATE, MemoryEvent.Type.RELEASE, MemoryEvent.Type.RELEASE,
+                MemoryEvent.Type.MERGE, MemoryEvent.Type.MERGE), types);
+        assertEquals(5120, events.get(3).getStart());
+        assertEquals("B", events.get(3).getJobName());
+        assertEquals(4096, events.get(6).getStart());
+        assertTrue(log.getSizeInBytes() < 40, "8条事件应只占几十个字节");
+        assertEquals(1, log.getMemoryMapAt(log.getEventCount()).size());
+        assertEquals(3, log.getMemoryMapAt(4).size());
+        assertThrows(IllegalArgumentException.class, () -> log.getMemoryMapAt(log.getEventCount() + 1));
+    }
+
+    @Test
+    @DisplayName("测试固定分区的事件日志")
+    void testFixedReplay() {
+        FixedPartitionManager manager = new FixedPartitionManager(16 * 1024, 4096, "2x1K,2x4K", PlacementPolicy.BEST_FIT);
+        MemoryEventLog log = new MemoryEventLog(2);
+        manager.setEventLog(log);
+        String initial = describe(manager.getMemoryStatus());
+        manager.allocateMemory("A", 3000);
+        manager.allocateMemory("B", 500);
+        String afterAllocate = describe(manager.getMemoryStatus());
+        assertTrue(manager.allocateOrWait("C", 4000));
+        assertTrue(manager.allocateOrWait("D", 4000));
+        assertTrue(manager.isWaiting("D"));
+        manager.releaseMemory("A");
+        assertFalse(manager.isWaiting("D"), "等待的作业应分配到释放的分区");
+
+        assertEquals(5, log.getEventCount());
+        assertEquals(initial, describe(log.getMemoryMapAt(0)));
+        assertEquals(afterAllocate, describe(log.getMemoryMapAt(2)));
+        assertEquals(describe(manager.getMemoryStatus()), describe(log.getMemoryMapAt(5)));
+        AllocatedPartition partition = (AllocatedPartition) log.getMemoryMapAt(5).get(2);
+        assertEquals("D", partition.getJobName());
+        assertEquals(4000, partition.getRequestedSize());
+    }
+
+    private static String describe(List<Partition> partitions) {
+        StringBuilder builder = new StringBuilder();
+        for (Partition partition : partitions) {
+            builder.append(partition.getStartAddress()).append('+').append(partition.getSize());
+            if (partition instanceof AllocatedPartition) {
+                AllocatedPartition allocated = (AllocatedPartition) partition;
+                builder.append(':').append(allocated.getJobName()).append('/').append(allocated.getRequestedSize());
+            }
+            builder.append(' ');
+        }
+        return builder.toString();
+    }
+}
@@ -4,9 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import com.memorymanagement.model.MemoryStatistics;
 import com.memorymanagement.model.Partition;
 import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.AllocationRequest;
 
 /**
  * 内存管理测试类
@@ -147,4 +151,378 @@ public class MemoryManagerTest {
         assertTrue(dynamicManager.allocateMemory("Job4", 18 * 1024), 
                 "应该能够分配18K内存");
     }
-} 
\ No newline at end of file
+
+    /**
+     * 在可变分区中制造两个空洞：4K处的10K空洞和15K处的5K空洞，尾部还剩107K
+     * 然后申请4K，返回该作业的起始地址
+     */
+    private long allocateIntoHoles(DynamicPartitionManager manager) {
+        assertTrue(manager.allocateMemory("Job1", 10 * 1024));
+        assertTrue(manager.allocateMemory("Job2", 1024));
+        assertTrue(manager.allocateMemory("Job3", 5 * 1024));
+        assertTrue(manager.allocateMemory("Job4", 1024));
+        assertTrue(manager.releaseMemory("Job1"));
+        assertTrue(manager.releaseMemory("Job3"));
+        assertTrue(manager.allocateMemory("Job5", 4 * 1024));
+        return manager.getMemoryStatus().stream()
+                .filter(p -> p instanceof AllocatedPartition && ((AllocatedPartition) p).getJobName().equals("Job5"))
+                .findFirst().orElseThrow().getStartAddress();
+    }
+
+    @Test
+    @DisplayName("测试可变分区的各种放置策略")
+    void testDynamicPlacementPolicies() {
+        assertEquals(OS_MEMORY, allocateIntoHoles(new DynamicPartitionManager(PlacementPolicy.FIRST_FIT)),
+                "首次适应应选择地址最低的10K空洞");
+        assertEquals(15 * 1024, allocateIntoHoles(new DynamicPartitionManager(PlacementPolicy.BEST_FIT)),
+                "最佳适应应选择最小的5K空洞");
+        assertEquals(21 * 1024, allocateIntoHoles(new DynamicPartitionManager(PlacementPolicy.WORST_FIT)),
+                "最坏适应应选择尾部最大的空闲分区");
+        DynamicPartitionManager nextFit = new DynamicPartitionManager(PlacementPolicy.NEXT_FIT);
+        assertEquals(21 * 1024, allocateIntoHoles(nextFit), "循环首次适应应从上次分配结束处继续查找");
+
+        assertEquals(3, nextFit.getFreePartitionCount());
+        assertTrue(nextFit.getExternalFragmentation() > 0, "存在多个空闲分区时应有外部碎片");
+        assertFalse(nextFit.allocateMemory("Huge", 200 * 1024));
+        assertEquals(5, nextFit.getAllocationCount());
+        assertEquals(1, nextFit.getFailedAllocationCount());
+        assertTrue(nextFit.getAverageAllocationNanos() > 0);
+    }
+
+    /**
+     * 填满可变分区后释放A和C，留下两个不相邻的30K空洞：
+     * A(30K) B(2K) C(30K) D(2K) E(60K)
+     */
+    private void fragmentInto30KHoles() {
+        assertTrue(dynamicManager.allocateMemory("A", 30 * 1024));
+        assertTrue(dynamicManager.allocateMemory("B", 2 * 1024));
+        assertTrue(dynamicManager.allocateMemory("C", 30 * 1024));
+        assertTrue(dynamicManager.allocateMemory("D", 2 * 1024));
+        assertTrue(dynamicManager.allocateMemory("E", 60 * 1024));
+        assertTrue(dynamicManager.releaseMemory("A"));
+        assertTrue(dynamicManager.releaseMemory("C"));
+    }
+
+    @Test
+    @DisplayName("测试分配失败时自动进行部分紧凑")
+    void testDynamicPartialCompaction() {
+        fragmentInto30KHoles();
+        assertFalse(dynamicManager.allocateMemory("F", 40 * 1024), "未开启紧凑时没有40K的连续空间");
+
+        dynamicManager.setAutoCompact(true);
+        assertTrue(dynamicManager.allocateMemory("F", 40 * 1024), "紧凑后应能分配40K");
+        assertEquals(2 * 1024, dynamicManager.getBytesMoved(), "部分紧凑只需移动B，而完全紧凑要移动64K");
+        assertEquals(1, dynamicManager.getCompactionCount());
+        assertEquals(OS_MEMORY, dynamicManager.getAllocatedPartition("B").getStartAddress());
+        assertEquals(OS_MEMORY + 2 * 1024, dynamicManager.getAllocatedPartition("F").getStartAddress());
+    }
+
+    @Test
+    @DisplayName("测试完全紧凑")
+    void testDynamicFullCompaction() {
+        fragmentInto30KHoles();
+        assertEquals(64 * 1024, dynamicManager.compact(), "B、D、E都应被移动");
+        List<Partition> partitions = dynamicManager.getMemoryStatus();
+        assertEquals(4, partitions.size());
+        Partition last = partitions.get(partitions.size() - 1);
+        assertFalse(last instanceof AllocatedPartition);
+        assertEquals(60 * 1024, last.getSize(), "空闲空间应合并为末尾的一个分区");
+        assertEquals(0.0, dynamicManager.getExternalFragmentation(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("测试作业名称重复时分配失败以及批量释放")
+    void testDuplicateJobNameAndBatchRelease() {
+        assertTrue(fixedManager.allocateMemory("Job1", 1024));
+        assertFalse(fixedManager.allocateMemory("Job1", 1024), "固定分区中作业名称不能重复");
+        assertTrue(dynamicManager.allocateMemory("Job1", 1024));
+        assertFalse(dynamicManager.allocateMemory("Job1", 1024), "可变分区中作业名称不能重复");
+
+        assertTrue(dynamicManager.allocateMemory("Job2", 2048));
+        assertTrue(dynamicManager.allocateMemory("Job3", 4096));
+        assertArrayEquals(new boolean[]{true, true, false}, dynamicManager.releaseAll(List.of("Job1", "Job3", "Missing")),
+                "批量释放应跳过不存在的作业");
+        assertNull(dynamicManager.getAllocatedPartition("Job1"));
+        assertEquals(OS_MEMORY + 1024, dynamicManager.getAllocatedPartition("Job2").getStartAddress());
+    }
+
+    @Test
+    @DisplayName("测试自定义内存大小和固定分区布局")
+    void testConfigurableLayout() {
+        assertArrayEquals(new long[]{1024, 1024, 2048, 4096, 4096, 8192, 16384, 90112},
+                FixedPartitionManager.parseLayout(FixedPartitionManager.DEFAULT_LAYOUT));
+        assertThrows(IllegalArgumentException.class, () -> FixedPartitionManager.parseLayout("2x,4K"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FixedPartitionManager(8 * 1024, 4 * 1024, "2x4K"), "分区总大小超过用户区域时应抛出异常");
+
+        // 8G内存、1M操作系统区域，划分100000个4K分区和一个1G分区，地址超出int范围
+        long gigabyte = 1L << 30;
+        FixedPartitionManager fixed = new FixedPartitionManager(8 * gigabyte, 1L << 20, "100000x4K,1G");
+        assertEquals(100001, fixed.getMemoryStatus().size());
+        assertTrue(fixed.allocateMemory("Big", gigabyte));
+        assertEquals((1L << 20) + 100000L * 4096, fixed.getAllocatedPartition("Big").getStartAddress());
+        assertTrue(fixed.allocateMemory("Small", 1000));
+        assertEquals(1L << 20, fixed.getAllocatedPartition("Small").getStartAddress(), "首次适应应选择地址最低的分区");
+
+        DynamicPartitionManager dynamic = new DynamicPartitionManager(8 * gigabyte, 1L << 20, PlacementPolicy.FIRST_FIT);
+        assertTrue(dynamic.allocateMemory("A", 3 * gigabyte));
+        assertTrue(dynamic.allocateMemory("B", 3 * gigabyte));
+        assertEquals((1L << 20) + 3 * gigabyte, dynamic.getAllocatedPartition("B").getStartAddress());
+        assertFalse(dynamic.allocateMemory("C", 2 * gigabyte), "剩余空间不足2G时应分配失败");
+        assertTrue(dynamic.releaseMemory("A"));
+        assertEquals(2, dynamic.getFreePartitionCount());
+    }
+
+    @Test
+    @DisplayName("测试固定分区最佳适应和等待队列")
+    void testFixedBestFitAndWaitingQueue() {
+        // 首次适应：释放后的小作业仍会占用低地址的大分区
+        assertTrue(fixedManager.allocateMemory("Big", 20 * 1024));
+        assertTrue(fixedManager.allocateMemory("Small", 1000));
+        assertEquals(OS_MEMORY, fixedManager.getAllocatedPartition("Small").getStartAddress());
+
+        FixedPartitionManager bestFit = new FixedPartitionManager(PlacementPolicy.BEST_FIT);
+        assertTrue(bestFit.allocateMemory("A", 3 * 1024));
+        assertEquals(4 * 1024, bestFit.getAllocatedPartition("A").getSize(), "3K应分配到最小的4K分区");
+        assertTrue(bestFit.allocateMemory("B", 3 * 1024));
+        assertTrue(bestFit.allocateMemory("C", 3 * 1024));
+        assertEquals(8 * 1024, bestFit.getAllocatedPartition("C").getSize(), "4K分区用完后应分配8K分区");
+        assertEquals(Long.valueOf(5 * 1024), bestFit.getInternalFragmentationBySizeClass().get(8L * 1024),
+                "8K大小类的内部碎片应为5K");
+        assertEquals(Long.valueOf(2 * 1024), bestFit.getInternalFragmentationBySizeClass().get(4L * 1024));
+
+        // 16K和88K分区被占用后，大作业进入等待队列，合适的分区释放时按到达顺序分配
+        assertTrue(bestFit.allocateMemory("D", 16 * 1024));
+        assertTrue(bestFit.allocateMemory("E", 80 * 1024));
+        assertTrue(bestFit.allocateOrWait("W1", 50 * 1024));
+        assertTrue(bestFit.allocateOrWait("W2", 10 * 1024));
+        assertTrue(bestFit.isWaiting("W1"));
+        assertFalse(bestFit.allocateOrWait("W1", 1024), "等待中的作业名称不能重复");
+        assertFalse(bestFit.allocateOrWait("Huge", 100 * 1024), "超过最大分区的作业不应进入等待队列");
+        assertEquals(List.of("W1", "W2"), bestFit.getWaitingJobs());
+
+        assertTrue(bestFit.releaseMemory("D"));
+        assertEquals(16 * 1024, bestFit.getAllocatedPartition("W2").getSize(), "释放16K分区后W2应完成分配");
+        assertTrue(bestFit.releaseMemory("E"));
+        assertNotNull(bestFit.getAllocatedPartition("W1"));
+        assertTrue(bestFit.getWaitingJobs().isEmpty());
+        assertEquals(2, bestFit.getServedFromQueueCount());
+
+        assertTrue(bestFit.allocateOrWait("W3", 60 * 1024));
+        assertTrue(bestFit.cancelWaiting("W3"));
+        assertFalse(bestFit.isWaiting("W3"));
+        MemoryStatistics statistics = bestFit.getStatistics();
+        assertEquals(statistics.getUsedBytes() - statistics.getRequestedBytes(),
+                bestFit.getInternalFragmentationBySizeClass().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(bestFit.getAverageInternalFragmentation() > 0);
+    }
+
+    @Test
+    @DisplayName("测试增量维护的统计信息与分区快照一致")
+    void testStatisticsMatchSnapshot() {
+        assertTrue(fixedManager.allocateMemory("Job1", 3000));
+        MemoryStatistics fixedStats = fixedManager.getStatistics();
+        assertEquals(4096, fixedStats.getUsedBytes(), "3000字节应占用一个4K分区");
+        assertEquals(1096, fixedStats.getInternalFragmentationBytes());
+        assertEquals(90112, fixedStats.getLargestFreeBlock());
+        assertEquals(7, fixedStats.getFreeBlockCount());
+
+        Random random = new Random(11);
+        List<MemoryManager> managers = List.of(new FixedPartitionManager(), new FixedPartitionManager(PlacementPolicy.BEST_FIT),
+                new DynamicPartitionManager(),
+                new DynamicPartitionManager(PlacementPolicy.BEST_FIT), new BuddyMemoryManager(), new BitmapMemoryManager(),
+                new TlsfMemoryManager());
+        for (MemoryManager manager : managers) {
+            for (int i = 0; i < 500; i++) {
+                String jobName = "J" + random.nextInt(20);
+                if (manager.getAllocatedPartition(jobName) == null) {
+                    manager.allocateMemory(jobName, 1 + random.nextInt(16 * 1024));
+                } else {
+                    assertTrue(manager.releaseMemory(jobName));
+                }
+                MemoryStatistics expected = scanStatistics(manager);
+                MemoryStatistics actual = manager.getStatistics();
+                assertEquals(expected.getFreeBytes(), actual.getFreeBytes());
+                assertEquals(expected.getUsedBytes(), actual.getUsedBytes());
+                assertEquals(expected.getRequestedBytes(), actual.getRequestedBytes());
+                assertEquals(expected.getLargestFreeBlock(), actual.getLargestFreeBlock());
+                assertEquals(expected.getFreeBlockCount(), actual.getFreeBlockCount());
+                assertEquals(expected.getAllocatedCount(), actual.getAllocatedCount());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试按地址范围查询和分区变化通知")
+    void testRangeQueryAndPartitionListener() {
+        DynamicPartitionManager compacting = new DynamicPartitionManager();
+        compacting.setAutoCompact(true);
+        List<MemoryManager> managers = List.of(new FixedPartitionManager(), new DynamicPartitionManager(), compacting);
+        Random random = new Random(23);
+        for (MemoryManager manager : managers) {
+            // 像GUI表格一样只替换通知范围内的分区，结果应始终与完整的分区列表一致
+            List<Partition> mirror = new ArrayList<>(manager.getMemoryStatus());
+            assertTrue(manager.addPartitionListener((from, to) -> {
+                mirror.removeIf(p -> p.getStartAddress() >= from && p.getStartAddress() < to);
+                int row = 0;
+                while (row < mirror.size() && mirror.get(row).getStartAddress() < from) {
+                    row++;
+                }
+                mirror.addAll(row, manager.getPartitions(from, to));
+            }));
+            for (int i = 0; i < 500; i++) {
+                String jobName = "J" + random.nextInt(20);
+                if (manager.getAllocatedPartition(jobName) == null) {
+                    manager.allocateMemory(jobName, 1 + random.nextInt(24 * 1024));
+                } else {
+                    assertTrue(manager.releaseMemory(jobName));
+                }
+                assertEquals(manager.getMemoryStatus(), mirror);
+            }
+
+            // 范围查询返回与[from, to)有重叠的分区
+            List<Partition> all = manager.getMemoryStatus();
+            for (int i = 1; i < all.size(); i++) {
+                assertEquals(all.get(i - 1).getStartAddress() + all.get(i - 1).getSize(), all.get(i).getStartAddress(),
+                        "分区应按地址排序且首尾相接");
+            }
+            Partition middle = all.get(all.size() / 2);
+            List<Partition> range = manager.getPartitions(middle.getStartAddress() + 1, middle.getStartAddress() + middle.getSize() + 1);
+            assertEquals(middle, range.get(0));
+            assertTrue(range.size() <= 2);
+            assertTrue(manager.getPartitions(OS_MEMORY, OS_MEMORY).isEmpty());
+            assertEquals(all, manager.getPartitions(0, TOTAL_MEMORY));
+        }
+        assertFalse(new BuddyMemoryManager().addPartitionListener((from, to) -> { }), "伙伴系统不支持分区变化通知");
+    }
+
+    @Test
+    @DisplayName("测试批量分配和批量释放")
+    void testBatchAllocateAndRelease() {
+        Random random = new Random(49);
+        List<AllocationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(new AllocationRequest("J" + i, 1 + random.nextInt(600)));
+        }
+        List<String> releasing = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (random.nextInt(3) > 0) {
+                releasing.add("J" + i);
+            }
+        }
+        releasing.add("Missing");
+
+        // 批量操作的结果与逐个操作一致，且整批只通知一次分区变化
+        DynamicPartitionManager batch = new DynamicPartitionManager();
+        MemoryEventLog log = new MemoryEventLog(16);
+        batch.setEventLog(log);
+        List<Partition> mirror = new ArrayList<>(batch.getMemoryStatus());
+        int[] notifications = new int[1];
+        batch.addPartitionListener((from, to) -> {
+            notifications[0]++;
+            mirror.removeIf(p -> p.getStartAddress() >= from && p.getStartAddress() < to);
+            int row = 0;
+            while (row < mirror.size() && mirror.get(row).getStartAddress() < from) {
+                row++;
+            }
+            mirror.addAll(row, batch.getPartitions(from, to));
+        });
+        boolean[] allocated = batch.allocateAll(requests);
+        for (AllocationRequest request : requests) {
+            dynamicManager.allocateMemory(request.getJobName(), request.getSize());
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(dynamicManager.getAllocatedPartition("J" + i) != null, allocated[i]);
+        }
+        assertEquals(1, notifications[0]);
+        boolean[] released = batch.releaseAll(releasing);
+        for (String jobName : releasing) {
+            dynamicManager.releaseMemory(jobName);
+        }
+        assertEquals(2, notifications[0]);
+        assertFalse(released[released.length - 1], "不存在的作业应释放失败");
+        assertEquals(describe(dynamicManager.getMemoryStatus()), describe(batch.getMemoryStatus()),
+                "一次扫描合并的结果应与逐个释放相同");
+        assertEquals(batch.getMemoryStatus(), mirror);
+        assertEquals(describe(batch.getMemoryStatus()), describe(log.getMemoryMapAt(log.getEventCount())),
+                "事件日志应能重放批量释放");
+        assertEquals(scanStatistics(batch).toString(), batch.getStatistics().toString());
+
+        // 全部成功或全部失败：有一个请求失败时整批都不分配
+        String before = describe(batch.getMemoryStatus());
+        List<AllocationRequest> tooLarge = List.of(new AllocationRequest("A", 1024),
+                new AllocationRequest("B", TOTAL_MEMORY));
+        assertArrayEquals(new boolean[]{false, false}, batch.allocateAll(tooLarge, true));
+        List<AllocationRequest> duplicate = List.of(new AllocationRequest("A", 1024),
+                new AllocationRequest("A", 1024));
+        assertArrayEquals(new boolean[]{false, false}, batch.allocateAll(duplicate, true));
+        assertNull(batch.getAllocatedPartition("A"));
+        assertEquals(before, describe(batch.getMemoryStatus()), "撤销后分区表应恢复原状");
+        assertArrayEquals(new boolean[]{true, false}, batch.allocateAll(duplicate, false));
+
+        // 全部成功或全部失败时不自动紧凑，撤销后其他作业的位置和分配统计都不变
+        DynamicPartitionManager compacting = new DynamicPartitionManager(TOTAL_MEMORY, OS_MEMORY, PlacementPolicy.NEXT_FIT);
+        compacting.setAutoCompact(true);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(compacting.allocateMemory("J" + i, 12 * 1024));
+        }
+        compacting.releaseAll(List.of("J1", "J3", "J5"));
+        before = describe(compacting.getMemoryStatus());
+        long allocationCount = compacting.getAllocationCount();
+        List<AllocationRequest> needsCompaction = List.of(new AllocationRequest("A", 10 * 1024),
+                new AllocationRequest("B", 20 * 1024));
+        assertArrayEquals(new boolean[]{false, false}, compacting.allocateAll(needsCompaction, true));
+        assertEquals(before, describe(compacting.getMemoryStatus()));
+        assertEquals(0, compacting.getCompactionCount());
+        assertEquals(allocationCount, compacting.getAllocationCount());
+        assertEquals(0, compacting.getFailedAllocationCount());
+        assertTrue(compacting.isAutoCompact());
+        assertArrayEquals(new boolean[]{true, true}, compacting.allocateAll(needsCompaction, false),
+                "非原子的批量分配仍可自动紧凑");
+        assertEquals(1, compacting.getCompactionCount());
+
+        // 固定分区撤销时释放的分区不分配给等待的作业
+        assertTrue(fixedManager.allocateOrWait("Big", 88 * 1024));
+        assertTrue(fixedManager.allocateOrWait("Waiting", 80 * 1024));
+        assertArrayEquals(new boolean[]{false, false, false}, fixedManager.allocateAll(List.of(
+                new AllocationRequest("X", 1024), new AllocationRequest("Y", 16 * 1024),
+                new AllocationRequest("Z", 20 * 1024)), true));
+        assertTrue(fixedManager.isWaiting("Waiting"));
+        assertArrayEquals(new boolean[]{true, false}, fixedManager.releaseAll(List.of("Big", "Missing")));
+        assertFalse(fixedManager.isWaiting("Waiting"), "批量释放后应为等待的作业分配");
+    }
+
+    private static String describe(List<Partition> partitions) {
+        StringBuilder builder = new StringBuilder();
+        for (Partition partition : partitions) {
+            builder.append(partition.getStartAddress()).append('+').append(partition.getSize())
+                    .append(partition instanceof AllocatedPartition ? ((AllocatedPartition) partition).getJobName() : "")
+                    .append(' ');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 遍历分区快照计算统计信息，作为增量维护结果的对照
+     */
+    private static MemoryStatistics scanStatistics(MemoryManager manager) {
+        long free = 0;
+        long used = 0;
+        long requested = 0;
+        long largest = 0;
+        int freeCount = 0;
+        int allocatedCount = 0;
+        for (Partition partition : manager.getMemoryStatus()) {
+            if (partition instanceof AllocatedPartition) {
+                used += partition.getSize();
+                requested += ((AllocatedPartition) partition).getRequestedSize();
+                allocatedCount++;
+            } else {
+                free += partition.getSize();
+                largest = Math.max(largest, partition.getSize());
+                freeCount++;
+            }
+        }
+        return new MemoryStatistics(free, used, requested, largest, freeCount, allocatedCount);
+    }
+}
@@ -0,0 +1,100 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.AllocatedPartition;
+import com.memorymanagement.model.MemoryStatistics;
+import com.memorymanagement.model.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NUMA多节点内存管理器测试类
+ */
+public class NumaMemoryManagerTest {
+
+    @Test
+    @DisplayName("测试本地优先分配和按距离回退")
+    void testLocalFirst() {
+        NumaMemoryManager manager = new NumaMemoryManager();
+        manager.setCurrentNode(2);
+        manager.setDistance(2, 3, 12);
+
+        assertTrue(manager.allocateMemory("A", 16 * 1024));
+        assertEquals(2, manager.getNodeOf("A"));
+        assertEquals(64 * 1024, manager.getAllocatedPartition("A").getStartAddress(), "应使用全局地址");
+
+        // 节点2放不下时回退到距离最近的节点3
+        assertTrue(manager.allocateMemory("B", 20 * 1024));
+        assertEquals(3, manager.getNodeOf("B"));
+        assertEquals(96 * 1024, manager.getAllocatedPartition("B").getStartAddress());
+        assertEquals(1, manager.getLocalAllocationCount());
+        assertEquals(1, manager.getRemoteAllocationCount());
+
+        assertEquals(100, manager.accessMemory("A"));
+        assertEquals(120, manager.accessMemory("B"), "远程访问代价与距离成正比");
+        assertEquals(110.0, manager.getAverageAccessNanos(), 1e-9);
+        assertEquals(1, manager.getRemoteAccessCount());
+        assertEquals(-1, manager.accessMemory("C"));
+
+        assertEquals(0.5, manager.getNodeUtilization(2), 1e-9);
+        assertEquals(0.625, manager.getNodeUtilization(3), 1e-9);
+        assertTrue(manager.releaseMemory("A"));
+        assertFalse(manager.releaseMemory("A"));
+        assertEquals(0.0, manager.getNodeUtilization(2), 1e-9);
+        assertFalse(manager.allocateMemory("Huge", 33 * 1024), "空闲分区不跨节点合并");
+    }
+
+    @Test
+    @DisplayName("测试交错分配和首选节点")
+    void testInterleaveAndPreferred() {
+        NumaMemoryManager interleave = new NumaMemoryManager(NumaPolicy.INTERLEAVE);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(interleave.allocateMemory("J" + i, 1024));
+            assertEquals(i % 4, interleave.getNodeOf("J" + i));
+        }
+        for (int node = 0; node < 4; node++) {
+            assertEquals(2, interleave.getNodeStatistics(node).getAllocatedCount());
+        }
+
+        NumaMemoryManager preferred = new NumaMemoryManager(NumaPolicy.PREFERRED);
+        preferred.setPreferredNode(1);
+        assertTrue(preferred.allocateMemory("A", 30 * 1024, 0));
+        assertEquals(1, preferred.getNodeOf("A"));
+        assertEquals(1, preferred.getRemoteAllocationCount());
+        assertTrue(preferred.allocateMemory("B", 4 * 1024, 1));
+        assertEquals(0, preferred.getNodeOf("B"), "首选节点放不下时回退");
+        assertThrows(IllegalArgumentException.class, () -> preferred.allocateMemory("C", 1024, 4));
+    }
+
+    @Test
+    @DisplayName("测试按配置划分节点并汇总分区和统计信息")
+    void testConfiguredNodes() {
+        long gigabyte = 1L << 30;
+        NumaMemoryManager manager = new NumaMemoryManager("2x4G,8G", 1L << 20, NumaPolicy.LOCAL_FIRST);
+        assertEquals(3, manager.getNodeCount());
+        assertEquals(8 * gigabyte, manager.getNodeBase(2));
+        manager.setCurrentNode(2);
+        assertTrue(manager.allocateMemory("Big", 6 * gigabyte));
+        assertEquals(8 * gigabyte, manager.getAllocatedPartition("Big").getStartAddress());
+
+        List<Partition> partitions = manager.getMemoryStatus();
+        long expectedStart = 1L << 20;
+        for (Partition partition : partitions) {
+            assertEquals(expectedStart, partition.getStartAddress(), "各节点的分区应依次相连");
+            expectedStart += partition.getSize();
+        }
+        assertEquals(16 * gigabyte, expectedStart);
+        List<Partition> around = manager.getPartitions(8 * gigabyte - 1, 8 * gigabyte + 1);
+        assertEquals(2, around.size(), "跨节点边界的查询应返回两侧的分区");
+        assertEquals("Big", ((AllocatedPartition) around.get(1)).getJobName());
+
+        MemoryStatistics statistics = manager.getStatistics();
+        assertEquals(6 * gigabyte, statistics.getUsedBytes());
+        assertEquals(16 * gigabyte - (1L << 20) - 6 * gigabyte, statistics.getFreeBytes());
+        assertEquals(4 * gigabyte, statistics.getLargestFreeBlock());
+        assertEquals(3, statistics.getFreeBlockCount());
+    }
+}
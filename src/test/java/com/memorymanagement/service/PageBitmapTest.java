@@ -0,0 +1,117 @@
+package com.memorymanagement.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 页位图和位图内存管理器测试类
+ * 将位图的空闲段查找结果与逐页扫描的朴素实现进行对比
+ */
+public class PageBitmapTest {
+
+    @Test
+    @DisplayName("测试随机占用和释放后空闲段查找与逐页扫描一致")
+    void testMatchesLinearScan() {
+        // 页数不是64的整数倍，覆盖最后一个位图字的填充位
+        int pageCount = 64 * 64 * 3 + 37;
+        PageBitmap bitmap = new PageBitmap(pageCount);
+        boolean[] used = new boolean[pageCount];
+        Random random = new Random(5);
+        for (int round = 0; round < 3000; round++) {
+            int start = random.nextInt(pageCount);
+            int count = 1 + random.nextInt(random.nextBoolean() ? 8 : 600);
+            count = Math.min(count, pageCount - start);
+            boolean allSame = true;
+            for (int i = start; i < start + count; i++) {
+                allSame &= used[i] == used[start];
+            }
+            if (allSame) {
+                if (used[start]) {
+                    bitmap.markFree(start, count);
+                } else {
+                    bitmap.markUsed(start, count);
+                }
+                for (int i = start; i < start + count; i++) {
+                    used[i] = !used[i];
+                }
+            }
+            int request = 1 + random.nextInt(300);
+            int from = random.nextInt(pageCount);
+            assertEquals(linearFindRun(used, request, from), bitmap.findFreeRun(request, from));
+        }
+
+        List<long[]> runs = new ArrayList<>();
+        bitmap.forEachFreeRun(0, (start, length) -> runs.add(new long[]{start, length}));
+        List<long[]> expected = linearRuns(used);
+        assertEquals(expected.size(), runs.size());
+        long largest = 0;
+        long free = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            assertArrayEquals(expected.get(i), runs.get(i));
+            largest = Math.max(largest, expected.get(i)[1]);
+            free += expected.get(i)[1];
+        }
+        assertEquals(largest, bitmap.getLargestFreeRun());
+        assertEquals(free, bitmap.getFreeCount());
+    }
+
+    @Test
+    @DisplayName("测试位图内存管理器在8G内存上分配和合并")
+    void testLargeBitmapManager() {
+        long gigabyte = 1L << 30;
+        BitmapMemoryManager manager = new BitmapMemoryManager(8 * gigabyte, 1L << 20, 4096);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(manager.allocateMemory("J" + i, 4 * 1024 * 1024 + 1), "应能分配4M+1字节");
+        }
+        assertEquals((1L << 20) + 999L * (4 * 1024 * 1024 + 4096),
+                manager.getAllocatedPartition("J999").getStartAddress(), "申请大小应向上取整到页");
+        assertEquals(1000L * 4095, manager.getStatistics().getInternalFragmentationBytes());
+
+        // 释放偶数编号的作业后产生500个空洞，再释放奇数编号的作业后合并为一整块
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(manager.releaseMemory("J" + i));
+        }
+        assertEquals(501, manager.getStatistics().getFreeBlockCount());
+        assertFalse(manager.allocateMemory("Huge", 8 * gigabyte - (1L << 20)), "空闲空间不连续时应分配失败");
+        for (int i = 1; i < 1000; i += 2) {
+            assertTrue(manager.releaseMemory("J" + i));
+        }
+        assertEquals(1, manager.getStatistics().getFreeBlockCount());
+        assertEquals(1, manager.getMemoryStatus().size());
+        assertTrue(manager.allocateMemory("Huge", 8 * gigabyte - (1L << 20)));
+    }
+
+    private static long linearFindRun(boolean[] used, int count, int from) {
+        int run = 0;
+        for (int i = from; i < used.length; i++) {
+            run = used[i] ? 0 : run + 1;
+            if (run == count) {
+                return i - count + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static List<long[]> linearRuns(boolean[] used) {
+        List<long[]> runs = new ArrayList<>();
+        int i = 0;
+        while (i < used.length) {
+            if (used[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < used.length && !used[i]) {
+                i++;
+            }
+            runs.add(new long[]{start, i - start});
+        }
+        return runs;
+    }
+}
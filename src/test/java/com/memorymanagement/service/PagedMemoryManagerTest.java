@@ -0,0 +1,132 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.MemoryStatistics;
+import com.memorymanagement.model.Partition;
+import com.virtualmemorymanagement.algorithm.FIFOAlgorithm;
+import com.virtualmemorymanagement.algorithm.LRUAlgorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分页内存管理器测试类
+ * 测试纯分页的非连续分配以及请求分页与页面置换算法的结合
+ */
+public class PagedMemoryManagerTest {
+    private static final long OS_MEMORY = 4 * 1024;
+
+    @Test
+    @DisplayName("测试纯分页可以使用不连续的空闲帧")
+    void testNonContiguousAllocation() {
+        // 12个1K的用户帧
+        PagedMemoryManager manager = new PagedMemoryManager(16 * 1024, OS_MEMORY, 1024);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(manager.allocateMemory("J" + i, 2 * 1024));
+        }
+        for (int i = 0; i < 6; i += 2) {
+            assertTrue(manager.releaseMemory("J" + i));
+        }
+        // 空闲帧分散在三个2K的空洞中，分页方式仍能分配5K
+        assertTrue(manager.allocateMemory("Big", 5 * 1024 + 1));
+        assertEquals(6, manager.getResidentPages("Big"));
+        assertFalse(manager.allocateMemory("More", 1), "纯分页在没有空闲帧时应分配失败");
+
+        MemoryStatistics statistics = manager.getStatistics();
+        assertEquals(0, statistics.getFreeBytes());
+        assertEquals(1024 - 1, statistics.getInternalFragmentationBytes(), "只有最后一页有内部碎片");
+        List<Partition> partitions = manager.getMemoryStatus();
+        assertEquals(6, partitions.size(), "Big的三段和三个原有作业各为一个分区");
+        assertEquals(OS_MEMORY, partitions.get(0).getStartAddress());
+        assertEquals(13 * 1024, manager.translate("Big", 5 * 1024), "Big的第5页应装入第三个空洞的第二帧（第13帧）");
+        assertEquals(8 * 1024 + 100, manager.translate("Big", 2 * 1024 + 100));
+    }
+
+    @Test
+    @DisplayName("测试请求分页的缺页次数与独立运行的置换算法一致")
+    void testDemandPagingMatchesReplacementAlgorithm() {
+        // 4个用户帧，作业有8页，超过物理内存
+        PagedMemoryManager manager = new PagedMemoryManager(8 * 1024, OS_MEMORY, 1024, LRUAlgorithm::new);
+        assertTrue(manager.isDemandPaging());
+        assertTrue(manager.allocateMemory("Job", 8 * 1024));
+        assertEquals(4, manager.getResidentPages("Job"), "分配时只装入空闲帧能容纳的页");
+
+        int[] references = {0, 1, 4, 5, 0, 6, 1, 7, 2, 0, 3, 4};
+        LRUAlgorithm reference = new LRUAlgorithm(4);
+        for (int page = 0; page < 4; page++) {
+            reference.accessPage(page);
+        }
+        int expectedFaults = 0;
+        for (int page : references) {
+            boolean expected = reference.accessPage(page);
+            assertEquals(expected, manager.accessPage("Job", page), "第" + page + "页的缺页结果应与LRU算法一致");
+            expectedFaults += expected ? 1 : 0;
+        }
+        assertEquals(expectedFaults, manager.getPageFaultCount());
+        assertEquals(expectedFaults, manager.getEvictionCount(), "没有空闲帧时每次缺页都要换出一页");
+        assertEquals(references.length, manager.getAccessCount());
+        assertEquals(4, manager.getResidentPages("Job"));
+
+        double faultRate = (double) expectedFaults / references.length;
+        assertEquals(faultRate, manager.getPageFaultRate(), 1e-9);
+        assertEquals((1 - faultRate) * PagedMemoryManager.DEFAULT_MEMORY_ACCESS_NANOS
+                + faultRate * PagedMemoryManager.DEFAULT_PAGE_FAULT_NANOS, manager.getEffectiveAccessNanos(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("测试全局置换和作业释放后帧的回收")
+    void testGlobalReplacementAndRelease() {
+        PagedMemoryManager manager = new PagedMemoryManager(8 * 1024, OS_MEMORY, 1024, FIFOAlgorithm::new);
+        assertTrue(manager.allocateMemory("A", 3 * 1024));
+        assertTrue(manager.allocateMemory("B", 3 * 1024));
+        assertEquals(1, manager.getResidentPages("B"));
+
+        // B的第1页缺页时换出最早装入的A的第0页
+        assertTrue(manager.accessPage("B", 1));
+        assertFalse(manager.isResident("A", 0));
+        assertTrue(manager.isResident("B", 1));
+        assertEquals(OS_MEMORY, manager.translate("B", 1024), "B的第1页应装入A的第0页原来所在的帧");
+
+        // 释放A后空出的帧可以直接用于缺页，不再换出B的页
+        assertTrue(manager.releaseMemory("A"));
+        assertEquals(2 * 1024, manager.getStatistics().getFreeBytes());
+        assertTrue(manager.accessPage("B", 2));
+        assertEquals(1, manager.getEvictionCount());
+        assertEquals(3, manager.getResidentPages("B"));
+        assertThrows(IllegalArgumentException.class, () -> manager.accessPage("B", 3));
+        assertThrows(IllegalArgumentException.class, () -> manager.accessPage("A", 0));
+    }
+
+    @Test
+    @DisplayName("测试释放后的全局页号被重新使用")
+    void testPageNumbersReused() {
+        LRUAlgorithm[] algorithm = new LRUAlgorithm[1];
+        PagedMemoryManager manager = new PagedMemoryManager(16 * 1024, OS_MEMORY, 1024,
+                frames -> algorithm[0] = new LRUAlgorithm(frames));
+        assertTrue(manager.allocateMemory("A", 3 * 1024));
+        assertTrue(manager.allocateMemory("B", 2 * 1024));
+        assertTrue(manager.allocateMemory("C", 2 * 1024));
+        assertTrue(manager.releaseMemory("A"));
+        assertTrue(manager.releaseMemory("B"));
+
+        // A和B的页号段合并为0~4，D首次适应地使用其中的前两个页号
+        assertTrue(manager.allocateMemory("D", 2 * 1024));
+        assertEquals(Set.of(5, 6, 0, 1), Set.copyOf(algorithm[0].getCurrentPages()));
+        assertTrue(manager.allocateMemory("E", 4 * 1024));
+        assertEquals(Set.of(5, 6, 0, 1, 7, 8, 9, 10), Set.copyOf(algorithm[0].getCurrentPages()),
+                "放不下时应使用未用过的页号");
+        assertTrue(manager.allocateMemory("F", 3 * 1024));
+        assertTrue(algorithm[0].getCurrentPages().containsAll(List.of(2, 3, 4)));
+
+        // 反复分配和释放不会耗尽页号
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(manager.allocateMemory("T", 1L << 20));
+            assertTrue(manager.releaseMemory("T"));
+        }
+        assertTrue(manager.allocateMemory("G", 1024));
+        assertTrue(algorithm[0].getCurrentPages().contains(11), "末尾的页号段回收后应从原处继续分配");
+    }
+}
@@ -0,0 +1,130 @@
+package com.memorymanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Slab分配器测试类
+ * 底层使用可变分区管理器，slab大小4K，对象大小256字节，即每个slab容纳16个对象
+ */
+public class SlabAllocatorTest {
+    private DynamicPartitionManager dynamicManager;
+    private SlabAllocator.ObjectCache cache;
+
+    @BeforeEach
+    void setUp() {
+        dynamicManager = new DynamicPartitionManager();
+        cache = new SlabAllocator(dynamicManager, 4 * 1024, 4).createCache("node", 256);
+    }
+
+    @Test
+    @DisplayName("测试对象分配、slab链表和利用率")
+    void testAllocateAndReap() {
+        Set<Long> addresses = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            long address = cache.allocate();
+            assertTrue(address >= 0, "底层内存充足时应能分配对象");
+            assertTrue(addresses.add(address), "对象地址不应重复");
+        }
+        assertEquals(3, cache.getSlabCount(), "40个对象需要3个slab");
+        assertEquals(40.0 / 48, cache.getUtilization(), 1e-9);
+        assertArrayEquals(new int[]{2, 1, 0}, cache.getSlabListSizes(), "前两个slab应已满，第三个部分使用");
+
+        for (long address : addresses) {
+            cache.free(address);
+        }
+        cache.drainMagazine();
+        assertEquals(0, cache.getObjectsInUse());
+        assertArrayEquals(new int[]{0, 0, 3}, cache.getSlabListSizes(), "全部释放后所有slab都应为空");
+        assertEquals(3, cache.reap());
+        assertEquals(1, dynamicManager.getMemoryStatus().size(), "回收slab后底层应恢复为一个空闲分区");
+    }
+
+    @Test
+    @DisplayName("测试容量为1的弹匣")
+    void testSingleRoundMagazine() {
+        SlabAllocator.ObjectCache single = new SlabAllocator(new DynamicPartitionManager(), 4 * 1024, 1)
+                .createCache("single", 256);
+        long[] addresses = new long[5];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = single.allocate();
+            assertTrue(addresses[i] >= 0);
+        }
+        for (long address : addresses) {
+            single.free(address);
+        }
+        assertEquals(0, single.getObjectsInUse(), "弹匣满时应至少归还一个对象再放入");
+        single.drainMagazine();
+        assertArrayEquals(new int[]{0, 0, 1}, single.getSlabListSizes());
+    }
+
+    @Test
+    @DisplayName("测试拒绝会移动分区的底层管理器")
+    void testRejectsRelocatingBacking() {
+        DynamicPartitionManager compacting = new DynamicPartitionManager();
+        compacting.setAutoCompact(true);
+        assertThrows(IllegalArgumentException.class, () -> new SlabAllocator(compacting));
+
+        assertTrue(cache.allocate() >= 0);
+        dynamicManager.setAutoCompact(true);
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 17; i++) {
+                cache.allocate();
+            }
+        }, "创建之后开启自动紧凑时不应再申请slab");
+    }
+
+    @Test
+    @DisplayName("测试底层内存不足时分配失败")
+    void testBackingExhausted() {
+        assertTrue(dynamicManager.allocateMemory("Big", 124 * 1024 - 1024));
+        assertEquals(-1, cache.allocate(), "底层没有足够空间容纳一个slab时应返回-1");
+    }
+
+    @Test
+    @DisplayName("测试多线程通过弹匣并发分配和释放")
+    void testConcurrentAllocation() throws Exception {
+        ConcurrentHashMap<Long, Boolean> live = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        List<Long> mine = new ArrayList<>();
+                        for (int i = 0; i < 50; i++) {
+                            long address = cache.allocate();
+                            assertTrue(address >= 0);
+                            assertNull(live.putIfAbsent(address, Boolean.TRUE), "同一对象不能同时分配给两个调用者");
+                            mine.add(address);
+                        }
+                        for (long address : mine) {
+                            live.remove(address);
+                            cache.free(address);
+                        }
+                    }
+                    cache.drainMagazine();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, cache.getObjectsInUse());
+        assertEquals(0, cache.getSlabListSizes()[0] + cache.getSlabListSizes()[1], "所有对象归还后不应有非空slab");
+    }
+}
@@ -0,0 +1,85 @@
+package com.memorymanagement.service;
+
+import com.memorymanagement.model.MemoryStatistics;
+import com.memorymanagement.model.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TLSF内存管理器测试类
+ * 测试分割、边界标记合并以及大内存下的随机分配和释放
+ */
+public class TlsfMemoryManagerTest {
+    private static final long OS_MEMORY = 4 * 1024;
+
+    @Test
+    @DisplayName("测试TLSF分割和合并")
+    void testSplitAndCoalesce() {
+        TlsfMemoryManager manager = new TlsfMemoryManager();
+        assertTrue(manager.allocateMemory("A", 1000));
+        assertEquals(OS_MEMORY, manager.getAllocatedPartition("A").getStartAddress());
+        assertEquals(1008, manager.getAllocatedPartition("A").getSize(), "申请大小应向上取整到16字节");
+        assertTrue(manager.allocateMemory("B", 2048));
+        assertTrue(manager.allocateMemory("C", 2048));
+        assertFalse(manager.allocateMemory("A", 16), "作业名称不能重复");
+        assertEquals(4, manager.getMemoryStatus().size());
+
+        // 释放中间的块后前后都不是空闲块，不合并
+        assertTrue(manager.releaseMemory("B"));
+        assertEquals(2, manager.getStatistics().getFreeBlockCount());
+        // 释放A后与B的空闲块合并，释放C后与前后两块合并为整个用户区域
+        assertTrue(manager.releaseMemory("A"));
+        assertEquals(2, manager.getStatistics().getFreeBlockCount());
+        assertTrue(manager.releaseMemory("C"));
+        assertFalse(manager.releaseMemory("C"));
+        List<Partition> partitions = manager.getMemoryStatus();
+        assertEquals(1, partitions.size());
+        assertEquals(124 * 1024, partitions.get(0).getSize());
+        assertTrue(manager.allocateMemory("Whole", 124 * 1024), "合并后应能分配整个用户区域");
+        assertFalse(manager.allocateMemory("More", 16));
+    }
+
+    @Test
+    @DisplayName("测试TLSF在8G内存上随机分配和释放")
+    void testRandomOperationsOnLargeMemory() {
+        long totalMemory = 8L << 30;
+        TlsfMemoryManager manager = new TlsfMemoryManager(totalMemory, OS_MEMORY);
+        Random random = new Random(7);
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                String jobName = "J" + i;
+                assertTrue(manager.allocateMemory(jobName, 1 + (long) random.nextInt(1 << 20)));
+                live.add(jobName);
+            } else {
+                assertTrue(manager.releaseMemory(live.remove(random.nextInt(live.size()))));
+            }
+        }
+
+        // 分区首尾相接地覆盖整个用户区域，且不存在相邻的空闲分区
+        long expectedStart = OS_MEMORY;
+        boolean previousFree = false;
+        for (Partition partition : manager.getMemoryStatus()) {
+            assertEquals(expectedStart, partition.getStartAddress());
+            boolean free = "free".equals(partition.getStatus());
+            assertFalse(previousFree && free, "相邻的空闲块应已合并");
+            previousFree = free;
+            expectedStart += partition.getSize();
+        }
+        assertEquals(totalMemory, expectedStart);
+        MemoryStatistics statistics = manager.getStatistics();
+        assertEquals(live.size(), statistics.getAllocatedCount());
+
+        for (String jobName : live) {
+            assertTrue(manager.releaseMemory(jobName));
+        }
+        assertEquals(1, manager.getStatistics().getFreeBlockCount());
+        assertEquals(totalMemory - OS_MEMORY, manager.getStatistics().getLargestFreeBlock());
+    }
+}
@@ -0,0 +1,106 @@
+package com.memorymanagement.trace;
+
+import com.memorymanagement.service.DynamicPartitionManager;
+import com.memorymanagement.service.PlacementPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 轨迹回放测试类
+ * 测试轨迹文件读写、合成轨迹生成、回放统计以及命令行输出
+ */
+public class TraceReplayerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("测试合成轨迹可重现且能写出后原样读回")
+    void testGeneratorRoundTrip() throws IOException {
+        TraceGenerator generator = new TraceGenerator(7);
+        generator.setAllocationCount(500);
+        generator.setSizeRange(100, 4000);
+        List<TraceEvent> first = new ArrayList<>();
+        generator.forEach(first::add);
+        assertEquals(1000, first.size(), "每个作业都应有一个分配和一个释放事件");
+
+        Path file = tempDir.resolve("trace.csv");
+        try (TraceWriter writer = TraceWriter.create(file)) {
+            assertEquals(1000, writer.writeAll(generator), "同一生成器再次生成的序列应相同");
+        }
+        try (TraceReader reader = TraceReader.open(file)) {
+            for (TraceEvent expected : first) {
+                TraceEvent actual = reader.next();
+                assertEquals(expected.getTime(), actual.getTime());
+                assertEquals(expected.getType(), actual.getType());
+                assertEquals(expected.getJobName(), actual.getJobName());
+                assertEquals(expected.getSize(), actual.getSize());
+                assertTrue(expected.getType() == TraceEvent.Type.FREE
+                        || expected.getSize() >= 100 && expected.getSize() <= 4000);
+            }
+            assertFalse(reader.hasNext());
+        }
+
+        TraceReader bad = new TraceReader(new StringReader("5,alloc,A,10\n3,free,A\n"));
+        bad.next();
+        assertThrows(IllegalArgumentException.class, bad::hasNext, "时刻倒退时应报告格式错误");
+    }
+
+    @Test
+    @DisplayName("测试回放统计分配失败并跳过对应的释放")
+    void testReplayCountsFailures() {
+        TraceReader trace = new TraceReader(new StringReader(String.join("\n",
+                "# 时刻,事件,作业,大小",
+                "0,alloc,A,65536",
+                "1,alloc,B,65536",
+                "2,free,B",
+                "3,free,A",
+                "4,alloc,C,1024")));
+        TraceReplayer replayer = new TraceReplayer();
+        replayer.setSampleInterval(1);
+        ReplayResult result = replayer.replay("first-fit", new DynamicPartitionManager(PlacementPolicy.FIRST_FIT), trace);
+
+        assertEquals(5, result.getEvents());
+        assertEquals(2, result.getAllocations());
+        assertEquals(1, result.getFailedAllocations(), "124K用户区域放不下两个64K作业");
+        assertEquals(1, result.getSkippedReleases(), "分配失败的作业的释放事件应被跳过");
+        assertEquals(1, result.getReleases());
+        assertEquals(65536, result.getPeakLiveBytes());
+        assertEquals(1.0 / 3, result.getFailureRate(), 1e-9);
+        assertEquals(3, result.getAllocationLatency().getCount());
+        assertTrue(result.getAllocationLatency().getPercentile(99) <= result.getAllocationLatency().getMax());
+    }
+
+    @Test
+    @DisplayName("测试命令行比较多个内存管理器")
+    void testCommandLineComparison() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = TraceReplayer.run(new String[]{
+                "--seed", "3", "--allocations", "2000", "--memory", "1M", "--os", "4K",
+                "--layout", "200x1K,100x4K,20x16K", "--format", "csv"},
+                new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+
+        assertEquals(0, exitCode, "回放应成功: " + err.toString("UTF-8"));
+        String[] lines = out.toString("UTF-8").trim().split("\\R");
+        assertEquals(10, lines.length, "应输出表头和九个内存管理器的结果");
+        assertTrue(lines[0].startsWith("manager,events,allocations,failedAllocations"));
+        assertTrue(lines[1].startsWith("fixed,4000,"), "每个管理器都应回放全部事件");
+        assertTrue(lines[7].startsWith("buddy,4000,"));
+        assertTrue(lines[8].startsWith("bitmap,4000,"));
+        assertTrue(lines[9].startsWith("tlsf,4000,"));
+
+        assertEquals(1, TraceReplayer.run(new String[]{"--managers", "unknown"},
+                new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8")));
+    }
+}
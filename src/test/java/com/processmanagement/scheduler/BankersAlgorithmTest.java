@@ -0,0 +1,108 @@
+package com.processmanagement.scheduler;
+
+import com.processmanagement.model.PCB;
+import com.processmanagement.model.ProcessState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 银行家算法测试类
+ * 测试安全性检查以及调度器基于银行家算法的进程接纳控制
+ */
+public class BankersAlgorithmTest {
+
+    /**
+     * 构造教材中的经典例子：三类资源总量为(10,5,7)，五个进程的最大需求和已分配量如下，
+     * 此时可用量为(3,3,2)，系统处于安全状态
+     */
+    private BankersAlgorithm textbookExample() {
+        BankersAlgorithm banker = new BankersAlgorithm(new int[]{10, 5, 7});
+        int[][] max = {{7, 5, 3}, {3, 2, 2}, {9, 0, 2}, {2, 2, 2}, {4, 3, 3}};
+        int[][] allocation = {{0, 1, 0}, {2, 0, 0}, {3, 0, 2}, {2, 1, 1}, {0, 0, 2}};
+        for (int i = 0; i < max.length; i++) {
+            banker.register(i, max[i]);
+        }
+        for (int i = 0; i < allocation.length; i++) {
+            assertEquals(BankersAlgorithm.RequestResult.GRANTED, banker.request(i, allocation[i]));
+        }
+        return banker;
+    }
+
+    @Test
+    @DisplayName("测试经典例子中的安全性检查")
+    void testTextbookExample() {
+        BankersAlgorithm banker = textbookExample();
+        assertTrue(banker.isSafe());
+        assertArrayEquals(new int[]{3, 3, 2}, banker.getAvailable());
+
+        assertEquals(BankersAlgorithm.RequestResult.GRANTED, banker.request(1, new int[]{1, 0, 2}),
+                "P1的申请分配后仍然安全");
+        assertArrayEquals(new int[]{2, 3, 0}, banker.getAvailable());
+        assertEquals(BankersAlgorithm.RequestResult.UNAVAILABLE, banker.request(4, new int[]{3, 3, 0}),
+                "可用资源不足时P4必须等待");
+        assertEquals(BankersAlgorithm.RequestResult.UNSAFE, banker.request(0, new int[]{0, 2, 0}),
+                "P0的申请会使系统进入不安全状态");
+        assertArrayEquals(new int[]{2, 3, 0}, banker.getAvailable(), "被拒绝的申请不应改变可用量");
+        assertArrayEquals(new int[]{7, 4, 3}, banker.getNeed(0));
+
+        assertThrows(IllegalArgumentException.class, () -> banker.request(3, new int[]{1, 1, 2}),
+                "申请量超过尚需量时应抛出异常");
+
+        // P1执行完成并归还资源后，P0的同一申请变为安全
+        assertTrue(banker.unregister(1));
+        assertEquals(BankersAlgorithm.RequestResult.GRANTED, banker.request(0, new int[]{0, 2, 0}));
+    }
+
+    @Test
+    @DisplayName("测试调度器只接纳申请安全的进程")
+    void testSchedulerAdmission() {
+        ProcessScheduler scheduler = new ProcessScheduler();
+        scheduler.setSchedulingStrategy(SchedulingStrategy.FCFS);
+        scheduler.enableResourceControl(new int[]{3});
+
+        PCB first = scheduler.createProcess("A", 1, 2, new int[]{3}, new int[]{2});
+        assertEquals(ProcessState.READY, first.getState());
+        assertArrayEquals(new int[]{2}, first.getAllocation());
+
+        // 再分配1个资源后A和B都可能还需要1个资源而无法完成，因此B不能被接纳
+        PCB second = scheduler.createProcess("B", 1, 1, new int[]{2}, new int[]{1});
+        assertEquals(ProcessState.NEW, second.getState());
+        assertEquals(1, scheduler.getPendingRequestCount());
+        assertEquals(1, scheduler.getReadyQueueSize());
+
+        scheduler.schedule();
+        scheduler.advanceTime();
+        scheduler.advanceTime();
+        assertEquals(ProcessState.TERMINATED, first.getState());
+        assertEquals(0, scheduler.getPendingRequestCount(), "A归还资源后B应被接纳");
+        assertNotEquals(ProcessState.NEW, second.getState());
+        assertArrayEquals(new int[]{1}, second.getAllocation());
+
+        scheduler.advanceTime();
+        assertEquals(ProcessState.TERMINATED, second.getState());
+        assertEquals(0, scheduler.getUnfinishedProcessCount());
+    }
+
+    @Test
+    @DisplayName("测试运行中进程的申请不安全时进入等待")
+    void testRequestBlocksRunningProcess() {
+        ProcessScheduler scheduler = new ProcessScheduler();
+        scheduler.setSchedulingStrategy(SchedulingStrategy.FCFS);
+        scheduler.enableResourceControl(new int[]{3});
+
+        PCB first = scheduler.createProcess("A", 1, 3, new int[]{3}, new int[]{2});
+        PCB second = scheduler.createProcess("B", 1, 3, new int[]{2}, new int[]{0});
+        scheduler.schedule();
+
+        assertEquals(BankersAlgorithm.RequestResult.UNSAFE,
+                scheduler.requestResources(second.getPid(), new int[]{1}));
+        assertEquals(ProcessState.WAITING, second.getState());
+
+        assertTrue(scheduler.releaseResources(first.getPid(), new int[]{2}));
+        assertEquals(ProcessState.READY, second.getState(), "A释放资源后B的申请应被批准");
+        assertArrayEquals(new int[]{1}, second.getAllocation());
+        assertNull(scheduler.requestResources(99, new int[]{1}));
+    }
+}
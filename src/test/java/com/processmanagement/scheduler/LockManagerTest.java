@@ -0,0 +1,118 @@
+package com.processmanagement.scheduler;
+
+import com.processmanagement.model.LockOperation;
+import com.processmanagement.model.PCB;
+import com.processmanagement.model.ProcessState;
+import com.processmanagement.model.SimulatedLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 模拟锁测试类
+ * 测试锁资源引起的阻塞、优先级继承协议以及基于等待图的死锁检测
+ */
+public class LockManagerTest {
+    private ProcessScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ProcessScheduler();
+        scheduler.setSchedulingStrategy(SchedulingStrategy.PRIORITY);
+        scheduler.setPreemptive(true);
+    }
+
+    /**
+     * 构造经典的优先级反转场景：
+     * 低优先级进程L持有锁时被高优先级进程H抢占，H请求该锁被阻塞，
+     * 随后中优先级进程M占用CPU，使H间接地等待M
+     *
+     * @return 高优先级进程H
+     */
+    private PCB runInversionScenario() {
+        SimulatedLock lock = scheduler.createLock("mutex", 1);
+        PCB low = scheduler.createProcess("L", 1, 6);
+        scheduler.addLockOperation(low.getPid(), 0, lock.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(low.getPid(), 4, lock.getLockId(), LockOperation.Type.RELEASE);
+        scheduler.advanceTime();
+        scheduler.advanceTime();
+
+        PCB high = scheduler.createProcess("H", 9, 3);
+        scheduler.addLockOperation(high.getPid(), 1, lock.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(high.getPid(), 2, lock.getLockId(), LockOperation.Type.RELEASE);
+        scheduler.createProcess("M", 5, 10);
+
+        for (int i = 0; i < 30; i++) {
+            scheduler.advanceTime();
+        }
+        return high;
+    }
+
+    @Test
+    @DisplayName("测试无协议时出现优先级反转")
+    void testPriorityInversionWithoutProtocol() {
+        PCB high = runInversionScenario();
+        assertEquals(ProcessState.TERMINATED, high.getState(), "H最终应完成");
+        assertTrue(high.getBlockedTime() > 10, "H应被中优先级进程间接阻塞很长时间");
+    }
+
+    @Test
+    @DisplayName("测试优先级继承缩短阻塞时间")
+    void testPriorityInheritance() {
+        scheduler.setLockProtocol(LockProtocol.PRIORITY_INHERITANCE);
+        PCB high = runInversionScenario();
+        assertEquals(ProcessState.TERMINATED, high.getState(), "H最终应完成");
+        assertEquals(2, high.getBlockedTime(), "L继承H的优先级后应尽快释放锁");
+        assertEquals(1, scheduler.getLockManager().getBlockCount(), "只应发生一次阻塞");
+    }
+
+    @Test
+    @DisplayName("测试修改优先级后重新计算锁的天花板")
+    void testCeilingFollowsPriorityUpdate() {
+        scheduler.setLockProtocol(LockProtocol.PRIORITY_CEILING);
+        SimulatedLock lock = scheduler.createLock("mutex", 1);
+        PCB low = scheduler.createProcess("L", 1, 6);
+        scheduler.addLockOperation(low.getPid(), 0, lock.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(low.getPid(), 4, lock.getLockId(), LockOperation.Type.RELEASE);
+        scheduler.advanceTime();
+        scheduler.advanceTime();
+        assertEquals(1, lock.getHolders().size(), "L应已持有锁");
+        PCB other = scheduler.createProcess("H", 2, 3);
+        scheduler.addLockOperation(other.getPid(), 1, lock.getLockId(), LockOperation.Type.ACQUIRE);
+        assertEquals(2, low.getEffectivePriority(), "L持锁时应提升到锁的天花板");
+
+        assertTrue(scheduler.updateProcessPriority(other.getPid(), 9));
+        assertEquals(9, lock.getCeiling(), "将要获取该锁的进程优先级提高后天花板应随之提高");
+        assertEquals(9, low.getEffectivePriority(), "持锁进程应提升到新的天花板");
+    }
+
+    @Test
+    @DisplayName("测试等待图死锁检测")
+    void testDeadlockDetection() {
+        scheduler = new ProcessScheduler(2);
+        scheduler.setSchedulingStrategy(SchedulingStrategy.FCFS);
+        SimulatedLock first = scheduler.createLock("first", 1);
+        SimulatedLock second = scheduler.createLock("second", 1);
+
+        PCB a = scheduler.createProcess("A", 1, 5);
+        PCB b = scheduler.createProcess("B", 1, 5);
+        scheduler.addLockOperation(a.getPid(), 0, first.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(a.getPid(), 1, second.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(b.getPid(), 0, second.getLockId(), LockOperation.Type.ACQUIRE);
+        scheduler.addLockOperation(b.getPid(), 1, first.getLockId(), LockOperation.Type.ACQUIRE);
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.advanceTime();
+        }
+        assertEquals(ProcessState.WAITING, a.getState(), "A应等待B持有的锁");
+        assertEquals(ProcessState.WAITING, b.getState(), "B应等待A持有的锁");
+        assertTrue(scheduler.getLockManager().hasDeadlock(), "应检测到死锁");
+        assertEquals(2, scheduler.getLockManager().getDeadlocks().get(0).size(), "死锁环路应包含两个进程");
+
+        // 销毁其中一个进程后死锁解除
+        scheduler.destroyProcess(a.getPid());
+        assertEquals(ProcessState.READY, b.getState(), "B应获得锁并回到就绪状态");
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+
 /**
  * 进程调度算法测试类
  * 测试进程调度的基本功能：
@@ -14,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * 2. 进程状态转换
  * 3. 进程优先级和执行时间修改
  * 4. 调度策略切换
+ * 5. 多CPU组调度
  */
 public class ProcessSchedulerTest {
     private ProcessScheduler scheduler;
@@ -134,4 +137,71 @@ public class ProcessSchedulerTest {
         assertTrue(scheduler.updateProcessTotalTime(process.getPid(), 15), "执行时间修改应成功");
         assertEquals(15, process.getTotalTime(), "执行时间应更新为新值");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试组调度同一进程组同时运行")
+    void testGangScheduling() {
+        scheduler = new ProcessScheduler(4);
+        scheduler.setSchedulingStrategy(SchedulingStrategy.GANG);
+
+        List<PCB> groupA = scheduler.createProcessGroup("A", 3, 5, 4);
+        List<PCB> groupB = scheduler.createProcessGroup("B", 2, 5, 2);
+        PCB single = scheduler.createProcess("C", 5, 2);
+
+        // A和C共用第一行时隙，B单独占用第二行
+        assertEquals(2, scheduler.getGangMatrix().getSlotCount(), "应使用两行时隙");
+        assertEquals(0.25, scheduler.getGangMatrix().getFragmentation(), 1e-9, "两行共8列中应有2列空闲");
+
+        scheduler.advanceTime();
+        groupA.forEach(p -> assertEquals(ProcessState.RUNNING, p.getState(), "进程组A应同时运行"));
+        assertEquals(ProcessState.RUNNING, single.getState(), "C与A位于同一时隙");
+        groupB.forEach(p -> assertEquals(ProcessState.READY, p.getState(), "进程组B应等待下一时隙"));
+
+        // 时隙用完后整体切换到进程组B
+        scheduler.advanceTime();
+        scheduler.advanceTime();
+        assertEquals(ProcessState.TERMINATED, single.getState(), "C应已完成");
+        groupA.forEach(p -> assertEquals(ProcessState.READY, p.getState(), "进程组A应整体让出CPU"));
+        groupB.forEach(p -> assertEquals(ProcessState.RUNNING, p.getState(), "进程组B应同时运行"));
+        assertEquals(1.0, scheduler.getGangMatrix().getSlotUtilization(), 1e-9, "第一时隙内所有CPU都应忙碌");
+    }
+
+    @Test
+    @DisplayName("测试进程组成员数不能超过CPU数")
+    void testGangGroupTooLarge() {
+        scheduler = new ProcessScheduler(2);
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.createProcessGroup("Big", 3, 5, 4),
+                "成员数超过CPU数的进程组应被拒绝");
+    }
+
+    /**
+     * 以给定时间片运行两个各需8个时间单位的进程，返回时间片轮转下的CPU效率
+     */
+    private double runWithSwitchCost(int quantum) {
+        scheduler = new ProcessScheduler();
+        scheduler.setTimeSlice(quantum);
+        scheduler.getContextSwitchModel().setDispatchLatency(1);
+        scheduler.createProcess("A", 5, 8);
+        scheduler.createProcess("B", 5, 8);
+        scheduler.schedule();
+        while (scheduler.getUnfinishedProcessCount() > 0) {
+            scheduler.advanceTime();
+        }
+        return scheduler.getContextSwitchModel().getCpuEfficiency(SchedulingStrategy.ROUND_ROBIN);
+    }
+
+    @Test
+    @DisplayName("测试上下文切换开销使时间片大小影响CPU效率")
+    void testContextSwitchCost() {
+        double smallQuantum = runWithSwitchCost(2);
+        long smallSwitches = scheduler.getContextSwitchModel().getSwitchCount(SchedulingStrategy.ROUND_ROBIN);
+        assertEquals(8, smallSwitches, "时间片为2时两个进程交替运行应切换8次");
+        assertEquals(24, scheduler.getCurrentTime(), "16个时间单位的工作加上8次切换开销");
+
+        double largeQuantum = runWithSwitchCost(8);
+        assertEquals(2, scheduler.getContextSwitchModel().getSwitchCount(null));
+        assertEquals(16.0 / 18, largeQuantum, 1e-9);
+        assertTrue(largeQuantum > smallQuantum, "时间片越大切换越少，CPU效率越高");
+    }
+}
@@ -0,0 +1,80 @@
+package com.processmanagement.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量运行工具测试类
+ * 测试负载文件解析、指标输出以及事件日志
+ */
+public class BatchRunnerTest {
+    @TempDir
+    Path tempDir;
+
+    private Path writeWorkload() throws IOException {
+        Path workload = tempDir.resolve("workload.txt");
+        Files.write(workload, List.of(
+                "# 名称,优先级,执行时间,到达时间,进程组成员数",
+                "P1,1,5",
+                "P2,4,3,2",
+                "Gang,3,2,1,2"), StandardCharsets.UTF_8);
+        return workload;
+    }
+
+    @Test
+    @DisplayName("测试JSON指标输出")
+    void testJsonOutput() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = BatchRunner.run(new String[]{
+                "--workload", writeWorkload().toString(), "--strategy", "RR", "--cpus", "2"},
+                new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+
+        String json = out.toString("UTF-8");
+        assertEquals(0, exitCode, "批量运行应成功: " + err.toString("UTF-8"));
+        assertTrue(json.contains("\"strategy\": \"ROUND_ROBIN\""), "应输出调度策略");
+        assertTrue(json.contains("\"processes\": 4"), "进程组应展开为两个进程");
+        assertTrue(json.contains("\"finished\": 4"), "所有进程都应完成");
+    }
+
+    @Test
+    @DisplayName("测试CSV输出和事件日志")
+    void testCsvOutputWithEvents() throws IOException {
+        Path metrics = tempDir.resolve("metrics.csv");
+        Path events = tempDir.resolve("events.csv");
+        int exitCode = BatchRunner.run(new String[]{
+                "--workload", writeWorkload().toString(), "--strategy", "fcfs", "--cpus", "2",
+                "--format", "csv", "--output", metrics.toString(), "--events", events.toString()},
+                System.out, System.err);
+
+        assertEquals(0, exitCode, "批量运行应成功");
+        List<String> rows = Files.readAllLines(metrics, StandardCharsets.UTF_8);
+        assertTrue(rows.contains("strategy,FCFS"), "应输出调度策略");
+        assertTrue(rows.stream().anyMatch(r -> r.equals("1,P1,0,1,5,0,0,5,5,0,0")), "P1应在到达时立即开始并在时间5完成，无等待");
+
+        List<String> log = Files.readAllLines(events, StandardCharsets.UTF_8);
+        assertEquals("time,event,pid,name,cpu", log.get(0), "事件日志应包含表头");
+        assertEquals(4, log.stream().filter(r -> r.contains(",TERMINATE,")).count(), "每个进程都应有终止事件");
+    }
+
+    @Test
+    @DisplayName("测试缺少负载文件参数")
+    void testMissingWorkload() throws IOException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = BatchRunner.run(new String[]{"--strategy", "SJF"},
+                System.out, new PrintStream(err, true, "UTF-8"));
+        assertEquals(1, exitCode, "缺少负载文件时应返回错误码");
+        assertTrue(err.toString("UTF-8").contains("--workload"), "应提示需要负载文件");
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 页面置换算法测试类
@@ -164,4 +166,21 @@ public class PageReplacementAlgorithmTest {
         System.out.println("LFU缺页次数：" + lfuAlgorithm.getPageFaults());
         System.out.println("LFU置换页面序列：" + lfuAlgorithm.getReplacedPages());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("测试移除页面后空出的帧不需要置换")
+    void testRemovePage() {
+        for (PageReplacementAlgorithm algorithm : List.of(fifoAlgorithm, lruAlgorithm, lfuAlgorithm)) {
+            for (int page : new int[]{7, 0, 1}) {
+                algorithm.accessPage(page);
+            }
+            assertTrue(algorithm.removePage(0));
+            assertFalse(algorithm.removePage(0), "不在内存中的页面不能重复移除");
+            assertTrue(algorithm.accessPage(2), "访问新页面应缺页");
+            assertNull(algorithm.getLastReplacedPage(), "有空闲帧时不应置换页面");
+            assertEquals(Set.of(7, 1, 2), new HashSet<>(algorithm.getCurrentPages()));
+            assertEquals(4, algorithm.getPageFaults());
+            assertTrue(algorithm.getReplacedPages().isEmpty());
+        }
+    }
+}